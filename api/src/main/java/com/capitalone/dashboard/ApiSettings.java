@@ -3,6 +3,9 @@ package com.capitalone.dashboard;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Component
 @ConfigurationProperties
 public class ApiSettings {
@@ -12,6 +15,72 @@ public class ApiSettings {
      */
     private String key;
 
+    /**
+     * Seconds that browsers and intermediate proxies may reuse a widget data response
+     * before revalidating it with If-None-Match.
+     */
+    private int cacheMaxAge = 0;
+
+    /**
+     * Cache-Control visibility of widget data responses. Private keeps them out of shared
+     * proxies, which would otherwise serve one user's dashboard data to another; set it to
+     * public only when every client may see every dashboard.
+     */
+    private String cacheVisibility = "private";
+
+    /**
+     * Threads per widget service executor used by the asynchronous controllers.
+     */
+    private int asyncPoolSize = 10;
+
+    /**
+     * Requests that may wait for a widget service executor before new ones are shed.
+     */
+    private int asyncQueueSize = 100;
+
+    /**
+     * Milliseconds a request may wait for its widget service before it is shed.
+     */
+    private long asyncTimeout = 30000;
+
+    /**
+     * Seconds sent in the Retry-After header of shed requests.
+     */
+    private int retryAfter = 5;
+
+    /**
+     * Milliseconds the queries of one asynchronous request may take in total before the
+     * request fails. Zero turns the budget off.
+     */
+    private long queryBudget = 10000;
+
+    /**
+     * Query budgets overriding {@link #queryBudget} for individual widget service executors,
+     * keyed by executor name (build, commit, deploy, feature, quality, scope, test).
+     */
+    private Map<String, Long> queryBudgets = new HashMap<>();
+
+    /**
+     * Milliseconds after which a query is recorded as slow.
+     */
+    private long slowQueryThreshold = 1000;
+
+    /**
+     * Threads writing server-sent events to dashboard streams.
+     */
+    private int eventWriterThreads = 4;
+
+    /**
+     * Events that may wait to be written to one stream before the stream is closed.
+     */
+    private int eventMaxPending = 20;
+
+    /**
+     * Threads running scheduled jobs: the event poll and heartbeat, service checks and
+     * portfolio refreshes.
+     */
+    private int schedulerPoolSize = 4;
+
     public String getKey() {
         return key;
     }
@@ -19,4 +88,100 @@ public class ApiSettings {
     public void setKey(final String key) {
         this.key = key;
     }
+
+    public int getCacheMaxAge() {
+        return cacheMaxAge;
+    }
+
+    public void setCacheMaxAge(int cacheMaxAge) {
+        this.cacheMaxAge = cacheMaxAge;
+    }
+
+    public String getCacheVisibility() {
+        return cacheVisibility;
+    }
+
+    public void setCacheVisibility(String cacheVisibility) {
+        this.cacheVisibility = cacheVisibility;
+    }
+
+    public int getAsyncPoolSize() {
+        return asyncPoolSize;
+    }
+
+    public void setAsyncPoolSize(int asyncPoolSize) {
+        this.asyncPoolSize = asyncPoolSize;
+    }
+
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    public void setAsyncQueueSize(int asyncQueueSize) {
+        this.asyncQueueSize = asyncQueueSize;
+    }
+
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    public void setAsyncTimeout(long asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(int retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public long getQueryBudget() {
+        return queryBudget;
+    }
+
+    public void setQueryBudget(long queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    public Map<String, Long> getQueryBudgets() {
+        return queryBudgets;
+    }
+
+    public void setQueryBudgets(Map<String, Long> queryBudgets) {
+        this.queryBudgets = queryBudgets;
+    }
+
+    public long getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public int getEventWriterThreads() {
+        return eventWriterThreads;
+    }
+
+    public void setEventWriterThreads(int eventWriterThreads) {
+        this.eventWriterThreads = eventWriterThreads;
+    }
+
+    public int getEventMaxPending() {
+        return eventMaxPending;
+    }
+
+    public void setEventMaxPending(int eventMaxPending) {
+        this.eventMaxPending = eventMaxPending;
+    }
+
+    public int getSchedulerPoolSize() {
+        return schedulerPoolSize;
+    }
+
+    public void setSchedulerPoolSize(int schedulerPoolSize) {
+        this.schedulerPoolSize = schedulerPoolSize;
+    }
 }
@@ -3,6 +3,7 @@ package com.capitalone.dashboard;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.context.web.SpringBootServletInitializer;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.capitalone.dashboard.config.MongoConfig;
 import com.capitalone.dashboard.config.RestApiAppConfig;
@@ -12,6 +13,7 @@ import com.capitalone.dashboard.config.WebMVCConfig;
  * Application configuration and bootstrap
  */
 @SpringBootApplication
+@EnableScheduling
 public class Application extends SpringBootServletInitializer {
     @Override
     protected SpringApplicationBuilder configure(SpringApplicationBuilder application) {
@@ -2,21 +2,31 @@ package com.capitalone.dashboard.config;
 
 import com.capitalone.dashboard.mapper.CustomObjectMapper;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.DefaultServletHandlerConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
+import java.util.Collections;
 import java.util.List;
 
 @Configuration
 @EnableWebMvc
 @ComponentScan(basePackages = "com.capitalone.dashboard.rest")
 public class WebMVCConfig extends WebMvcConfigurerAdapter {
+
+    /**
+     * Binary JSON representation clients may request with an Accept header.
+     */
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
     @Override
     public void configureDefaultServletHandling(DefaultServletHandlerConfigurer configurer) {
         configurer.enable("api");
@@ -24,14 +34,23 @@ public class WebMVCConfig extends WebMvcConfigurerAdapter {
 
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // JSON stays first so that clients without a preference keep getting JSON
+        converters.add(jackson(new CustomObjectMapper()));
+
+        MappingJackson2HttpMessageConverter smile = jackson(new CustomObjectMapper(new SmileFactory()));
+        smile.setSupportedMediaTypes(Collections.singletonList(MediaType.valueOf(SMILE_VALUE)));
+        converters.add(smile);
+    }
+
+    private MappingJackson2HttpMessageConverter jackson(ObjectMapper objectMapper) {
         MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter();
 
-        jackson.setObjectMapper(new CustomObjectMapper());
+        jackson.setObjectMapper(objectMapper);
         jackson.getObjectMapper()
                 .disable(SerializationFeature.WRITE_NULL_MAP_VALUES)
                 .enable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)
                 .setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
-        converters.add(jackson);
+        return jackson;
     }
 }
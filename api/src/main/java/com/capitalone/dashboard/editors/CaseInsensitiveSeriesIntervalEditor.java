@@ -0,0 +1,15 @@
+package com.capitalone.dashboard.editors;
+
+import com.capitalone.dashboard.model.SeriesInterval;
+
+import java.beans.PropertyEditorSupport;
+
+/**
+ * Property editor that translates text into a SeriesInterval in a case insensitive manner.
+ */
+public class CaseInsensitiveSeriesIntervalEditor extends PropertyEditorSupport {
+    @Override
+    public void setAsText(String text) throws IllegalArgumentException {
+        setValue(SeriesInterval.fromString(text));
+    }
+}
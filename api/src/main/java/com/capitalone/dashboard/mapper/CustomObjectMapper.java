@@ -1,17 +1,29 @@
 package com.capitalone.dashboard.mapper;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 import org.bson.types.ObjectId;
 
 /**
- * Custom object mapper that knows how to serialize Mongo ObjectIds.
+ * Custom object mapper that knows how to serialize Mongo ObjectIds. Bean properties are
+ * accessed through generated bytecode rather than reflection.
  */
 public class CustomObjectMapper extends ObjectMapper {
 
     public CustomObjectMapper() {
+        this(null);
+    }
+
+    /**
+     * @param jsonFactory factory for the wire format, e.g. a SmileFactory; null for JSON
+     */
+    public CustomObjectMapper(JsonFactory jsonFactory) {
+        super(jsonFactory);
         SimpleModule module = new SimpleModule("ObjectIdModule");
         module.addSerializer(ObjectId.class, new ObjectIdSerializer());
         this.registerModule(module);
+        this.registerModule(new AfterburnerModule());
     }
 }
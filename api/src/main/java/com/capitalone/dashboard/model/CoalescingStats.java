@@ -0,0 +1,43 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * How often callers of one kind of query shared an in-flight execution instead of running
+ * their own.
+ */
+public class CoalescingStats {
+    private final String name;
+    private final long executed;
+    private final long coalesced;
+
+    public CoalescingStats(String name, long executed, long coalesced) {
+        this.name = name;
+        this.executed = executed;
+        this.coalesced = coalesced;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of queries actually run
+     */
+    public long getExecuted() {
+        return executed;
+    }
+
+    /**
+     * @return number of callers that were handed the result of a query already running
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return share of callers that did not run their own query, between 0 and 1
+     */
+    public double getRatio() {
+        long total = executed + coalesced;
+        return total == 0 ? 0 : (double) coalesced / total;
+    }
+}
@@ -0,0 +1,68 @@
+package com.capitalone.dashboard.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What became of the records in one bulk ingestion request.
+ */
+public class IngestResult {
+    static final int MAX_ERRORS = 20;
+
+    private int received;
+    private int inserted;
+    private int duplicates;
+    private int rejected;
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * @return non-blank lines read
+     */
+    public int getReceived() {
+        return received;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    /**
+     * @return records whose natural key was already stored, or appeared earlier in the request
+     */
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return records that could not be read, had no natural key, or were refused by the database
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return the first few reasons records were rejected
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void addReceived() {
+        received++;
+    }
+
+    public void addInserted(int count) {
+        inserted += count;
+    }
+
+    public void addDuplicates(int count) {
+        duplicates += count;
+    }
+
+    public void addRejected(int count, String error) {
+        rejected += count;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.capitalone.dashboard.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Nearest-rank percentiles of a set of lead times, in milliseconds.
+ */
+public class LeadTimePercentiles {
+    private final int count;
+    private final long p50;
+    private final long p75;
+    private final long p90;
+    private final long p95;
+    private final long max;
+
+    public LeadTimePercentiles(List<Long> leadTimes) {
+        List<Long> sorted = new ArrayList<>(leadTimes);
+        Collections.sort(sorted);
+        this.count = sorted.size();
+        this.p50 = percentile(sorted, 50);
+        this.p75 = percentile(sorted, 75);
+        this.p90 = percentile(sorted, 90);
+        this.p95 = percentile(sorted, 95);
+        this.max = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1);
+    }
+
+    /**
+     * @return number of changes the percentiles were computed from
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP75() {
+        return p75;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    private static long percentile(List<Long> sorted, int percent) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+}
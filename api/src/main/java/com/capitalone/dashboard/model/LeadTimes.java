@@ -0,0 +1,28 @@
+package com.capitalone.dashboard.model;
+
+import java.util.Map;
+
+/**
+ * Lead times of the changes to a component: from commit to the first build containing the
+ * change, and from commit to the first deployment of that build to each environment.
+ */
+public class LeadTimes {
+    private final LeadTimePercentiles commitToBuild;
+    private final Map<String, LeadTimePercentiles> commitToDeploy;
+
+    public LeadTimes(LeadTimePercentiles commitToBuild, Map<String, LeadTimePercentiles> commitToDeploy) {
+        this.commitToBuild = commitToBuild;
+        this.commitToDeploy = commitToDeploy;
+    }
+
+    public LeadTimePercentiles getCommitToBuild() {
+        return commitToBuild;
+    }
+
+    /**
+     * @return percentiles keyed by environment name
+     */
+    public Map<String, LeadTimePercentiles> getCommitToDeploy() {
+        return commitToDeploy;
+    }
+}
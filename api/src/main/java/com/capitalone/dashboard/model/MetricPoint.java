@@ -0,0 +1,25 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * Value of a code quality metric at the start of a day or week.
+ */
+public class MetricPoint {
+    private final long timestamp;
+    private final Object value;
+
+    public MetricPoint(long timestamp, Object value) {
+        this.timestamp = timestamp;
+        this.value = value;
+    }
+
+    /**
+     * @return start of the UTC day or week the value was last reported in
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+}
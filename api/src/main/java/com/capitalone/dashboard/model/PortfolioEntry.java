@@ -0,0 +1,146 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Build health, deployment currency and code quality of one dashboard, rolled up from the
+ * {@link CollectorItemSummary}s of its components.
+ */
+public class PortfolioEntry {
+    private ObjectId dashboardId;
+    private String title;
+    private String owner;
+    private String applicationName;
+
+    private BuildStatus lastBuildStatus;
+    private long lastBuildTime;
+    private int recentBuildCount;
+    private int recentSuccessCount;
+
+    private int componentCount;
+    private int deployedCount;
+    private long lastDeployed;
+
+    private long qualityTimestamp;
+    private Set<CodeQualityMetric> metrics = new HashSet<>();
+
+    public ObjectId getDashboardId() {
+        return dashboardId;
+    }
+
+    public void setDashboardId(ObjectId dashboardId) {
+        this.dashboardId = dashboardId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    /**
+     * @return status of the build that finished last across the dashboard's build jobs
+     */
+    public BuildStatus getLastBuildStatus() {
+        return lastBuildStatus;
+    }
+
+    public void setLastBuildStatus(BuildStatus lastBuildStatus) {
+        this.lastBuildStatus = lastBuildStatus;
+    }
+
+    public long getLastBuildTime() {
+        return lastBuildTime;
+    }
+
+    public void setLastBuildTime(long lastBuildTime) {
+        this.lastBuildTime = lastBuildTime;
+    }
+
+    public int getRecentBuildCount() {
+        return recentBuildCount;
+    }
+
+    public void setRecentBuildCount(int recentBuildCount) {
+        this.recentBuildCount = recentBuildCount;
+    }
+
+    public int getRecentSuccessCount() {
+        return recentSuccessCount;
+    }
+
+    public void setRecentSuccessCount(int recentSuccessCount) {
+        this.recentSuccessCount = recentSuccessCount;
+    }
+
+    /**
+     * @return share of recent builds that succeeded, between 0 and 1, or null without recent builds
+     */
+    public Double getBuildSuccessRate() {
+        return recentBuildCount == 0 ? null : (double) recentSuccessCount / recentBuildCount;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public void setComponentCount(int componentCount) {
+        this.componentCount = componentCount;
+    }
+
+    public int getDeployedCount() {
+        return deployedCount;
+    }
+
+    public void setDeployedCount(int deployedCount) {
+        this.deployedCount = deployedCount;
+    }
+
+    public long getLastDeployed() {
+        return lastDeployed;
+    }
+
+    public void setLastDeployed(long lastDeployed) {
+        this.lastDeployed = lastDeployed;
+    }
+
+    public long getQualityTimestamp() {
+        return qualityTimestamp;
+    }
+
+    public void setQualityTimestamp(long qualityTimestamp) {
+        this.qualityTimestamp = qualityTimestamp;
+    }
+
+    /**
+     * @return metrics of the most recent code quality snapshot across the dashboard's projects
+     */
+    public Set<CodeQualityMetric> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Set<CodeQualityMetric> metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,55 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * How long the queries run for one endpoint took, and how many were slow or ran out of budget.
+ */
+public class QueryStats {
+    private final String endpoint;
+    private final long queries;
+    private final long slow;
+    private final long exceeded;
+    private final long totalMillis;
+    private final long maxMillis;
+
+    public QueryStats(String endpoint, long queries, long slow, long exceeded, long totalMillis, long maxMillis) {
+        this.endpoint = endpoint;
+        this.queries = queries;
+        this.slow = slow;
+        this.exceeded = exceeded;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return number of queries completed
+     */
+    public long getQueries() {
+        return queries;
+    }
+
+    /**
+     * @return number of completed queries that took longer than the slow query threshold
+     */
+    public long getSlow() {
+        return slow;
+    }
+
+    /**
+     * @return number of queries stopped because their request ran out of budget
+     */
+    public long getExceeded() {
+        return exceeded;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public long getAverageMillis() {
+        return queries == 0 ? 0 : totalMillis / queries;
+    }
+}
@@ -0,0 +1,18 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * Interval of the points of a metric series. Each point holds the last value reported in
+ * its interval.
+ */
+public enum SeriesInterval {
+    Day, Week;
+
+    public static SeriesInterval fromString(String value) {
+        for (SeriesInterval interval : values()) {
+            if (interval.toString().equalsIgnoreCase(value)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException(value + " is not a valid SeriesInterval.");
+    }
+}
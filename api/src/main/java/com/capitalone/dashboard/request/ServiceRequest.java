@@ -1,11 +1,13 @@
 package com.capitalone.dashboard.request;
 
 import com.capitalone.dashboard.model.Service;
+import com.capitalone.dashboard.model.ServiceCheck;
 import com.capitalone.dashboard.model.ServiceStatus;
 
 public class ServiceRequest {
     private ServiceStatus status;
     private String message;
+    private ServiceCheck check;
 
     public ServiceStatus getStatus() {
         return status;
@@ -23,9 +25,25 @@ public class ServiceRequest {
         this.message = message;
     }
 
+    /**
+     * @return how to check the service, a check without a URL to stop checking it, or null
+     *         to leave it as it is
+     */
+    public ServiceCheck getCheck() {
+        return check;
+    }
+
+    public void setCheck(ServiceCheck check) {
+        this.check = check;
+    }
+
     public Service update(Service service) {
         service.setStatus(status);
         service.setMessage(message);
+        if (check != null) {
+            boolean noUrl = check.getUrl() == null || check.getUrl().trim().isEmpty();
+            service.setCheck(noUrl ? null : check);
+        }
         return service;
     }
 }
@@ -0,0 +1,135 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.repository.QueryBudget;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs controller work off the servlet container threads. Each pool (one per widget
+ * service) has a fixed number of threads and a bounded queue, so a slow query on one
+ * widget type cannot starve requests for the others. Work that does not fit is rejected
+ * with a {@link ServerBusyException}, which the API answers with 503 and Retry-After.
+ * <p>
+ * The work runs under the {@link QueryBudget} configured for its pool, so a query that
+ * would hold a thread for too long is stopped by Mongo instead. Work whose request times
+ * out is cancelled, which interrupts its thread or takes it off the queue.
+ */
+@Component
+public class AsyncRequestExecutor {
+
+    private final ApiSettings apiSettings;
+    private final ConcurrentMap<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AsyncRequestExecutor(ApiSettings apiSettings) {
+        this.apiSettings = apiSettings;
+    }
+
+    /**
+     * Queues work on the named pool.
+     *
+     * @param pool name of the pool, usually the widget service the work queries
+     * @param task work producing the response body
+     * @return result completed when the work finishes, fails or times out
+     * @throws ServerBusyException if the pool and its queue are full
+     */
+    public <T> DeferredResult<T> submit(final String pool, final Callable<T> task) {
+        final DeferredResult<T> result = new DeferredResult<>(apiSettings.getAsyncTimeout());
+        final ThreadPoolExecutor executor = executor(pool);
+        final AtomicReference<Future<?>> future = new AtomicReference<>();
+        result.onTimeout(new Runnable() {
+            @Override
+            public void run() {
+                result.setErrorResult(new ServerBusyException(
+                        "Timed out waiting for " + pool, apiSettings.getRetryAfter()));
+
+                // Give the thread or queue slot back instead of finishing work nobody waits for
+                Future<?> running = future.get();
+                if (running != null) {
+                    running.cancel(true);
+                    executor.remove((Runnable) running);
+                }
+            }
+        });
+
+        try {
+            future.set(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    if (result.isSetOrExpired()) {
+                        return;
+                    }
+                    long budget = queryBudget(pool);
+                    if (budget > 0) {
+                        QueryBudget.start(pool, budget);
+                    }
+                    try {
+                        result.setResult(task.call());
+                    } catch (Exception e) {
+                        result.setErrorResult(e);
+                    } finally {
+                        QueryBudget.clear();
+                    }
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            throw new ServerBusyException("Too many pending " + pool + " requests", apiSettings.getRetryAfter());
+        }
+
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    private long queryBudget(String pool) {
+        Long budget = apiSettings.getQueryBudgets().get(pool);
+        return budget == null ? apiSettings.getQueryBudget() : budget;
+    }
+
+    private ThreadPoolExecutor executor(String pool) {
+        ThreadPoolExecutor executor = executors.get(pool);
+        if (executor == null) {
+            ThreadPoolExecutor created = newExecutor(pool);
+            executor = executors.putIfAbsent(pool, created);
+            if (executor == null) {
+                executor = created;
+            } else {
+                created.shutdown();
+            }
+        }
+        return executor;
+    }
+
+    private ThreadPoolExecutor newExecutor(String pool) {
+        int queueSize = apiSettings.getAsyncQueueSize();
+        BlockingQueue<Runnable> queue = queueSize > 0
+                ? new ArrayBlockingQueue<Runnable>(queueSize)
+                : new SynchronousQueue<Runnable>();
+
+        return new ThreadPoolExecutor(apiSettings.getAsyncPoolSize(), apiSettings.getAsyncPoolSize(),
+                0L, TimeUnit.MILLISECONDS, queue,
+                new ThreadFactoryBuilder().setNameFormat(pool + "-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -1,5 +1,6 @@
 package com.capitalone.dashboard.rest;
 
+import com.capitalone.dashboard.config.WebMVCConfig;
 import com.capitalone.dashboard.editors.CaseInsensitiveBuildStatusEditor;
 import com.capitalone.dashboard.model.*;
 import com.capitalone.dashboard.request.BuildRequest;
@@ -10,8 +11,11 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
+import java.util.concurrent.Callable;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
@@ -19,12 +23,18 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 public class BuildController {
 
     private final BuildService buildService;
+    private final ResponseCacheSupport responseCacheSupport;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String SMILE = WebMVCConfig.SMILE_VALUE;
 
     @Autowired
-    public BuildController(BuildService buildService) {
+    public BuildController(BuildService buildService, ResponseCacheSupport responseCacheSupport,
+                           AsyncRequestExecutor asyncRequestExecutor) {
         this.buildService = buildService;
+        this.responseCacheSupport = responseCacheSupport;
+        this.asyncRequestExecutor = asyncRequestExecutor;
     }
 
     @InitBinder
@@ -32,8 +42,16 @@ public class BuildController {
         binder.registerCustomEditor(BuildStatus.class, new CaseInsensitiveBuildStatusEditor());
     }
 
-    @RequestMapping(value = "/build", method = GET, produces = JSON)
-    public DataResponse<Iterable<Build>> builds(@Valid BuildRequest request) {
-        return buildService.search(request);
+    @RequestMapping(value = "/build", method = GET, produces = {JSON, SMILE})
+    public DeferredResult<DataResponse<Iterable<Build>>> builds(@Valid final BuildRequest request, ServletWebRequest webRequest) {
+        if (responseCacheSupport.checkNotModified(webRequest, request.getComponentId(), CollectorType.Build)) {
+            return null;
+        }
+        return asyncRequestExecutor.submit("build", new Callable<DataResponse<Iterable<Build>>>() {
+            @Override
+            public DataResponse<Iterable<Build>> call() {
+                return buildService.search(request);
+            }
+        });
     }
 }
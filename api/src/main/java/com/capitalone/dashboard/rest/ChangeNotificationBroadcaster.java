@@ -0,0 +1,382 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.mapper.CustomObjectMapper;
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.capitalone.dashboard.repository.ChangeNotificationCursor;
+import com.capitalone.dashboard.service.ChangeNotificationService;
+import com.capitalone.dashboard.service.DashboardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoException;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the open server-sent event streams of dashboards and pushes change notifications
+ * to them. Streams are parked servlet async requests, so an idle dashboard costs a socket
+ * and a few objects rather than a container thread. A single scheduled poll reads new
+ * notifications for all streams from a tailable cursor and routes them through an index
+ * keyed by collector item id or team id.
+ * <p>
+ * Events are written on {@code eventWriterThreads} threads of their own, one write at a
+ * time per stream, so the scheduler thread shared with other jobs never waits on a client.
+ * A stream with {@code eventMaxPending} events still waiting to be written is closed; its
+ * client reconnects and refetches once it can keep up.
+ * <p>
+ * Dashboards with an open stream count as viewed, at subscription and on every heartbeat,
+ * so a dashboard left on a TV keeps its collector items in the hot polling tier.
+ */
+@Component
+public class ChangeNotificationBroadcaster {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeNotificationBroadcaster.class);
+
+    public static final String EVENT_STREAM = "text/event-stream";
+
+    private final ChangeNotificationService changeNotificationService;
+    private final DashboardService dashboardService;
+    private final ExecutorService writer;
+    private final int maxPending;
+    private final ObjectMapper objectMapper = new CustomObjectMapper();
+    private final ConcurrentMap<Object, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> streams = Collections.newSetFromMap(new ConcurrentHashMap<Subscriber, Boolean>());
+    private boolean started;
+    private ObjectId lastSeen;
+    private ChangeNotificationCursor cursor;
+
+    @Autowired
+    public ChangeNotificationBroadcaster(ChangeNotificationService changeNotificationService,
+                                         DashboardService dashboardService,
+                                         ApiSettings settings) {
+        this(changeNotificationService, dashboardService,
+                Executors.newFixedThreadPool(Math.max(1, settings.getEventWriterThreads()), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "event-writer-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }), settings.getEventMaxPending());
+    }
+
+    ChangeNotificationBroadcaster(ChangeNotificationService changeNotificationService,
+                                  DashboardService dashboardService, ExecutorService writer, int maxPending) {
+        this.changeNotificationService = changeNotificationService;
+        this.dashboardService = dashboardService;
+        this.writer = writer;
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    /**
+     * Opens an event stream on the given async request.
+     *
+     * @param dashboardId dashboard the stream is for
+     * @param keys subscription keys of the dashboard
+     * @param asyncContext started async context of the request
+     * @throws IOException if the stream preamble cannot be written
+     */
+    public void subscribe(ObjectId dashboardId, Set<Object> keys, AsyncContext asyncContext) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+        response.setContentType(EVENT_STREAM);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        asyncContext.setTimeout(0);
+        // Written on the request thread, so the client sees the stream open before any event
+        response.getOutputStream().write("retry: 10000\n\n".getBytes(StandardCharsets.UTF_8));
+        response.flushBuffer();
+
+        final Subscriber subscriber = new Subscriber(dashboardId, keys, asyncContext);
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                unsubscribe(subscriber);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                subscriber.close();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                subscriber.close();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // Not restarted
+            }
+        });
+
+        streams.add(subscriber);
+        for (Object key : keys) {
+            Set<Subscriber> forKey = subscribers.get(key);
+            if (forKey == null) {
+                Set<Subscriber> created = Collections.newSetFromMap(new ConcurrentHashMap<Subscriber, Boolean>());
+                forKey = subscribers.putIfAbsent(key, created);
+                if (forKey == null) {
+                    forKey = created;
+                }
+            }
+            forKey.add(subscriber);
+        }
+
+        dashboardService.recordAccess(dashboardId);
+    }
+
+    /**
+     * Reads notifications written since the last poll and sends each open stream the ones
+     * for its collector items and teams, batched into a single event.
+     */
+    @Scheduled(fixedDelayString = "${eventPollInterval:2000}")
+    public void poll() {
+        if (!started) {
+            // Start after what is already there; null reads everything written from now on
+            lastSeen = changeNotificationService.lastNotificationId();
+            started = true;
+        }
+
+        List<ChangeNotification> notifications;
+        try {
+            if (cursor == null || !cursor.isAlive()) {
+                closeCursor();
+                cursor = changeNotificationService.tailNotifications(lastSeen);
+            }
+            notifications = cursor.readAvailable();
+        } catch (MongoException e) {
+            LOGGER.warn("Lost the change notification cursor, reopening on the next poll", e);
+            closeCursor();
+            return;
+        }
+        if (notifications.isEmpty()) {
+            return;
+        }
+        // Read even with nobody to tell, so the position keeps up
+        lastSeen = notifications.get(notifications.size() - 1).getId();
+
+        Map<Subscriber, List<ChangeNotification>> deliveries = new HashMap<>();
+        for (ChangeNotification notification : notifications) {
+            Set<Subscriber> forKey = subscribers.get(subscriptionKey(notification));
+            if (forKey == null) {
+                continue;
+            }
+            for (Subscriber subscriber : forKey) {
+                List<ChangeNotification> batch = deliveries.get(subscriber);
+                if (batch == null) {
+                    batch = new ArrayList<>();
+                    deliveries.put(subscriber, batch);
+                }
+                batch.add(notification);
+            }
+        }
+
+        for (Map.Entry<Subscriber, List<ChangeNotification>> delivery : deliveries.entrySet()) {
+            send(delivery.getKey(), "id: " + lastSeen + "\nevent: change\ndata: " + toJson(delivery.getValue()) + "\n\n");
+        }
+    }
+
+    /**
+     * Writes a comment line to every stream so proxies keep idle connections open and
+     * streams of departed clients are detected and released.
+     */
+    @Scheduled(fixedRateString = "${eventHeartbeatInterval:30000}")
+    public void heartbeat() {
+        Set<ObjectId> viewed = new HashSet<>();
+        for (Subscriber subscriber : streams) {
+            if (send(subscriber, ":\n\n")) {
+                viewed.add(subscriber.dashboardId);
+            }
+        }
+        for (ObjectId dashboardId : viewed) {
+            dashboardService.recordAccess(dashboardId);
+        }
+    }
+
+    public int getStreamCount() {
+        return streams.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closeCursor();
+        writer.shutdownNow();
+    }
+
+    private void closeCursor() {
+        if (cursor != null) {
+            try {
+                cursor.close();
+            } catch (MongoException e) {
+                LOGGER.debug("Could not close the change notification cursor", e);
+            }
+            cursor = null;
+        }
+    }
+
+    /**
+     * Queues an event for a stream and makes sure a writer thread is draining it.
+     *
+     * @return false if the stream was closed, or has been for falling too far behind
+     */
+    private boolean send(final Subscriber subscriber, String event) {
+        if (!subscriber.enqueue(event, maxPending)) {
+            release(subscriber);
+            return false;
+        }
+        if (subscriber.claimWriter()) {
+            try {
+                writer.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!subscriber.drain()) {
+                            release(subscriber);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                release(subscriber);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void release(Subscriber subscriber) {
+        subscriber.close();
+        unsubscribe(subscriber);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        streams.remove(subscriber);
+        for (Object key : subscriber.keys) {
+            Set<Subscriber> forKey = subscribers.get(key);
+            if (forKey != null) {
+                forKey.remove(subscriber);
+                if (forKey.isEmpty()) {
+                    subscribers.remove(key, forKey);
+                }
+            }
+        }
+    }
+
+    private String toJson(List<ChangeNotification> notifications) {
+        try {
+            return objectMapper.writeValueAsString(notifications);
+        } catch (IOException e) {
+            LOGGER.error("Could not serialize change notifications", e);
+            return "[]";
+        }
+    }
+
+    private static Object subscriptionKey(ChangeNotification notification) {
+        return notification.getCollectorItemId() == null ? notification.getTeamId() : notification.getCollectorItemId();
+    }
+
+    private static final class Subscriber {
+        private final ObjectId dashboardId;
+        private final Set<Object> keys;
+        private final AsyncContext asyncContext;
+        private final Queue<String> pending = new ArrayDeque<>();
+        private boolean writing;
+        private boolean closed;
+
+        Subscriber(ObjectId dashboardId, Set<Object> keys, AsyncContext asyncContext) {
+            this.dashboardId = dashboardId;
+            this.keys = keys;
+            this.asyncContext = asyncContext;
+        }
+
+        /**
+         * @return false if the stream is closed or too far behind
+         */
+        synchronized boolean enqueue(String event, int maxPending) {
+            if (closed || pending.size() >= maxPending) {
+                return false;
+            }
+            pending.add(event);
+            return true;
+        }
+
+        /**
+         * @return true if no writer is draining the stream, in which case the caller starts one
+         */
+        synchronized boolean claimWriter() {
+            if (writing) {
+                return false;
+            }
+            writing = true;
+            return true;
+        }
+
+        /**
+         * Writes queued events until none are left. Only one thread drains a stream at a time,
+         * and it holds no lock while writing, so a blocked client holds up only its own stream.
+         *
+         * @return false if the client could not be written to
+         */
+        boolean drain() {
+            for (;;) {
+                String event;
+                synchronized (this) {
+                    event = pending.poll();
+                    if (event == null || closed) {
+                        writing = false;
+                        return !closed;
+                    }
+                }
+                try {
+                    asyncContext.getResponse().getOutputStream().write(event.getBytes(StandardCharsets.UTF_8));
+                    asyncContext.getResponse().flushBuffer();
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        writing = false;
+                    }
+                    return false;
+                }
+            }
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.capitalone.dashboard.rest;
 
+import com.capitalone.dashboard.config.WebMVCConfig;
 import com.capitalone.dashboard.editors.CaseInsensitiveCodeQualityTypeEditor;
+import com.capitalone.dashboard.editors.CaseInsensitiveSeriesIntervalEditor;
 import com.capitalone.dashboard.model.CodeQuality;
 import com.capitalone.dashboard.model.CodeQualityType;
+import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.MetricPoint;
+import com.capitalone.dashboard.model.SeriesInterval;
 import com.capitalone.dashboard.request.CodeQualityRequest;
 import com.capitalone.dashboard.service.CodeQualityService;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
@@ -21,21 +32,55 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 public class CodeQualityController {
 
     private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String SMILE = WebMVCConfig.SMILE_VALUE;
+    private static final int MAX_DAYS = 3 * 366;
+    // Longer series default to weekly points
+    private static final int MAX_DAILY_DAYS = 92;
 
     private final CodeQualityService codeQualityService;
+    private final ResponseCacheSupport responseCacheSupport;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @Autowired
-    public CodeQualityController(CodeQualityService codeQualityService) {
+    public CodeQualityController(CodeQualityService codeQualityService, ResponseCacheSupport responseCacheSupport,
+                                 AsyncRequestExecutor asyncRequestExecutor) {
         this.codeQualityService = codeQualityService;
+        this.responseCacheSupport = responseCacheSupport;
+        this.asyncRequestExecutor = asyncRequestExecutor;
     }
 
     @InitBinder
     public void initBinder(WebDataBinder binder) {
         binder.registerCustomEditor(CodeQualityType.class, new CaseInsensitiveCodeQualityTypeEditor());
+        binder.registerCustomEditor(SeriesInterval.class, new CaseInsensitiveSeriesIntervalEditor());
     }
 
-    @RequestMapping(value = "/quality", method = GET, produces = JSON)
-    public DataResponse<Iterable<CodeQuality>> qualityData(@Valid CodeQualityRequest request) {
-        return codeQualityService.search(request);
+    @RequestMapping(value = "/quality", method = GET, produces = {JSON, SMILE})
+    public DeferredResult<DataResponse<Iterable<CodeQuality>>> qualityData(@Valid final CodeQualityRequest request, ServletWebRequest webRequest) {
+        if (responseCacheSupport.checkNotModified(webRequest, request.getComponentId(), CollectorType.CodeQuality)) {
+            return null;
+        }
+        return asyncRequestExecutor.submit("quality", new Callable<DataResponse<Iterable<CodeQuality>>>() {
+            @Override
+            public DataResponse<Iterable<CodeQuality>> call() {
+                return codeQualityService.search(request);
+            }
+        });
+    }
+
+    /**
+     * Values of one metric over time, one point per day or per week. The interval defaults to
+     * days for up to three months and to weeks for longer ranges.
+     */
+    @RequestMapping(value = "/quality/series", method = GET, produces = {JSON, SMILE})
+    public DataResponse<List<MetricPoint>> metricSeries(@RequestParam(value = "componentId") ObjectId componentId,
+                                                        @RequestParam(value = "metric") String metric,
+                                                        @RequestParam(value = "numberOfDays", defaultValue = "90") int numberOfDays,
+                                                        @RequestParam(value = "interval", required = false) SeriesInterval interval) {
+        int days = Math.min(Math.max(numberOfDays, 1), MAX_DAYS);
+        if (interval == null) {
+            interval = days > MAX_DAILY_DAYS ? SeriesInterval.Week : SeriesInterval.Day;
+        }
+        return codeQualityService.getMetricSeries(componentId, metric, days, interval);
     }
 }
@@ -3,11 +3,13 @@ package com.capitalone.dashboard.rest;
 import com.capitalone.dashboard.editors.CaseInsensitiveCollectorTypeEditor;
 import com.capitalone.dashboard.model.Collector;
 import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemHealth;
 import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.request.CollectorItemRequest;
 import com.capitalone.dashboard.service.CollectorService;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +28,7 @@ public class CollectorController {
     private final CollectorService collectorService;
 
     private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final int MAX_PAGE_SIZE = 200;
 
     @Autowired
     public CollectorController(CollectorService collectorService) {
@@ -54,8 +57,35 @@ public class CollectorController {
         return ResponseEntity.ok(collectorService.getCollectorItem(id));
     }
 
+    /**
+     * When data was last fetched for a collector item, and whether its recent fetches failed.
+     * Not found until the item's collector has tried to fetch it.
+     */
+    @RequestMapping(value = "/collector/item/{id}/health", method = GET, produces = JSON)
+    public ResponseEntity<CollectorItemHealth> getCollectorItemHealth(@PathVariable ObjectId id) {
+        CollectorItemHealth health = collectorService.getCollectorItemHealth(id);
+        return health == null
+                ? new ResponseEntity<CollectorItemHealth>(HttpStatus.NOT_FOUND)
+                : ResponseEntity.ok(health);
+    }
+
     @RequestMapping(value = "/collector/item/type/{collectorType}", method = GET, produces = JSON)
     public List<CollectorItem> collectorItemsByType(@PathVariable CollectorType collectorType) {
         return collectorService.collectorItemsByType(collectorType);
     }
+
+    /**
+     * Paged, searchable variant of {@link #collectorItemsByType}, selected by the page parameter.
+     * Matches the search term against the start of the description and option values, or
+     * anywhere in them with match=contains.
+     */
+    @RequestMapping(value = "/collector/item/type/{collectorType}", method = GET, params = "page", produces = JSON)
+    public Page<CollectorItem> searchCollectorItemsByType(@PathVariable CollectorType collectorType,
+                                                          @RequestParam(value = "search", defaultValue = "") String search,
+                                                          @RequestParam(value = "match", defaultValue = "prefix") String match,
+                                                          @RequestParam(value = "page") int page,
+                                                          @RequestParam(value = "size", defaultValue = "50") int size) {
+        return collectorService.searchCollectorItems(collectorType, search, !"contains".equalsIgnoreCase(match),
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
 }
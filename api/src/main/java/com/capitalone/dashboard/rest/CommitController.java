@@ -1,6 +1,8 @@
 package com.capitalone.dashboard.rest;
 
+import com.capitalone.dashboard.config.WebMVCConfig;
 import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.DataResponse;
 import com.capitalone.dashboard.request.CommitRequest;
 import com.capitalone.dashboard.service.CommitService;
@@ -8,8 +10,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
+import java.util.concurrent.Callable;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
@@ -17,16 +22,30 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 public class CommitController {
 
     private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String SMILE = WebMVCConfig.SMILE_VALUE;
 
     private final CommitService commitService;
+    private final ResponseCacheSupport responseCacheSupport;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @Autowired
-    public CommitController(CommitService commitService) {
+    public CommitController(CommitService commitService, ResponseCacheSupport responseCacheSupport,
+                            AsyncRequestExecutor asyncRequestExecutor) {
         this.commitService = commitService;
+        this.responseCacheSupport = responseCacheSupport;
+        this.asyncRequestExecutor = asyncRequestExecutor;
     }
 
-    @RequestMapping(value = "/commit", method = GET, produces = JSON)
-    public DataResponse<Iterable<Commit>> builds(@Valid CommitRequest request) {
-        return commitService.search(request);
+    @RequestMapping(value = "/commit", method = GET, produces = {JSON, SMILE})
+    public DeferredResult<DataResponse<Iterable<Commit>>> builds(@Valid final CommitRequest request, ServletWebRequest webRequest) {
+        if (responseCacheSupport.checkNotModified(webRequest, request.getComponentId(), CollectorType.SCM)) {
+            return null;
+        }
+        return asyncRequestExecutor.submit("commit", new Callable<DataResponse<Iterable<Commit>>>() {
+            @Override
+            public DataResponse<Iterable<Commit>> call() {
+                return commitService.search(request);
+            }
+        });
     }
 }
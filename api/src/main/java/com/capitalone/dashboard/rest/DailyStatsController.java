@@ -0,0 +1,45 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.editors.CaseInsensitiveCollectorTypeEditor;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.DailyStats;
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.service.DailyStatsService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+@RestController
+public class DailyStatsController {
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final int MAX_DAYS = 366;
+
+    private final DailyStatsService dailyStatsService;
+
+    @Autowired
+    public DailyStatsController(DailyStatsService dailyStatsService) {
+        this.dailyStatsService = dailyStatsService;
+    }
+
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        binder.registerCustomEditor(CollectorType.class, new CaseInsensitiveCollectorTypeEditor());
+    }
+
+    @RequestMapping(value = "/stats/daily/{collectorType}", method = GET, produces = JSON)
+    public DataResponse<List<DailyStats>> dailyStats(@PathVariable CollectorType collectorType,
+                                                     @RequestParam(value = "componentId") ObjectId componentId,
+                                                     @RequestParam(value = "numberOfDays", defaultValue = "30") int numberOfDays) {
+        return dailyStatsService.getDailyStats(componentId, collectorType, Math.min(Math.max(numberOfDays, 1), MAX_DAYS));
+    }
+}
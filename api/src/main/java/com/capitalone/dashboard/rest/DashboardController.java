@@ -11,16 +11,19 @@ import javax.validation.Valid;
 
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.capitalone.dashboard.model.Component;
 import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardSummary;
 import com.capitalone.dashboard.model.Widget;
 import com.capitalone.dashboard.model.WidgetResponse;
 import com.capitalone.dashboard.request.DashboardRequest;
@@ -30,6 +33,7 @@ import com.capitalone.dashboard.service.DashboardService;
 @RestController
 public class DashboardController {
     private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final int MAX_PAGE_SIZE = 200;
 
     private final DashboardService dashboardService;
 
@@ -43,6 +47,18 @@ public class DashboardController {
         return dashboardService.all();
     }
 
+    /**
+     * Paged, searchable variant of {@link #dashboards}, selected by the page parameter.
+     * Returns summaries holding the id, title, owner and template of each dashboard.
+     */
+    @RequestMapping(value = "/dashboard", method = GET, params = "page", produces = JSON)
+    public Page<DashboardSummary> searchDashboards(@RequestParam(value = "search", defaultValue = "") String search,
+                                                   @RequestParam(value = "match", defaultValue = "prefix") String match,
+                                                   @RequestParam(value = "page") int page,
+                                                   @RequestParam(value = "size", defaultValue = "50") int size) {
+        return search(null, search, match, page, size);
+    }
+
     @RequestMapping(value = "/dashboard", method = POST, consumes = JSON, produces = JSON)
     public ResponseEntity<Dashboard> createDashboard(@Valid @RequestBody DashboardRequest request) {
         return ResponseEntity
@@ -52,7 +68,9 @@ public class DashboardController {
 
     @RequestMapping(value = "/dashboard/{id}", method = GET, produces = JSON)
     public Dashboard getDashboard(@PathVariable ObjectId id) {
-        return dashboardService.get(id);
+        Dashboard dashboard = dashboardService.get(id);
+        dashboardService.recordAccess(id);
+        return dashboard;
     }
 
     @RequestMapping(value = "/dashboard/{id}", method = PUT, consumes = JSON)
@@ -99,6 +117,18 @@ public class DashboardController {
 
     }
 
+    /**
+     * Paged, searchable variant of {@link #getOwnedDashboards}, selected by the page parameter.
+     */
+    @RequestMapping(value = "/dashboard/mydashboard/{username}", method = GET, params = "page", produces = JSON)
+    public Page<DashboardSummary> searchOwnedDashboards(@PathVariable String username,
+                                                        @RequestParam(value = "search", defaultValue = "") String search,
+                                                        @RequestParam(value = "match", defaultValue = "prefix") String match,
+                                                        @RequestParam(value = "page") int page,
+                                                        @RequestParam(value = "size", defaultValue = "50") int size) {
+        return search(username, search, match, page, size);
+    }
+
     @RequestMapping(value = "/dashboard/myowner/{dashboardtitle}", method = GET, produces = JSON)
     public String getDashboardOwner(@PathVariable String dashboardtitle) {
         String dashboardOwner = "No Owner defined";
@@ -108,4 +138,9 @@ public class DashboardController {
         }
         return dashboardOwner;
     }
+
+    private Page<DashboardSummary> search(String owner, String search, String match, int page, int size) {
+        return dashboardService.search(owner, search, !"contains".equalsIgnoreCase(match),
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
 }
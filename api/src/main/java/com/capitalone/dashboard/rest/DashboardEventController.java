@@ -0,0 +1,45 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.service.ChangeNotificationService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+@RestController
+public class DashboardEventController {
+
+    private final ChangeNotificationService changeNotificationService;
+    private final ChangeNotificationBroadcaster changeNotificationBroadcaster;
+
+    @Autowired
+    public DashboardEventController(ChangeNotificationService changeNotificationService,
+                                    ChangeNotificationBroadcaster changeNotificationBroadcaster) {
+        this.changeNotificationService = changeNotificationService;
+        this.changeNotificationBroadcaster = changeNotificationBroadcaster;
+    }
+
+    /**
+     * Opens a server-sent event stream that emits a "change" event whenever collectors write
+     * new data for the collector items or teams shown on the dashboard. The event data is the
+     * list of change notifications, so clients can refresh only the affected widgets.
+     */
+    @RequestMapping(value = "/dashboard/{id}/events", method = GET, produces = ChangeNotificationBroadcaster.EVENT_STREAM)
+    public void events(@PathVariable ObjectId id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Set<Object> keys = changeNotificationService.subscriptionKeys(id);
+        if (keys == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        changeNotificationBroadcaster.subscribe(id, keys, request.startAsync(request, response));
+    }
+}
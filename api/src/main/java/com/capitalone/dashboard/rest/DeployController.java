@@ -1,5 +1,7 @@
 package com.capitalone.dashboard.rest;
 
+import com.capitalone.dashboard.config.WebMVCConfig;
+import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.DataResponse;
 import com.capitalone.dashboard.model.deploy.Environment;
 import com.capitalone.dashboard.service.DeployService;
@@ -9,8 +11,11 @@ import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
@@ -18,16 +23,30 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 public class DeployController {
 
     private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String SMILE = WebMVCConfig.SMILE_VALUE;
 
     private final DeployService deployService;
+    private final ResponseCacheSupport responseCacheSupport;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @Autowired
-    public DeployController(DeployService deployService) {
+    public DeployController(DeployService deployService, ResponseCacheSupport responseCacheSupport,
+                            AsyncRequestExecutor asyncRequestExecutor) {
         this.deployService = deployService;
+        this.responseCacheSupport = responseCacheSupport;
+        this.asyncRequestExecutor = asyncRequestExecutor;
     }
 
-    @RequestMapping(value = "/deploy/status/{componentId}", method = GET, produces = JSON)
-    public DataResponse<List<Environment>> deployStatus(@PathVariable ObjectId componentId) {
-        return deployService.getDeployStatus(componentId);
+    @RequestMapping(value = "/deploy/status/{componentId}", method = GET, produces = {JSON, SMILE})
+    public DeferredResult<DataResponse<List<Environment>>> deployStatus(@PathVariable final ObjectId componentId, ServletWebRequest webRequest) {
+        if (responseCacheSupport.checkNotModified(webRequest, componentId, CollectorType.Deployment)) {
+            return null;
+        }
+        return asyncRequestExecutor.submit("deploy", new Callable<DataResponse<List<Environment>>>() {
+            @Override
+            public DataResponse<List<Environment>> call() {
+                return deployService.getDeployStatus(componentId);
+            }
+        });
     }
 }
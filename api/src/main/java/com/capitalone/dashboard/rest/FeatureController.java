@@ -1,5 +1,7 @@
 package com.capitalone.dashboard.rest;
 
+import com.capitalone.dashboard.config.WebMVCConfig;
+import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.DataResponse;
 import com.capitalone.dashboard.model.Feature;
 import com.capitalone.dashboard.service.FeatureService;
@@ -11,8 +13,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
@@ -25,11 +30,18 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 @RestController
 public class FeatureController {
 	private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+	private static final String SMILE = WebMVCConfig.SMILE_VALUE;
 	private final FeatureService featureService;
+	private final ResponseCacheSupport responseCacheSupport;
+	private final AsyncRequestExecutor asyncRequestExecutor;
 
 	@Autowired
-	public FeatureController(FeatureService featureService) {
+	public FeatureController(FeatureService featureService,
+			ResponseCacheSupport responseCacheSupport,
+			AsyncRequestExecutor asyncRequestExecutor) {
 		this.featureService = featureService;
+		this.responseCacheSupport = responseCacheSupport;
+		this.asyncRequestExecutor = asyncRequestExecutor;
 	}
 
 	/**
@@ -41,12 +53,22 @@ public class FeatureController {
 	 * @return A data response list of type Feature containing all features for
 	 *         the given team and current sprint
 	 */
-	@RequestMapping(value = "/feature/{teamId}", method = GET, produces = JSON)
-	public DataResponse<List<Feature>> relevantStories(
+	@RequestMapping(value = "/feature/{teamId}", method = GET, produces = {JSON, SMILE})
+	public DeferredResult<DataResponse<List<Feature>>> relevantStories(
 			@RequestParam(value = "component", required = true) String cId,
-			@PathVariable String teamId) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.featureService.getRelevantStories(componentId, teamId);
+			@PathVariable final String teamId,
+			ServletWebRequest webRequest) {
+		final ObjectId componentId = new ObjectId(cId);
+		if (responseCacheSupport.checkNotModified(webRequest, componentId,
+				CollectorType.ScopeOwner)) {
+			return null;
+		}
+		return asyncRequestExecutor.submit("feature", new Callable<DataResponse<List<Feature>>>() {
+			@Override
+			public DataResponse<List<Feature>> call() {
+				return featureService.getRelevantStories(componentId, teamId);
+			}
+		});
 	}
 
 	/**
@@ -58,12 +80,22 @@ public class FeatureController {
 	 * @return A data response list of type Feature containing all features for
 	 *         the given team and current sprint
 	 */
-	@RequestMapping(value = "/feature", method = GET, produces = JSON)
-	public DataResponse<List<Feature>> story(
+	@RequestMapping(value = "/feature", method = GET, produces = {JSON, SMILE})
+	public DeferredResult<DataResponse<List<Feature>>> story(
 			@RequestParam(value = "component", required = true) String cId,
-			@RequestParam(value = "number", required = true) String storyNumber) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.featureService.getStory(componentId, storyNumber);
+			@RequestParam(value = "number", required = true) final String storyNumber,
+			ServletWebRequest webRequest) {
+		final ObjectId componentId = new ObjectId(cId);
+		if (responseCacheSupport.checkNotModified(webRequest, componentId,
+				CollectorType.ScopeOwner)) {
+			return null;
+		}
+		return asyncRequestExecutor.submit("feature", new Callable<DataResponse<List<Feature>>>() {
+			@Override
+			public DataResponse<List<Feature>> call() {
+				return featureService.getStory(componentId, storyNumber);
+			}
+		});
 	}
 
 	/**
@@ -74,12 +106,22 @@ public class FeatureController {
 	 * @return A response list of type Feature containing the done estimate of
 	 *         current features
 	 */
-	@RequestMapping(value = "/iteration/{teamId}", method = GET, produces = JSON)
-	public DataResponse<List<Feature>> currentSprintDetail(
+	@RequestMapping(value = "/iteration/{teamId}", method = GET, produces = {JSON, SMILE})
+	public DeferredResult<DataResponse<List<Feature>>> currentSprintDetail(
 			@RequestParam(value = "component", required = true) String cId,
-			@PathVariable String teamId) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.featureService.getCurrentSprintDetail(componentId, teamId);
+			@PathVariable final String teamId,
+			ServletWebRequest webRequest) {
+		final ObjectId componentId = new ObjectId(cId);
+		if (responseCacheSupport.checkNotModified(webRequest, componentId,
+				CollectorType.ScopeOwner)) {
+			return null;
+		}
+		return asyncRequestExecutor.submit("feature", new Callable<DataResponse<List<Feature>>>() {
+			@Override
+			public DataResponse<List<Feature>> call() {
+				return featureService.getCurrentSprintDetail(componentId, teamId);
+			}
+		});
 	}
 
 	/**
@@ -92,12 +134,22 @@ public class FeatureController {
 	 *         plus their sub features' estimates associated to the current
 	 *         sprint and team
 	 */
-	@RequestMapping(value = "/feature/estimates/super/{teamId}", method = GET, produces = JSON)
-	public DataResponse<List<Feature>> featureEstimates(
+	@RequestMapping(value = "/feature/estimates/super/{teamId}", method = GET, produces = {JSON, SMILE})
+	public DeferredResult<DataResponse<List<Feature>>> featureEstimates(
 			@RequestParam(value = "component", required = true) String cId,
-			@PathVariable String teamId) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.featureService.getFeatureEstimates(componentId, teamId);
+			@PathVariable final String teamId,
+			ServletWebRequest webRequest) {
+		final ObjectId componentId = new ObjectId(cId);
+		if (responseCacheSupport.checkNotModified(webRequest, componentId,
+				CollectorType.ScopeOwner)) {
+			return null;
+		}
+		return asyncRequestExecutor.submit("feature", new Callable<DataResponse<List<Feature>>>() {
+			@Override
+			public DataResponse<List<Feature>> call() {
+				return featureService.getFeatureEstimates(componentId, teamId);
+			}
+		});
 	}
 
 	/**
@@ -109,12 +161,22 @@ public class FeatureController {
 	 * @return A response list of type Feature containing the total estimate of
 	 *         current features
 	 */
-	@RequestMapping(value = "/feature/estimates/total/{teamId}", method = GET, produces = JSON)
-	public DataResponse<List<Feature>> featureTotalEstimate(
+	@RequestMapping(value = "/feature/estimates/total/{teamId}", method = GET, produces = {JSON, SMILE})
+	public DeferredResult<DataResponse<List<Feature>>> featureTotalEstimate(
 			@RequestParam(value = "component", required = true) String cId,
-			@PathVariable String teamId) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.featureService.getTotalEstimate(componentId, teamId);
+			@PathVariable final String teamId,
+			ServletWebRequest webRequest) {
+		final ObjectId componentId = new ObjectId(cId);
+		if (responseCacheSupport.checkNotModified(webRequest, componentId,
+				CollectorType.ScopeOwner)) {
+			return null;
+		}
+		return asyncRequestExecutor.submit("feature", new Callable<DataResponse<List<Feature>>>() {
+			@Override
+			public DataResponse<List<Feature>> call() {
+				return featureService.getTotalEstimate(componentId, teamId);
+			}
+		});
 	}
 
 	/**
@@ -126,12 +188,22 @@ public class FeatureController {
 	 * @return A response list of type Feature containing the in-progress
 	 *         estimate of current features
 	 */
-	@RequestMapping(value = "/feature/estimates/wip/{teamId}", method = GET, produces = JSON)
-	public DataResponse<List<Feature>> featureInProgressEstimate(
+	@RequestMapping(value = "/feature/estimates/wip/{teamId}", method = GET, produces = {JSON, SMILE})
+	public DeferredResult<DataResponse<List<Feature>>> featureInProgressEstimate(
 			@RequestParam(value = "component", required = true) String cId,
-			@PathVariable String teamId) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.featureService.getInProgressEstimate(componentId, teamId);
+			@PathVariable final String teamId,
+			ServletWebRequest webRequest) {
+		final ObjectId componentId = new ObjectId(cId);
+		if (responseCacheSupport.checkNotModified(webRequest, componentId,
+				CollectorType.ScopeOwner)) {
+			return null;
+		}
+		return asyncRequestExecutor.submit("feature", new Callable<DataResponse<List<Feature>>>() {
+			@Override
+			public DataResponse<List<Feature>> call() {
+				return featureService.getInProgressEstimate(componentId, teamId);
+			}
+		});
 	}
 
 	/**
@@ -143,11 +215,21 @@ public class FeatureController {
 	 * @return A response list of type Feature containing the done estimate of
 	 *         current features
 	 */
-	@RequestMapping(value = "/feature/estimates/done/{teamId}", method = GET, produces = JSON)
-	public DataResponse<List<Feature>> featureDoneEstimate(
+	@RequestMapping(value = "/feature/estimates/done/{teamId}", method = GET, produces = {JSON, SMILE})
+	public DeferredResult<DataResponse<List<Feature>>> featureDoneEstimate(
 			@RequestParam(value = "component", required = true) String cId,
-			@PathVariable String teamId) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.featureService.getDoneEstimate(componentId, teamId);
+			@PathVariable final String teamId,
+			ServletWebRequest webRequest) {
+		final ObjectId componentId = new ObjectId(cId);
+		if (responseCacheSupport.checkNotModified(webRequest, componentId,
+				CollectorType.ScopeOwner)) {
+			return null;
+		}
+		return asyncRequestExecutor.submit("feature", new Callable<DataResponse<List<Feature>>>() {
+			@Override
+			public DataResponse<List<Feature>> call() {
+				return featureService.getDoneEstimate(componentId, teamId);
+			}
+		});
 	}
 }
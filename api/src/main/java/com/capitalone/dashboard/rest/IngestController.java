@@ -0,0 +1,57 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.model.IngestResult;
+import com.capitalone.dashboard.service.IngestService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.springframework.web.bind.annotation.RequestMethod.POST;
+
+/**
+ * Accepts builds, commits and test results for a collector item from tools that have no
+ * collector, as newline-delimited JSON with one record per line. The request body is read
+ * as it arrives, so requests can be as large as the tool needs.
+ */
+@RestController
+public class IngestController {
+
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+
+    private final IngestService ingestService;
+
+    @Autowired
+    public IngestController(IngestService ingestService) {
+        this.ingestService = ingestService;
+    }
+
+    @RequestMapping(value = "/collector/item/{id}/build", method = POST, produces = JSON)
+    public ResponseEntity<IngestResult> ingestBuilds(@PathVariable ObjectId id, InputStream body) throws IOException {
+        return respond(ingestService.ingestBuilds(id, body));
+    }
+
+    @RequestMapping(value = "/collector/item/{id}/commit", method = POST, produces = JSON)
+    public ResponseEntity<IngestResult> ingestCommits(@PathVariable ObjectId id, InputStream body) throws IOException {
+        return respond(ingestService.ingestCommits(id, body));
+    }
+
+    @RequestMapping(value = "/collector/item/{id}/test", method = POST, produces = JSON)
+    public ResponseEntity<IngestResult> ingestTestResults(@PathVariable ObjectId id, InputStream body)
+            throws IOException {
+        return respond(ingestService.ingestTestResults(id, body));
+    }
+
+    private ResponseEntity<IngestResult> respond(IngestResult result) {
+        return result == null
+                ? new ResponseEntity<IngestResult>(HttpStatus.NOT_FOUND)
+                : ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,32 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.LeadTimes;
+import com.capitalone.dashboard.service.LeadTimeService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+@RestController
+public class LeadTimeController {
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final int MAX_DAYS = 366;
+
+    private final LeadTimeService leadTimeService;
+
+    @Autowired
+    public LeadTimeController(LeadTimeService leadTimeService) {
+        this.leadTimeService = leadTimeService;
+    }
+
+    @RequestMapping(value = "/leadtime", method = GET, produces = JSON)
+    public DataResponse<LeadTimes> leadTimes(@RequestParam(value = "componentId") ObjectId componentId,
+                                             @RequestParam(value = "numberOfDays", defaultValue = "90") int numberOfDays) {
+        return leadTimeService.getLeadTimes(componentId, Math.min(Math.max(numberOfDays, 1), MAX_DAYS));
+    }
+}
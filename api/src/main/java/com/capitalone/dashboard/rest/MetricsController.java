@@ -0,0 +1,70 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.model.CoalescingStats;
+import com.capitalone.dashboard.model.CollectorFreshness;
+import com.capitalone.dashboard.model.CollectorItemHealth;
+import com.capitalone.dashboard.model.PipelineStats;
+import com.capitalone.dashboard.model.QueryStats;
+import com.capitalone.dashboard.model.SlowQuery;
+import com.capitalone.dashboard.service.CollectorService;
+import com.capitalone.dashboard.service.QueryTelemetry;
+import com.capitalone.dashboard.service.RequestCoalescer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+@RestController
+public class MetricsController {
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+
+    private static final int MAX_SLOW_QUERIES = 500;
+
+    private final RequestCoalescer requestCoalescer;
+    private final QueryTelemetry queryTelemetry;
+    private final CollectorService collectorService;
+
+    @Autowired
+    public MetricsController(RequestCoalescer requestCoalescer, QueryTelemetry queryTelemetry,
+                             CollectorService collectorService) {
+        this.requestCoalescer = requestCoalescer;
+        this.queryTelemetry = queryTelemetry;
+        this.collectorService = collectorService;
+    }
+
+    @RequestMapping(value = "/metrics/coalescing", method = GET, produces = JSON)
+    public List<CoalescingStats> coalescing() {
+        return requestCoalescer.getStats();
+    }
+
+    @RequestMapping(value = "/metrics/queries", method = GET, produces = JSON)
+    public List<QueryStats> queries() {
+        return queryTelemetry.getStats();
+    }
+
+    @RequestMapping(value = "/metrics/queries/slow", method = GET, produces = JSON)
+    public List<SlowQuery> slowQueries(@RequestParam(value = "since", required = false, defaultValue = "0") long since,
+                                       @RequestParam(value = "max", required = false, defaultValue = "50") int max) {
+        return queryTelemetry.getSlowQueries(since, Math.max(1, Math.min(max, MAX_SLOW_QUERIES)));
+    }
+
+    @RequestMapping(value = "/metrics/freshness", method = GET, produces = JSON)
+    public List<CollectorFreshness> freshness() {
+        return collectorService.getFreshness();
+    }
+
+    @RequestMapping(value = "/metrics/freshness/failing", method = GET, produces = JSON)
+    public List<CollectorItemHealth> failingItems(@RequestParam(value = "minFailures", required = false, defaultValue = "3") int minFailures) {
+        return collectorService.getFailingItems(Math.max(1, minFailures));
+    }
+
+    @RequestMapping(value = "/metrics/pipelines", method = GET, produces = JSON)
+    public List<PipelineStats> pipelines() {
+        return collectorService.getPipelineStats();
+    }
+}
@@ -0,0 +1,31 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.model.PortfolioEntry;
+import com.capitalone.dashboard.service.PortfolioService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+@RestController
+public class PortfolioController {
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final PortfolioService portfolioService;
+
+    @Autowired
+    public PortfolioController(PortfolioService portfolioService) {
+        this.portfolioService = portfolioService;
+    }
+
+    @RequestMapping(value = "/portfolio", method = GET, produces = JSON)
+    public Page<PortfolioEntry> portfolio(@RequestParam(value = "page", defaultValue = "0") int page,
+                                          @RequestParam(value = "size", defaultValue = "50") int size) {
+        return portfolioService.getPortfolio(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,59 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.service.DataVersionService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Adds caching headers to widget data responses and answers conditional requests
+ * whose If-None-Match header still matches the current data version.
+ */
+@Component
+public class ResponseCacheSupport {
+
+    private static final String PUBLIC = "public";
+    private static final String PRIVATE = "private";
+
+    private final DataVersionService dataVersionService;
+    private final ApiSettings apiSettings;
+
+    @Autowired
+    public ResponseCacheSupport(DataVersionService dataVersionService, ApiSettings apiSettings) {
+        this.dataVersionService = dataVersionService;
+        this.apiSettings = apiSettings;
+    }
+
+    /**
+     * Sets the Cache-Control and ETag headers for a widget data request.
+     *
+     * @param webRequest current request
+     * @param componentId id of the Component the widget reads from
+     * @param collectorType type of CollectorItem the widget reads from
+     * @return true if the client copy is current and a 304 has been prepared
+     */
+    public boolean checkNotModified(ServletWebRequest webRequest, ObjectId componentId, CollectorType collectorType) {
+        String visibility = PUBLIC.equalsIgnoreCase(apiSettings.getCacheVisibility()) ? PUBLIC : PRIVATE;
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                visibility + ", max-age=" + apiSettings.getCacheMaxAge() + ", must-revalidate");
+
+        // JSON and Smile bodies of the same data are different representations
+        webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String resource = webRequest.getRequest().getRequestURI() + ' ' + webRequest.getHeader(HttpHeaders.ACCEPT);
+
+        String eTag = dataVersionService.getETag(componentId, collectorType,
+                resource, webRequest.getParameterMap());
+        if (eTag == null) {
+            return false;
+        }
+
+        boolean notModified = webRequest.checkNotModified(eTag);
+        // A 304 must repeat the validator, which checkNotModified only sets on a 200
+        webRequest.getResponse().setHeader(HttpHeaders.ETAG, eTag);
+        return notModified;
+    }
+}
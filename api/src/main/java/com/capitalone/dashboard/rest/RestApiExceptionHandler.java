@@ -1,6 +1,7 @@
 package com.capitalone.dashboard.rest;
 
 import com.capitalone.dashboard.model.ErrorResponse;
+import com.capitalone.dashboard.repository.QueryBudgetExceededException;
 import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +48,24 @@ public class RestApiExceptionHandler extends ResponseEntityExceptionHandler {
         return handleBindException(new BindException(ex.getBindingResult()), headers, status, request);
     }
 
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<?> handleServerBusy(ServerBusyException ex) {
+        LOGGER.warn("Service unavailable - " + ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Retrying straight away would most likely run into the budget again, so unlike a shed
+     * request no Retry-After is sent.
+     */
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<?> handleQueryBudgetExceeded(QueryBudgetExceededException ex) {
+        LOGGER.warn("Service unavailable - " + ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
     /**
      * TODO - Figure out why this method is not being called
      */
@@ -11,8 +11,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
@@ -26,10 +28,13 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 public class ScopeController {
 	private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
 	private final ScopeService scopeService;
+	private final AsyncRequestExecutor asyncRequestExecutor;
 
 	@Autowired
-	public ScopeController(ScopeService featureService) {
+	public ScopeController(ScopeService featureService,
+			AsyncRequestExecutor asyncRequestExecutor) {
 		this.scopeService = featureService;
+		this.asyncRequestExecutor = asyncRequestExecutor;
 	}
 
 	/**
@@ -42,11 +47,16 @@ public class ScopeController {
 	 *         the given team and current sprint
 	 */
 	@RequestMapping(value = "/scope/{scopeId}", method = GET, produces = JSON)
-	public DataResponse<List<Scope>> scope(
+	public DeferredResult<DataResponse<List<Scope>>> scope(
 			@RequestParam(value = "component", required = true) String cId,
-			@PathVariable String scopeId) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.scopeService.getScope(componentId, scopeId);
+			@PathVariable final String scopeId) {
+		final ObjectId componentId = new ObjectId(cId);
+		return asyncRequestExecutor.submit("scope", new Callable<DataResponse<List<Scope>>>() {
+			@Override
+			public DataResponse<List<Scope>> call() {
+				return scopeService.getScope(componentId, scopeId);
+			}
+		});
 	}
 
 	/**
@@ -59,9 +69,14 @@ public class ScopeController {
 	 *         the given team and current sprint
 	 */
 	@RequestMapping(value = "/scope", method = GET, produces = JSON)
-	public DataResponse<List<Scope>> allScopes(
+	public DeferredResult<DataResponse<List<Scope>>> allScopes(
 			@RequestParam(value = "component", required = true) String cId) {
-		ObjectId componentId = new ObjectId(cId);
-		return this.scopeService.getAllScopes(componentId);
+		final ObjectId componentId = new ObjectId(cId);
+		return asyncRequestExecutor.submit("scope", new Callable<DataResponse<List<Scope>>>() {
+			@Override
+			public DataResponse<List<Scope>> call() {
+				return scopeService.getAllScopes(componentId);
+			}
+		});
 	}
 }
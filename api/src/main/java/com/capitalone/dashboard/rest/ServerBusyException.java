@@ -0,0 +1,22 @@
+package com.capitalone.dashboard.rest;
+
+/**
+ * Thrown when a request is shed because the executor for its widget type is saturated
+ * or the request waited longer than the configured timeout.
+ */
+public class ServerBusyException extends RuntimeException {
+
+    private final int retryAfter;
+
+    public ServerBusyException(String message, int retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return seconds the client should wait before retrying
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
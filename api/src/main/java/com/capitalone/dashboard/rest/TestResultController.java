@@ -1,19 +1,32 @@
 package com.capitalone.dashboard.rest;
 
+import com.capitalone.dashboard.config.WebMVCConfig;
 import com.capitalone.dashboard.editors.CaseInsensitiveTestSuiteTypeEditor;
 import com.capitalone.dashboard.model.CodeQualityType;
+import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestCaseStats;
+import com.capitalone.dashboard.model.TestCaseStatus;
 import com.capitalone.dashboard.model.TestResult;
 import com.capitalone.dashboard.request.TestResultRequest;
 import com.capitalone.dashboard.service.TestResultService;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
@@ -21,12 +34,20 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 public class TestResultController {
 
     private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String SMILE = WebMVCConfig.SMILE_VALUE;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_TEST_CASES = 100;
 
     private final TestResultService testResultService;
+    private final ResponseCacheSupport responseCacheSupport;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @Autowired
-    public TestResultController(TestResultService testResultService) {
+    public TestResultController(TestResultService testResultService, ResponseCacheSupport responseCacheSupport,
+                                AsyncRequestExecutor asyncRequestExecutor) {
         this.testResultService = testResultService;
+        this.responseCacheSupport = responseCacheSupport;
+        this.asyncRequestExecutor = asyncRequestExecutor;
     }
 
     @InitBinder
@@ -34,8 +55,43 @@ public class TestResultController {
         binder.registerCustomEditor(CodeQualityType.class, new CaseInsensitiveTestSuiteTypeEditor());
     }
 
-    @RequestMapping(value = "/test", method = GET, produces = JSON)
-    public DataResponse<Iterable<TestResult>> qualityData(@Valid TestResultRequest request) {
-        return testResultService.search(request);
+    @RequestMapping(value = "/test", method = GET, produces = {JSON, SMILE})
+    public DeferredResult<DataResponse<Iterable<TestResult>>> qualityData(@Valid final TestResultRequest request, ServletWebRequest webRequest) {
+        if (responseCacheSupport.checkNotModified(webRequest, request.getComponentId(), CollectorType.Test)) {
+            return null;
+        }
+        return asyncRequestExecutor.submit("test", new Callable<DataResponse<Iterable<TestResult>>>() {
+            @Override
+            public DataResponse<Iterable<TestResult>> call() {
+                return testResultService.search(request);
+            }
+        });
+    }
+
+    /**
+     * Pages through the test cases of a test result, which {@link #qualityData} returns
+     * without them. Optionally limited to one suite, by its position in the result, and to
+     * one status.
+     */
+    @RequestMapping(value = "/test/{testResultId}/cases", method = GET, produces = JSON)
+    public Page<TestCaseRecord> testCases(@PathVariable ObjectId testResultId,
+                                          @RequestParam(value = "suite", required = false) Integer suite,
+                                          @RequestParam(value = "status", required = false) TestCaseStatus status,
+                                          @RequestParam(value = "page", defaultValue = "0") int page,
+                                          @RequestParam(value = "size", defaultValue = "50") int size) {
+        return testResultService.getTestCases(testResultId, suite, status,
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+
+    @RequestMapping(value = "/test/cases/flaky", method = GET, produces = JSON)
+    public DataResponse<List<TestCaseStats>> flakyTestCases(@RequestParam(value = "componentId") ObjectId componentId,
+                                                            @RequestParam(value = "max", defaultValue = "10") int max) {
+        return testResultService.getFlakyTestCases(componentId, Math.min(Math.max(max, 1), MAX_TEST_CASES));
+    }
+
+    @RequestMapping(value = "/test/cases/slow", method = GET, produces = JSON)
+    public DataResponse<List<TestCaseStats>> slowTestCases(@RequestParam(value = "componentId") ObjectId componentId,
+                                                           @RequestParam(value = "max", defaultValue = "10") int max) {
+        return testResultService.getSlowTestCases(componentId, Math.min(Math.max(max, 1), MAX_TEST_CASES));
     }
 }
@@ -6,24 +6,31 @@ import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.request.BuildRequest;
 import com.mysema.query.BooleanBuilder;
+import com.mysema.query.types.Predicate;
 import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
 @Service
 public class BuildServiceImpl implements BuildService {
 
     private final BuildRepository buildRepository;
     private final ComponentRepository componentRepository;
     private final CollectorRepository collectorRepository;
+    private final RequestCoalescer requestCoalescer;
 
     @Autowired
     public BuildServiceImpl(BuildRepository buildRepository,
                             ComponentRepository componentRepository,
-                            CollectorRepository collectorRepository) {
+                            CollectorRepository collectorRepository,
+                            RequestCoalescer requestCoalescer) {
         this.buildRepository = buildRepository;
         this.componentRepository = componentRepository;
         this.collectorRepository = collectorRepository;
+        this.requestCoalescer = requestCoalescer;
     }
 
     @Override
@@ -55,7 +62,16 @@ public class BuildServiceImpl implements BuildService {
             builder.and(build.buildStatus.in(request.getBuildStatuses()));
         }
 
+        // Identical filters against the same collector run share one query
+        final Predicate predicate = builder.getValue();
         Collector collector = collectorRepository.findOne(item.getCollectorId());
-        return new DataResponse<>(buildRepository.findAll(builder.getValue()), collector.getLastExecuted());
+        Iterable<Build> builds = requestCoalescer.execute("build", Arrays.asList(predicate, collector.getLastExecuted()),
+                new Callable<Iterable<Build>>() {
+                    @Override
+                    public Iterable<Build> call() {
+                        return buildRepository.findAll(predicate);
+                    }
+                });
+        return new DataResponse<>(builds, collector.getLastExecuted());
     }
 }
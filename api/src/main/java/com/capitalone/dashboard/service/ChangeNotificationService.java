@@ -0,0 +1,34 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.repository.ChangeNotificationCursor;
+import org.bson.types.ObjectId;
+
+import java.util.Set;
+
+public interface ChangeNotificationService {
+
+    /**
+     * Fetches the id of the notification written last.
+     *
+     * @return notification id, or null if none have been written
+     */
+    ObjectId lastNotificationId();
+
+    /**
+     * Opens a cursor over the notifications written after the given one, in the order they
+     * were written.
+     *
+     * @param id id of the last notification already processed, or null to read all kept
+     * @return cursor, to be closed by the caller
+     */
+    ChangeNotificationCursor tailNotifications(ObjectId id);
+
+    /**
+     * Computes the keys a dashboard listens on: the ids of the collector items of its
+     * components and the team ids of its feature widgets.
+     *
+     * @param dashboardId dashboard unique identifier
+     * @return subscription keys, or null if the dashboard does not exist
+     */
+    Set<Object> subscriptionKeys(ObjectId dashboardId);
+}
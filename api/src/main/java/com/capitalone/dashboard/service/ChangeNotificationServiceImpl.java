@@ -0,0 +1,79 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.Widget;
+import com.capitalone.dashboard.repository.ChangeNotificationCursor;
+import com.capitalone.dashboard.repository.ChangeNotificationRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DashboardRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class ChangeNotificationServiceImpl implements ChangeNotificationService {
+
+    private static final String TEAM_ID = "teamId";
+
+    private final ChangeNotificationRepository changeNotificationRepository;
+    private final DashboardRepository dashboardRepository;
+    private final ComponentRepository componentRepository;
+
+    @Autowired
+    public ChangeNotificationServiceImpl(ChangeNotificationRepository changeNotificationRepository,
+                                         DashboardRepository dashboardRepository,
+                                         ComponentRepository componentRepository) {
+        this.changeNotificationRepository = changeNotificationRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.componentRepository = componentRepository;
+    }
+
+    @Override
+    public ObjectId lastNotificationId() {
+        return changeNotificationRepository.findNewestId();
+    }
+
+    @Override
+    public ChangeNotificationCursor tailNotifications(ObjectId id) {
+        return changeNotificationRepository.tail(id);
+    }
+
+    @Override
+    public Set<Object> subscriptionKeys(ObjectId dashboardId) {
+        Dashboard dashboard = dashboardRepository.findOne(dashboardId);
+        if (dashboard == null) {
+            return null;
+        }
+
+        Set<Object> keys = new HashSet<>();
+        Set<ObjectId> componentIds = new HashSet<>();
+        for (Widget widget : dashboard.getWidgets()) {
+            if (widget.getComponentId() != null) {
+                componentIds.add(widget.getComponentId());
+            }
+            Object teamId = widget.getOptions().get(TEAM_ID);
+            if (teamId != null) {
+                keys.add(teamId.toString());
+            }
+        }
+
+        for (ObjectId componentId : componentIds) {
+            Component component = componentRepository.findOne(componentId);
+            if (component == null) {
+                continue;
+            }
+            for (List<CollectorItem> items : component.getCollectorItems().values()) {
+                for (CollectorItem item : items) {
+                    keys.add(item.getId());
+                }
+            }
+        }
+        return keys;
+    }
+}
@@ -2,7 +2,12 @@ package com.capitalone.dashboard.service;
 
 import com.capitalone.dashboard.model.CodeQuality;
 import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.MetricPoint;
+import com.capitalone.dashboard.model.SeriesInterval;
 import com.capitalone.dashboard.request.CodeQualityRequest;
+import org.bson.types.ObjectId;
+
+import java.util.List;
 
 public interface CodeQualityService {
 
@@ -13,4 +18,17 @@ public interface CodeQualityService {
      * @return quality data matching criteria
      */
     DataResponse<Iterable<CodeQuality>> search(CodeQualityRequest request);
+
+    /**
+     * Finds the values of one code quality metric of a component over time, read from the
+     * daily totals rather than from whole snapshots.
+     *
+     * @param componentId component ID
+     * @param metric metric name, such as coverage
+     * @param numberOfDays number of days to cover, including today
+     * @param interval interval of the points
+     * @return points of the series, oldest first
+     */
+    DataResponse<List<MetricPoint>> getMetricSeries(ObjectId componentId, String metric, int numberOfDays,
+                                                    SeriesInterval interval);
 }
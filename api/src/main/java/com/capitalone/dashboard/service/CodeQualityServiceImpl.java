@@ -4,28 +4,38 @@ import com.capitalone.dashboard.model.*;
 import com.capitalone.dashboard.repository.CodeQualityRepository;
 import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsRepository;
 import com.capitalone.dashboard.request.CodeQualityRequest;
 import com.mysema.query.BooleanBuilder;
+import org.bson.types.ObjectId;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class CodeQualityServiceImpl implements CodeQualityService {
 
     private final CodeQualityRepository codeQualityRepository;
     private final ComponentRepository componentRepository;
     private final CollectorRepository collectorRepository;
+    private final DailyStatsRepository dailyStatsRepository;
 
     @Autowired
     public CodeQualityServiceImpl(CodeQualityRepository codeQualityRepository,
                                   ComponentRepository componentRepository,
-                                  CollectorRepository collectorRepository) {
+                                  CollectorRepository collectorRepository,
+                                  DailyStatsRepository dailyStatsRepository) {
         this.codeQualityRepository = codeQualityRepository;
         this.componentRepository = componentRepository;
         this.collectorRepository = collectorRepository;
+        this.dailyStatsRepository = dailyStatsRepository;
     }
 
     @Override
@@ -58,4 +68,36 @@ public class CodeQualityServiceImpl implements CodeQualityService {
         Collector collector = collectorRepository.findOne(item.getCollectorId());
         return new DataResponse<>(result, collector.getLastExecuted());
     }
+
+    @Override
+    public DataResponse<List<MetricPoint>> getMetricSeries(ObjectId componentId, String metric, int numberOfDays,
+                                                           SeriesInterval interval) {
+        Component component = componentRepository.findOne(componentId);
+        List<CollectorItem> items = component == null ? null : component.getCollectorItems().get(CollectorType.CodeQuality);
+        if (items == null || items.isEmpty()) {
+            return new DataResponse<List<MetricPoint>>(new ArrayList<MetricPoint>(), 0);
+        }
+
+        CollectorItem item = items.get(0);
+        // Daily totals are keyed by UTC day
+        LocalDate firstDay = new LocalDate(DateTimeZone.UTC).minusDays(numberOfDays - 1);
+        List<MetricPoint> points = new ArrayList<>();
+        for (DailyStats stats : dailyStatsRepository.findMetric(item.getId(), metric,
+                firstDay.toDateTimeAtStartOfDay(DateTimeZone.UTC).toDate())) {
+            long timestamp = start(new LocalDate(stats.getDay(), DateTimeZone.UTC), interval);
+            // Days come oldest first, so a later day of the same week replaces the earlier value
+            if (!points.isEmpty() && points.get(points.size() - 1).getTimestamp() == timestamp) {
+                points.remove(points.size() - 1);
+            }
+            points.add(new MetricPoint(timestamp, stats.getMetric(metric)));
+        }
+
+        Collector collector = collectorRepository.findOne(item.getCollectorId());
+        return new DataResponse<>(points, collector == null ? 0 : collector.getLastExecuted());
+    }
+
+    private static long start(LocalDate day, SeriesInterval interval) {
+        LocalDate start = interval == SeriesInterval.Week ? day.withDayOfWeek(DateTimeConstants.MONDAY) : day;
+        return start.toDateTimeAtStartOfDay(DateTimeZone.UTC).getMillis();
+    }
 }
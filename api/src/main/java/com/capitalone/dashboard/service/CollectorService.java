@@ -1,9 +1,13 @@
 package com.capitalone.dashboard.service;
 
 import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorFreshness;
 import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemHealth;
 import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.PipelineStats;
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
 
 import java.util.List;
 
@@ -25,6 +29,21 @@ public interface CollectorService {
      */
     List<CollectorItem> collectorItemsByType(CollectorType collectorType);
 
+    /**
+     * Finds a page of CollectorItems of a given type whose description or option values
+     * match a search term, ordered by description. Items do not have their Collector
+     * attached and hold only their id, collector id, description, enabled flag and options.
+     *
+     * @param collectorType collector type
+     * @param search search term; empty matches every item
+     * @param prefix true to match values starting with the term, false to match values containing it
+     * @param page zero-based page number
+     * @param size number of items per page
+     * @return page of CollectorItems
+     */
+    Page<CollectorItem> searchCollectorItems(CollectorType collectorType, String search, boolean prefix,
+                                             int page, int size);
+
     /**
      * Find a CollectorItem by it's id.
      *
@@ -42,4 +61,37 @@ public interface CollectorService {
      * @return created CollectorItem
      */
     CollectorItem createCollectorItem(CollectorItem item);
+
+    /**
+     * Finds how recently data was fetched for a CollectorItem.
+     *
+     * @param id collector item id
+     * @return health of the item, or null if it has not been fetched yet
+     */
+    CollectorItemHealth getCollectorItemHealth(ObjectId id);
+
+    /**
+     * Computes how far behind the data of each collector is, over all its fetched items.
+     * Items not fetched in the last week are included and counted as not attempted.
+     *
+     * @return freshness per collector
+     */
+    List<CollectorFreshness> getFreshness();
+
+    /**
+     * Finds the items fetched in the last week whose recent fetches all failed, the
+     * longest failing first.
+     *
+     * @param minFailures minimum number of consecutive failures
+     * @return health of the failing items
+     */
+    List<CollectorItemHealth> getFailingItems(int minFailures);
+
+    /**
+     * Finds what the stages of each collector's pipelines are doing, as recorded during their
+     * current or last run.
+     *
+     * @return statistics of every pipeline
+     */
+    List<PipelineStats> getPipelineStats();
 }
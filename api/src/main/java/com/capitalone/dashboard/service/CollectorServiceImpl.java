@@ -1,30 +1,60 @@
 package com.capitalone.dashboard.service;
 
 import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorFreshness;
 import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemHealth;
 import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.PipelineStats;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
 import com.capitalone.dashboard.repository.CollectorItemRepository;
+import com.capitalone.dashboard.repository.CollectorItemSearchMigration;
 import com.capitalone.dashboard.repository.CollectorRepository;
+import com.capitalone.dashboard.repository.PipelineStatsRepository;
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class CollectorServiceImpl implements CollectorService {
 
+    private static final long FRESHNESS_WINDOW = TimeUnit.DAYS.toMillis(7);
+
     private final CollectorRepository collectorRepository;
     private final CollectorItemRepository collectorItemRepository;
+    private final CollectorItemHealthRepository collectorItemHealthRepository;
+    private final CollectorItemSearchMigration collectorItemSearchMigration;
+    private final PipelineStatsRepository pipelineStatsRepository;
 
     @Autowired
     public CollectorServiceImpl(CollectorRepository collectorRepository,
-                                CollectorItemRepository collectorItemRepository) {
+                                CollectorItemRepository collectorItemRepository,
+                                CollectorItemHealthRepository collectorItemHealthRepository,
+                                CollectorItemSearchMigration collectorItemSearchMigration,
+                                PipelineStatsRepository pipelineStatsRepository) {
         this.collectorRepository = collectorRepository;
         this.collectorItemRepository = collectorItemRepository;
+        this.collectorItemHealthRepository = collectorItemHealthRepository;
+        this.collectorItemSearchMigration = collectorItemSearchMigration;
+        this.pipelineStatsRepository = pipelineStatsRepository;
+    }
+
+    /**
+     * Adds search keys to collector items stored without them, before any search is served.
+     */
+    @PostConstruct
+    public void migrateSearchKeys() {
+        collectorItemSearchMigration.migrate();
     }
 
     @Override
@@ -47,6 +77,16 @@ public class CollectorServiceImpl implements CollectorService {
         return collectorItems;
     }
 
+    @Override
+    public Page<CollectorItem> searchCollectorItems(CollectorType collectorType, String search, boolean prefix,
+                                                    int page, int size) {
+        List<Collector> collectors = collectorRepository.findByCollectorType(collectorType);
+        List<ObjectId> collectorIds = Lists.newArrayList(Iterables.transform(collectors, new ToCollectorId()));
+
+        return collectorItemRepository.search(collectorIds, search, prefix,
+                new PageRequest(page, size, new Sort("description")));
+    }
+
     @Override
     public CollectorItem getCollectorItem(ObjectId id) {
         CollectorItem item = collectorItemRepository.findOne(id);
@@ -61,6 +101,27 @@ public class CollectorServiceImpl implements CollectorService {
         return existing == null ? collectorItemRepository.save(item) : existing;
     }
 
+    @Override
+    public CollectorItemHealth getCollectorItemHealth(ObjectId id) {
+        return collectorItemHealthRepository.findByCollectorItemId(id);
+    }
+
+    @Override
+    public List<CollectorFreshness> getFreshness() {
+        return collectorItemHealthRepository.freshness(System.currentTimeMillis() - FRESHNESS_WINDOW);
+    }
+
+    @Override
+    public List<CollectorItemHealth> getFailingItems(int minFailures) {
+        return collectorItemHealthRepository.findByLastAttemptGreaterThanAndConsecutiveFailuresGreaterThanEqualOrderByConsecutiveFailuresDesc(
+                System.currentTimeMillis() - FRESHNESS_WINDOW, minFailures);
+    }
+
+    @Override
+    public List<PipelineStats> getPipelineStats() {
+        return Lists.newArrayList(pipelineStatsRepository.findAll());
+    }
+
     private Collector collectorById(ObjectId collectorId, List<Collector> collectors) {
         for (Collector collector : collectors) {
             if (collector.getId().equals(collectorId)) {
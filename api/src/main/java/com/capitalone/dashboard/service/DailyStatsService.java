@@ -0,0 +1,22 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.DailyStats;
+import com.capitalone.dashboard.model.DataResponse;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+
+public interface DailyStatsService {
+
+    /**
+     * Fetches the daily totals of a component's collector item of the given type for the
+     * last number of days, oldest first. Days without data have no row.
+     *
+     * @param componentId component id
+     * @param collectorType Build, SCM, Test or CodeQuality
+     * @param numberOfDays number of days, including today
+     * @return daily totals
+     */
+    DataResponse<List<DailyStats>> getDailyStats(ObjectId componentId, CollectorType collectorType, int numberOfDays);
+}
@@ -0,0 +1,55 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.DailyStats;
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.repository.CollectorRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsRepository;
+import org.bson.types.ObjectId;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class DailyStatsServiceImpl implements DailyStatsService {
+
+    private final DailyStatsRepository dailyStatsRepository;
+    private final ComponentRepository componentRepository;
+    private final CollectorRepository collectorRepository;
+
+    @Autowired
+    public DailyStatsServiceImpl(DailyStatsRepository dailyStatsRepository,
+                                 ComponentRepository componentRepository,
+                                 CollectorRepository collectorRepository) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.componentRepository = componentRepository;
+        this.collectorRepository = collectorRepository;
+    }
+
+    @Override
+    public DataResponse<List<DailyStats>> getDailyStats(ObjectId componentId, CollectorType collectorType,
+                                                        int numberOfDays) {
+        Component component = componentRepository.findOne(componentId);
+        List<CollectorItem> items = component == null ? null : component.getCollectorItems().get(collectorType);
+        if (items == null || items.isEmpty()) {
+            return new DataResponse<List<DailyStats>>(new ArrayList<DailyStats>(), 0);
+        }
+
+        CollectorItem item = items.get(0);
+        // Rows are keyed by UTC day
+        LocalDate firstDay = new LocalDate(DateTimeZone.UTC).minusDays(numberOfDays - 1);
+        List<DailyStats> stats = dailyStatsRepository.findByCollectorItemIdAndDayGreaterThanEqualOrderByDayAsc(
+                item.getId(), firstDay.toDateTimeAtStartOfDay(DateTimeZone.UTC).toDate());
+
+        Collector collector = collectorRepository.findOne(item.getCollectorId());
+        return new DataResponse<>(stats, collector == null ? 0 : collector.getLastExecuted());
+    }
+}
@@ -2,8 +2,10 @@ package com.capitalone.dashboard.service;
 
 import com.capitalone.dashboard.model.Component;
 import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardSummary;
 import com.capitalone.dashboard.model.Widget;
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
 
 import java.util.List;
 
@@ -17,6 +19,18 @@ public interface DashboardService {
      */
     Iterable<Dashboard> all();
 
+    /**
+     * Finds a page of dashboard summaries whose title matches a search term, ordered by
+     * title. The full dashboard is loaded with {@link #get(ObjectId)} when it is opened.
+     *
+     * @param owner owner of the dashboards; null for the dashboards of every owner
+     * @param search search term; empty matches every dashboard
+     * @param prefix true to match titles starting with the term, false to match titles containing it
+     * @param page zero-based page number
+     * @param size number of dashboards per page
+     * @return page of dashboard summaries
+     */
+    Page<DashboardSummary> search(String owner, String search, boolean prefix, int page, int size);
 
     /**
      * Fetches a Dashboard.
@@ -26,6 +40,14 @@ public interface DashboardService {
      */
     Dashboard get(ObjectId id);
 
+    /**
+     * Records that a Dashboard was viewed, so collectors poll its collector items more
+     * often. Views of the same Dashboard within a minute are recorded once.
+     *
+     * @param id dashboard unique identifier
+     */
+    void recordAccess(ObjectId id);
+
     /**
      * Creates a new Dashbaord and saves it to the store.
      *
@@ -7,31 +7,54 @@ import com.google.common.collect.Iterables;
 
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class DashboardServiceImpl implements DashboardService {
 
+    private static final long ACCESS_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
     private final DashboardRepository dashboardRepository;
     private final ComponentRepository componentRepository;
     private final CollectorRepository collectorRepository;
     private final CollectorItemRepository collectorItemRepository;
     private final ServiceRepository serviceRepository;
+    private final DashboardAccessRepository dashboardAccessRepository;
+    private final DashboardSearchMigration dashboardSearchMigration;
+    private final ConcurrentMap<ObjectId, Long> lastRecordedAccess = new ConcurrentHashMap<>();
 
     @Autowired
     public DashboardServiceImpl(DashboardRepository dashboardRepository,
                                 ComponentRepository componentRepository,
                                 CollectorRepository collectorRepository,
                                 CollectorItemRepository collectorItemRepository,
-                                ServiceRepository serviceRepository) {
+                                ServiceRepository serviceRepository,
+                                DashboardAccessRepository dashboardAccessRepository,
+                                DashboardSearchMigration dashboardSearchMigration) {
         this.dashboardRepository = dashboardRepository;
         this.componentRepository = componentRepository;
         this.collectorRepository = collectorRepository;
         this.collectorItemRepository = collectorItemRepository;
         this.serviceRepository = serviceRepository;
+        this.dashboardAccessRepository = dashboardAccessRepository;
+        this.dashboardSearchMigration = dashboardSearchMigration;
+    }
+
+    /**
+     * Adds title keys to dashboards stored without them, before any search is served.
+     */
+    @PostConstruct
+    public void migrateTitleKeys() {
+        dashboardSearchMigration.migrate();
     }
 
     @Override
@@ -39,6 +62,12 @@ public class DashboardServiceImpl implements DashboardService {
         return dashboardRepository.findAll(new Sort(Sort.Direction.ASC, "title"));
     }
 
+    @Override
+    public Page<DashboardSummary> search(String owner, String search, boolean prefix, int page, int size) {
+        return dashboardRepository.search(owner, search, prefix,
+                new PageRequest(page, size, new Sort(DashboardSearch.TITLE_KEY)));
+    }
+
     @Override
     public Dashboard get(ObjectId id) {
         Dashboard dashboard = dashboardRepository.findOne(id);
@@ -59,6 +88,19 @@ public class DashboardServiceImpl implements DashboardService {
         return dashboard;
     }
 
+    @Override
+    public void recordAccess(ObjectId id) {
+        long now = System.currentTimeMillis();
+        Long last = lastRecordedAccess.get(id);
+        if (last != null && now - last < ACCESS_INTERVAL) {
+            return;
+        }
+        if (last == null ? lastRecordedAccess.putIfAbsent(id, now) == null
+                : lastRecordedAccess.replace(id, last, now)) {
+            dashboardAccessRepository.recordAccess(id, now);
+        }
+    }
+
     @Override
     public Dashboard create(Dashboard dashboard) {
         componentRepository.save(dashboard.getApplication().getComponents());
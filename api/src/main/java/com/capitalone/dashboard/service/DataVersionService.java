@@ -0,0 +1,24 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.CollectorType;
+import org.bson.types.ObjectId;
+
+import java.util.Map;
+
+public interface DataVersionService {
+
+    /**
+     * Computes a strong entity tag for a widget data request. The tag changes whenever a
+     * collector writes data for the collector item of the component, or for any team of the
+     * feature collector in the case of features, the component is pointed at a different
+     * collector item, the request parameters change or the calendar day rolls over. A collector
+     * run that finds nothing new leaves it alone.
+     *
+     * @param componentId id of the Component the widget reads from
+     * @param collectorType type of CollectorItem the widget reads from
+     * @param resource request path and requested representation
+     * @param parameters request parameters
+     * @return quoted entity tag, or null if the component has no collector item of the type
+     */
+    String getETag(ObjectId componentId, CollectorType collectorType, String resource, Map<String, String[]> parameters);
+}
@@ -0,0 +1,75 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.DataVersion;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DataVersionRepository;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.bson.types.ObjectId;
+import org.joda.time.LocalDate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class DataVersionServiceImpl implements DataVersionService {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final ComponentRepository componentRepository;
+    private final DataVersionRepository dataVersionRepository;
+
+    @Autowired
+    public DataVersionServiceImpl(ComponentRepository componentRepository,
+                                  DataVersionRepository dataVersionRepository) {
+        this.componentRepository = componentRepository;
+        this.dataVersionRepository = dataVersionRepository;
+    }
+
+    @Override
+    public String getETag(ObjectId componentId, CollectorType collectorType,
+                          String resource, Map<String, String[]> parameters) {
+        if (componentId == null) {
+            return null;
+        }
+
+        Component component = componentRepository.findOne(componentId);
+        if (component == null) {
+            return null;
+        }
+
+        List<CollectorItem> items = component.getCollectorItems().get(collectorType);
+        if (items == null || items.isEmpty()) {
+            return null;
+        }
+
+        CollectorItem item = items.get(0);
+        // Features are versioned per feature collector, the other widget data per collector item
+        ObjectId sourceId = collectorType == CollectorType.ScopeOwner ? item.getCollectorId() : item.getId();
+        DataVersion dataVersion = dataVersionRepository.findBySourceId(sourceId);
+
+        Hasher hasher = Hashing.sha1().newHasher()
+                .putString(resource, Charsets.UTF_8).putChar(SEPARATOR)
+                .putString(componentId.toString(), Charsets.UTF_8).putChar(SEPARATOR)
+                .putString(item.getId().toString(), Charsets.UTF_8).putChar(SEPARATOR)
+                .putLong(dataVersion == null ? 0 : dataVersion.getVersion())
+                // Relative ranges such as numberOfDays shift at midnight without new data
+                .putString(new LocalDate().toString(), Charsets.UTF_8).putChar(SEPARATOR);
+
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(parameters).entrySet()) {
+            hasher.putString(parameter.getKey(), Charsets.UTF_8).putChar(SEPARATOR);
+            for (String value : parameter.getValue()) {
+                hasher.putString(value, Charsets.UTF_8).putChar(SEPARATOR);
+            }
+        }
+
+        return "\"" + hasher.hash().toString() + "\"";
+    }
+}
@@ -1,9 +1,8 @@
 package com.capitalone.dashboard.service;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Date;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,9 +25,6 @@ import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.EnvironmentComponentRepository;
 import com.capitalone.dashboard.repository.EnvironmentStatusRepository;
-import com.google.common.base.Function;
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterables;
 
 @Service
 public class DeployServiceImpl implements DeployService {
@@ -57,19 +53,23 @@ public class DeployServiceImpl implements DeployService {
 		ObjectId collectorItemId = item.getId();
 
 		List<EnvironmentComponent> components = environmentComponentRepository
-				.findByCollectorItemId(collectorItemId);
-		List<EnvironmentStatus> statuses = environmentStatusRepository
-				.findByCollectorItemId(collectorItemId);
-		
+				.findLatestByCollectorItemId(collectorItemId);
+		Map<String, List<Server>> servers = serversByComponent(environmentStatusRepository
+				.findByCollectorItemId(collectorItemId));
+
 		List<Environment> environments = new ArrayList<>();
 		for (Map.Entry<Environment, List<EnvironmentComponent>> entry : groupByEnvironment(
 				components).entrySet()) {
 			Environment env = entry.getKey();
 			environments.add(env);
 			for (EnvironmentComponent envComponent : entry.getValue()) {
+				List<Server> componentServers = servers.get(key(
+						envComponent.getEnvironmentName(),
+						envComponent.getComponentName()));
 				env.getUnits().add(
-						new DeployableUnit(envComponent, servers(envComponent,
-								statuses)));
+						new DeployableUnit(envComponent,
+								componentServers == null ? Collections.<Server> emptyList()
+										: componentServers));
 			}
 		}
 
@@ -78,6 +78,12 @@ public class DeployServiceImpl implements DeployService {
 		return new DataResponse<>(environments, collector.getLastExecuted());
 	}
 
+	/**
+	 * Groups the latest deployments by environment, keeping the order in which
+	 * environments and components first appear. Expects at most one deployment
+	 * per environment and component, as returned by
+	 * {@link EnvironmentComponentRepository#findLatestByCollectorItemId(ObjectId)}.
+	 */
 	private Map<Environment, List<EnvironmentComponent>> groupByEnvironment(
 			List<EnvironmentComponent> components) {
 		Map<Environment, List<EnvironmentComponent>> map = new LinkedHashMap<>();
@@ -85,66 +91,37 @@ public class DeployServiceImpl implements DeployService {
 			Environment env = new Environment(component.getEnvironmentName(),
 					component.getEnvironmentUrl());
 
-			if (!map.containsKey(env)) {
-				map.put(env, new ArrayList<EnvironmentComponent>());
-			}
-
-			// Following logic is to send only the latest deployment status - there may be better way to do this
-			Iterator<EnvironmentComponent> alreadyAddedIter = map.get(env)
-					.iterator();
-
-			boolean found = false;
-			ArrayList<EnvironmentComponent> toRemove = new ArrayList<EnvironmentComponent>();
-			ArrayList<EnvironmentComponent> toAdd = new ArrayList<EnvironmentComponent>();
-			while (alreadyAddedIter.hasNext()) {
-				EnvironmentComponent ec = (EnvironmentComponent) alreadyAddedIter
-						.next();
-				if (component.getComponentName().equalsIgnoreCase(
-						ec.getComponentName())) {
-					found = true;
-					if (component.getAsOfDate() > ec.getAsOfDate()) {
-						toRemove.add(ec);
-						toAdd.add(component);
-					}
-				}
+			List<EnvironmentComponent> envComponents = map.get(env);
+			if (envComponents == null) {
+				envComponents = new ArrayList<>();
+				map.put(env, envComponents);
 			}
-			if (!found) {
-				toAdd.add(component);
-			}
-			map.get(env).removeAll(toRemove);
-			map.get(env).addAll(toAdd);
+			envComponents.add(component);
 		}
-
 		return map;
 	}
 
-	private Iterable<Server> servers(final EnvironmentComponent component,
+	/**
+	 * Indexes servers by environment and component name in a single pass over
+	 * the statuses.
+	 */
+	private Map<String, List<Server>> serversByComponent(
 			List<EnvironmentStatus> statuses) {
-		return Iterables.transform(
-				Iterables.filter(statuses, new ComponentMatches(component)),
-				new ToServer());
-	}
-
-	private class ComponentMatches implements Predicate<EnvironmentStatus> {
-		private EnvironmentComponent component;
-
-		private ComponentMatches(EnvironmentComponent component) {
-			this.component = component;
-		}
-
-		@Override
-		public boolean apply(EnvironmentStatus environmentStatus) {
-			return environmentStatus.getEnvironmentName().equals(
-					component.getEnvironmentName())
-					&& environmentStatus.getComponentName().equals(
-							component.getComponentName());
+		Map<String, List<Server>> map = new HashMap<>();
+		for (EnvironmentStatus status : statuses) {
+			String key = key(status.getEnvironmentName(),
+					status.getComponentName());
+			List<Server> servers = map.get(key);
+			if (servers == null) {
+				servers = new ArrayList<>();
+				map.put(key, servers);
+			}
+			servers.add(new Server(status.getResourceName(), status.isOnline()));
 		}
+		return map;
 	}
 
-	private class ToServer implements Function<EnvironmentStatus, Server> {
-		@Override
-		public Server apply(EnvironmentStatus status) {
-			return new Server(status.getResourceName(), status.isOnline());
-		}
+	private String key(String environmentName, String componentName) {
+		return environmentName + '\u0000' + componentName;
 	}
 }
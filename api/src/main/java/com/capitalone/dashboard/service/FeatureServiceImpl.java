@@ -3,7 +3,10 @@ package com.capitalone.dashboard.service;
 import com.capitalone.dashboard.model.*;
 import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.CurrentSprintRepository;
 import com.capitalone.dashboard.repository.FeatureRepository;
+import com.capitalone.dashboard.repository.FeatureStorage;
+import com.capitalone.dashboard.repository.SprintEstimateRepository;
 import com.mysema.query.BooleanBuilder;
 
 import org.bson.types.ObjectId;
@@ -11,13 +14,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
-import java.util.ListIterator;
-import java.util.NoSuchElementException;
-import java.util.TimeZone;
-
-import javax.xml.bind.DatatypeConverter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 @Service
 public class FeatureServiceImpl implements FeatureService {
@@ -25,6 +28,9 @@ public class FeatureServiceImpl implements FeatureService {
 	private final ComponentRepository componentRepository;
 	private final FeatureRepository featureRepository;
 	private final CollectorRepository collectorRepository;
+	private final SprintEstimateRepository sprintEstimateRepository;
+	private final CurrentSprintRepository currentSprintRepository;
+	private final RequestCoalescer requestCoalescer;
 
 	/**
 	 * Default autowired constructor for repositories
@@ -36,14 +42,29 @@ public class FeatureServiceImpl implements FeatureService {
 	 *            Repository containing all registered collectors
 	 * @param featureRepository
 	 *            Repository containing all features
+	 * @param sprintEstimateRepository
+	 *            Repository containing the estimate rollups of each team's
+	 *            sprints (populated by feature collectors)
+	 * @param currentSprintRepository
+	 *            Repository containing each team's current sprint (populated
+	 *            by feature collectors)
+	 * @param requestCoalescer
+	 *            Shares in-flight queries between identical concurrent
+	 *            requests
 	 */
 	@Autowired
 	public FeatureServiceImpl(ComponentRepository componentRepository,
 			CollectorRepository collectorRepository,
-			FeatureRepository featureRepository) {
+			FeatureRepository featureRepository,
+			SprintEstimateRepository sprintEstimateRepository,
+			CurrentSprintRepository currentSprintRepository,
+			RequestCoalescer requestCoalescer) {
 		this.componentRepository = componentRepository;
 		this.featureRepository = featureRepository;
 		this.collectorRepository = collectorRepository;
+		this.sprintEstimateRepository = sprintEstimateRepository;
+		this.currentSprintRepository = currentSprintRepository;
+		this.requestCoalescer = requestCoalescer;
 	}
 
 	/**
@@ -102,7 +123,7 @@ public class FeatureServiceImpl implements FeatureService {
 	 */
 	@Override
 	public DataResponse<List<Feature>> getRelevantStories(ObjectId componentId,
-			String teamId) {
+			final String teamId) {
 		Component component = componentRepository.findOne(componentId);
 		DataResponse<List<Feature>> rs;
 		try {
@@ -113,14 +134,22 @@ public class FeatureServiceImpl implements FeatureService {
 
 			builder.and(team.collectorItemId.eq(item.getId()));
 
-			// Get teamId first from available collector item, based on
-			// component
-			List<Feature> relevantStories = featureRepository
-					.getSprintStoriesByTeamId(teamId, getCurrentISODateTime());
-
 			Collector collector = collectorRepository.findOne(item
 					.getCollectorId());
 
+			// Identical requests made before the next collector run share
+			// one query
+			List<Feature> relevantStories = requestCoalescer.execute(
+					"relevantStories",
+					Arrays.asList(teamId, collector.getLastExecuted()),
+					new Callable<List<Feature>>() {
+						@Override
+						public List<Feature> call() {
+							return featureRepository.getSprintStoriesByTeamId(
+									teamId, new Date());
+						}
+					});
+
 			rs = new DataResponse<>(relevantStories,
 					collector.getLastExecuted());
 		} catch (NullPointerException e) {
@@ -158,76 +187,27 @@ public class FeatureServiceImpl implements FeatureService {
 
 		builder.and(team.collectorItemId.eq(item.getId()));
 
-		// Get teamId first from available collector item, based on component
-		List<Feature> relevantFeatureEstimates = featureRepository
-				.getInProgressFeaturesEstimatesByTeamId(teamId,
-						getCurrentISODateTime());
-
-		List<Feature> relevantSuperFeatureEstimates = new ArrayList<Feature>();
-		String lastEpicID = "";
-		int lineTotalEstimate = 0;
-		try {
-			for (ListIterator<Feature> iter = relevantFeatureEstimates
-					.listIterator(); iter.hasNext();) {
-				Feature f = new Feature();
-				Feature tempRs = iter.next();
-
-				if (tempRs.getsEpicID().isEmpty() == false) {
-					try {
-						if (tempRs.getsEpicID().equalsIgnoreCase(lastEpicID)) {
-							try {
-								lineTotalEstimate += Integer.valueOf((tempRs
-										.getsEstimate()));
-							} catch (NumberFormatException
-									| ArrayIndexOutOfBoundsException
-									| NullPointerException e) {
-								lineTotalEstimate += 0;
-							}
-
-							try {
-								relevantSuperFeatureEstimates
-										.get(relevantSuperFeatureEstimates
-												.size() - 1)
-										.setsEstimate(
-												Integer.toString(lineTotalEstimate));
-							} catch (ArrayIndexOutOfBoundsException
-									| NullPointerException e) {
-								relevantSuperFeatureEstimates
-										.get(0)
-										.setsEstimate(
-												Integer.toString(lineTotalEstimate));
-							}
-						} else {
-							lastEpicID = tempRs.getsEpicID();
-							lineTotalEstimate = 0;
-							try {
-								lineTotalEstimate += Integer.valueOf((tempRs
-										.getsEstimate()));
-							} catch (NumberFormatException
-									| ArrayIndexOutOfBoundsException
-									| NullPointerException e) {
-								lineTotalEstimate += 0;
-							}
-
-							f.setId(tempRs.getId());
-							f.setsEpicID(tempRs.getsEpicID());
-							f.setsEpicNumber(tempRs.getsEpicNumber());
-							f.setsEpicName(tempRs.getsEpicName());
-							f.setsEstimate(Integer.toString(lineTotalEstimate));
-
-							relevantSuperFeatureEstimates.add(f);
-						}
-					} catch (ArrayIndexOutOfBoundsException
-							| NullPointerException e) {
-						// Error case - this is an unexpected scenario
-						relevantSuperFeatureEstimates.add(f);
-					}
+		// Epics are keyed by ID, listed in descending order as before
+		Map<String, Feature> superFeatures = new TreeMap<String, Feature>(
+				Collections.reverseOrder());
+		for (SprintEstimate sprint : getCurrentSprintEstimates(teamId)) {
+			for (EpicEstimate epic : sprint.getEpics()) {
+				Feature f = superFeatures.get(epic.getEpicId());
+				int lineTotalEstimate = epic.getEstimate();
+				if (f == null) {
+					f = new Feature();
+					f.setsEpicID(epic.getEpicId());
+					f.setsEpicNumber(epic.getEpicNumber());
+					f.setsEpicName(epic.getEpicName());
+					superFeatures.put(epic.getEpicId(), f);
+				} else {
+					lineTotalEstimate += Feature.parseEstimate(f.getsEstimate());
 				}
+				f.setsEstimate(Integer.toString(lineTotalEstimate));
 			}
-		} catch (NoSuchElementException nsee) {
-			Feature f = new Feature();
-			relevantSuperFeatureEstimates.add(f);
 		}
+		List<Feature> relevantSuperFeatureEstimates = new ArrayList<Feature>(
+				superFeatures.values());
 
 		Collector collector = collectorRepository
 				.findOne(item.getCollectorId());
@@ -260,32 +240,12 @@ public class FeatureServiceImpl implements FeatureService {
 
 		builder.and(team.collectorItemId.eq(item.getId()));
 
-		// Get teamId first from available collector item, based on component
-		List<Feature> storyEstimates = featureRepository.getSprintBacklogTotal(
-				teamId, getCurrentISODateTime());
-
-		List<Feature> cumulativeEstimate = new ArrayList<Feature>();
-		Feature f = new Feature();
 		int lineTotalEstimate = 0;
-		try {
-			for (ListIterator<Feature> iter = storyEstimates.listIterator(); iter
-					.hasNext();) {
-				Feature tempRs = iter.next();
-
-				if (tempRs.getsEstimate().isEmpty() == false) {
-					try {
-						lineTotalEstimate += Integer.parseInt(tempRs
-								.getsEstimate());
-					} catch (NumberFormatException
-							| ArrayIndexOutOfBoundsException
-							| NullPointerException e) {
-						lineTotalEstimate += 0;
-					}
-				}
-			}
-		} catch (NoSuchElementException nsee) {
-			// Do nothing
+		for (SprintEstimate sprint : getCurrentSprintEstimates(teamId)) {
+			lineTotalEstimate += sprint.getTotalEstimate();
 		}
+		List<Feature> cumulativeEstimate = new ArrayList<Feature>();
+		Feature f = new Feature();
 		f.setsEstimate(Integer.toString(lineTotalEstimate));
 		cumulativeEstimate.add(f);
 
@@ -320,32 +280,12 @@ public class FeatureServiceImpl implements FeatureService {
 
 		builder.and(team.collectorItemId.eq(item.getId()));
 
-		// Get teamId first from available collector item, based on component
-		List<Feature> storyEstimates = featureRepository
-				.getSprintBacklogInProgress(teamId, getCurrentISODateTime());
-
-		List<Feature> cumulativeEstimate = new ArrayList<Feature>();
-		Feature f = new Feature();
 		int lineTotalEstimate = 0;
-		try {
-			for (ListIterator<Feature> iter = storyEstimates.listIterator(); iter
-					.hasNext();) {
-				Feature tempRs = iter.next();
-
-				if (tempRs.getsEstimate().isEmpty() == false) {
-					try {
-						lineTotalEstimate += Integer.parseInt(tempRs
-								.getsEstimate());
-					} catch (NumberFormatException
-							| ArrayIndexOutOfBoundsException
-							| NullPointerException e) {
-						lineTotalEstimate += 0;
-					}
-				}
-			}
-		} catch (NoSuchElementException nsee) {
-			// Do nothing
+		for (SprintEstimate sprint : getCurrentSprintEstimates(teamId)) {
+			lineTotalEstimate += sprint.getInProgressEstimate();
 		}
+		List<Feature> cumulativeEstimate = new ArrayList<Feature>();
+		Feature f = new Feature();
 		f.setsEstimate(Integer.toString(lineTotalEstimate));
 		cumulativeEstimate.add(f);
 
@@ -380,32 +320,12 @@ public class FeatureServiceImpl implements FeatureService {
 
 		builder.and(team.collectorItemId.eq(item.getId()));
 
-		// Get teamId first from available collector item, based on component
-		List<Feature> storyEstimates = featureRepository.getSprintBacklogDone(
-				teamId, getCurrentISODateTime());
-
-		List<Feature> cumulativeEstimate = new ArrayList<Feature>();
-		Feature f = new Feature();
 		int lineTotalEstimate = 0;
-		try {
-			for (ListIterator<Feature> iter = storyEstimates.listIterator(); iter
-					.hasNext();) {
-				Feature tempRs = iter.next();
-
-				if (tempRs.getsEstimate().isEmpty() == false) {
-					try {
-						lineTotalEstimate += Integer.parseInt(tempRs
-								.getsEstimate());
-					} catch (NumberFormatException
-							| ArrayIndexOutOfBoundsException
-							| NullPointerException e) {
-						lineTotalEstimate += 0;
-					}
-				}
-			}
-		} catch (NoSuchElementException nsee) {
-			// Do nothing
+		for (SprintEstimate sprint : getCurrentSprintEstimates(teamId)) {
+			lineTotalEstimate += sprint.getDoneEstimate();
 		}
+		List<Feature> cumulativeEstimate = new ArrayList<Feature>();
+		Feature f = new Feature();
 		f.setsEstimate(Integer.toString(lineTotalEstimate));
 		cumulativeEstimate.add(f);
 
@@ -439,26 +359,18 @@ public class FeatureServiceImpl implements FeatureService {
 
 		builder.and(team.collectorItemId.eq(item.getId()));
 
-		// Get teamId first from available collector item, based on component
-		List<Feature> sprintResponse = featureRepository
-				.getCurrentSprintDetail(teamId, getCurrentISODateTime());
-
 		List<Feature> sprintDetail = new ArrayList<Feature>();
 		Feature f = new Feature();
-		int i = 0;
-		try {
-			for (ListIterator<Feature> iter = sprintResponse.listIterator(); i < 1; i++) {
-				Feature tempRs = iter.next();
-				f.setsSprintID(tempRs.getsSprintID());
-				f.setsSprintName(tempRs.getsSprintName());
-				f.setsSprintBeginDate(tempRs.getsSprintBeginDate());
-				f.setsSprintEndDate(tempRs.getsSprintEndDate());
-				sprintDetail.add(f);
-			}
-		} catch (NoSuchElementException | NumberFormatException
-				| ArrayIndexOutOfBoundsException | NullPointerException e) {
-			sprintDetail.add(f);
+		CurrentSprint sprint = getCurrentSprint(teamId);
+		if (sprint != null) {
+			f.setsSprintID(sprint.getSprintId());
+			f.setsSprintName(sprint.getSprintName());
+			f.setsSprintBeginDate(FeatureStorage.formatDate(sprint
+					.getSprintBeginDate()));
+			f.setsSprintEndDate(FeatureStorage.formatDate(sprint
+					.getSprintEndDate()));
 		}
+		sprintDetail.add(f);
 
 		Collector collector = collectorRepository
 				.findOne(item.getCollectorId());
@@ -467,15 +379,46 @@ public class FeatureServiceImpl implements FeatureService {
 	}
 
 	/**
-	 * Retrieves the current system time stamp in ISO date time format. Because
-	 * this is not using SimpleTimeFormat, this should be thread safe.
+	 * Retrieves the sprint a team is currently in. The table kept by the
+	 * feature collectors is only trusted while its sprint is still running;
+	 * after that, or before the collectors have filled it, the team's sprint
+	 * rollups are searched instead.
 	 * 
-	 * @return A string representation of the current date time stamp in ISO
-	 *         format from the current time zone
+	 * @param teamId
+	 *            A given scope-owner's source-system ID
+	 * @return The current sprint, or null if the team is not in a sprint
+	 */
+	private CurrentSprint getCurrentSprint(String teamId) {
+		Date now = new Date();
+		CurrentSprint sprint = currentSprintRepository.findByTeamId(teamId);
+		if (sprint != null && sprint.isCurrent(now)) {
+			return sprint;
+		}
+
+		List<SprintEstimate> running = getCurrentSprintEstimates(teamId);
+		if (running.isEmpty()) {
+			return null;
+		}
+		SprintEstimate estimate = running.get(0);
+		sprint = new CurrentSprint();
+		sprint.setTeamId(teamId);
+		sprint.setSprintId(estimate.getSprintId());
+		sprint.setSprintName(estimate.getSprintName());
+		sprint.setSprintBeginDate(estimate.getSprintBeginDate());
+		sprint.setSprintEndDate(estimate.getSprintEndDate());
+		return sprint;
+	}
+
+	/**
+	 * Retrieves the estimate rollups of a team's current sprints. The feature
+	 * collectors keep the rollups up to date, so a team without any has no
+	 * current sprint estimates.
+	 * 
+	 * @param teamId
+	 *            A given scope-owner's source-system ID
+	 * @return The rollups of the sprints the team is currently in
 	 */
-	private String getCurrentISODateTime() {
-		String currentISODateTime = DatatypeConverter.printDateTime(Calendar
-				.getInstance(TimeZone.getTimeZone("UTC")));
-		return currentISODateTime;
+	private List<SprintEstimate> getCurrentSprintEstimates(String teamId) {
+		return sprintEstimateRepository.findCurrentByTeamId(teamId, new Date());
 	}
 }
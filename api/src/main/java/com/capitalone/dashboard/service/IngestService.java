@@ -0,0 +1,42 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.IngestResult;
+import org.bson.types.ObjectId;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stores builds, commits and test results sent as newline-delimited JSON, one record per
+ * line, for tools that have no collector. Records already stored for the collector item
+ * under the same natural key are skipped.
+ */
+public interface IngestService {
+
+    /**
+     * Stores builds, keyed by their number.
+     *
+     * @param collectorItemId id of the collector item the builds belong to
+     * @param ndjson one JSON build per line
+     * @return counts of the records stored and skipped, or null if there is no such collector item
+     */
+    IngestResult ingestBuilds(ObjectId collectorItemId, InputStream ndjson) throws IOException;
+
+    /**
+     * Stores commits, keyed by their revision number.
+     *
+     * @param collectorItemId id of the collector item the commits belong to
+     * @param ndjson one JSON commit per line
+     * @return counts of the records stored and skipped, or null if there is no such collector item
+     */
+    IngestResult ingestCommits(ObjectId collectorItemId, InputStream ndjson) throws IOException;
+
+    /**
+     * Stores test results, keyed by their execution id.
+     *
+     * @param collectorItemId id of the collector item the test results belong to
+     * @param ndjson one JSON test result per line
+     * @return counts of the records stored and skipped, or null if there is no such collector item
+     */
+    IngestResult ingestTestResults(ObjectId collectorItemId, InputStream ndjson) throws IOException;
+}
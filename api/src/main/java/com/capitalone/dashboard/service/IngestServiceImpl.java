@@ -0,0 +1,228 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.mapper.CustomObjectMapper;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.IngestResult;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.repository.BulkInserter;
+import com.capitalone.dashboard.repository.CollectorItemRepository;
+import com.capitalone.dashboard.repository.NaturalKeyIndexMigration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.PostConstruct;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the request a line at a time and hands the records to the {@link BulkInserter} in
+ * batches of {@code ingestBatchSize}, so memory use does not grow with the size of the
+ * request. Lines longer than {@code ingestMaxLineLength} characters are rejected, keeping no
+ * more than that of them in memory. Within a request the first record with a natural key wins.
+ */
+@org.springframework.stereotype.Service
+public class IngestServiceImpl implements IngestService {
+
+    private static final CustomObjectMapper OBJECT_MAPPER = new CustomObjectMapper();
+
+    private static final NaturalKey<Build> BUILD = new NaturalKey<Build>(Build.class, "number") {
+        @Override
+        String key(Build build, ObjectId collectorItemId) {
+            build.setCollectorItemId(collectorItemId);
+            return build.getNumber();
+        }
+    };
+
+    private static final NaturalKey<Commit> COMMIT = new NaturalKey<Commit>(Commit.class, "scmRevisionNumber") {
+        @Override
+        String key(Commit commit, ObjectId collectorItemId) {
+            commit.setCollectorItemId(collectorItemId);
+            return commit.getScmRevisionNumber();
+        }
+    };
+
+    private static final NaturalKey<TestResult> TEST_RESULT = new NaturalKey<TestResult>(TestResult.class, "executionId") {
+        @Override
+        String key(TestResult testResult, ObjectId collectorItemId) {
+            testResult.setCollectorItemId(collectorItemId);
+            return testResult.getExecutionId();
+        }
+    };
+
+    private final CollectorItemRepository collectorItemRepository;
+    private final BulkInserter bulkInserter;
+    private final NaturalKeyIndexMigration naturalKeyIndexMigration;
+    private final int batchSize;
+    private final int maxLineLength;
+
+    @Autowired
+    public IngestServiceImpl(CollectorItemRepository collectorItemRepository, BulkInserter bulkInserter,
+                             NaturalKeyIndexMigration naturalKeyIndexMigration,
+                             @Value("${ingestBatchSize:1000}") int batchSize,
+                             @Value("${ingestMaxLineLength:1048576}") int maxLineLength) {
+        this.collectorItemRepository = collectorItemRepository;
+        this.bulkInserter = bulkInserter;
+        this.naturalKeyIndexMigration = naturalKeyIndexMigration;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLineLength = Math.max(1, maxLineLength);
+    }
+
+    /**
+     * Removes duplicate records and adds the unique natural key indexes, before any upload
+     * is accepted.
+     */
+    @PostConstruct
+    public void migrateNaturalKeys() {
+        naturalKeyIndexMigration.migrate();
+    }
+
+    @Override
+    public IngestResult ingestBuilds(ObjectId collectorItemId, InputStream ndjson) throws IOException {
+        return ingest(collectorItemId, ndjson, BUILD);
+    }
+
+    @Override
+    public IngestResult ingestCommits(ObjectId collectorItemId, InputStream ndjson) throws IOException {
+        return ingest(collectorItemId, ndjson, COMMIT);
+    }
+
+    @Override
+    public IngestResult ingestTestResults(ObjectId collectorItemId, InputStream ndjson) throws IOException {
+        return ingest(collectorItemId, ndjson, TEST_RESULT);
+    }
+
+    private <T> IngestResult ingest(ObjectId collectorItemId, InputStream ndjson, NaturalKey<T> naturalKey)
+            throws IOException {
+        if (!collectorItemRepository.exists(collectorItemId)) {
+            return null;
+        }
+
+        IngestResult result = new IngestResult();
+        Map<String, T> batch = new LinkedHashMap<>();
+        LineReader reader = new LineReader(new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8)),
+                maxLineLength);
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (reader.isTruncated()) {
+                result.addReceived();
+                result.addRejected(1, "Line " + lineNumber + ": longer than " + maxLineLength + " characters");
+                continue;
+            }
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            result.addReceived();
+
+            T record;
+            try {
+                record = naturalKey.reader.readValue(line);
+            } catch (JsonProcessingException e) {
+                result.addRejected(1, "Line " + lineNumber + ": " + e.getOriginalMessage());
+                continue;
+            }
+            String key = naturalKey.key(record, collectorItemId);
+            if (key == null || key.trim().isEmpty()) {
+                result.addRejected(1, "Line " + lineNumber + ": no " + naturalKey.field);
+            } else if (batch.containsKey(key)) {
+                result.addDuplicates(1);
+            } else {
+                batch.put(key, record);
+                if (batch.size() >= batchSize) {
+                    flush(collectorItemId, naturalKey, batch, result);
+                }
+            }
+        }
+        flush(collectorItemId, naturalKey, batch, result);
+        return result;
+    }
+
+    private <T> void flush(ObjectId collectorItemId, NaturalKey<T> naturalKey, Map<String, T> batch,
+                           IngestResult result) {
+        BulkInserter.Outcome outcome = bulkInserter.insertNew(naturalKey.type, collectorItemId, naturalKey.field, batch);
+        result.addInserted(outcome.getInserted());
+        result.addDuplicates(outcome.getExisting());
+        if (outcome.getFailed() > 0) {
+            result.addRejected(outcome.getFailed(), outcome.getFailed() + " records refused by the database");
+        }
+        batch.clear();
+    }
+
+    /**
+     * Reads one kind of record and finds its natural key. A key repeated in a later batch of
+     * the same request is caught by the lookup of stored keys instead.
+     */
+    private abstract static class NaturalKey<T> {
+        private final Class<T> type;
+        private final String field;
+        private final ObjectReader reader;
+
+        NaturalKey(Class<T> type, String field) {
+            this.type = type;
+            this.field = field;
+            this.reader = OBJECT_MAPPER.reader(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        }
+
+        /**
+         * Assigns the record to the collector item and returns its natural key.
+         */
+        abstract String key(T record, ObjectId collectorItemId);
+    }
+
+    /**
+     * Reads lines ending in a line feed, keeping at most the given number of characters of
+     * each. The rest of a longer line is skipped without being kept.
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private boolean truncated;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return the next line without its line end, or null at the end of the input
+         */
+        String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            truncated = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            for (; c != -1 && c != '\n'; c = reader.read()) {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    truncated = true;
+                }
+            }
+            if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return line.toString();
+        }
+
+        /**
+         * @return whether the last line read was longer than the maximum length
+         */
+        boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.LeadTimes;
+import org.bson.types.ObjectId;
+
+public interface LeadTimeService {
+
+    /**
+     * Computes lead time percentiles for the changes committed to a component's build jobs
+     * in the given number of days, from the lead time index kept as builds and deployments
+     * are collected.
+     *
+     * @param componentId component id
+     * @param numberOfDays number of days of commits to include
+     * @return lead times in milliseconds
+     */
+    DataResponse<LeadTimes> getLeadTimes(ObjectId componentId, int numberOfDays);
+}
@@ -0,0 +1,130 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.LeadTimePercentiles;
+import com.capitalone.dashboard.model.LeadTimes;
+import com.capitalone.dashboard.model.RevisionBuild;
+import com.capitalone.dashboard.model.VersionDeployment;
+import com.capitalone.dashboard.repository.CollectorRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.RevisionBuildRepository;
+import com.capitalone.dashboard.repository.VersionDeploymentRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class LeadTimeServiceImpl implements LeadTimeService {
+
+    private final ComponentRepository componentRepository;
+    private final CollectorRepository collectorRepository;
+    private final RevisionBuildRepository revisionBuildRepository;
+    private final VersionDeploymentRepository versionDeploymentRepository;
+
+    @Autowired
+    public LeadTimeServiceImpl(ComponentRepository componentRepository,
+                               CollectorRepository collectorRepository,
+                               RevisionBuildRepository revisionBuildRepository,
+                               VersionDeploymentRepository versionDeploymentRepository) {
+        this.componentRepository = componentRepository;
+        this.collectorRepository = collectorRepository;
+        this.revisionBuildRepository = revisionBuildRepository;
+        this.versionDeploymentRepository = versionDeploymentRepository;
+    }
+
+    @Override
+    public DataResponse<LeadTimes> getLeadTimes(ObjectId componentId, int numberOfDays) {
+        Component component = componentRepository.findOne(componentId);
+        List<CollectorItem> buildItems = items(component, CollectorType.Build);
+        List<CollectorItem> deployItems = items(component, CollectorType.Deployment);
+
+        List<RevisionBuild> revisions = buildItems.isEmpty() ? new ArrayList<RevisionBuild>()
+                : revisionBuildRepository.findByBuildCollectorItemIdInAndCommitTimestampGreaterThan(ids(buildItems),
+                        System.currentTimeMillis() - TimeUnit.DAYS.toMillis(numberOfDays));
+
+        List<Long> commitToBuild = new ArrayList<>();
+        Set<String> versions = new HashSet<>();
+        for (RevisionBuild revision : revisions) {
+            if (revision.getBuildTimestamp() >= revision.getCommitTimestamp()) {
+                commitToBuild.add(revision.getBuildTimestamp() - revision.getCommitTimestamp());
+            }
+            if (revision.getVersion() != null) {
+                versions.add(revision.getVersion());
+            }
+        }
+
+        // First deployment of each version to each environment, over all deployable components
+        Map<String, Map<String, Long>> deployedByVersion = new HashMap<>();
+        if (!deployItems.isEmpty() && !versions.isEmpty()) {
+            for (VersionDeployment deployment : versionDeploymentRepository
+                    .findByDeployCollectorItemIdInAndVersionIn(ids(deployItems), versions)) {
+                Map<String, Long> environments = deployedByVersion.get(deployment.getVersion());
+                if (environments == null) {
+                    environments = new HashMap<>();
+                    deployedByVersion.put(deployment.getVersion(), environments);
+                }
+                Long first = environments.get(deployment.getEnvironmentName());
+                if (first == null || deployment.getDeployTimestamp() < first) {
+                    environments.put(deployment.getEnvironmentName(), deployment.getDeployTimestamp());
+                }
+            }
+        }
+
+        Map<String, List<Long>> commitToDeploy = new TreeMap<>();
+        for (RevisionBuild revision : revisions) {
+            Map<String, Long> environments = deployedByVersion.get(revision.getVersion());
+            if (environments == null) {
+                continue;
+            }
+            for (Map.Entry<String, Long> environment : environments.entrySet()) {
+                if (environment.getValue() >= revision.getCommitTimestamp()) {
+                    List<Long> leadTimes = commitToDeploy.get(environment.getKey());
+                    if (leadTimes == null) {
+                        leadTimes = new ArrayList<>();
+                        commitToDeploy.put(environment.getKey(), leadTimes);
+                    }
+                    leadTimes.add(environment.getValue() - revision.getCommitTimestamp());
+                }
+            }
+        }
+
+        Map<String, LeadTimePercentiles> deployPercentiles = new TreeMap<>();
+        for (Map.Entry<String, List<Long>> environment : commitToDeploy.entrySet()) {
+            deployPercentiles.put(environment.getKey(), new LeadTimePercentiles(environment.getValue()));
+        }
+
+        long lastUpdated = 0;
+        if (!buildItems.isEmpty()) {
+            Collector collector = collectorRepository.findOne(buildItems.get(0).getCollectorId());
+            lastUpdated = collector == null ? 0 : collector.getLastExecuted();
+        }
+        return new DataResponse<>(new LeadTimes(new LeadTimePercentiles(commitToBuild), deployPercentiles),
+                lastUpdated);
+    }
+
+    private static List<CollectorItem> items(Component component, CollectorType collectorType) {
+        List<CollectorItem> items = component == null ? null : component.getCollectorItems().get(collectorType);
+        return items == null ? new ArrayList<CollectorItem>() : items;
+    }
+
+    private static List<ObjectId> ids(List<CollectorItem> items) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (CollectorItem item : items) {
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,24 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.PortfolioEntry;
+import org.springframework.data.domain.Page;
+
+public interface PortfolioService {
+
+    /**
+     * Rolls up build health, deployment currency and code quality for a page of dashboards,
+     * ordered by title.
+     *
+     * @param page zero-based page number
+     * @param size number of dashboards per page
+     * @return page of portfolio entries
+     */
+    Page<PortfolioEntry> getPortfolio(int page, int size);
+
+    /**
+     * Brings the collector item summaries behind the portfolio up to date in the background.
+     * Recomputes the items collectors wrote to since the last refresh, and every item once a
+     * day. Does nothing on API nodes other than the one holding the portfolio lease.
+     */
+    void refreshSummaries();
+}
@@ -0,0 +1,342 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemSummary;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.PortfolioEntry;
+import com.capitalone.dashboard.model.Widget;
+import com.capitalone.dashboard.repository.ChangeNotificationCursor;
+import com.capitalone.dashboard.repository.ChangeNotificationRepository;
+import com.capitalone.dashboard.repository.CollectorItemSummaryRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DashboardRepository;
+import com.capitalone.dashboard.repository.LeaseRepository;
+import com.mongodb.MongoException;
+import org.bson.types.ObjectId;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class PortfolioServiceImpl implements PortfolioService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioServiceImpl.class);
+
+    private static final List<CollectorType> SUMMARY_TYPES =
+            Arrays.asList(CollectorType.Build, CollectorType.Deployment, CollectorType.CodeQuality);
+
+    private static final String LEASE = "portfolioRefresh";
+
+    private final DashboardRepository dashboardRepository;
+    private final ComponentRepository componentRepository;
+    private final CollectorItemSummaryRepository collectorItemSummaryRepository;
+    private final ChangeNotificationRepository changeNotificationRepository;
+    private final LeaseRepository leaseRepository;
+    private final long leaseMillis;
+    private final String holder = ManagementFactory.getRuntimeMXBean().getName() + "/" + ObjectId.get();
+    private final ExecutorService refresher;
+    private final ExecutorService refreshExecutor = Executors.newFixedThreadPool(SUMMARY_TYPES.size());
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile boolean fullRefreshDue = true;
+    // Only used by the refresher thread
+    private ObjectId lastSeen;
+    private LocalDate lastFullRefresh;
+    private ChangeNotificationCursor cursor;
+
+    @Autowired
+    public PortfolioServiceImpl(DashboardRepository dashboardRepository,
+                                ComponentRepository componentRepository,
+                                CollectorItemSummaryRepository collectorItemSummaryRepository,
+                                ChangeNotificationRepository changeNotificationRepository,
+                                LeaseRepository leaseRepository,
+                                @Value("${portfolioRefreshLease:600000}") long leaseMillis) {
+        this(dashboardRepository, componentRepository, collectorItemSummaryRepository, changeNotificationRepository,
+                leaseRepository, leaseMillis, Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "portfolio-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }));
+    }
+
+    PortfolioServiceImpl(DashboardRepository dashboardRepository,
+                         ComponentRepository componentRepository,
+                         CollectorItemSummaryRepository collectorItemSummaryRepository,
+                         ChangeNotificationRepository changeNotificationRepository,
+                         LeaseRepository leaseRepository,
+                         long leaseMillis,
+                         ExecutorService refresher) {
+        this.dashboardRepository = dashboardRepository;
+        this.componentRepository = componentRepository;
+        this.collectorItemSummaryRepository = collectorItemSummaryRepository;
+        this.changeNotificationRepository = changeNotificationRepository;
+        this.leaseRepository = leaseRepository;
+        this.leaseMillis = leaseMillis;
+        this.refresher = refresher;
+    }
+
+    @Override
+    public Page<PortfolioEntry> getPortfolio(int page, int size) {
+        PageRequest pageRequest = new PageRequest(page, size, new Sort("title"));
+        Page<Dashboard> dashboards = dashboardRepository.findOutlines(pageRequest);
+
+        Set<ObjectId> componentIds = new LinkedHashSet<>();
+        for (Dashboard dashboard : dashboards) {
+            componentIds.addAll(componentIds(dashboard));
+        }
+
+        Map<ObjectId, Component> components = new HashMap<>();
+        Set<ObjectId> collectorItemIds = new LinkedHashSet<>();
+        for (Component component : componentRepository.findAll(componentIds)) {
+            components.put(component.getId(), component);
+            for (CollectorType type : SUMMARY_TYPES) {
+                for (CollectorItem item : collectorItems(component, type)) {
+                    collectorItemIds.add(item.getId());
+                }
+            }
+        }
+
+        Map<ObjectId, CollectorItemSummary> summaries = new HashMap<>();
+        if (!collectorItemIds.isEmpty()) {
+            for (CollectorItemSummary summary : collectorItemSummaryRepository.findByCollectorItemIdIn(collectorItemIds)) {
+                summaries.put(summary.getCollectorItemId(), summary);
+            }
+        }
+
+        List<PortfolioEntry> entries = new ArrayList<>();
+        for (Dashboard dashboard : dashboards) {
+            PortfolioEntry entry = new PortfolioEntry();
+            entry.setDashboardId(dashboard.getId());
+            entry.setTitle(dashboard.getTitle());
+            entry.setOwner(dashboard.getOwner());
+            entry.setApplicationName(dashboard.getApplication() == null ? null : dashboard.getApplication().getName());
+
+            // Several widgets usually share a component, and components may share items
+            Set<ObjectId> itemIds = new LinkedHashSet<>();
+            for (ObjectId componentId : componentIds(dashboard)) {
+                Component component = components.get(componentId);
+                if (component == null) {
+                    continue;
+                }
+                for (CollectorType type : SUMMARY_TYPES) {
+                    for (CollectorItem item : collectorItems(component, type)) {
+                        itemIds.add(item.getId());
+                    }
+                }
+            }
+            for (ObjectId itemId : itemIds) {
+                CollectorItemSummary summary = summaries.get(itemId);
+                if (summary != null) {
+                    rollUp(entry, summary);
+                }
+            }
+            entries.add(entry);
+        }
+
+        return new PageImpl<>(entries, pageRequest, dashboards.getTotalElements());
+    }
+
+    /**
+     * Starts a refresh on the refresher thread unless one is still running. Only the API node
+     * holding the portfolio lease refreshes; the others read the summaries it writes.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${portfolioRefreshInterval:60000}")
+    public void refreshSummaries() {
+        // Renewed on every tick, also while a long refresh is running
+        if (!leaseRepository.acquire(LEASE, holder, leaseMillis)) {
+            // Another node refreshes meanwhile; start over if this one takes the lease back
+            fullRefreshDue = true;
+            return;
+        }
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refreshPass();
+                    } finally {
+                        refreshing.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+        refreshExecutor.shutdownNow();
+        leaseRepository.release(LEASE, holder);
+    }
+
+    /**
+     * Refreshes every item once a day, and in between only the items with change
+     * notifications since the last pass.
+     */
+    private void refreshPass() {
+        Map<CollectorType, Collection<ObjectId>> changed = new EnumMap<>(CollectorType.class);
+        LocalDate today = new LocalDate();
+
+        if (fullRefreshDue || !today.equals(lastFullRefresh)) {
+            fullRefreshDue = false;
+            // Read the position first so that nothing written during the refresh is missed
+            lastSeen = changeNotificationRepository.findNewestId();
+            closeCursor();
+            for (CollectorType type : SUMMARY_TYPES) {
+                changed.put(type, collectorItemSummaryRepository.findCollectorItemIds(type));
+            }
+            lastFullRefresh = today;
+        } else {
+            List<ChangeNotification> notifications;
+            try {
+                if (cursor == null || !cursor.isAlive()) {
+                    closeCursor();
+                    cursor = changeNotificationRepository.tail(lastSeen);
+                }
+                notifications = cursor.readAvailable();
+            } catch (MongoException e) {
+                LOGGER.warn("Lost the change notification cursor, reopening on the next refresh", e);
+                closeCursor();
+                return;
+            }
+            if (notifications.isEmpty()) {
+                return;
+            }
+            lastSeen = notifications.get(notifications.size() - 1).getId();
+            for (ChangeNotification notification : notifications) {
+                if (notification.getCollectorItemId() == null || !SUMMARY_TYPES.contains(notification.getCollectorType())) {
+                    continue;
+                }
+                Collection<ObjectId> ids = changed.get(notification.getCollectorType());
+                if (ids == null) {
+                    ids = new LinkedHashSet<>();
+                    changed.put(notification.getCollectorType(), ids);
+                }
+                ids.add(notification.getCollectorItemId());
+            }
+        }
+
+        refresh(changed);
+    }
+
+    private void closeCursor() {
+        if (cursor != null) {
+            try {
+                cursor.close();
+            } catch (MongoException e) {
+                LOGGER.debug("Could not close the change notification cursor", e);
+            }
+            cursor = null;
+        }
+    }
+
+    /**
+     * Refreshes each collector type on its own thread, since they read different collections.
+     */
+    private void refresh(Map<CollectorType, Collection<ObjectId>> changed) {
+        final long now = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<>();
+        for (final Map.Entry<CollectorType, Collection<ObjectId>> entry : changed.entrySet()) {
+            futures.add(refreshExecutor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    collectorItemSummaryRepository.refresh(entry.getKey(), entry.getValue(), now);
+                    return null;
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                LOGGER.error("Could not refresh collector item summaries", e.getCause());
+                // Retry from scratch rather than lose the failed items until tomorrow
+                fullRefreshDue = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void rollUp(PortfolioEntry entry, CollectorItemSummary summary) {
+        switch (summary.getCollectorType()) {
+            case Build:
+                if (summary.getLastBuildTime() >= entry.getLastBuildTime()) {
+                    entry.setLastBuildTime(summary.getLastBuildTime());
+                    entry.setLastBuildStatus(summary.getLastBuildStatus());
+                }
+                entry.setRecentBuildCount(entry.getRecentBuildCount() + summary.getRecentBuildCount());
+                entry.setRecentSuccessCount(entry.getRecentSuccessCount() + summary.getRecentSuccessCount());
+                break;
+            case Deployment:
+                entry.setComponentCount(entry.getComponentCount() + summary.getComponentCount());
+                entry.setDeployedCount(entry.getDeployedCount() + summary.getDeployedCount());
+                entry.setLastDeployed(Math.max(entry.getLastDeployed(), summary.getLastDeployed()));
+                break;
+            case CodeQuality:
+                if (summary.getQualityTimestamp() >= entry.getQualityTimestamp()) {
+                    entry.setQualityTimestamp(summary.getQualityTimestamp());
+                    entry.setMetrics(summary.getMetrics());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Set<ObjectId> componentIds(Dashboard dashboard) {
+        Set<ObjectId> ids = new LinkedHashSet<>();
+        for (Widget widget : dashboard.getWidgets()) {
+            if (widget.getComponentId() != null) {
+                ids.add(widget.getComponentId());
+            }
+        }
+        return ids;
+    }
+
+    private static List<CollectorItem> collectorItems(Component component, CollectorType type) {
+        List<CollectorItem> items = component.getCollectorItems().get(type);
+        return items == null ? new ArrayList<CollectorItem>() : items;
+    }
+}
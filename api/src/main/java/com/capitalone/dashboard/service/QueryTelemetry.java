@@ -0,0 +1,212 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.model.QueryStats;
+import com.capitalone.dashboard.model.SlowQuery;
+import com.capitalone.dashboard.repository.BudgetedMongoTemplate;
+import com.capitalone.dashboard.repository.QueryBudget;
+import com.capitalone.dashboard.repository.QueryListener;
+import com.capitalone.dashboard.repository.SlowQueryRepository;
+import com.capitalone.dashboard.util.Supplier;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps per endpoint statistics of the queries run under a {@link QueryBudget} and records
+ * the slow ones, with the number of documents Mongo examined for them, in a capped
+ * collection.
+ * <p>
+ * Slow queries are explained and saved on a single background thread with a short queue;
+ * when it falls behind, further slow queries are only counted.
+ */
+@Component
+public class QueryTelemetry implements QueryListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryTelemetry.class);
+
+    private static final String COLLECTION = "slow_queries";
+    private static final int CAPPED_SIZE_BYTES = 4 * 1024 * 1024;
+    private static final int CAPPED_MAX_DOCUMENTS = 10000;
+    private static final int PENDING_SLOW_QUERIES = 100;
+    private static final Integer SHAPE_VALUE = 1;
+
+    private final MongoOperations mongoOperations;
+    private final SlowQueryRepository slowQueryRepository;
+    private final ApiSettings apiSettings;
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor recorder = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(PENDING_SLOW_QUERIES),
+            new ThreadFactoryBuilder().setNameFormat("slow-queries-%d").setDaemon(true).build(),
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    @Autowired
+    public QueryTelemetry(MongoOperations mongoOperations, SlowQueryRepository slowQueryRepository,
+                          ApiSettings apiSettings) {
+        this.mongoOperations = mongoOperations;
+        this.slowQueryRepository = slowQueryRepository;
+        this.apiSettings = apiSettings;
+    }
+
+    @PostConstruct
+    public void register() {
+        if (mongoOperations instanceof BudgetedMongoTemplate) {
+            ((BudgetedMongoTemplate) mongoOperations).setQueryListener(this);
+        }
+        if (mongoOperations.collectionExists(COLLECTION)) {
+            return;
+        }
+        try {
+            mongoOperations.createCollection(COLLECTION,
+                    new CollectionOptions(CAPPED_SIZE_BYTES, CAPPED_MAX_DOCUMENTS, true));
+        } catch (RuntimeException e) {
+            // Another API node created it first
+            LOGGER.debug("Could not create " + COLLECTION, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recorder.shutdownNow();
+    }
+
+    @Override
+    public void onQuery(QueryBudget budget, String collectionName, DBObject query, long durationMillis,
+                        int returned, final Supplier<DBObject> explain) {
+        Counters count = counters(budget.getEndpoint());
+        count.queries.incrementAndGet();
+        count.totalMillis.addAndGet(durationMillis);
+        long max = count.maxMillis.get();
+        while (durationMillis > max && !count.maxMillis.compareAndSet(max, durationMillis)) {
+            max = count.maxMillis.get();
+        }
+
+        if (durationMillis < apiSettings.getSlowQueryThreshold()) {
+            return;
+        }
+        count.slow.incrementAndGet();
+        final SlowQuery slowQuery = new SlowQuery(budget.getEndpoint(), collectionName,
+                String.valueOf(shape(query)), durationMillis, returned);
+        recorder.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (explain != null) {
+                    try {
+                        slowQuery.setDocsExamined(docsExamined(explain.get()));
+                    } catch (RuntimeException e) {
+                        LOGGER.debug("Could not explain " + slowQuery.getShape(), e);
+                    }
+                }
+                slowQueryRepository.save(slowQuery);
+            }
+        });
+    }
+
+    @Override
+    public void onBudgetExceeded(QueryBudget budget, String collectionName, DBObject query) {
+        counters(budget.getEndpoint()).exceeded.incrementAndGet();
+        LOGGER.warn("Query budget of " + budget.getEndpoint() + " exceeded on " + collectionName + ": "
+                + shape(query));
+    }
+
+    /**
+     * @return statistics for every endpoint that ran queries so far
+     */
+    public List<QueryStats> getStats() {
+        List<QueryStats> stats = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            Counters count = entry.getValue();
+            stats.add(new QueryStats(entry.getKey(), count.queries.get(), count.slow.get(), count.exceeded.get(),
+                    count.totalMillis.get(), count.maxMillis.get()));
+        }
+        return stats;
+    }
+
+    /**
+     * Finds the most recent slow queries of all API nodes.
+     *
+     * @param since epoch milliseconds to look back to
+     * @param max maximum number of queries to return
+     * @return slow queries, newest first
+     */
+    public List<SlowQuery> getSlowQueries(long since, int max) {
+        return slowQueryRepository.findByTimestampGreaterThanOrderByIdDesc(since, new PageRequest(0, max));
+    }
+
+    /**
+     * Replaces the values of a query with 1, keeping its fields and operators, so that the
+     * same query run for different widgets has the same shape.
+     *
+     * @param query query document, or an element of one
+     * @return the shape of the query
+     */
+    static Object shape(Object query) {
+        if (query instanceof List) {
+            BasicDBList shaped = new BasicDBList();
+            for (Object element : (List<?>) query) {
+                if (element instanceof DBObject) {
+                    shaped.add(shape(element));
+                }
+            }
+            return shaped.isEmpty() ? SHAPE_VALUE : shaped;
+        } else if (query instanceof DBObject) {
+            DBObject dbObject = (DBObject) query;
+            BasicDBObject shaped = new BasicDBObject();
+            for (String key : dbObject.keySet()) {
+                shaped.append(key, shape(dbObject.get(key)));
+            }
+            return shaped;
+        }
+        return SHAPE_VALUE;
+    }
+
+    /**
+     * Reads the documents examined from an explain result, in the format of either Mongo 3.0
+     * or the versions before it.
+     */
+    static Integer docsExamined(DBObject explain) {
+        Object stats = explain == null ? null : explain.get("executionStats");
+        Object examined = stats instanceof DBObject ? ((DBObject) stats).get("totalDocsExamined")
+                : explain == null ? null : explain.get("nscannedObjects");
+        return examined instanceof Number ? ((Number) examined).intValue() : null;
+    }
+
+    private Counters counters(String endpoint) {
+        Counters count = counters.get(endpoint);
+        if (count == null) {
+            Counters created = new Counters();
+            count = counters.putIfAbsent(endpoint, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        return count;
+    }
+
+    private static final class Counters {
+        private final AtomicLong queries = new AtomicLong();
+        private final AtomicLong slow = new AtomicLong();
+        private final AtomicLong exceeded = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+    }
+}
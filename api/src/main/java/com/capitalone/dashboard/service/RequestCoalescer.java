@@ -0,0 +1,191 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.CoalescingStats;
+import com.capitalone.dashboard.repository.QueryBudget;
+import com.capitalone.dashboard.repository.QueryBudgetExceededException;
+import com.mongodb.MongoInterruptedException;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets concurrent identical queries share one execution. The first caller with a given key
+ * runs the query; callers arriving with the same key while it runs wait for it and get the
+ * same result, or the same exception. Nothing is kept once the query finishes, so callers
+ * arriving later run it again.
+ * <p>
+ * Waiting callers keep their own {@link QueryBudget} and can be interrupted. A failure that
+ * belongs to the caller running the query rather than to the query, its budget running out
+ * or its thread being interrupted, is not shared: one of the waiting callers runs the query
+ * again instead.
+ * <p>
+ * Keys must capture everything the result depends on, including the collector's last
+ * execution time so that fresh data is never answered with a query that started before it.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<List<Object>, FutureTask<?>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Runs a query, or joins an identical one already running.
+     *
+     * @param name kind of query, used for the statistics
+     * @param key values identifying the query; compared with equals
+     * @param query the query
+     * @param <T> result type
+     * @return the query's result, shared with any callers that joined it
+     * @throws QueryBudgetExceededException if the caller's budget runs out while it waits
+     * @throws MongoInterruptedException if the caller is interrupted while it waits
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, List<?> key, Callable<T> query) {
+        List<Object> fullKey = new ArrayList<Object>(key.size() + 1);
+        fullKey.add(name);
+        fullKey.addAll(key);
+
+        Counters count = counters(name);
+        while (true) {
+            FutureTask<T> task = new FutureTask<>(new Shared<>(query));
+            FutureTask<T> running = (FutureTask<T>) inFlight.putIfAbsent(fullKey, task);
+            if (running == null) {
+                count.executed.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    inFlight.remove(fullKey, task);
+                }
+                return getResult(task);
+            }
+
+            count.coalesced.incrementAndGet();
+            try {
+                return await(running);
+            } catch (CallerFailure e) {
+                // The caller running it gave up; run it again or join whoever does
+            }
+        }
+    }
+
+    /**
+     * @return statistics for every kind of query run so far
+     */
+    public List<CoalescingStats> getStats() {
+        List<CoalescingStats> stats = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            stats.add(new CoalescingStats(entry.getKey(),
+                    entry.getValue().executed.get(), entry.getValue().coalesced.get()));
+        }
+        return stats;
+    }
+
+    private Counters counters(String name) {
+        Counters count = counters.get(name);
+        if (count == null) {
+            Counters created = new Counters();
+            count = counters.putIfAbsent(name, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        return count;
+    }
+
+    private static <T> T getResult(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            // Not reached: the task has already run on this thread
+            Thread.currentThread().interrupt();
+            throw new MongoInterruptedException("Interrupted reading a shared query's result", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw rethrow(cause instanceof CallerFailure ? cause.getCause() : cause);
+        }
+    }
+
+    private static <T> T await(FutureTask<T> task) {
+        QueryBudget budget = QueryBudget.current();
+        try {
+            return budget == null ? task.get() : task.get(budget.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MongoInterruptedException("Interrupted waiting for a shared query", e);
+        } catch (TimeoutException e) {
+            throw new QueryBudgetExceededException(budget.getEndpoint(), budget.getBudgetMillis(), e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    /**
+     * Runs a query for every caller sharing it, marking the failures that belong to the
+     * caller running it.
+     */
+    private static final class Shared<T> implements Callable<T> {
+        private final Callable<T> query;
+
+        private Shared(Callable<T> query) {
+            this.query = query;
+        }
+
+        @Override
+        public T call() throws Exception {
+            try {
+                return query.call();
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted() || isCallerFailure(e)) {
+                    throw new CallerFailure(e);
+                }
+                throw e;
+            }
+        }
+
+        private static boolean isCallerFailure(Throwable e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof QueryBudgetExceededException || cause instanceof MongoInterruptedException
+                        || cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                        || cause instanceof CancellationException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Failure of the caller running a shared query, rethrown to that caller only.
+     */
+    private static final class CallerFailure extends RuntimeException {
+        private CallerFailure(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static final class Counters {
+        private final AtomicLong executed = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+    }
+}
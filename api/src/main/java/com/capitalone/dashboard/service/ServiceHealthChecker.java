@@ -0,0 +1,441 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Service;
+import com.capitalone.dashboard.model.ServiceCheck;
+import com.capitalone.dashboard.model.ServiceCheckResult;
+import com.capitalone.dashboard.model.ServiceStatus;
+import com.capitalone.dashboard.repository.ServiceRepository;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.AsyncByteConsumer;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.protocol.HttpContext;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the URL of every {@link Service} that has a {@link ServiceCheck}, so their status
+ * no longer depends on something outside Hygieia PUTting it.
+ * <p>
+ * Due services are found every {@code serviceCheckPollInterval} milliseconds. Requests are
+ * made by a non-blocking HTTP client, at most {@code serviceCheckConcurrency} at a time;
+ * services due while that many are under way wait for a later poll. Two threads resolve
+ * the addresses of checks and record their outcomes. Each check waits its interval plus or
+ * minus a tenth before running again, and checks are spread over the first interval after
+ * startup, so they do not bunch up. A failed check gives a warning until the service has
+ * failed its threshold of checks in a row, then an alert; a response slower than the
+ * service allows gives a warning. Every check is added to the latency history of the
+ * service, while its status, message and last updated time are only written when they
+ * change. Checking is off unless {@code serviceCheckEnabled} is true, which it should be on
+ * one API node only.
+ * <p>
+ * Anyone who may edit a dashboard can set the URL of a check, so the checker does not
+ * request loopback, link-local, private or multicast addresses, nor follow redirects,
+ * unless the host or address is listed in {@code serviceCheckAllowedAddresses}: host
+ * names, addresses and ranges such as {@code 10.0.0.0/8}, separated by commas.
+ */
+@Component
+public class ServiceHealthChecker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceHealthChecker.class);
+
+    private static final int WORKER_THREADS = 2;
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    private final ServiceRepository serviceRepository;
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final CloseableHttpAsyncClient client;
+    private final ExecutorService executor;
+    private final Set<String> allowedHosts = new HashSet<>();
+    private final List<AddressRange> allowedRanges = new ArrayList<>();
+    private final ConcurrentMap<ObjectId, CheckState> states = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceHealthChecker(ServiceRepository serviceRepository,
+                                @Value("${serviceCheckEnabled:false}") boolean enabled,
+                                @Value("${serviceCheckConcurrency:50}") int concurrency,
+                                @Value("${serviceCheckAllowedAddresses:}") String allowedAddresses) {
+        this.serviceRepository = serviceRepository;
+        this.enabled = enabled;
+        this.permits = new Semaphore(Math.max(1, concurrency));
+        for (String allowed : StringUtils.commaDelimitedListToStringArray(allowedAddresses)) {
+            allow(allowed.trim());
+        }
+        this.client = HttpAsyncClients.custom()
+                .setMaxConnTotal(Math.max(1, concurrency))
+                .setMaxConnPerRoute(Math.max(1, concurrency))
+                .setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(1).build())
+                .setThreadFactory(threadFactory("service-check-io-"))
+                .build();
+        this.client.start();
+        this.executor = Executors.newFixedThreadPool(WORKER_THREADS, threadFactory("service-check-"));
+    }
+
+    /**
+     * Starts a check of every service that is due and not still being checked, as far as
+     * the limit on checks under way allows.
+     */
+    @Scheduled(fixedDelayString = "${serviceCheckPollInterval:5000}")
+    public void checkDue() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<ObjectId> checked = new HashSet<>();
+        for (final Service service : serviceRepository.findChecked()) {
+            checked.add(service.getId());
+            final CheckState state = state(service, now);
+            if (state.running || state.nextCheck > now || !permits.tryAcquire()) {
+                continue;
+            }
+            state.running = true;
+            final ListenableFutureCallback<ServiceStatus> finished = new ListenableFutureCallback<ServiceStatus>() {
+                @Override
+                public void onSuccess(ServiceStatus status) {
+                    done();
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    LOGGER.error("Could not check service " + service.getId(), e);
+                    done();
+                }
+
+                private void done() {
+                    state.nextCheck = System.currentTimeMillis() + jitter(interval(service.getCheck()));
+                    state.running = false;
+                    permits.release();
+                }
+            };
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        check(service, state).addCallback(finished);
+                    } catch (RuntimeException e) {
+                        finished.onFailure(e);
+                    }
+                }
+            });
+        }
+        // forget services whose check was removed
+        states.keySet().retainAll(checked);
+    }
+
+    private CheckState state(Service service, long now) {
+        CheckState state = states.get(service.getId());
+        if (state == null) {
+            state = new CheckState();
+            state.nextCheck = now + ThreadLocalRandom.current().nextLong(interval(service.getCheck()));
+            CheckState existing = states.putIfAbsent(service.getId(), state);
+            if (existing != null) {
+                state = existing;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Requests the URL of a service's check and records the outcome.
+     *
+     * @return the status recorded, once it is
+     */
+    ListenableFuture<ServiceStatus> check(final Service service, final CheckState state) {
+        final ServiceCheck check = service.getCheck();
+        final SettableListenableFuture<ServiceStatus> result = new SettableListenableFuture<>();
+        final long start = System.nanoTime();
+        HttpGet request;
+        try {
+            request = request(check);
+        } catch (IOException | IllegalArgumentException e) {
+            record(service, state, start, 0, "Could not connect: " + e.getMessage(), result);
+            return result;
+        }
+
+        client.execute(HttpAsyncMethods.create(request), new StatusConsumer(), new FutureCallback<Integer>() {
+            @Override
+            public void completed(final Integer statusCode) {
+                String failure = statusCode >= HttpURLConnection.HTTP_BAD_REQUEST ? "HTTP " + statusCode : null;
+                recordLater(service, state, start, statusCode, failure, result);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                String failure = e instanceof SocketTimeoutException
+                        ? "No response within " + check.getTimeoutMillis() + "ms"
+                        : "Could not connect: " + e.getMessage();
+                recordLater(service, state, start, 0, failure, result);
+            }
+
+            @Override
+            public void cancelled() {
+                recordLater(service, state, start, 0, "Could not connect: cancelled", result);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Builds the request of a check, refusing addresses that are not allowed. The client
+     * resolves the host again, which the address cache of the JVM answers the same way.
+     */
+    private HttpGet request(ServiceCheck check) throws IOException {
+        URI uri;
+        try {
+            uri = new URI(check.getUrl());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ENGLISH);
+        if (!"http".equals(scheme) && !"https".equals(scheme) || uri.getHost() == null) {
+            throw new IllegalArgumentException("not an HTTP URL: " + check.getUrl());
+        }
+        String host = uri.getHost().toLowerCase(Locale.ENGLISH);
+        if (!allowedHosts.contains(host)) {
+            for (InetAddress address : InetAddress.getAllByName(host)) {
+                if (isInternal(address) && !isAllowed(address)) {
+                    throw new UnknownHostException(host + " resolves to " + address.getHostAddress()
+                            + ", which is not allowed");
+                }
+            }
+        }
+
+        HttpGet request = new HttpGet(uri);
+        request.setConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(check.getTimeoutMillis())
+                .setConnectTimeout(check.getTimeoutMillis())
+                .setSocketTimeout(check.getTimeoutMillis())
+                .setRedirectsEnabled(false)
+                .build());
+        return request;
+    }
+
+    private void recordLater(final Service service, final CheckState state, final long start, final int statusCode,
+                             final String failure, final SettableListenableFuture<ServiceStatus> result) {
+        // Off the I/O thread of the client, which must not wait for the database
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                record(service, state, start, statusCode, failure, result);
+            }
+        });
+    }
+
+    private void record(Service service, CheckState state, long start, int statusCode, String failure,
+                        SettableListenableFuture<ServiceStatus> result) {
+        try {
+            result.set(record(service, state, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    statusCode, failure));
+        } catch (RuntimeException e) {
+            result.setException(e);
+        }
+    }
+
+    private ServiceStatus record(Service service, CheckState state, long latency, int statusCode, String failure) {
+        ServiceCheck check = service.getCheck();
+        ServiceStatus status;
+        String message;
+        if (failure != null) {
+            state.failures++;
+            int threshold = Math.max(1, check.getFailureThreshold());
+            if (state.failures >= threshold) {
+                status = ServiceStatus.Alert;
+                message = failure;
+            } else {
+                status = ServiceStatus.Warning;
+                message = failure + " (" + state.failures + " of " + threshold + " failed checks)";
+            }
+        } else {
+            state.failures = 0;
+            if (check.getSlowMillis() > 0 && latency > check.getSlowMillis()) {
+                status = ServiceStatus.Warning;
+                message = "Slower than " + check.getSlowMillis() + "ms";
+            } else {
+                status = ServiceStatus.Ok;
+                message = null;
+            }
+        }
+
+        ServiceCheckResult result = new ServiceCheckResult(System.currentTimeMillis(), latency, statusCode, status);
+        if (serviceRepository.recordCheck(service.getId(), result, status, message)) {
+            LOGGER.info("Service {} is now {}: {}", service.getId(), status, message);
+        }
+        return status;
+    }
+
+    private void allow(String allowed) {
+        if (allowed.isEmpty()) {
+            return;
+        }
+        int slash = allowed.indexOf('/');
+        String address = slash < 0 ? allowed : allowed.substring(0, slash);
+        if (!IPV4.matcher(address).matches() && address.indexOf(':') < 0) {
+            allowedHosts.add(allowed.toLowerCase(Locale.ENGLISH));
+            return;
+        }
+        try {
+            // An address literal, so nothing is looked up
+            InetAddress network = InetAddress.getByName(address);
+            int bits = network.getAddress().length * 8;
+            allowedRanges.add(new AddressRange(network,
+                    slash < 0 ? bits : Math.min(bits, Integer.parseInt(allowed.substring(slash + 1)))));
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalArgumentException("Not an address or range: " + allowed, e);
+        }
+    }
+
+    private boolean isAllowed(InetAddress address) {
+        for (AddressRange range : allowedRanges) {
+            if (range.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true for addresses of the host itself or of a network it is on
+     */
+    static boolean isInternal(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        return address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()
+                // IPv6 unique local addresses, fc00::/7
+                || bytes.length == 16 && (bytes[0] & 0xfe) == 0xfc;
+    }
+
+    private static long interval(ServiceCheck check) {
+        return TimeUnit.SECONDS.toMillis(Math.max(1, check.getIntervalSeconds()));
+    }
+
+    private static long jitter(long interval) {
+        long spread = Math.max(1, interval / 10);
+        return interval - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1);
+    }
+
+    private static ThreadFactory threadFactory(final String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, prefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            client.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close the service check client", e);
+        }
+    }
+
+    /**
+     * Reads the status of a response and discards its body, so the connection can be reused
+     * without holding the body in memory.
+     */
+    private static final class StatusConsumer extends AsyncByteConsumer<Integer> {
+        private int statusCode;
+
+        @Override
+        protected void onResponseReceived(HttpResponse response) {
+            statusCode = response.getStatusLine().getStatusCode();
+        }
+
+        @Override
+        protected void onByteReceived(ByteBuffer buf, IOControl ioctrl) {
+            // Discarded
+        }
+
+        @Override
+        protected Integer buildResult(HttpContext context) {
+            return statusCode;
+        }
+    }
+
+    /**
+     * Addresses sharing a prefix with a network address.
+     */
+    private static final class AddressRange {
+        private final byte[] network;
+        private final int prefixBits;
+
+        AddressRange(InetAddress network, int prefixBits) {
+            this.network = network.getAddress();
+            this.prefixBits = prefixBits;
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] bytes = address.getAddress();
+            if (bytes.length != network.length) {
+                return false;
+            }
+            for (int bit = 0; bit < prefixBits; bit++) {
+                int mask = 0x80 >> (bit % 8);
+                if ((bytes[bit / 8] & mask) != (network[bit / 8] & mask)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * What the checker remembers about a service between its checks.
+     */
+    static final class CheckState {
+        private volatile long nextCheck;
+        private volatile boolean running;
+        private int failures;
+
+        int getFailures() {
+            return failures;
+        }
+    }
+}
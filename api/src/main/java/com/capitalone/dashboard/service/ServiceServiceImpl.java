@@ -62,7 +62,9 @@ public class ServiceServiceImpl implements ServiceService {
             throw new IllegalStateException("Not allowed to update this service from this dashboard!");
         }
         service.setLastUpdated(System.currentTimeMillis());
-        return serviceRepository.save(service);
+        // Only the fields a request sets, so a check recorded meanwhile is not overwritten
+        serviceRepository.updateStatus(service);
+        return service;
     }
 
     @Override
@@ -80,14 +82,13 @@ public class ServiceServiceImpl implements ServiceService {
         if (service.getDashboardId().equals(dashboardId)) {
             throw new IllegalStateException("Not allowed to add service owned by dashboard to dependent service!");
         }
+        serviceRepository.addDependedBy(serviceId, dashboardId);
         service.getDependedBy().add(dashboardId);
-        return serviceRepository.save(service);
+        return service;
     }
 
     @Override
     public void deleteDependentService(ObjectId dashboardId, ObjectId serviceId) {
-        Service service = get(serviceId);
-        service.getDependedBy().remove(dashboardId);
-        serviceRepository.save(service);
+        serviceRepository.removeDependedBy(serviceId, dashboardId);
     }
 }
@@ -1,10 +1,49 @@
 package com.capitalone.dashboard.service;
 
 import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestCaseStats;
+import com.capitalone.dashboard.model.TestCaseStatus;
 import com.capitalone.dashboard.model.TestResult;
 import com.capitalone.dashboard.request.TestResultRequest;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
 
 public interface TestResultService {
 
     DataResponse<Iterable<TestResult>> search(TestResultRequest request);
+
+    /**
+     * Pages through the test cases of a test result, in suite and case order.
+     *
+     * @param testResultId test result ID
+     * @param suiteIndex position of a suite in the result, or null for every suite
+     * @param status test case status, or null for every status
+     * @param page zero-based page number
+     * @param size number of test cases per page
+     * @return page of TestCaseRecords
+     */
+    Page<TestCaseRecord> getTestCases(ObjectId testResultId, Integer suiteIndex, TestCaseStatus status,
+                                      int page, int size);
+
+    /**
+     * Lists the test cases of a component whose recent outcomes flip most often between
+     * passing and failing.
+     *
+     * @param componentId component ID
+     * @param max maximum number of test cases
+     * @return flaky test cases, flakiest first
+     */
+    DataResponse<List<TestCaseStats>> getFlakyTestCases(ObjectId componentId, int max);
+
+    /**
+     * Lists the test cases of a component with the highest 95th percentile of recent durations.
+     *
+     * @param componentId component ID
+     * @param max maximum number of test cases
+     * @return test cases, slowest first
+     */
+    DataResponse<List<TestCaseStats>> getSlowTestCases(ObjectId componentId, int max);
 }
@@ -3,28 +3,41 @@ package com.capitalone.dashboard.service;
 import com.capitalone.dashboard.model.*;
 import com.capitalone.dashboard.repository.CollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.TestCaseRecordRepository;
+import com.capitalone.dashboard.repository.TestCaseStatsRepository;
 import com.capitalone.dashboard.repository.TestResultRepository;
 import com.capitalone.dashboard.request.TestResultRequest;
 import com.mysema.query.BooleanBuilder;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class TestResultServiceImpl implements TestResultService {
 
     private final TestResultRepository testResultRepository;
     private final ComponentRepository componentRepository;
     private final CollectorRepository collectorRepository;
+    private final TestCaseRecordRepository testCaseRecordRepository;
+    private final TestCaseStatsRepository testCaseStatsRepository;
 
     @Autowired
     public TestResultServiceImpl(TestResultRepository testResultRepository,
                                  ComponentRepository componentRepository,
-                                 CollectorRepository collectorRepository) {
+                                 CollectorRepository collectorRepository,
+                                 TestCaseRecordRepository testCaseRecordRepository,
+                                 TestCaseStatsRepository testCaseStatsRepository) {
         this.testResultRepository = testResultRepository;
         this.componentRepository = componentRepository;
         this.collectorRepository = collectorRepository;
+        this.testCaseRecordRepository = testCaseRecordRepository;
+        this.testCaseStatsRepository = testCaseStatsRepository;
     }
 
     @Override
@@ -67,4 +80,52 @@ public class TestResultServiceImpl implements TestResultService {
         Collector collector = collectorRepository.findOne(item.getCollectorId());
         return new DataResponse<>(result, collector.getLastExecuted());
     }
+
+    @Override
+    public Page<TestCaseRecord> getTestCases(ObjectId testResultId, Integer suiteIndex, TestCaseStatus status,
+                                             int page, int size) {
+        QTestCaseRecord testCase = new QTestCaseRecord("testCase");
+        BooleanBuilder builder = new BooleanBuilder();
+
+        builder.and(testCase.testResultId.eq(testResultId));
+        if (suiteIndex != null) {
+            builder.and(testCase.suiteIndex.eq(suiteIndex));
+        }
+        if (status != null) {
+            builder.and(testCase.status.eq(status));
+        }
+
+        return testCaseRecordRepository.findAll(builder.getValue(),
+                new PageRequest(page, size, Sort.Direction.ASC, "suiteIndex", "caseIndex"));
+    }
+
+    @Override
+    public DataResponse<List<TestCaseStats>> getFlakyTestCases(ObjectId componentId, int max) {
+        CollectorItem item = testItem(componentId);
+        if (item == null) {
+            return new DataResponse<List<TestCaseStats>>(new ArrayList<TestCaseStats>(), 0L);
+        }
+
+        List<TestCaseStats> stats = testCaseStatsRepository.findByCollectorItemIdAndFlakinessGreaterThan(item.getId(), 0,
+                new PageRequest(0, max, new Sort(Sort.Direction.DESC, "flakiness", "flips")));
+        return new DataResponse<>(stats, collectorRepository.findOne(item.getCollectorId()).getLastExecuted());
+    }
+
+    @Override
+    public DataResponse<List<TestCaseStats>> getSlowTestCases(ObjectId componentId, int max) {
+        CollectorItem item = testItem(componentId);
+        if (item == null) {
+            return new DataResponse<List<TestCaseStats>>(new ArrayList<TestCaseStats>(), 0L);
+        }
+
+        List<TestCaseStats> stats = testCaseStatsRepository.findByCollectorItemId(item.getId(),
+                new PageRequest(0, max, Sort.Direction.DESC, "durationP95"));
+        return new DataResponse<>(stats, collectorRepository.findOne(item.getCollectorId()).getLastExecuted());
+    }
+
+    private CollectorItem testItem(ObjectId componentId) {
+        Component component = componentRepository.findOne(componentId);
+        List<CollectorItem> items = component == null ? null : component.getCollectorItems().get(CollectorType.Test);
+        return items == null || items.isEmpty() ? null : items.get(0);
+    }
 }
@@ -1,5 +1,6 @@
 package com.capitalone.dashboard.config;
 
+import com.capitalone.dashboard.ApiSettings;
 import com.capitalone.dashboard.service.*;
 import org.mockito.Mockito;
 import org.springframework.context.annotation.Bean;
@@ -70,4 +71,49 @@ public class TestConfig {
 	public EncryptionService encryptionService() {
 		return Mockito.mock(EncryptionService.class);
 	}
+
+	@Bean
+	public IngestService ingestService() {
+		return Mockito.mock(IngestService.class);
+	}
+
+	@Bean
+	public DataVersionService dataVersionService() {
+		return Mockito.mock(DataVersionService.class);
+	}
+
+	@Bean
+	public ChangeNotificationService changeNotificationService() {
+		return Mockito.mock(ChangeNotificationService.class);
+	}
+
+	@Bean
+	public RequestCoalescer requestCoalescer() {
+		return Mockito.mock(RequestCoalescer.class);
+	}
+
+	@Bean
+	public PortfolioService portfolioService() {
+		return Mockito.mock(PortfolioService.class);
+	}
+
+	@Bean
+	public DailyStatsService dailyStatsService() {
+		return Mockito.mock(DailyStatsService.class);
+	}
+
+	@Bean
+	public LeadTimeService leadTimeService() {
+		return Mockito.mock(LeadTimeService.class);
+	}
+
+	@Bean
+	public QueryTelemetry queryTelemetry() {
+		return Mockito.mock(QueryTelemetry.class);
+	}
+
+	@Bean
+	public ApiSettings apiSettings() {
+		return new ApiSettings();
+	}
 }
@@ -0,0 +1,147 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.repository.QueryBudget;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AsyncRequestExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AsyncRequestExecutor executor;
+
+    @Before
+    public void setup() {
+        ApiSettings settings = new ApiSettings();
+        settings.setAsyncPoolSize(1);
+        settings.setAsyncQueueSize(1);
+        settings.setRetryAfter(7);
+        settings.getQueryBudgets().put("test", 0L);
+        executor = new AsyncRequestExecutor(settings);
+    }
+
+    @After
+    public void teardown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void submit_completesResult() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        DeferredResult<String> result = executor.submit("build", new Callable<String>() {
+            @Override
+            public String call() {
+                done.countDown();
+                return "ok";
+            }
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        waitFor(result);
+        assertThat((String) result.getResult(), is("ok"));
+    }
+
+    @Test
+    public void submit_poolAndQueueFull_shed() {
+        executor.submit("build", blocking());
+        executor.submit("build", blocking());
+
+        try {
+            executor.submit("build", blocking());
+            fail("Expected the third request to be shed");
+        } catch (ServerBusyException e) {
+            assertThat(e.getRetryAfter(), is(7));
+        }
+    }
+
+    @Test
+    public void submit_otherPoolFull_notAffected() throws Exception {
+        executor.submit("build", blocking());
+        executor.submit("build", blocking());
+
+        DeferredResult<String> result = executor.submit("commit", new Callable<String>() {
+            @Override
+            public String call() {
+                return "ok";
+            }
+        });
+
+        waitFor(result);
+        assertThat((String) result.getResult(), is("ok"));
+    }
+
+    @Test
+    public void submit_runsUnderPoolBudget() throws Exception {
+        Callable<String> endpoint = new Callable<String>() {
+            @Override
+            public String call() {
+                QueryBudget budget = QueryBudget.current();
+                return budget == null ? null : budget.getEndpoint() + "/" + budget.getBudgetMillis();
+            }
+        };
+        DeferredResult<String> build = executor.submit("build", endpoint);
+        DeferredResult<String> test = executor.submit("test", endpoint);
+
+        waitFor(build);
+        waitFor(test);
+        assertThat((String) build.getResult(), is("build/10000"));
+        assertThat(test.getResult(), nullValue());
+        assertThat(QueryBudget.current(), nullValue());
+    }
+
+    @Test
+    public void submit_timedOut_freesSlot() throws Exception {
+        DeferredResult<String> running = executor.submit("build", blocking());
+        DeferredResult<String> queued = executor.submit("build", blocking());
+
+        // The queue slot is given back while the first request still holds the thread
+        timeOut(queued);
+        DeferredResult<String> next = executor.submit("build", new Callable<String>() {
+            @Override
+            public String call() {
+                return "ok";
+            }
+        });
+
+        // The thread is interrupted and moves on to the next request
+        timeOut(running);
+        assertThat(running.getResult(), instanceOf(ServerBusyException.class));
+        waitFor(next);
+        assertThat((String) next.getResult(), is("ok"));
+    }
+
+    private static void timeOut(DeferredResult<?> result) {
+        ((Runnable) ReflectionTestUtils.getField(result, "timeoutCallback")).run();
+    }
+
+    private Callable<String> blocking() {
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                release.await();
+                return "done";
+            }
+        };
+    }
+
+    private void waitFor(DeferredResult<?> result) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.hasResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
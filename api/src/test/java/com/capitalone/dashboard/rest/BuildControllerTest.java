@@ -4,10 +4,15 @@ import com.capitalone.dashboard.config.TestConfig;
 import com.capitalone.dashboard.config.WebMVCConfig;
 import com.capitalone.dashboard.model.Build;
 import com.capitalone.dashboard.model.BuildStatus;
+import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.DataResponse;
 import com.capitalone.dashboard.model.SCM;
 import com.capitalone.dashboard.request.BuildRequest;
 import com.capitalone.dashboard.service.BuildService;
+import com.capitalone.dashboard.service.DataVersionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
@@ -18,6 +23,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -25,6 +31,8 @@ import java.util.Arrays;
 
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +46,7 @@ public class BuildControllerTest {
 
     @Autowired private WebApplicationContext wac;
     @Autowired private BuildService buildService;
+    @Autowired private DataVersionService dataVersionService;
 
     @Before
     public void before() {
@@ -53,7 +62,11 @@ public class BuildControllerTest {
 
         when(buildService.search(Mockito.any(BuildRequest.class))).thenReturn(response);
 
-        mockMvc.perform(get("/build?componentId=" + ObjectId.get()))
+        MvcResult result = mockMvc.perform(get("/build?componentId=" + ObjectId.get()))
+                .andExpect(request().asyncStarted())
+                .andExpect(request().asyncResult(notNullValue())).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$result", hasSize(1)))
                 .andExpect(jsonPath("$result[0].id", is(build.getId().toString())))
@@ -76,6 +89,60 @@ public class BuildControllerTest {
                 .andExpect(jsonPath("$result[0].sourceChangeSet[0].scmAuthor", is(scm.getScmAuthor())));
     }
 
+    @Test
+    public void builds_smile() throws Exception {
+        Build build = makeBuild();
+        when(buildService.search(Mockito.any(BuildRequest.class)))
+                .thenReturn(new DataResponse<Iterable<Build>>(Arrays.asList(build), 1));
+
+        MvcResult result = mockMvc.perform(get("/build?componentId=" + ObjectId.get()).accept(WebMVCConfig.SMILE_VALUE))
+                .andExpect(request().asyncStarted())
+                .andExpect(request().asyncResult(notNullValue())).andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WebMVCConfig.SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode json = new ObjectMapper(new SmileFactory()).readTree(body).get("result");
+        assertThat(json.size(), is(1));
+        assertThat(json.get(0).get("id").asText(), is(build.getId().toString()));
+        assertThat(json.get(0).get("buildStatus").asText(), is(build.getBuildStatus().toString()));
+    }
+
+    @Test
+    public void builds_unchanged_notModified() throws Exception {
+        ObjectId componentId = ObjectId.get();
+        when(dataVersionService.getETag(eq(componentId), eq(CollectorType.Build), anyString(), anyMap()))
+                .thenReturn("\"abc\"");
+
+        mockMvc.perform(get("/build?componentId=" + componentId).header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void builds_changed_returnsETag() throws Exception {
+        ObjectId componentId = ObjectId.get();
+        when(buildService.search(Mockito.any(BuildRequest.class)))
+                .thenReturn(new DataResponse<Iterable<Build>>(Arrays.asList(makeBuild()), 1));
+        when(dataVersionService.getETag(eq(componentId), eq(CollectorType.Build), anyString(), anyMap()))
+                .thenReturn("\"def\"");
+
+        MvcResult result = mockMvc.perform(get("/build?componentId=" + componentId).header("If-None-Match", "\"abc\""))
+                .andExpect(request().asyncStarted())
+                .andExpect(request().asyncResult(notNullValue()))
+                .andExpect(header().string("ETag", "\"def\""))
+                .andExpect(header().string("Cache-Control", startsWith("private, ")))
+                .andExpect(header().string("Cache-Control", containsString("must-revalidate")))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$result", hasSize(1)));
+    }
+
     @Test
     public void  builds_noComponentId_badRequest() throws Exception {
         mockMvc.perform(get("/build")).andExpect(status().isBadRequest());
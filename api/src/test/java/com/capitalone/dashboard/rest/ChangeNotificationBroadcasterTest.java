@@ -0,0 +1,159 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.repository.ChangeNotificationCursor;
+import com.capitalone.dashboard.service.ChangeNotificationService;
+import com.capitalone.dashboard.service.DashboardService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ChangeNotificationBroadcasterTest {
+
+    @Mock private ChangeNotificationService changeNotificationService;
+    @Mock private DashboardService dashboardService;
+    @Mock private ChangeNotificationCursor cursor;
+    private ChangeNotificationBroadcaster broadcaster;
+
+    private final ObjectId start = ObjectId.get();
+
+    @Before
+    public void setup() {
+        broadcaster = new ChangeNotificationBroadcaster(changeNotificationService, dashboardService,
+                MoreExecutors.sameThreadExecutor(), 20);
+        when(changeNotificationService.lastNotificationId()).thenReturn(start);
+        when(changeNotificationService.tailNotifications(start)).thenReturn(cursor);
+        when(cursor.isAlive()).thenReturn(true);
+        when(cursor.readAvailable()).thenReturn(Collections.<ChangeNotification>emptyList());
+        broadcaster.poll();
+    }
+
+    @Test
+    public void poll_deliversOnlySubscribedItems() throws Exception {
+        ObjectId itemId = ObjectId.get();
+        ObjectId otherItemId = ObjectId.get();
+        MockHttpServletResponse response = subscribe(itemId);
+
+        ChangeNotification mine = notification(CollectorType.Build, itemId, null);
+        ChangeNotification other = notification(CollectorType.SCM, otherItemId, null);
+        when(cursor.readAvailable()).thenReturn(Arrays.asList(mine, other));
+
+        broadcaster.poll();
+
+        String body = response.getContentAsString();
+        assertThat(body, containsString("event: change"));
+        assertThat(body, containsString("id: " + other.getId()));
+        assertThat(body, containsString(itemId.toString()));
+        assertThat(body, not(containsString(otherItemId.toString())));
+    }
+
+    @Test
+    public void poll_routesFeaturesByTeam() throws Exception {
+        MockHttpServletResponse response = subscribe("team1");
+
+        when(cursor.readAvailable()).thenReturn(Arrays.asList(notification(CollectorType.Feature, null, "team1")));
+
+        broadcaster.poll();
+
+        assertThat(response.getContentAsString(), containsString("team1"));
+    }
+
+    @Test
+    public void poll_deadCursor_reopenedAfterLastSeen() {
+        ChangeNotification first = notification(CollectorType.Build, ObjectId.get(), null);
+        when(cursor.readAvailable()).thenReturn(Collections.singletonList(first));
+        broadcaster.poll();
+
+        ChangeNotificationCursor reopened = mock(ChangeNotificationCursor.class);
+        when(cursor.isAlive()).thenReturn(false);
+        when(changeNotificationService.tailNotifications(first.getId())).thenReturn(reopened);
+        when(reopened.readAvailable()).thenReturn(Collections.<ChangeNotification>emptyList());
+        broadcaster.poll();
+
+        verify(cursor).close();
+        verify(reopened).readAvailable();
+    }
+
+    @Test
+    public void heartbeat_streamFallingBehind_closed() throws Exception {
+        // A writer that never gets to run, as with a client that stopped reading
+        ExecutorService stalled = mock(ExecutorService.class);
+        broadcaster = new ChangeNotificationBroadcaster(changeNotificationService, dashboardService, stalled, 2);
+        subscribe(ObjectId.get());
+        assertThat(broadcaster.getStreamCount(), is(1));
+
+        broadcaster.heartbeat();
+        broadcaster.heartbeat();
+        assertThat(broadcaster.getStreamCount(), is(1));
+        broadcaster.heartbeat();
+
+        assertThat(broadcaster.getStreamCount(), is(0));
+        verify(stalled, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void heartbeat_completedStream_released() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockAsyncContext asyncContext = (MockAsyncContext) request.startAsync(request, response);
+        broadcaster.subscribe(ObjectId.get(), Collections.<Object>singleton(ObjectId.get()), asyncContext);
+        assertThat(broadcaster.getStreamCount(), is(1));
+
+        asyncContext.complete();
+
+        assertThat(broadcaster.getStreamCount(), is(0));
+    }
+
+    @Test
+    public void heartbeat_openStream_recordsDashboardAccess() throws Exception {
+        ObjectId dashboardId = ObjectId.get();
+        subscribe(dashboardId, ObjectId.get());
+        verify(dashboardService).recordAccess(dashboardId);
+
+        broadcaster.heartbeat();
+
+        verify(dashboardService, times(2)).recordAccess(dashboardId);
+    }
+
+    private MockHttpServletResponse subscribe(Object key) throws Exception {
+        return subscribe(ObjectId.get(), key);
+    }
+
+    private MockHttpServletResponse subscribe(ObjectId dashboardId, Object key) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        broadcaster.subscribe(dashboardId, Collections.singleton(key), request.startAsync(request, response));
+        return response;
+    }
+
+    private ChangeNotification notification(CollectorType type, ObjectId itemId, String teamId) {
+        ChangeNotification notification = new ChangeNotification(type, itemId, teamId);
+        notification.setId(ObjectId.get());
+        return notification;
+    }
+}
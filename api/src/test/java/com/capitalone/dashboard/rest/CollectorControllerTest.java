@@ -4,6 +4,7 @@ import com.capitalone.dashboard.config.TestConfig;
 import com.capitalone.dashboard.config.WebMVCConfig;
 import com.capitalone.dashboard.model.Collector;
 import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemHealth;
 import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.service.CollectorService;
 import org.bson.types.ObjectId;
@@ -11,6 +12,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
@@ -66,6 +69,24 @@ public class CollectorControllerTest {
                 .andExpect(jsonPath("$[1].enabled", is(item2.isEnabled())));
     }
 
+    @Test
+    public void searchCollectorItemsByType() throws Exception {
+        Collector collector = makeCollector("Hudson", CollectorType.Build);
+        CollectorItem item = makeCollectorItem(collector, "Build 1", true);
+        item.setCollector(null);
+
+        when(collectorService.searchCollectorItems(CollectorType.Build, "bui", false, 1, 10))
+                .thenReturn(new PageImpl<>(Arrays.asList(item), new PageRequest(1, 10), 11));
+
+        mockMvc.perform(get("/collector/item/type/build?search=bui&match=contains&page=1&size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(item.getId().toString())))
+                .andExpect(jsonPath("$.content[0].description", is(item.getDescription())))
+                .andExpect(jsonPath("$.totalElements", is(11)))
+                .andExpect(jsonPath("$.totalPages", is(2)));
+    }
+
     @Test
     public void getCollectorItemById() throws Exception {
         Collector collector = makeCollector("Hudson", CollectorType.Build);
@@ -83,6 +104,37 @@ public class CollectorControllerTest {
                 .andExpect(jsonPath("$.enabled", is(item1.isEnabled())));
     }
 
+    @Test
+    public void getCollectorItemHealth() throws Exception {
+        ObjectId itemId = ObjectId.get();
+        CollectorItemHealth health = new CollectorItemHealth();
+        health.setCollectorItemId(itemId);
+        health.setLastSuccess(1000L);
+        health.setConsecutiveFailures(2);
+        health.setLastError("401 Unauthorized");
+        health.setFetches(4);
+        health.setTotalFetchMillis(200);
+
+        when(collectorService.getCollectorItemHealth(itemId)).thenReturn(health);
+
+        mockMvc.perform(get("/collector/item/" + itemId + "/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collectorItemId", is(itemId.toString())))
+                .andExpect(jsonPath("$.lastSuccess", is(1000)))
+                .andExpect(jsonPath("$.consecutiveFailures", is(2)))
+                .andExpect(jsonPath("$.lastError", is("401 Unauthorized")))
+                .andExpect(jsonPath("$.averageFetchMillis", is(50)));
+    }
+
+    @Test
+    public void getCollectorItemHealth_neverFetched_notFound() throws Exception {
+        ObjectId itemId = ObjectId.get();
+        when(collectorService.getCollectorItemHealth(itemId)).thenReturn(null);
+
+        mockMvc.perform(get("/collector/item/" + itemId + "/health"))
+                .andExpect(status().isNotFound());
+    }
+
     private Collector makeCollector(String name, CollectorType type) {
         Collector collector = new Collector();
         collector.setId(ObjectId.get());
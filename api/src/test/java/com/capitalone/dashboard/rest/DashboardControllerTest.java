@@ -14,6 +14,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Matchers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
@@ -59,6 +61,39 @@ public class DashboardControllerTest {
                 .andExpect(jsonPath("$[0].application.components[0].name", is("comp")));
     }
 
+    @Test
+    public void searchDashboards() throws Exception {
+        DashboardSummary d1 = new DashboardSummary();
+        d1.setId(ObjectId.get());
+        d1.setTitle("My App");
+        d1.setOwner("amit");
+        d1.setTemplate("t1");
+        when(dashboardService.search(null, "my", false, 0, 20))
+                .thenReturn(new PageImpl<>(Arrays.asList(d1), new PageRequest(0, 20), 21));
+
+        mockMvc.perform(get("/dashboard?search=my&match=contains&page=0&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(d1.getId().toString())))
+                .andExpect(jsonPath("$.content[0].title", is("My App")))
+                .andExpect(jsonPath("$.content[0].owner", is("amit")))
+                .andExpect(jsonPath("$.content[0].template", is("t1")))
+                .andExpect(jsonPath("$.content[0].application").doesNotExist())
+                .andExpect(jsonPath("$.content[0].widgets").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(21)))
+                .andExpect(jsonPath("$.totalPages", is(2)));
+    }
+
+    @Test
+    public void searchOwnedDashboards() throws Exception {
+        when(dashboardService.search("amit", "", true, 1, 200))
+                .thenReturn(new PageImpl<>(Arrays.<DashboardSummary>asList(), new PageRequest(1, 200), 0));
+
+        mockMvc.perform(get("/dashboard/mydashboard/amit?page=1&size=1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
     @Test
     public void createDashboard() throws Exception {
         DashboardRequest request = makeDashboardRequest("template", "title", "app", "comp","amit");
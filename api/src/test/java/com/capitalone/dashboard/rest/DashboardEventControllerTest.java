@@ -0,0 +1,64 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.config.TestConfig;
+import com.capitalone.dashboard.config.WebMVCConfig;
+import com.capitalone.dashboard.service.ChangeNotificationService;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestConfig.class, WebMVCConfig.class})
+@WebAppConfiguration
+public class DashboardEventControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired private WebApplicationContext wac;
+    @Autowired private ChangeNotificationService changeNotificationService;
+
+    @Before
+    public void before() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    public void events_opensStream() throws Exception {
+        ObjectId dashboardId = ObjectId.get();
+        when(changeNotificationService.subscriptionKeys(dashboardId))
+                .thenReturn(Collections.<Object>singleton(ObjectId.get()));
+
+        mockMvc.perform(get("/dashboard/" + dashboardId + "/events"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("Content-Type", startsWith(ChangeNotificationBroadcaster.EVENT_STREAM)))
+                .andExpect(content().string(containsString("retry:")));
+    }
+
+    @Test
+    public void events_unknownDashboard_notFound() throws Exception {
+        ObjectId dashboardId = ObjectId.get();
+        when(changeNotificationService.subscriptionKeys(dashboardId)).thenReturn(null);
+
+        mockMvc.perform(get("/dashboard/" + dashboardId + "/events"))
+                .andExpect(status().isNotFound());
+    }
+}
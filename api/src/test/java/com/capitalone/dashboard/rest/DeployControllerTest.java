@@ -17,6 +17,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -64,7 +65,11 @@ public class DeployControllerTest {
 
         when(deployService.getDeployStatus(componentId)).thenReturn(response);
 
-        mockMvc.perform(get("/deploy/status/" + componentId.toString()))
+        MvcResult result = mockMvc.perform(get("/deploy/status/" + componentId.toString()))
+                .andExpect(request().asyncStarted())
+                .andExpect(request().asyncResult(notNullValue())).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$result", hasSize(1)))
                 .andExpect(jsonPath("$result[0].name", is(e.getName())))
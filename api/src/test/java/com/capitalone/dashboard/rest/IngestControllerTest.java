@@ -0,0 +1,68 @@
+package com.capitalone.dashboard.rest;
+
+import com.capitalone.dashboard.config.TestConfig;
+import com.capitalone.dashboard.config.WebMVCConfig;
+import com.capitalone.dashboard.model.IngestResult;
+import com.capitalone.dashboard.service.IngestService;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.InputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestConfig.class, WebMVCConfig.class})
+@WebAppConfiguration
+public class IngestControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext wac;
+    @Autowired private IngestService ingestService;
+
+    @Before
+    public void before() {
+        reset(ingestService);
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    public void ingestBuilds() throws Exception {
+        ObjectId id = ObjectId.get();
+        IngestResult result = new IngestResult();
+        result.addReceived();
+        result.addReceived();
+        result.addInserted(1);
+        result.addRejected(1, "Line 2: no number");
+        when(ingestService.ingestBuilds(eq(id), any(InputStream.class))).thenReturn(result);
+
+        mockMvc.perform(post("/collector/item/" + id + "/build").content("{\"number\":\"1\"}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.inserted", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.errors[0]", is("Line 2: no number")));
+    }
+
+    @Test
+    public void ingestTestResults_unknownCollectorItem() throws Exception {
+        mockMvc.perform(post("/collector/item/" + ObjectId.get() + "/test").content("{}\n"))
+                .andExpect(status().isNotFound());
+    }
+}
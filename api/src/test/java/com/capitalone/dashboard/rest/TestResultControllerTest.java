@@ -11,10 +11,13 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -22,9 +25,12 @@ import java.util.Arrays;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -53,7 +59,11 @@ public class TestResultControllerTest {
 
         when(testResultService.search(Mockito.any(TestResultRequest.class))).thenReturn(response);
 
-        mockMvc.perform(get("/test?componentId=" + ObjectId.get()))
+        MvcResult result = mockMvc.perform(get("/test?componentId=" + ObjectId.get()))
+                .andExpect(request().asyncStarted())
+                .andExpect(request().asyncResult(notNullValue())).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$result", hasSize(1)))
                 .andExpect(jsonPath("$result[0].id", is(testResult.getId().toString())))
@@ -88,6 +98,45 @@ public class TestResultControllerTest {
                 .andExpect(jsonPath("$result[0].testSuites[0].testCases[0].status", is(testCase.getStatus().toString())));
     }
 
+    @Test
+    public void testCases() throws Exception {
+        TestResult testResult = makeTestResult();
+        TestCase testCase = testResult.getTestSuites().iterator().next().getTestCases().iterator().next();
+        TestCaseRecord record = new TestCaseRecord(testResult, 0, 0, testCase);
+
+        when(testResultService.getTestCases(testResult.getId(), 0, TestCaseStatus.Failure, 2, 200))
+                .thenReturn(new PageImpl<>(Arrays.asList(record), new PageRequest(2, 200), 401));
+
+        mockMvc.perform(get("/test/" + testResult.getId() + "/cases?suite=0&status=Failure&page=2&size=1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].testResultId", is(testResult.getId().toString())))
+                .andExpect(jsonPath("$.content[0].testCaseId", is(testCase.getId())))
+                .andExpect(jsonPath("$.content[0].status", is(testCase.getStatus().toString())))
+                .andExpect(jsonPath("$.totalElements", is(401)))
+                .andExpect(jsonPath("$.totalPages", is(3)));
+    }
+
+    @Test
+    public void flakyTestCases() throws Exception {
+        ObjectId componentId = ObjectId.get();
+        TestResult testResult = makeTestResult();
+        TestCase testCase = testResult.getTestSuites().iterator().next().getTestCases().iterator().next();
+        TestCaseStats stats = new TestCaseStats(testResult.getCollectorItemId(), "suite", testCase);
+        stats.record(TestCaseStatus.Success, 10, 1);
+        stats.record(TestCaseStatus.Failure, 20, 2);
+
+        when(testResultService.getFlakyTestCases(componentId, 5))
+                .thenReturn(new DataResponse<>(Arrays.asList(stats), 1));
+
+        mockMvc.perform(get("/test/cases/flaky?componentId=" + componentId + "&max=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$result", hasSize(1)))
+                .andExpect(jsonPath("$result[0].key", is("suite/" + testCase.getId())))
+                .andExpect(jsonPath("$result[0].flips", is(1)))
+                .andExpect(jsonPath("$result[0].flakiness", is(1.0)));
+    }
+
     private TestResult makeTestResult() {
         TestResult result = new TestResult();
         result.setId(ObjectId.get());
@@ -18,6 +18,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
@@ -30,6 +31,7 @@ public class BuildServiceTest {
     @Mock private BuildRepository buildRepository;
     @Mock private ComponentRepository componentRepository;
     @Mock private CollectorRepository collectorRepository;
+    @Spy private RequestCoalescer requestCoalescer = new RequestCoalescer();
     @InjectMocks private BuildServiceImpl buildService;
 
     @Test
@@ -0,0 +1,103 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.DailyStats;
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.MetricPoint;
+import com.capitalone.dashboard.model.SeriesInterval;
+import com.capitalone.dashboard.repository.CollectorRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsRepository;
+import org.bson.types.ObjectId;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CodeQualityServiceTest {
+
+    private static final LocalDate MONDAY = new LocalDate(2015, 6, 1);
+
+    @Mock private ComponentRepository componentRepository;
+    @Mock private CollectorRepository collectorRepository;
+    @Mock private DailyStatsRepository dailyStatsRepository;
+    @InjectMocks private CodeQualityServiceImpl codeQualityService;
+
+    private ObjectId componentId = ObjectId.get();
+    private CollectorItem item = new CollectorItem();
+
+    @Before
+    public void setup() {
+        item.setId(ObjectId.get());
+        item.setCollectorId(ObjectId.get());
+        Component component = new Component();
+        component.getCollectorItems().put(CollectorType.CodeQuality, Arrays.asList(item));
+
+        when(componentRepository.findOne(componentId)).thenReturn(component);
+        when(collectorRepository.findOne(item.getCollectorId())).thenReturn(new Collector());
+        when(dailyStatsRepository.findMetric(eq(item.getId()), eq("line.coverage"), any(Date.class))).thenReturn(Arrays.asList(
+                makeStats(MONDAY, 70.0), makeStats(MONDAY.plusDays(3), 72.5), makeStats(MONDAY.plusDays(8), 75.0)));
+    }
+
+    @Test
+    public void getMetricSeries_daily() {
+        List<MetricPoint> points = codeQualityService.getMetricSeries(componentId, "line.coverage", 30,
+                SeriesInterval.Day).getResult();
+
+        assertThat(points, hasSize(3));
+        assertPoint(points.get(0), MONDAY, 70.0);
+        assertPoint(points.get(1), MONDAY.plusDays(3), 72.5);
+        assertPoint(points.get(2), MONDAY.plusDays(8), 75.0);
+    }
+
+    @Test
+    public void getMetricSeries_weekly_lastValuePerWeek() {
+        List<MetricPoint> points = codeQualityService.getMetricSeries(componentId, "line.coverage", 30,
+                SeriesInterval.Week).getResult();
+
+        assertThat(points, hasSize(2));
+        assertPoint(points.get(0), MONDAY, 72.5);
+        assertPoint(points.get(1), MONDAY.plusDays(7), 75.0);
+    }
+
+    @Test
+    public void getMetricSeries_noCodeQuality_empty() {
+        ObjectId other = ObjectId.get();
+        when(componentRepository.findOne(other)).thenReturn(new Component());
+
+        DataResponse<List<MetricPoint>> response = codeQualityService.getMetricSeries(other, "coverage", 30,
+                SeriesInterval.Day);
+
+        assertThat(response.getResult(), is(empty()));
+    }
+
+    private void assertPoint(MetricPoint point, LocalDate day, Object value) {
+        assertThat(point.getTimestamp(), is(day.toDateTimeAtStartOfDay(DateTimeZone.UTC).getMillis()));
+        assertThat(point.getValue(), is(value));
+    }
+
+    private DailyStats makeStats(LocalDate day, double coverage) {
+        DailyStats stats = new DailyStats();
+        stats.setDay(day.toDateTimeAtStartOfDay(DateTimeZone.UTC).toDate());
+        stats.getMetrics().put(DailyStats.metricKey("line.coverage"), coverage);
+        return stats;
+    }
+}
@@ -1,19 +1,30 @@
 package com.capitalone.dashboard.service;
 
 import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorFreshness;
 import com.capitalone.dashboard.model.CollectorItem;
 import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.PipelineStats;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
 import com.capitalone.dashboard.repository.CollectorItemRepository;
+import com.capitalone.dashboard.repository.CollectorItemSearchMigration;
 import com.capitalone.dashboard.repository.CollectorRepository;
+import com.capitalone.dashboard.repository.PipelineStatsRepository;
 import org.bson.types.ObjectId;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
@@ -24,6 +35,9 @@ public class CollectorServiceTest {
 
     @Mock private CollectorRepository collectorRepository;
     @Mock private CollectorItemRepository collectorItemRepository;
+    @Mock private CollectorItemHealthRepository collectorItemHealthRepository;
+    @Mock private CollectorItemSearchMigration collectorItemSearchMigration;
+    @Mock private PipelineStatsRepository pipelineStatsRepository;
     @InjectMocks private CollectorServiceImpl collectorService;
 
     @Test
@@ -41,6 +55,47 @@ public class CollectorServiceTest {
         assertThat(items, contains(item1, item2));
     }
 
+    @Test
+    public void migrateSearchKeys() {
+        collectorService.migrateSearchKeys();
+
+        verify(collectorItemSearchMigration).migrate();
+    }
+
+    @Test
+    public void searchCollectorItems() {
+        Collector c = makeCollector();
+        CollectorItem item = makeCollectorItem();
+        Page<CollectorItem> page = new PageImpl<>(Arrays.asList(item));
+
+        when(collectorRepository.findByCollectorType(CollectorType.Build)).thenReturn(Arrays.asList(c));
+        when(collectorItemRepository.search(Arrays.asList(c.getId()), "job", true,
+                new PageRequest(2, 20, new Sort("description")))).thenReturn(page);
+
+        assertThat(collectorService.searchCollectorItems(CollectorType.Build, "job", true, 2, 20), is(page));
+    }
+
+    @Test
+    public void getFreshness_itemsFetchedInLastWeek() {
+        List<CollectorFreshness> freshness = Arrays.asList(new CollectorFreshness());
+        when(collectorItemHealthRepository.freshness(anyLong())).thenReturn(freshness);
+
+        long weekAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(7);
+        assertThat(collectorService.getFreshness(), is(freshness));
+
+        ArgumentCaptor<Long> since = ArgumentCaptor.forClass(Long.class);
+        verify(collectorItemHealthRepository).freshness(since.capture());
+        assertThat(since.getValue(), allOf(greaterThanOrEqualTo(weekAgo), lessThan(weekAgo + 60000)));
+    }
+
+    @Test
+    public void getPipelineStats() {
+        PipelineStats stats = new PipelineStats();
+        when(pipelineStatsRepository.findAll()).thenReturn(Arrays.asList(stats));
+
+        assertThat(collectorService.getPipelineStats(), contains(stats));
+    }
+
     private Collector makeCollector() {
         Collector collector = new Collector();
         collector.setId(ObjectId.get());
@@ -0,0 +1,70 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.DailyStats;
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.repository.CollectorRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsRepository;
+import org.bson.types.ObjectId;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DailyStatsServiceTest {
+
+    @Mock private DailyStatsRepository dailyStatsRepository;
+    @Mock private ComponentRepository componentRepository;
+    @Mock private CollectorRepository collectorRepository;
+    @InjectMocks private DailyStatsServiceImpl dailyStatsService;
+
+    @Test
+    public void getDailyStats_readsRowsFromFirstDay() {
+        ObjectId componentId = ObjectId.get();
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        item.setCollectorId(ObjectId.get());
+        Component component = new Component();
+        component.getCollectorItems().put(CollectorType.Build, Arrays.asList(item));
+        Collector collector = new Collector();
+        collector.setLastExecuted(42);
+        DailyStats stats = new DailyStats();
+
+        when(componentRepository.findOne(componentId)).thenReturn(component);
+        when(collectorRepository.findOne(item.getCollectorId())).thenReturn(collector);
+        when(dailyStatsRepository.findByCollectorItemIdAndDayGreaterThanEqualOrderByDayAsc(item.getId(),
+                new LocalDate(DateTimeZone.UTC).minusDays(13).toDateTimeAtStartOfDay(DateTimeZone.UTC).toDate()))
+                .thenReturn(Arrays.asList(stats));
+
+        DataResponse<List<DailyStats>> response = dailyStatsService.getDailyStats(componentId, CollectorType.Build, 14);
+
+        assertThat(response.getResult(), contains(stats));
+        assertThat(response.getLastUpdated(), is(42L));
+    }
+
+    @Test
+    public void getDailyStats_noCollectorItem_empty() {
+        ObjectId componentId = ObjectId.get();
+        when(componentRepository.findOne(componentId)).thenReturn(new Component());
+
+        DataResponse<List<DailyStats>> response = dailyStatsService.getDailyStats(componentId, CollectorType.Test, 14);
+
+        assertThat(response.getResult(), is(empty()));
+        verifyZeroInteractions(dailyStatsRepository);
+    }
+}
@@ -10,6 +10,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
@@ -27,6 +30,8 @@ public class DashboardServiceTest {
     @Mock private CollectorRepository collectorRepository;
     @Mock private CollectorItemRepository collectorItemRepository;
     @Mock private ServiceRepository serviceRepository;
+    @Mock private DashboardAccessRepository dashboardAccessRepository;
+    @Mock private DashboardSearchMigration dashboardSearchMigration;
     @InjectMocks private DashboardServiceImpl dashboardService;
 
     @Test
@@ -39,6 +44,32 @@ public class DashboardServiceTest {
         assertThat(actual, is(expected));
     }
 
+    @Test
+    public void search() {
+        Page<DashboardSummary> expected = new PageImpl<>(Arrays.asList(new DashboardSummary()));
+        when(dashboardRepository.search("amit", "ti", true,
+                new PageRequest(2, 20, new Sort(DashboardSearch.TITLE_KEY)))).thenReturn(expected);
+
+        assertThat(dashboardService.search("amit", "ti", true, 2, 20), is(expected));
+    }
+
+    @Test
+    public void migrateTitleKeys() {
+        dashboardService.migrateTitleKeys();
+
+        verify(dashboardSearchMigration).migrate();
+    }
+
+    @Test
+    public void recordAccess_repeatedWithinAMinute_recordedOnce() {
+        ObjectId id = ObjectId.get();
+
+        dashboardService.recordAccess(id);
+        dashboardService.recordAccess(id);
+
+        verify(dashboardAccessRepository, times(1)).recordAccess(eq(id), anyLong());
+    }
+
     @Test
     public void get() {
         ObjectId id = ObjectId.get();
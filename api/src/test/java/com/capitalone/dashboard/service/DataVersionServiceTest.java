@@ -0,0 +1,118 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.DataVersion;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DataVersionRepository;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataVersionServiceTest {
+
+    @Mock private ComponentRepository componentRepository;
+    @Mock private DataVersionRepository dataVersionRepository;
+    @InjectMocks private DataVersionServiceImpl dataVersionService;
+
+    private ObjectId componentId = ObjectId.get();
+    private ObjectId collectorId = ObjectId.get();
+    private CollectorItem item = new CollectorItem();
+    private DataVersion dataVersion = new DataVersion();
+
+    @Before
+    public void setup() {
+        item.setId(ObjectId.get());
+        item.setCollectorId(collectorId);
+        Component component = new Component();
+        component.getCollectorItems().put(CollectorType.Build, Arrays.asList(item));
+        component.getCollectorItems().put(CollectorType.ScopeOwner, Arrays.asList(item));
+        dataVersion.setVersion(1);
+
+        when(componentRepository.findOne(componentId)).thenReturn(component);
+        when(dataVersionRepository.findBySourceId(item.getId())).thenReturn(dataVersion);
+    }
+
+    @Test
+    public void getETag_sameData_sameTag() {
+        String first = dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("a", "b"));
+        String second = dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("a", "b"));
+
+        assertThat(first, startsWith("\""));
+        assertThat(first, endsWith("\""));
+        assertThat(second, is(first));
+    }
+
+    @Test
+    public void getETag_dataWritten_newTag() {
+        String first = dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("a", "b"));
+        dataVersion.setVersion(2);
+        String second = dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("a", "b"));
+
+        assertThat(second, not(first));
+    }
+
+    @Test
+    public void getETag_features_versionedByCollector() {
+        DataVersion collectorVersion = new DataVersion();
+        collectorVersion.setVersion(5);
+        when(dataVersionRepository.findBySourceId(collectorId)).thenReturn(collectorVersion);
+
+        String first = dataVersionService.getETag(componentId, CollectorType.ScopeOwner, "/feature", params("a"));
+        collectorVersion.setVersion(6);
+        String second = dataVersionService.getETag(componentId, CollectorType.ScopeOwner, "/feature", params("a"));
+
+        assertThat(first, notNullValue());
+        assertThat(second, not(first));
+    }
+
+    @Test
+    public void getETag_noVersionYet_tagged() {
+        when(dataVersionRepository.findBySourceId(item.getId())).thenReturn(null);
+
+        assertThat(dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("a")), notNullValue());
+    }
+
+    @Test
+    public void getETag_parameterOrder_ignored() {
+        String first = dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("a", "b"));
+        String second = dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("b", "a"));
+
+        assertThat(second, is(first));
+    }
+
+    @Test
+    public void getETag_differentParameters_newTag() {
+        String first = dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("a", "b"));
+        String second = dataVersionService.getETag(componentId, CollectorType.Build, "/build", params("a", "c"));
+
+        assertThat(second, not(first));
+    }
+
+    @Test
+    public void getETag_noCollectorItem_null() {
+        assertThat(dataVersionService.getETag(componentId, CollectorType.SCM, "/commit", params("a")), nullValue());
+    }
+
+    private Map<String, String[]> params(String... names) {
+        Map<String, String[]> params = new LinkedHashMap<>();
+        for (String name : names) {
+            params.put(name, new String[] { name + "Value" });
+        }
+        return params;
+    }
+}
@@ -15,6 +15,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -47,7 +48,7 @@ public class DeployServiceTest {
         EnvironmentComponent c_qa_ui = makeEnvComponent("QA", "UI", "1.1", true);
         EnvironmentComponent c_prod_api = makeEnvComponent("PROD", "API", "1.0", true);
         EnvironmentComponent c_prod_ui = makeEnvComponent("PROD", "UI", "1.0", true);
-        when(environmentComponentRepository.findByCollectorItemId(item.getId()))
+        when(environmentComponentRepository.findLatestByCollectorItemId(item.getId()))
                 .thenReturn(Arrays.asList(c_qa_api, c_qa_ui, c_prod_api, c_prod_ui));
 
         EnvironmentStatus s_qa_api_s1 = makeEnvironmentStatus("QA", "API", "s1", true);
@@ -135,6 +136,46 @@ public class DeployServiceTest {
         assertThat(server.isOnline(), is(true));
     }
 
+    @org.junit.Test
+    public void getDeployStatus_largeApplication_readsOnceAndMatchesServers() {
+        int componentCount = 400;
+        int environmentCount = 48;
+        ObjectId compId = ObjectId.get();
+        Component component = new Component();
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        item.setCollectorId(ObjectId.get());
+        component.getCollectorItems().put(CollectorType.Deployment, Arrays.asList(item));
+        when(componentRepository.findOne(compId)).thenReturn(component);
+        when(collectorRepository.findOne(item.getCollectorId())).thenReturn(new Collector());
+
+        List<EnvironmentComponent> components = new ArrayList<>();
+        List<EnvironmentStatus> statuses = new ArrayList<>();
+        for (int e = 0; e < environmentCount; e++) {
+            for (int c = 0; c < componentCount; c++) {
+                components.add(makeEnvComponent("env" + e, "comp" + c, "1." + c, true));
+                statuses.add(makeEnvironmentStatus("env" + e, "comp" + c, "s" + c + "a", true));
+                statuses.add(makeEnvironmentStatus("env" + e, "comp" + c, "s" + c + "b", false));
+            }
+        }
+        when(environmentComponentRepository.findLatestByCollectorItemId(item.getId())).thenReturn(components);
+        when(environmentStatusRepository.findByCollectorItemId(item.getId())).thenReturn(statuses);
+
+        DataResponse<List<Environment>> result = deployService.getDeployStatus(compId);
+
+        // Each collection is read once, however many environments and components there are
+        verify(environmentComponentRepository, times(1)).findLatestByCollectorItemId(item.getId());
+        verify(environmentStatusRepository, times(1)).findByCollectorItemId(item.getId());
+        assertThat(result.getResult(), hasSize(environmentCount));
+        Environment last = result.getResult().get(environmentCount - 1);
+        assertThat(last.getName(), is("env" + (environmentCount - 1)));
+        assertThat(last.getUnits(), hasSize(componentCount));
+        DeployableUnit unit = last.getUnits().get(componentCount - 1);
+        assertThat(unit.getName(), is("comp" + (componentCount - 1)));
+        assertThat(unit.getServers(), hasSize(2));
+        assertThat(unit.getServers().iterator().next().getName(), is("s" + (componentCount - 1) + "a"));
+    }
+
     private EnvironmentComponent makeEnvComponent(String envName, String name, String version, boolean deployed) {
         EnvironmentComponent comp = new EnvironmentComponent();
         comp.setEnvironmentName(envName);
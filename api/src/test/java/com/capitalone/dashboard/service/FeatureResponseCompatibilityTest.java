@@ -0,0 +1,131 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.event.FeatureStorageListener;
+import com.capitalone.dashboard.mapper.CustomObjectMapper;
+import com.capitalone.dashboard.model.Feature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Features are stored compactly but must serialize to the same JSON as the String-typed
+ * features the API returned before.
+ */
+public class FeatureResponseCompatibilityTest {
+
+    private final ObjectMapper objectMapper = new CustomObjectMapper();
+    private final FeatureStorageListener listener = new FeatureStorageListener();
+    private MappingMongoConverter converter;
+
+    @Before
+    public void setup() {
+        converter = new MappingMongoConverter(mock(DbRefResolver.class), new MongoMappingContext());
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    public void storedFeature_sameJsonAsWritten() throws Exception {
+        Feature feature = makeFeature();
+
+        assertThat(json(store(feature)), is(json(feature)));
+    }
+
+    @Test
+    public void storedFeature_emptyAndMissingValues_sameJsonAsWritten() throws Exception {
+        Feature feature = makeFeature();
+        feature.setsEpicID("");
+        feature.setsEpicPDD("");
+        feature.setsEpicBeginDate("");
+        feature.setsEpicIsDeleted(null);
+        feature.setsProjectEndDate(null);
+        feature.setsOwnersChangeDate(Collections.<String>emptyList());
+        feature.setsOwnersFullName(null);
+
+        assertThat(json(store(feature)), is(json(feature)));
+    }
+
+    @Test
+    public void storedFeature_datesInOtherForms_sameJsonAsWritten() throws Exception {
+        Feature feature = makeFeature();
+        feature.setChangeDate("2015-07-02T08:15:00.1234567");
+        feature.setsSprintBeginDate("2015-07-01");
+        feature.setsSprintEndDate("2015-07-14T23:59:59");
+        feature.setsEpicEndDate("next week");
+        feature.setsTeamIsDeleted("false");
+        feature.setsOwnersChangeDate(Arrays.asList("2015-07-02T08:15:00.9999999", "2015-07-02T08:15:00.1230000"));
+
+        assertThat(json(store(feature)), is(json(feature)));
+    }
+
+    private String json(Feature feature) throws Exception {
+        return objectMapper.writeValueAsString(feature);
+    }
+
+    /**
+     * Saves and loads a feature the way the repositories do, through BSON.
+     */
+    private Feature store(Feature feature) {
+        DBObject written = new BasicDBObject();
+        converter.write(feature, written);
+        listener.onBeforeSave(new BeforeSaveEvent<>(feature, written, "feature"));
+
+        byte[] bson = new DefaultDBEncoder().encode(written);
+        DBObject loaded = new DefaultDBDecoder().decode(bson, (DBCollection) null);
+        listener.onAfterLoad(new AfterLoadEvent<>(loaded, Feature.class, "feature"));
+        return converter.read(Feature.class, loaded);
+    }
+
+    private Feature makeFeature() {
+        Feature feature = new Feature();
+        feature.setId(new ObjectId("55a3d1e3e4b0a1c2d3e4f501"));
+        feature.setCollectorId(new ObjectId("55a3d1e3e4b0a1c2d3e4f502"));
+        feature.setsId("1234");
+        feature.setsNumber("S-1");
+        feature.setsName("Story");
+        feature.setsStatus("In Progress");
+        feature.setsState("Active");
+        feature.setsEstimate("3");
+        feature.setIsDeleted("False");
+        feature.setChangeDate("2015-07-02T08:15:00.1230000");
+        feature.setsTeamID("team1");
+        feature.setsTeamName("Team One");
+        feature.setsTeamIsDeleted("False");
+        feature.setsTeamChangeDate("2015-06-01T00:00:00.0000000");
+        feature.setsSprintID("sprint1");
+        feature.setsSprintName("Sprint 1");
+        feature.setsSprintIsDeleted("True");
+        feature.setsSprintBeginDate("2015-07-01T00:00:00.0000000");
+        feature.setsSprintEndDate("2015-07-14T00:00:00.0000000");
+        feature.setsEpicID("E-1");
+        feature.setsEpicName("Epic");
+        feature.setsEpicIsDeleted("False");
+        feature.setsEpicBeginDate("2015-06-01T00:00:00.0000000");
+        feature.setsEpicEndDate("2015-09-01T00:00:00.0000000");
+        feature.setsProjectID("P-1");
+        feature.setsProjectName("Project");
+        feature.setsProjectIsDeleted("False");
+        feature.setsOwnersID(Arrays.asList("owner1", "owner2"));
+        feature.setsOwnersIsDeleted(Arrays.asList("False", "True"));
+        feature.setsOwnersChangeDate(Arrays.asList("2015-07-02T08:15:00.1230000", "2015-07-03T00:00:00.0000000"));
+        feature.setsOwnersFullName(Arrays.asList("Owner One", "Owner Two"));
+        return feature;
+    }
+}
@@ -0,0 +1,156 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.CurrentSprint;
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.EpicEstimate;
+import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.model.SprintEstimate;
+import com.capitalone.dashboard.repository.CollectorRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.CurrentSprintRepository;
+import com.capitalone.dashboard.repository.FeatureStorage;
+import com.capitalone.dashboard.repository.SprintEstimateRepository;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FeatureServiceTest {
+
+    private static final String TEAM = "team1";
+
+    @Mock private ComponentRepository componentRepository;
+    @Mock private CollectorRepository collectorRepository;
+    @Mock private SprintEstimateRepository sprintEstimateRepository;
+    @Mock private CurrentSprintRepository currentSprintRepository;
+    @Spy private RequestCoalescer requestCoalescer = new RequestCoalescer();
+    @InjectMocks private FeatureServiceImpl featureService;
+
+    private ObjectId componentId = ObjectId.get();
+
+    @Before
+    public void setup() {
+        ObjectId collectorId = ObjectId.get();
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        item.setCollectorId(collectorId);
+        Component component = new Component();
+        component.getCollectorItems().put(CollectorType.ScopeOwner, Arrays.asList(item));
+
+        when(componentRepository.findOne(componentId)).thenReturn(component);
+        when(collectorRepository.findOne(collectorId)).thenReturn(new Collector());
+        when(sprintEstimateRepository.findCurrentByTeamId(eq(TEAM), any(Date.class))).thenReturn(Arrays.asList(
+                makeSprint(8, 3, 2, new EpicEstimate("E1", "1", "Epic 1", 5), new EpicEstimate("E3", "3", "Epic 3", 3)),
+                makeSprint(4, 1, 1, new EpicEstimate("E2", "2", "Epic 2", 2), new EpicEstimate("E3", "3", "Epic 3", 2))));
+    }
+
+    @Test
+    public void getTotalEstimate_sumsCurrentSprints() {
+        assertThat(estimate(featureService.getTotalEstimate(componentId, TEAM)), is("12"));
+        verify(sprintEstimateRepository, never()).refresh(anyString());
+    }
+
+    @Test
+    public void getInProgressEstimate_sumsCurrentSprints() {
+        assertThat(estimate(featureService.getInProgressEstimate(componentId, TEAM)), is("4"));
+    }
+
+    @Test
+    public void getDoneEstimate_sumsCurrentSprints() {
+        assertThat(estimate(featureService.getDoneEstimate(componentId, TEAM)), is("3"));
+    }
+
+    @Test
+    public void getFeatureEstimates_mergesEpicsDescending() {
+        List<Feature> epics = featureService.getFeatureEstimates(componentId, TEAM).getResult();
+
+        assertThat(epics, hasSize(3));
+        assertThat(epics.get(0).getsEpicID(), is("E3"));
+        assertThat(epics.get(0).getsEstimate(), is("5"));
+        assertThat(epics.get(1).getsEpicID(), is("E2"));
+        assertThat(epics.get(2).getsEpicID(), is("E1"));
+        assertThat(epics.get(2).getsEpicName(), is("Epic 1"));
+    }
+
+    @Test
+    public void getTotalEstimate_teamWithoutRollups_readOnly() {
+        assertThat(estimate(featureService.getTotalEstimate(componentId, "team2")), is("0"));
+        verify(sprintEstimateRepository, never()).refresh(anyString());
+    }
+
+    @Test
+    public void getCurrentSprintDetail_fromTable() {
+        CurrentSprint sprint = new CurrentSprint();
+        sprint.setSprintId("sprint1");
+        sprint.setSprintName("Sprint 1");
+        sprint.setSprintBeginDate(FeatureStorage.parseDate("2000-01-01"));
+        sprint.setSprintEndDate(FeatureStorage.parseDate("2100-01-01"));
+        when(currentSprintRepository.findByTeamId(TEAM)).thenReturn(sprint);
+
+        Feature detail = featureService.getCurrentSprintDetail(componentId, TEAM).getResult().get(0);
+
+        assertThat(detail.getsSprintID(), is("sprint1"));
+        assertThat(detail.getsSprintName(), is("Sprint 1"));
+        assertThat(detail.getsSprintEndDate(), is("2100-01-01T00:00:00.0000000"));
+        verify(sprintEstimateRepository, never()).findCurrentByTeamId(anyString(), any(Date.class));
+    }
+
+    @Test
+    public void getCurrentSprintDetail_staleTable_usesRollups() {
+        CurrentSprint sprint = new CurrentSprint();
+        sprint.setSprintId("old");
+        sprint.setSprintBeginDate(FeatureStorage.parseDate("2000-01-01"));
+        sprint.setSprintEndDate(FeatureStorage.parseDate("2000-01-14"));
+        when(currentSprintRepository.findByTeamId(TEAM)).thenReturn(sprint);
+
+        Feature detail = featureService.getCurrentSprintDetail(componentId, TEAM).getResult().get(0);
+
+        assertThat(detail.getsSprintID(), is("sprint8"));
+    }
+
+    @Test
+    public void getCurrentSprintDetail_noSprint_emptyFeature() {
+        List<Feature> detail = featureService.getCurrentSprintDetail(componentId, "team2").getResult();
+
+        assertThat(detail, hasSize(1));
+        assertThat(detail.get(0).getsSprintID(), nullValue());
+    }
+
+    private String estimate(DataResponse<List<Feature>> response) {
+        assertThat(response.getResult(), hasSize(1));
+        return response.getResult().get(0).getsEstimate();
+    }
+
+    private SprintEstimate makeSprint(int total, int inProgress, int done, EpicEstimate... epics) {
+        SprintEstimate sprint = new SprintEstimate();
+        sprint.setTeamId(TEAM);
+        sprint.setSprintId("sprint" + total);
+        sprint.setSprintBeginDate(FeatureStorage.parseDate("2000-01-01"));
+        sprint.setSprintEndDate(FeatureStorage.parseDate("2100-01-01"));
+        sprint.setTotalEstimate(total);
+        sprint.setInProgressEstimate(inProgress);
+        sprint.setDoneEstimate(done);
+        sprint.setEpics(Arrays.asList(epics));
+        return sprint;
+    }
+}
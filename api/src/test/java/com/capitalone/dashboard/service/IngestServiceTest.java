@@ -0,0 +1,181 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.BuildStatus;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.IngestResult;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.repository.BulkInserter;
+import com.capitalone.dashboard.repository.CollectorItemRepository;
+import com.capitalone.dashboard.repository.NaturalKeyIndexMigration;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IngestServiceTest {
+
+    private static final ObjectId COLLECTOR_ITEM_ID = ObjectId.get();
+
+    @Mock private CollectorItemRepository collectorItemRepository;
+    @Mock private BulkInserter bulkInserter;
+    @Mock private NaturalKeyIndexMigration naturalKeyIndexMigration;
+
+    private final List<Map<String, Object>> batches = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        when(collectorItemRepository.exists(COLLECTOR_ITEM_ID)).thenReturn(true);
+        when(bulkInserter.insertNew(any(Class.class), eq(COLLECTOR_ITEM_ID), anyString(), anyMapOf(String.class, Object.class)))
+                .thenAnswer(new Answer<BulkInserter.Outcome>() {
+                    @Override
+                    public BulkInserter.Outcome answer(InvocationOnMock invocation) {
+                        Map<String, Object> batch = new LinkedHashMap<>((Map<String, Object>) invocation.getArguments()[3]);
+                        batches.add(batch);
+                        return new BulkInserter.Outcome(batch.size(), 0, 0);
+                    }
+                });
+    }
+
+    @Test
+    public void ingestBuilds() throws Exception {
+        IngestResult result = service(1000).ingestBuilds(COLLECTOR_ITEM_ID, ndjson(
+                "{\"number\":\"1\",\"buildStatus\":\"Success\",\"startTime\":10,\"unknown\":true}",
+                "",
+                "{\"number\":\"2\",\"buildStatus\":\"Failure\"}"));
+
+        assertThat(result.getReceived(), is(2));
+        assertThat(result.getInserted(), is(2));
+        assertThat(result.getRejected(), is(0));
+        verify(bulkInserter).insertNew(eq(Build.class), eq(COLLECTOR_ITEM_ID), eq("number"),
+                anyMapOf(String.class, Build.class));
+        Build build = (Build) batches.get(0).get("1");
+        assertThat(build.getCollectorItemId(), is(COLLECTOR_ITEM_ID));
+        assertThat(build.getBuildStatus(), is(BuildStatus.Success));
+        assertThat(build.getStartTime(), is(10L));
+    }
+
+    @Test
+    public void ingestCommitsAndTestResults() throws Exception {
+        service(1000).ingestCommits(COLLECTOR_ITEM_ID, ndjson("{\"scmRevisionNumber\":\"abc\",\"scmAuthor\":\"bob\"}"));
+        service(1000).ingestTestResults(COLLECTOR_ITEM_ID, ndjson("{\"executionId\":\"run-1\",\"totalCount\":3}"));
+
+        assertThat(((Commit) batches.get(0).get("abc")).getScmAuthor(), is("bob"));
+        assertThat(((TestResult) batches.get(1).get("run-1")).getTotalCount(), is(3));
+        verify(bulkInserter).insertNew(eq(Commit.class), eq(COLLECTOR_ITEM_ID), eq("scmRevisionNumber"),
+                anyMapOf(String.class, Commit.class));
+        verify(bulkInserter).insertNew(eq(TestResult.class), eq(COLLECTOR_ITEM_ID), eq("executionId"),
+                anyMapOf(String.class, TestResult.class));
+    }
+
+    @Test
+    public void rejectsBadLinesAndSkipsDuplicates() throws Exception {
+        IngestResult result = service(1000).ingestBuilds(COLLECTOR_ITEM_ID, ndjson(
+                "{\"number\":\"1\"}",
+                "not json",
+                "{\"buildStatus\":\"Success\"}",
+                "{\"number\":\"1\",\"buildStatus\":\"Failure\"}"));
+
+        assertThat(result.getReceived(), is(4));
+        assertThat(result.getInserted(), is(1));
+        assertThat(result.getDuplicates(), is(1));
+        assertThat(result.getRejected(), is(2));
+        assertThat(result.getErrors(), contains(startsWith("Line 2: "), is("Line 3: no number")));
+        assertThat(((Build) batches.get(0).get("1")).getBuildStatus(), is(nullValue()));
+    }
+
+    @Test
+    public void rejectsOverlongLines() throws Exception {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            padding.append("0123456789");
+        }
+        IngestResult result = service(1000, 100).ingestBuilds(COLLECTOR_ITEM_ID, new ByteArrayInputStream(
+                ("{\"number\":\"1\",\"log\":\"" + padding + "\"}\r\n{\"number\":\"2\"}\r\n{\"number\":\"3\"}")
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getReceived(), is(3));
+        assertThat(result.getRejected(), is(1));
+        assertThat(result.getErrors(), contains("Line 1: longer than 100 characters"));
+        assertThat(batches.get(0).keySet(), contains("2", "3"));
+    }
+
+    @Test
+    public void insertsInBatches() throws Exception {
+        when(bulkInserter.insertNew(any(Class.class), eq(COLLECTOR_ITEM_ID), anyString(), anyMapOf(String.class, Object.class)))
+                .thenAnswer(new Answer<BulkInserter.Outcome>() {
+                    @Override
+                    public BulkInserter.Outcome answer(InvocationOnMock invocation) {
+                        Map<String, Object> batch = new LinkedHashMap<>((Map<String, Object>) invocation.getArguments()[3]);
+                        batches.add(batch);
+                        // the first record of every batch is already stored
+                        return new BulkInserter.Outcome(batch.size() - 1, 1, 0);
+                    }
+                });
+
+        IngestResult result = service(2).ingestBuilds(COLLECTOR_ITEM_ID, ndjson(
+                "{\"number\":\"1\"}", "{\"number\":\"2\"}", "{\"number\":\"3\"}", "{\"number\":\"4\"}", "{\"number\":\"5\"}"));
+
+        assertThat(batches, hasSize(3));
+        assertThat(batches.get(0).keySet(), contains("1", "2"));
+        assertThat(batches.get(2).keySet(), contains("5"));
+        assertThat(result.getInserted(), is(2));
+        assertThat(result.getDuplicates(), is(3));
+    }
+
+    @Test
+    public void migrateNaturalKeys_runsMigration() {
+        ((IngestServiceImpl) service(1000)).migrateNaturalKeys();
+
+        verify(naturalKeyIndexMigration).migrate();
+    }
+
+    @Test
+    public void unknownCollectorItem() throws Exception {
+        ObjectId unknown = ObjectId.get();
+
+        assertThat(service(1000).ingestBuilds(unknown, ndjson("{\"number\":\"1\"}")), is(nullValue()));
+        verifyZeroInteractions(bulkInserter);
+    }
+
+    private IngestService service(int batchSize) {
+        return service(batchSize, 1048576);
+    }
+
+    private IngestService service(int batchSize, int maxLineLength) {
+        return new IngestServiceImpl(collectorItemRepository, bulkInserter, naturalKeyIndexMigration, batchSize,
+                maxLineLength);
+    }
+
+    private static InputStream ndjson(String... lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : Arrays.asList(lines)) {
+            sb.append(line).append('\n');
+        }
+        return new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
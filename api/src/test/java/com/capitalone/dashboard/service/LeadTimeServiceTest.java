@@ -0,0 +1,113 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.DataResponse;
+import com.capitalone.dashboard.model.LeadTimePercentiles;
+import com.capitalone.dashboard.model.LeadTimes;
+import com.capitalone.dashboard.model.RevisionBuild;
+import com.capitalone.dashboard.model.VersionDeployment;
+import com.capitalone.dashboard.repository.CollectorRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.RevisionBuildRepository;
+import com.capitalone.dashboard.repository.VersionDeploymentRepository;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LeadTimeServiceTest {
+
+    private static final long HOUR = 3600000;
+
+    @Mock private ComponentRepository componentRepository;
+    @Mock private CollectorRepository collectorRepository;
+    @Mock private RevisionBuildRepository revisionBuildRepository;
+    @Mock private VersionDeploymentRepository versionDeploymentRepository;
+    @InjectMocks private LeadTimeServiceImpl leadTimeService;
+
+    @Test
+    public void getLeadTimes_commitToBuildAndDeploy() {
+        ObjectId componentId = ObjectId.get();
+        CollectorItem buildItem = item();
+        CollectorItem deployItem = item();
+        Component component = new Component();
+        component.getCollectorItems().put(CollectorType.Build, Arrays.asList(buildItem));
+        component.getCollectorItems().put(CollectorType.Deployment, Arrays.asList(deployItem));
+        Collector collector = new Collector();
+        collector.setLastExecuted(42);
+
+        when(componentRepository.findOne(componentId)).thenReturn(component);
+        when(collectorRepository.findOne(buildItem.getCollectorId())).thenReturn(collector);
+        when(revisionBuildRepository.findByBuildCollectorItemIdInAndCommitTimestampGreaterThan(
+                eq(Arrays.asList(buildItem.getId())), anyLong())).thenReturn(Arrays.asList(
+                revision("1.0", 0, HOUR), revision("1.0", HOUR, 2 * HOUR), revision("1.1", 0, 4 * HOUR)));
+        when(versionDeploymentRepository.findByDeployCollectorItemIdInAndVersionIn(
+                eq(Arrays.asList(deployItem.getId())), anyCollectionOf(String.class))).thenReturn(Arrays.asList(
+                deployment("1.0", "QA", 3 * HOUR), deployment("1.0", "QA", 5 * HOUR), deployment("1.0", "PROD", 9 * HOUR)));
+
+        DataResponse<LeadTimes> response = leadTimeService.getLeadTimes(componentId, 30);
+
+        LeadTimePercentiles build = response.getResult().getCommitToBuild();
+        assertThat(build.getCount(), is(3));
+        assertThat(build.getP50(), is(HOUR));
+        assertThat(build.getMax(), is(4 * HOUR));
+        assertThat(response.getResult().getCommitToDeploy().keySet(), contains("PROD", "QA"));
+        LeadTimePercentiles qa = response.getResult().getCommitToDeploy().get("QA");
+        assertThat(qa.getCount(), is(2));
+        assertThat(qa.getP50(), is(2 * HOUR));
+        assertThat(qa.getMax(), is(3 * HOUR));
+        assertThat(response.getResult().getCommitToDeploy().get("PROD").getMax(), is(9 * HOUR));
+        assertThat(response.getLastUpdated(), is(42L));
+    }
+
+    @Test
+    public void getLeadTimes_noBuilds_empty() {
+        ObjectId componentId = ObjectId.get();
+        when(componentRepository.findOne(componentId)).thenReturn(new Component());
+
+        LeadTimes leadTimes = leadTimeService.getLeadTimes(componentId, 30).getResult();
+
+        assertThat(leadTimes.getCommitToBuild().getCount(), is(0));
+        assertThat(leadTimes.getCommitToDeploy().isEmpty(), is(true));
+        verify(versionDeploymentRepository, never()).findByDeployCollectorItemIdInAndVersionIn(
+                anyCollectionOf(ObjectId.class), anyCollectionOf(String.class));
+    }
+
+    private CollectorItem item() {
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        item.setCollectorId(ObjectId.get());
+        return item;
+    }
+
+    private RevisionBuild revision(String version, long commitTimestamp, long buildTimestamp) {
+        RevisionBuild revision = new RevisionBuild();
+        revision.setVersion(version);
+        revision.setCommitTimestamp(commitTimestamp);
+        revision.setBuildTimestamp(buildTimestamp);
+        return revision;
+    }
+
+    private VersionDeployment deployment(String version, String environment, long deployTimestamp) {
+        VersionDeployment deployment = new VersionDeployment();
+        deployment.setVersion(version);
+        deployment.setEnvironmentName(environment);
+        deployment.setDeployTimestamp(deployTimestamp);
+        return deployment;
+    }
+}
@@ -0,0 +1,231 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Application;
+import com.capitalone.dashboard.model.BuildStatus;
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemSummary;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.PortfolioEntry;
+import com.capitalone.dashboard.model.Widget;
+import com.capitalone.dashboard.repository.ChangeNotificationCursor;
+import com.capitalone.dashboard.repository.ChangeNotificationRepository;
+import com.capitalone.dashboard.repository.CollectorItemSummaryRepository;
+import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DashboardRepository;
+import com.capitalone.dashboard.repository.LeaseRepository;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PortfolioServiceTest {
+
+    @Mock private DashboardRepository dashboardRepository;
+    @Mock private ComponentRepository componentRepository;
+    @Mock private CollectorItemSummaryRepository collectorItemSummaryRepository;
+    @Mock private ChangeNotificationRepository changeNotificationRepository;
+    @Mock private LeaseRepository leaseRepository;
+    @Mock private ChangeNotificationCursor cursor;
+    private PortfolioServiceImpl portfolioService;
+
+    @Before
+    public void setup() {
+        portfolioService = new PortfolioServiceImpl(dashboardRepository, componentRepository,
+                collectorItemSummaryRepository, changeNotificationRepository, leaseRepository, 1000,
+                MoreExecutors.sameThreadExecutor());
+        when(leaseRepository.acquire(eq("portfolioRefresh"), anyString(), eq(1000L))).thenReturn(true);
+        when(changeNotificationRepository.tail(any(ObjectId.class))).thenReturn(cursor);
+        when(cursor.isAlive()).thenReturn(true);
+    }
+
+    @After
+    public void shutdown() {
+        portfolioService.shutdown();
+    }
+
+    @Test
+    public void getPortfolio_rollsUpSummariesPerDashboard() {
+        CollectorItem build1 = makeItem();
+        CollectorItem build2 = makeItem();
+        CollectorItem deploy = makeItem();
+        Component component = new Component();
+        component.setId(ObjectId.get());
+        component.getCollectorItems().put(CollectorType.Build, Arrays.asList(build1, build2));
+        component.getCollectorItems().put(CollectorType.Deployment, Arrays.asList(deploy));
+
+        Dashboard dashboard = new Dashboard("template", "title", new Application("app"), "owner");
+        dashboard.setId(ObjectId.get());
+        dashboard.getWidgets().add(makeWidget(component.getId()));
+        dashboard.getWidgets().add(makeWidget(component.getId()));
+
+        when(dashboardRepository.findOutlines(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(dashboard)));
+        when(componentRepository.findAll(Collections.singleton(component.getId())))
+                .thenReturn(Arrays.asList(component));
+        when(collectorItemSummaryRepository.findByCollectorItemIdIn(anyCollectionOf(ObjectId.class))).thenReturn(Arrays.asList(
+                makeBuildSummary(build1, BuildStatus.Failure, 200, 4, 2),
+                makeBuildSummary(build2, BuildStatus.Success, 100, 6, 6),
+                makeDeploySummary(deploy, 3, 2, 50)));
+
+        Page<PortfolioEntry> portfolio = portfolioService.getPortfolio(0, 50);
+
+        assertThat(portfolio.getContent(), hasSize(1));
+        PortfolioEntry entry = portfolio.getContent().get(0);
+        assertThat(entry.getTitle(), is("title"));
+        assertThat(entry.getApplicationName(), is("app"));
+        assertThat(entry.getLastBuildStatus(), is(BuildStatus.Failure));
+        assertThat(entry.getRecentBuildCount(), is(10));
+        assertThat(entry.getBuildSuccessRate(), is(0.8));
+        assertThat(entry.getComponentCount(), is(3));
+        assertThat(entry.getDeployedCount(), is(2));
+        assertThat(entry.getLastDeployed(), is(50L));
+    }
+
+    @Test
+    public void refreshSummaries_firstRun_refreshesAllItems() {
+        List<ObjectId> builds = Arrays.asList(ObjectId.get());
+        when(collectorItemSummaryRepository.findCollectorItemIds(CollectorType.Build)).thenReturn(builds);
+        when(collectorItemSummaryRepository.findCollectorItemIds(CollectorType.Deployment))
+                .thenReturn(Collections.<ObjectId>emptyList());
+        when(collectorItemSummaryRepository.findCollectorItemIds(CollectorType.CodeQuality))
+                .thenReturn(Collections.<ObjectId>emptyList());
+
+        portfolioService.refreshSummaries();
+
+        verify(collectorItemSummaryRepository).refresh(eq(CollectorType.Build), eq(builds), anyLong());
+        verify(collectorItemSummaryRepository).refresh(eq(CollectorType.Deployment), anyCollectionOf(ObjectId.class), anyLong());
+        verify(collectorItemSummaryRepository).refresh(eq(CollectorType.CodeQuality), anyCollectionOf(ObjectId.class), anyLong());
+    }
+
+    @Test
+    public void refreshSummaries_laterRuns_refreshChangedItemsOnly() {
+        ObjectId newest = ObjectId.get();
+        when(changeNotificationRepository.findNewestId()).thenReturn(newest);
+        when(collectorItemSummaryRepository.findCollectorItemIds(any(CollectorType.class)))
+                .thenReturn(Collections.<ObjectId>emptyList());
+        portfolioService.refreshSummaries();
+        reset(collectorItemSummaryRepository);
+
+        ObjectId changed = ObjectId.get();
+        ChangeNotification build = new ChangeNotification(CollectorType.Build, changed, null);
+        build.setId(ObjectId.get());
+        ChangeNotification feature = new ChangeNotification(CollectorType.Feature, null, "team1");
+        feature.setId(ObjectId.get());
+        when(cursor.readAvailable()).thenReturn(Arrays.asList(build, feature));
+
+        portfolioService.refreshSummaries();
+
+        verify(changeNotificationRepository).tail(newest);
+        verify(collectorItemSummaryRepository).refresh(eq(CollectorType.Build),
+                (Collection<ObjectId>) argThat(contains(changed)), anyLong());
+        verify(collectorItemSummaryRepository, never()).findCollectorItemIds(any(CollectorType.class));
+        verifyNoMoreInteractions(collectorItemSummaryRepository);
+    }
+
+    @Test
+    public void refreshSummaries_deadCursor_reopenedAfterLastSeen() {
+        when(collectorItemSummaryRepository.findCollectorItemIds(any(CollectorType.class)))
+                .thenReturn(Collections.<ObjectId>emptyList());
+        portfolioService.refreshSummaries();
+        ChangeNotification build = new ChangeNotification(CollectorType.Build, ObjectId.get(), null);
+        build.setId(ObjectId.get());
+        when(cursor.readAvailable()).thenReturn(Arrays.asList(build));
+        portfolioService.refreshSummaries();
+
+        when(cursor.isAlive()).thenReturn(false);
+        when(cursor.readAvailable()).thenReturn(Collections.<ChangeNotification>emptyList());
+        portfolioService.refreshSummaries();
+
+        verify(changeNotificationRepository).tail(build.getId());
+        verify(cursor).close();
+    }
+
+    @Test
+    public void refreshSummaries_leaseHeldElsewhere_doesNothing() {
+        reset(leaseRepository);
+
+        portfolioService.refreshSummaries();
+
+        verifyZeroInteractions(collectorItemSummaryRepository, changeNotificationRepository);
+    }
+
+    @Test
+    public void refreshSummaries_leaseRegained_refreshesAllItems() {
+        when(collectorItemSummaryRepository.findCollectorItemIds(any(CollectorType.class)))
+                .thenReturn(Collections.<ObjectId>emptyList());
+        portfolioService.refreshSummaries();
+        when(leaseRepository.acquire(eq("portfolioRefresh"), anyString(), eq(1000L))).thenReturn(false, true);
+        portfolioService.refreshSummaries();
+
+        portfolioService.refreshSummaries();
+
+        verify(collectorItemSummaryRepository, times(2)).findCollectorItemIds(CollectorType.Build);
+        verify(cursor, never()).readAvailable();
+    }
+
+    @Test
+    public void shutdown_releasesLease() {
+        portfolioService.shutdown();
+
+        verify(leaseRepository).release(eq("portfolioRefresh"), anyString());
+    }
+
+    private CollectorItem makeItem() {
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        return item;
+    }
+
+    private Widget makeWidget(ObjectId componentId) {
+        Widget widget = new Widget();
+        widget.setComponentId(componentId);
+        return widget;
+    }
+
+    private CollectorItemSummary makeBuildSummary(CollectorItem item, BuildStatus status, long time,
+                                                  int count, int successes) {
+        CollectorItemSummary summary = new CollectorItemSummary();
+        summary.setCollectorItemId(item.getId());
+        summary.setCollectorType(CollectorType.Build);
+        summary.setLastBuildStatus(status);
+        summary.setLastBuildTime(time);
+        summary.setRecentBuildCount(count);
+        summary.setRecentSuccessCount(successes);
+        return summary;
+    }
+
+    private CollectorItemSummary makeDeploySummary(CollectorItem item, int components, int deployed, long lastDeployed) {
+        CollectorItemSummary summary = new CollectorItemSummary();
+        summary.setCollectorItemId(item.getId());
+        summary.setCollectorType(CollectorType.Deployment);
+        summary.setComponentCount(components);
+        summary.setDeployedCount(deployed);
+        summary.setLastDeployed(lastDeployed);
+        return summary;
+    }
+}
@@ -0,0 +1,103 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.ApiSettings;
+import com.capitalone.dashboard.model.QueryStats;
+import com.capitalone.dashboard.model.SlowQuery;
+import com.capitalone.dashboard.repository.QueryBudget;
+import com.capitalone.dashboard.repository.SlowQueryRepository;
+import com.capitalone.dashboard.util.Supplier;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class QueryTelemetryTest {
+
+    private final SlowQueryRepository slowQueryRepository = mock(SlowQueryRepository.class);
+    private QueryTelemetry telemetry;
+    private QueryBudget budget;
+
+    @Before
+    public void setup() {
+        ApiSettings settings = new ApiSettings();
+        settings.setSlowQueryThreshold(100);
+        telemetry = new QueryTelemetry(mock(MongoOperations.class), slowQueryRepository, settings);
+        QueryBudget.start("build", 1000);
+        budget = QueryBudget.current();
+    }
+
+    @After
+    public void teardown() {
+        QueryBudget.clear();
+        telemetry.shutdown();
+    }
+
+    @Test
+    public void shape_replacesValues() {
+        DBObject query = new BasicDBObject("collectorItemId", ObjectId.get())
+                .append("timestamp", new BasicDBObject("$gte", 5L).append("$lt", 10L))
+                .append("buildStatus", new BasicDBObject("$in", Arrays.asList("Success", "Failure")))
+                .append("$or", Arrays.asList(new BasicDBObject("a", 1), new BasicDBObject("b", "x")));
+
+        assertThat(String.valueOf(QueryTelemetry.shape(query)), is("{ \"collectorItemId\" : 1 , "
+                + "\"timestamp\" : { \"$gte\" : 1 , \"$lt\" : 1} , \"buildStatus\" : { \"$in\" : 1} , "
+                + "\"$or\" : [ { \"a\" : 1} , { \"b\" : 1}]}"));
+    }
+
+    @Test
+    public void docsExamined_readsEitherFormat() {
+        assertThat(QueryTelemetry.docsExamined(new BasicDBObject("executionStats",
+                new BasicDBObject("totalDocsExamined", 42))), is(42));
+        assertThat(QueryTelemetry.docsExamined(new BasicDBObject("nscannedObjects", 7)), is(7));
+        assertThat(QueryTelemetry.docsExamined(new BasicDBObject()), nullValue());
+    }
+
+    @Test
+    public void onQuery_countsPerEndpoint() {
+        telemetry.onQuery(budget, "builds", new BasicDBObject(), 10, 3, null);
+        telemetry.onQuery(budget, "builds", new BasicDBObject(), 30, 1, null);
+        telemetry.onBudgetExceeded(budget, "builds", new BasicDBObject());
+
+        List<QueryStats> stats = telemetry.getStats();
+
+        assertThat(stats, hasSize(1));
+        assertThat(stats.get(0).getEndpoint(), is("build"));
+        assertThat(stats.get(0).getQueries(), is(2L));
+        assertThat(stats.get(0).getSlow(), is(0L));
+        assertThat(stats.get(0).getExceeded(), is(1L));
+        assertThat(stats.get(0).getMaxMillis(), is(30L));
+        assertThat(stats.get(0).getAverageMillis(), is(20L));
+        verifyZeroInteractions(slowQueryRepository);
+    }
+
+    @Test
+    public void onQuery_slow_recordsWithDocsExamined() {
+        telemetry.onQuery(budget, "builds", new BasicDBObject("number", "12"), 150, 1, new Supplier<DBObject>() {
+            @Override
+            public DBObject get() {
+                return new BasicDBObject("executionStats", new BasicDBObject("totalDocsExamined", 5000));
+            }
+        });
+
+        ArgumentCaptor<SlowQuery> saved = ArgumentCaptor.forClass(SlowQuery.class);
+        verify(slowQueryRepository, timeout(5000)).save(saved.capture());
+        assertThat(saved.getValue().getEndpoint(), is("build"));
+        assertThat(saved.getValue().getCollectionName(), is("builds"));
+        assertThat(saved.getValue().getShape(), is("{ \"number\" : 1}"));
+        assertThat(saved.getValue().getDurationMillis(), is(150L));
+        assertThat(saved.getValue().getDocsReturned(), is(1));
+        assertThat(saved.getValue().getDocsExamined(), is(5000));
+        assertThat(telemetry.getStats().get(0).getSlow(), is(1L));
+    }
+}
@@ -0,0 +1,246 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.CoalescingStats;
+import com.capitalone.dashboard.repository.QueryBudget;
+import com.capitalone.dashboard.repository.QueryBudgetExceededException;
+import com.mongodb.MongoInterruptedException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    @Test
+    public void execute_concurrentIdenticalQueries_shareOneExecution() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final Object result = new Object();
+        final Callable<Object> query = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                runs.incrementAndGet();
+                started.countDown();
+                release.await();
+                return result;
+            }
+        };
+        Callable<Object> caller = new Callable<Object>() {
+            @Override
+            public Object call() {
+                return coalescer.execute("build", Arrays.asList("a", 1L), query);
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<Object> first = executor.submit(caller);
+            assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+            Future<Object> second = executor.submit(caller);
+            Future<Object> third = executor.submit(caller);
+            while (coalescer.getStats().get(0).getCoalesced() < 2) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS), sameInstance(result));
+            assertThat(second.get(5, TimeUnit.SECONDS), sameInstance(result));
+            assertThat(third.get(5, TimeUnit.SECONDS), sameInstance(result));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(runs.get(), is(1));
+    }
+
+    @Test
+    public void execute_afterCompletion_runsAgain() {
+        final AtomicInteger runs = new AtomicInteger();
+        Callable<Integer> query = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return runs.incrementAndGet();
+            }
+        };
+
+        assertThat(coalescer.execute("build", Arrays.asList("a"), query), is(1));
+        assertThat(coalescer.execute("build", Arrays.asList("a"), query), is(2));
+        assertThat(coalescer.execute("build", Arrays.asList("b"), query), is(3));
+    }
+
+    @Test
+    public void execute_queryFails_rethrows() {
+        try {
+            coalescer.execute("build", Arrays.asList("a"), new Callable<Object>() {
+                @Override
+                public Object call() {
+                    throw new IllegalArgumentException("bad query");
+                }
+            });
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("bad query"));
+        }
+    }
+
+    @Test
+    public void execute_leaderOutOfBudget_followerRunsQueryAgain() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final Callable<String> query = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                if (runs.incrementAndGet() == 1) {
+                    started.countDown();
+                    release.await();
+                    throw new QueryBudgetExceededException("build", 100);
+                }
+                return "x";
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(caller(query));
+            assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+            Future<String> follower = executor.submit(caller(query));
+            while (coalescer.getStats().get(0).getCoalesced() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            try {
+                leader.get(5, TimeUnit.SECONDS);
+                fail("Expected exception");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(QueryBudgetExceededException.class));
+            }
+            assertThat(follower.get(5, TimeUnit.SECONDS), is("x"));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(runs.get(), is(2));
+    }
+
+    @Test
+    public void execute_followerInterrupted_stopsWaiting() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<String> query = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                started.countDown();
+                release.await();
+                return "x";
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(caller(query));
+            assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            Future<?> follower = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        coalescer.execute("build", Arrays.asList("a"), query);
+                    } catch (MongoInterruptedException e) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            interrupted.countDown();
+                        }
+                    }
+                }
+            });
+            while (coalescer.getStats().get(0).getCoalesced() < 1) {
+                Thread.sleep(5);
+            }
+            follower.cancel(true);
+
+            // Freed while the query it joined is still running
+            assertThat(interrupted.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(leader.isDone(), is(false));
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS), is("x"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void execute_followerBudgetRunsOut_stopsWaiting() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<String> query = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                started.countDown();
+                release.await();
+                return "x";
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(caller(query));
+            assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+            QueryBudget.start("build", 50);
+            try {
+                coalescer.execute("build", Arrays.asList("a"), query);
+                fail("Expected exception");
+            } catch (QueryBudgetExceededException e) {
+                assertThat(leader.isDone(), is(false));
+            } finally {
+                QueryBudget.clear();
+            }
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS), is("x"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<String> caller(final Callable<String> query) {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                return coalescer.execute("build", Arrays.asList("a"), query);
+            }
+        };
+    }
+
+    @Test
+    public void getStats_ratio() {
+        Callable<String> query = new Callable<String>() {
+            @Override
+            public String call() {
+                return "x";
+            }
+        };
+        coalescer.execute("build", Arrays.asList("a"), query);
+        coalescer.execute("build", Arrays.asList("a"), query);
+
+        List<CoalescingStats> stats = coalescer.getStats();
+
+        assertThat(stats, hasSize(1));
+        assertThat(stats.get(0).getName(), is("build"));
+        assertThat(stats.get(0).getExecuted(), is(2L));
+        assertThat(stats.get(0).getCoalesced(), is(0L));
+        assertThat(stats.get(0).getRatio(), is(0.0));
+    }
+}
@@ -0,0 +1,176 @@
+package com.capitalone.dashboard.service;
+
+import com.capitalone.dashboard.model.Service;
+import com.capitalone.dashboard.model.ServiceCheck;
+import com.capitalone.dashboard.model.ServiceCheckResult;
+import com.capitalone.dashboard.model.ServiceStatus;
+import com.capitalone.dashboard.repository.ServiceRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ServiceHealthCheckerTest {
+
+    private final ServiceRepository serviceRepository = mock(ServiceRepository.class);
+    private final ServiceHealthChecker checker = new ServiceHealthChecker(serviceRepository, false, 1, "localhost");
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", respond(200, 0));
+        server.createContext("/down", respond(503, 0));
+        server.createContext("/slow", respond(200, 300));
+        server.start();
+    }
+
+    @After
+    public void teardown() {
+        server.stop(0);
+        checker.shutdown();
+    }
+
+    @Test
+    public void check_healthy_ok() throws Exception {
+        Service service = service("/ok", 0, 1);
+
+        checker.check(service, new ServiceHealthChecker.CheckState()).get();
+
+        ArgumentCaptor<ServiceCheckResult> result = ArgumentCaptor.forClass(ServiceCheckResult.class);
+        verify(serviceRepository).recordCheck(eq(service.getId()), result.capture(), eq(ServiceStatus.Ok),
+                (String) eq(null));
+        assertThat(result.getValue().getStatusCode(), is(200));
+        assertThat(result.getValue().getStatus(), is(ServiceStatus.Ok));
+    }
+
+    @Test
+    public void check_failing_warnsUntilThreshold() throws Exception {
+        Service service = service("/down", 0, 2);
+        ServiceHealthChecker.CheckState state = new ServiceHealthChecker.CheckState();
+
+        checker.check(service, state).get();
+        verify(serviceRepository).recordCheck(eq(service.getId()), any(ServiceCheckResult.class),
+                eq(ServiceStatus.Warning), eq("HTTP 503 (1 of 2 failed checks)"));
+
+        checker.check(service, state).get();
+        verify(serviceRepository).recordCheck(eq(service.getId()), any(ServiceCheckResult.class),
+                eq(ServiceStatus.Alert), eq("HTTP 503"));
+        assertThat(state.getFailures(), is(2));
+    }
+
+    @Test
+    public void check_slow_warns() throws Exception {
+        Service service = service("/slow", 100, 1);
+
+        checker.check(service, new ServiceHealthChecker.CheckState()).get();
+
+        verify(serviceRepository).recordCheck(eq(service.getId()), any(ServiceCheckResult.class),
+                eq(ServiceStatus.Warning), eq("Slower than 100ms"));
+    }
+
+    @Test
+    public void check_nothingListening_alerts() throws Exception {
+        Service service = service("/ok", 0, 1);
+        server.stop(0);
+
+        checker.check(service, new ServiceHealthChecker.CheckState()).get();
+
+        ArgumentCaptor<ServiceCheckResult> result = ArgumentCaptor.forClass(ServiceCheckResult.class);
+        verify(serviceRepository).recordCheck(eq(service.getId()), result.capture(), eq(ServiceStatus.Alert),
+                anyString());
+        assertThat(result.getValue().getStatusCode(), is(0));
+    }
+
+    @Test
+    public void check_loopbackNotAllowed_alertsWithoutRequest() throws Exception {
+        ServiceHealthChecker strict = new ServiceHealthChecker(serviceRepository, false, 1, "");
+        Service service = service("/ok", 0, 1);
+
+        try {
+            strict.check(service, new ServiceHealthChecker.CheckState()).get();
+        } finally {
+            strict.shutdown();
+        }
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(serviceRepository).recordCheck(eq(service.getId()), any(ServiceCheckResult.class),
+                eq(ServiceStatus.Alert), message.capture());
+        assertThat(message.getValue(), containsString("not allowed"));
+        assertThat(requests.get(), is(0));
+    }
+
+    @Test
+    public void check_allowedRange_ok() throws Exception {
+        ServiceHealthChecker ranged = new ServiceHealthChecker(serviceRepository, false, 1, "192.168.0.0/16, 127.0.0.0/8");
+        Service service = service("/ok", 0, 1);
+        service.getCheck().setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/ok");
+
+        try {
+            ranged.check(service, new ServiceHealthChecker.CheckState()).get();
+        } finally {
+            ranged.shutdown();
+        }
+
+        verify(serviceRepository).recordCheck(eq(service.getId()), any(ServiceCheckResult.class),
+                eq(ServiceStatus.Ok), (String) eq(null));
+        assertThat(requests.get(), is(1));
+    }
+
+    @Test
+    public void isInternal_privateAndLocalAddresses() throws Exception {
+        assertThat(ServiceHealthChecker.isInternal(InetAddress.getByName("10.1.2.3")), is(true));
+        assertThat(ServiceHealthChecker.isInternal(InetAddress.getByName("169.254.169.254")), is(true));
+        assertThat(ServiceHealthChecker.isInternal(InetAddress.getByName("::1")), is(true));
+        assertThat(ServiceHealthChecker.isInternal(InetAddress.getByName("fd00::1")), is(true));
+        assertThat(ServiceHealthChecker.isInternal(InetAddress.getByName("8.8.8.8")), is(false));
+    }
+
+    private Service service(String path, int slowMillis, int failureThreshold) {
+        ServiceCheck check = new ServiceCheck();
+        check.setUrl("http://localhost:" + server.getAddress().getPort() + path);
+        check.setTimeoutMillis(2000);
+        check.setSlowMillis(slowMillis);
+        check.setFailureThreshold(failureThreshold);
+        Service service = new Service();
+        service.setId(ObjectId.get());
+        service.setName("service");
+        service.setCheck(check);
+        return service;
+    }
+
+    private HttpHandler respond(final int status, final long delayMillis) {
+        return new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            }
+        };
+    }
+}
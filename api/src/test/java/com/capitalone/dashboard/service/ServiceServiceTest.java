@@ -14,6 +14,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -80,13 +82,14 @@ public class ServiceServiceTest {
 
         serviceService.update(dashId, service);
 
-        verify(serviceRepository).save(argThat(new ArgumentMatcher<Service>() {
+        verify(serviceRepository).updateStatus(argThat(new ArgumentMatcher<Service>() {
 
             @Override
             public boolean matches(Object o) {
                 return ((Service) o).getLastUpdated() > 0;
             }
         }));
+        verify(serviceRepository, never()).save(any(Service.class));
     }
 
     @Test
@@ -110,34 +113,20 @@ public class ServiceServiceTest {
         service.setDashboardId(ObjectId.get());
         when(serviceRepository.findOne(serviceId)).thenReturn(service);
 
-        serviceService.addDependentService(dashId, serviceId);
+        Service added = serviceService.addDependentService(dashId, serviceId);
 
-        verify(serviceRepository).save(argThat(new ArgumentMatcher<Service>() {
-            @Override
-            public boolean matches(Object o) {
-                Service service = (Service) o;
-                return service.getDependedBy().contains(dashId);
-            }
-        }));
+        verify(serviceRepository).addDependedBy(serviceId, dashId);
+        assertThat(added.getDependedBy().contains(dashId), is(true));
     }
 
     @Test
     public void deleteDependentService() {
-        final ObjectId dashId = ObjectId.get();
+        ObjectId dashId = ObjectId.get();
         ObjectId serviceId = ObjectId.get();
-        Service service = new Service();
-        service.setDashboardId(dashId);
-        when(serviceRepository.findOne(serviceId)).thenReturn(service);
 
         serviceService.deleteDependentService(dashId, serviceId);
 
-        verify(serviceRepository).save(argThat(new ArgumentMatcher<Service>() {
-            @Override
-            public boolean matches(Object o) {
-                Service service = (Service) o;
-                return !service.getDependedBy().contains(dashId);
-            }
-        }));
+        verify(serviceRepository).removeDependedBy(serviceId, dashId);
     }
 
 }
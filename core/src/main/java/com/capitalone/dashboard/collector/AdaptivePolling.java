@@ -0,0 +1,103 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemHealth;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when each collector item is next due from its {@link CollectorItemHealth}.
+ * <p>
+ * An item whose last fetch found something new, or failed, is due on the next run. Each
+ * fetch in a row that finds nothing doubles the wait, starting at
+ * {@code collector.idlePollMinutes} and stopping at {@code collector.maxPollMinutes}. The
+ * wait never grows beyond twice the gap between changes the item's change rate predicts, so
+ * a busy job that is quiet for an hour is still checked often. Items never fetched are due.
+ */
+@Component
+public class AdaptivePolling {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long MIN_GRACE = TimeUnit.MINUTES.toMillis(1);
+
+    private final CollectorItemHealthRepository collectorItemHealthRepository;
+    private final long idleInterval;
+    private final long maxInterval;
+
+    @Autowired
+    public AdaptivePolling(CollectorItemHealthRepository collectorItemHealthRepository,
+                           @Value("${collector.idlePollMinutes:5}") int idlePollMinutes,
+                           @Value("${collector.maxPollMinutes:1440}") int maxPollMinutes) {
+        this.collectorItemHealthRepository = collectorItemHealthRepository;
+        this.idleInterval = TimeUnit.MINUTES.toMillis(Math.max(0, idlePollMinutes));
+        this.maxInterval = Math.max(idleInterval, TimeUnit.MINUTES.toMillis(maxPollMinutes));
+    }
+
+    /**
+     * Filters collector items down to those due.
+     *
+     * @param items collector items
+     * @param now epoch milliseconds of the run
+     * @return the due items
+     */
+    public <C extends CollectorItem> List<C> dueItems(List<C> items, long now) {
+        if (idleInterval == 0 || items.isEmpty()) {
+            return items;
+        }
+        List<ObjectId> ids = new ArrayList<>();
+        for (C item : items) {
+            ids.add(item.getId());
+        }
+        Map<ObjectId, CollectorItemHealth> healthByItem = new HashMap<>();
+        for (CollectorItemHealth health : collectorItemHealthRepository.findByCollectorItemIdIn(ids)) {
+            healthByItem.put(health.getCollectorItemId(), health);
+        }
+
+        List<C> due = new ArrayList<>();
+        for (C item : items) {
+            if (isDue(healthByItem.get(item.getId()), now)) {
+                due.add(item);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * @param health health of an item, or null if it has never been fetched
+     * @param now epoch milliseconds of the run
+     * @return true if the item should be fetched
+     */
+    public boolean isDue(CollectorItemHealth health, long now) {
+        long interval = interval(health);
+        // Items are recorded partway through a run, so allow for the run having started earlier
+        long grace = Math.max(MIN_GRACE, interval / 10);
+        return interval == 0 || now + grace >= health.getLastSuccess() + interval;
+    }
+
+    /**
+     * @param health health of an item, or null if it has never been fetched
+     * @return time to wait after the last successful fetch of the item
+     */
+    long interval(CollectorItemHealth health) {
+        if (health == null || health.getLastSuccess() == null || health.getConsecutiveFailures() > 0
+                || health.getIdleFetches() == 0) {
+            return 0;
+        }
+        int doublings = Math.min(health.getIdleFetches() - 1, 20);
+        long interval = Math.min(maxInterval, idleInterval << doublings);
+        if (health.getChangeRate() > 0) {
+            long expectedGap = (long) (DAY / health.getChangeRate());
+            interval = Math.min(interval, Math.max(idleInterval, 2 * expectedGap));
+        }
+        return interval;
+    }
+}
@@ -1,7 +1,9 @@
 package com.capitalone.dashboard.collector;
 
 import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorItem;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
+import com.capitalone.dashboard.repository.PipelineStatsRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,8 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Base class for Collector task implementation which provides subclasses with
@@ -21,6 +25,9 @@ import javax.annotation.PreDestroy;
  * <li>Uses TaskScheduler to schedule the job based on the provided cron when the process starts.</li>
  * <li>Saves the last execution time on the collector when the collection run finishes.</li>
  * <li>Sets the collector online/offline when the collector process starts/stops</li>
+ * <li>Tells subclasses which collector items are due in a run, see {@link PollingTiers} and
+ * {@link AdaptivePolling}.</li>
+ * <li>Starts {@link Pipeline}s that record their statistics for the collector, see {@link #pipeline}.</li>
  * </ol>
  *
  * @param <T> Class that extends Collector
@@ -28,9 +35,16 @@ import javax.annotation.PreDestroy;
 @Component
 public abstract class CollectorTask<T extends Collector> implements Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(CollectorTask.class);
+    private static final long PIPELINE_REPORT_INTERVAL = 10000;
 
     private final TaskScheduler taskScheduler;
     private final String collectorName;
+    private PollingTiers pollingTiers;
+    private int runs;
+    private PollingTiers.Schedule schedule;
+    private AdaptivePolling adaptivePolling;
+    private PipelineStatsRepository pipelineStatsRepository;
+    private long runStart;
 
     @Autowired
     protected CollectorTask(TaskScheduler taskScheduler, String collectorName) {
@@ -58,6 +72,12 @@ public abstract class CollectorTask<T extends Collector> implements Runnable {
         }
 
         if (collector.isEnabled()) {
+            runStart = System.currentTimeMillis();
+            if (pollingTiers != null) {
+                schedule = pollingTiers.schedule(runs++);
+                LOGGER.info("Hot items: {}", schedule.getHotItemCount());
+            }
+
             // Do collection run
             collect(collector);
 
@@ -67,6 +87,24 @@ public abstract class CollectorTask<T extends Collector> implements Runnable {
         }
     }
 
+    /**
+     * Optional so that tasks built outside Spring, like those in tests, poll every item.
+     */
+    @Autowired(required = false)
+    public void setPollingTiers(PollingTiers pollingTiers) {
+        this.pollingTiers = pollingTiers;
+    }
+
+    @Autowired(required = false)
+    public void setAdaptivePolling(AdaptivePolling adaptivePolling) {
+        this.adaptivePolling = adaptivePolling;
+    }
+
+    @Autowired(required = false)
+    public void setPipelineStatsRepository(PipelineStatsRepository pipelineStatsRepository) {
+        this.pipelineStatsRepository = pipelineStatsRepository;
+    }
+
     @PostConstruct
     public void onStartup() {
         taskScheduler.schedule(this, new CronTrigger(getCron()));
@@ -86,6 +124,64 @@ public abstract class CollectorTask<T extends Collector> implements Runnable {
 
     public abstract void collect(T collector);
 
+    /**
+     * Filters enabled collector items down to those due in the current run: items on
+     * recently viewed dashboards plus a share of the rest, less those that have been idle
+     * long enough to back off if the collector {@link #pollsAdaptively polls adaptively}.
+     *
+     * @param items enabled collector items
+     * @return the items to poll in this run
+     */
+    protected <C extends CollectorItem> List<C> dueItems(List<C> items) {
+        List<C> due = items;
+        if (schedule != null) {
+            due = new ArrayList<>();
+            for (C item : items) {
+                if (schedule.isDue(item.getId())) {
+                    due.add(item);
+                }
+            }
+        }
+        int tiered = due.size();
+        if (adaptivePolling != null && pollsAdaptively()) {
+            due = adaptivePolling.dueItems(due, runStart == 0 ? System.currentTimeMillis() : runStart);
+        }
+        if (due.size() < items.size()) {
+            LOGGER.info("Polling {} of {} items: {} cold, {} idle", due.size(), items.size(),
+                    items.size() - tiered, tiered - due.size());
+        }
+        return due;
+    }
+
+    /**
+     * Whether {@link #dueItems} leaves out items that {@link AdaptivePolling} finds idle.
+     * Collectors whose run lists the recent changes of every item anyway gain nothing from
+     * skipping items, and should instead tell from the listing which items changed.
+     *
+     * @return true to back off polling idle items
+     */
+    protected boolean pollsAdaptively() {
+        return true;
+    }
+
+    /**
+     * Starts building a {@link Pipeline} whose stage statistics are recorded for the collector
+     * every few seconds while it runs and when it finishes.
+     *
+     * @param collector collector running the pipeline
+     * @param name name of the pipeline
+     * @param queueCapacity number of items each stage can hold waiting for a thread
+     * @return builder for the first stage
+     */
+    protected <I> Pipeline.Builder<I, I> pipeline(Collector collector, String name, int queueCapacity) {
+        Pipeline.Builder<I, I> builder = Pipeline.builder(name, queueCapacity);
+        if (pipelineStatsRepository != null && collector.getId() != null) {
+            builder.monitor(new PipelineStatsMonitor(pipelineStatsRepository, collector.getId()),
+                    PIPELINE_REPORT_INTERVAL);
+        }
+        return builder;
+    }
+
     private void setOnline(boolean online) {
         T collector = getCollectorRepository().findByName(collectorName);
         if (collector != null) {
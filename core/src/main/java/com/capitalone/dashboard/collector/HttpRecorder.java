@@ -0,0 +1,329 @@
+package com.capitalone.dashboard.collector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records the HTTP responses a collector receives to a gzipped archive, or serves them back
+ * from one, so that a collector run can be repeated offline against the same data.
+ * <p>
+ * Set {@code collector.http.mode} to {@code record} or {@code replay} and
+ * {@code collector.http.archive} to the archive file. Recording starts a new archive. On
+ * replay, responses are matched on method and URL and served in the order they were
+ * recorded, the last one repeating once they run out, after waiting the recorded latency
+ * times {@code collector.http.latencyScale}; 0 serves them immediately. Replay against the
+ * same database the recording was made with, since collectors build URLs from what they
+ * have already stored.
+ * <p>
+ * Collectors ask for changes since a point in time that moves on with the clock and with
+ * every run, such as the {@code since} of GitHub or the updated date in a Jira query. Parts
+ * of URLs matching {@code collector.http.mask} are therefore left out when matching, which
+ * by default are dates and times, plain or URL encoded.
+ * <p>
+ * Clients built on {@code RestOperations} take part through {@link #wrap}.
+ */
+@Component
+public class HttpRecorder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpRecorder.class);
+
+    public enum Mode {
+        OFF, RECORD, REPLAY
+    }
+
+    /**
+     * Dates with an optional time, as in {@code 2016-03-01}, {@code 2016-03-01T10:15Z} or
+     * {@code 2016-03-01%2010:15}.
+     */
+    public static final Pattern DATE_TIMES = Pattern.compile(
+            "(?i)\\d{4}-\\d{2}-\\d{2}(?:(?:T|%20|\\+| )\\d{2}(?::|%3A)\\d{2}(?:(?::|%3A)\\d{2}(?:\\.\\d+)?)?(?:Z|[+-]\\d{2}(?::|%3A)?\\d{2})?)?");
+
+    private static final String MASKED = "*";
+
+    private final Mode mode;
+    private final File archive;
+    private final double latencyScale;
+    private final Pattern mask;
+
+    private DataOutputStream out;
+    private Map<String, LinkedList<Exchange>> recorded;
+    private int recordedCount;
+    private int replayedCount;
+    private int missedCount;
+
+    @Autowired
+    public HttpRecorder(@Value("${collector.http.mode:off}") String mode,
+                        @Value("${collector.http.archive:http-archive.gz}") String archive,
+                        @Value("${collector.http.latencyScale:1}") double latencyScale,
+                        @Value("${collector.http.mask:}") String mask) {
+        this(Mode.valueOf(mode.trim().toUpperCase(Locale.ENGLISH)), new File(archive), latencyScale,
+                mask.trim().isEmpty() ? DATE_TIMES : Pattern.compile(mask.trim()));
+    }
+
+    public HttpRecorder(Mode mode, File archive, double latencyScale) {
+        this(mode, archive, latencyScale, DATE_TIMES);
+    }
+
+    /**
+     * @param mode what to do with responses
+     * @param archive archive to record to or replay from
+     * @param latencyScale factor applied to recorded latencies on replay
+     * @param mask parts of URLs to leave out when matching requests to recorded responses
+     */
+    public HttpRecorder(Mode mode, File archive, double latencyScale, Pattern mask) {
+        this.mode = mode;
+        this.archive = archive;
+        this.latencyScale = Math.max(0, latencyScale);
+        this.mask = mask;
+        if (mode != Mode.OFF) {
+            LOGGER.info("HTTP {} mode, archive {}", mode.name().toLowerCase(Locale.ENGLISH), archive.getAbsolutePath());
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    /**
+     * Puts recording or replaying in front of a request factory.
+     *
+     * @param requestFactory factory the collector would use otherwise
+     * @return the factory itself when the recorder is off
+     */
+    public ClientHttpRequestFactory wrap(ClientHttpRequestFactory requestFactory) {
+        return isEnabled() ? new RecordingClientHttpRequestFactory(this, requestFactory) : requestFactory;
+    }
+
+    /**
+     * Appends an exchange to the archive.
+     *
+     * @param exchange response received
+     * @throws IOException if the archive cannot be written
+     */
+    public synchronized void record(Exchange exchange) throws IOException {
+        if (out == null) {
+            out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(archive), true)));
+        }
+        writeString(exchange.method);
+        writeString(exchange.url);
+        out.writeInt(exchange.status);
+        writeString(exchange.reason);
+        out.writeInt(exchange.headers.size());
+        for (Map.Entry<String, List<String>> header : exchange.headers.entrySet()) {
+            writeString(header.getKey());
+            out.writeInt(header.getValue().size());
+            for (String value : header.getValue()) {
+                writeString(value);
+            }
+        }
+        out.writeInt(exchange.body.length);
+        out.write(exchange.body);
+        out.writeLong(exchange.latencyMillis);
+        // flushed through to the file so a collector that is killed still leaves a usable archive
+        out.flush();
+        recordedCount++;
+    }
+
+    /**
+     * Finds the next recorded response to a request, waiting out its scaled latency.
+     *
+     * @param method HTTP method
+     * @param url full URL, including the query
+     * @return recorded exchange
+     * @throws IOException if nothing was recorded for the request, or the archive cannot be read
+     */
+    public Exchange replay(String method, String url) throws IOException {
+        Exchange exchange = next(key(method, url));
+        if (exchange == null) {
+            throw new IOException("No recorded response for " + method + " " + url);
+        }
+        long delay = (long) (exchange.latencyMillis * latencyScale);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted replaying " + url);
+            }
+        }
+        return exchange;
+    }
+
+    private synchronized Exchange next(String key) throws IOException {
+        if (recorded == null) {
+            recorded = load();
+        }
+        LinkedList<Exchange> exchanges = recorded.get(key);
+        if (exchanges == null) {
+            missedCount++;
+            return null;
+        }
+        replayedCount++;
+        return exchanges.size() > 1 ? exchanges.removeFirst() : exchanges.getFirst();
+    }
+
+    private Map<String, LinkedList<Exchange>> load() throws IOException {
+        Map<String, LinkedList<Exchange>> exchanges = new HashMap<>();
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(archive))))) {
+            for (;;) {
+                Exchange exchange;
+                try {
+                    exchange = readExchange(in);
+                } catch (EOFException e) {
+                    // end of the archive, or the last entry of a recording that was cut short
+                    break;
+                }
+                String key = key(exchange.method, exchange.url);
+                if (!exchanges.containsKey(key)) {
+                    exchanges.put(key, new LinkedList<Exchange>());
+                }
+                exchanges.get(key).add(exchange);
+                count++;
+            }
+        }
+        LOGGER.info("Loaded {} recorded responses for {} requests from {}", count, exchanges.size(), archive);
+        return exchanges;
+    }
+
+    /**
+     * @return what requests are matched on: the method and the URL, its masked parts replaced
+     */
+    String key(String method, String url) {
+        return method + " " + mask.matcher(url).replaceAll(MASKED);
+    }
+
+    private static Exchange readExchange(DataInputStream in) throws IOException {
+        String method = readString(in);
+        String url = readString(in);
+        int status = in.readInt();
+        String reason = readString(in);
+        int headerCount = in.readInt();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = readString(in);
+            int valueCount = in.readInt();
+            List<String> values = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                values.add(readString(in));
+            }
+            headers.put(name, values);
+        }
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new Exchange(method, url, status, reason, headers, body, in.readLong());
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Closes the archive being recorded and logs what was recorded or replayed.
+     */
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            LOGGER.info("Recorded {} responses to {}", recordedCount, archive);
+        }
+        if (recorded != null) {
+            LOGGER.info("Replayed {} responses from {}, {} requests had no recording",
+                    replayedCount, archive, missedCount);
+        }
+    }
+
+    /**
+     * One recorded response and the request it answered.
+     */
+    public static final class Exchange {
+        private final String method;
+        private final String url;
+        private final int status;
+        private final String reason;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+        private final long latencyMillis;
+
+        public Exchange(String method, String url, int status, String reason,
+                        Map<String, List<String>> headers, byte[] body, long latencyMillis) {
+            this.method = method;
+            this.url = url;
+            this.status = status;
+            this.reason = reason;
+            this.headers = headers;
+            this.body = body;
+            this.latencyMillis = latencyMillis;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return Collections.unmodifiableMap(headers);
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+    }
+}
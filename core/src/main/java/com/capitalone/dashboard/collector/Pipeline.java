@@ -0,0 +1,470 @@
+package com.capitalone.dashboard.collector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the work of a collection run through a chain of stages, typically fetch, transform
+ * and persist, each with its own threads, so that slow HTTP calls and database writes
+ * overlap instead of alternating.
+ * <p>
+ * Stages are connected by bounded queues. When a stage falls behind, its queue fills up and
+ * the stage before it, or the caller of {@link #submit}, blocks until there is room again.
+ * <pre>
+ * Pipeline&lt;Job&gt; pipeline = Pipeline.&lt;Job&gt;builder("builds", 100)
+ *         .then("fetch", 4, fetchStage)
+ *         .into("persist", 2, persistSink);
+ * for (Job job : jobs) {
+ *     pipeline.submit(job);
+ * }
+ * pipeline.finish();
+ * </pre>
+ * A stage returning null drops the item. An exception thrown by a stage is logged and
+ * counted against that stage, and the pipeline carries on with the next item. A
+ * {@link Monitor} given to the builder is told the statistics of each stage while the
+ * pipeline runs and once more when it finishes.
+ *
+ * @param <I> type of the items submitted to the first stage
+ */
+public final class Pipeline<I> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Pipeline.class);
+
+    /**
+     * One step of a pipeline. Called from several threads at once when the stage has more
+     * than one thread.
+     *
+     * @param <I> input type
+     * @param <O> output type
+     */
+    public interface Stage<I, O> {
+        /**
+         * @param input item from the previous stage
+         * @return item for the next stage, or null to drop it
+         */
+        O apply(I input) throws Exception;
+    }
+
+    /**
+     * Last step of a pipeline.
+     *
+     * @param <I> input type
+     */
+    public interface Sink<I> {
+        void accept(I input) throws Exception;
+    }
+
+    /**
+     * Receives the statistics of a pipeline, from a thread of its own while the pipeline runs
+     * and from the caller of {@link #finish} when it ends.
+     */
+    public interface Monitor {
+        /**
+         * @param pipeline name of the pipeline
+         * @param stats statistics of each stage, in order
+         * @param finished true for the last call, after every item passed through
+         */
+        void report(String pipeline, List<StageStats> stats, boolean finished);
+    }
+
+    private final String name;
+    private final List<StageRunner> runners;
+    private final long startNanos = System.nanoTime();
+    private final Monitor monitor;
+    private final ScheduledExecutorService monitorExecutor;
+
+    private Pipeline(String name, int queueCapacity, List<StageSpec> specs, Monitor monitor, long monitorInterval) {
+        this.name = name;
+        this.runners = new ArrayList<>();
+        StageRunner next = null;
+        for (int i = specs.size() - 1; i >= 0; i--) {
+            next = new StageRunner(specs.get(i), queueCapacity, next);
+            runners.add(0, next);
+        }
+        this.monitor = monitor;
+        this.monitorExecutor = monitor == null ? null : startMonitor(monitorInterval);
+    }
+
+    private ScheduledExecutorService startMonitor(long interval) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, name + "-monitor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                report(false);
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    private void report(boolean finished) {
+        try {
+            monitor.report(name, getStats(), finished);
+        } catch (RuntimeException e) {
+            // Statistics are not worth failing or stopping a collection run for
+            LOGGER.warn(name + ": could not report statistics", e);
+        }
+    }
+
+    /**
+     * Starts building a pipeline.
+     *
+     * @param name name used for threads and logging
+     * @param queueCapacity number of items each stage can hold waiting for a thread
+     * @return builder for the first stage
+     */
+    public static <I> Builder<I, I> builder(String name, int queueCapacity) {
+        return new Builder<>(name, Math.max(1, queueCapacity), new ArrayList<StageSpec>());
+    }
+
+    /**
+     * Hands an item to the first stage, blocking while its queue is full.
+     *
+     * @param item item to process
+     */
+    public void submit(I item) {
+        runners.get(0).offer(item);
+    }
+
+    /**
+     * Waits for every submitted item to pass through all stages, stops the stage threads and
+     * logs the statistics of each stage, also reporting them to the monitor if there is one.
+     * No items can be submitted afterwards.
+     *
+     * @return statistics of each stage, in order
+     */
+    public List<StageStats> finish() {
+        try {
+            for (StageRunner runner : runners) {
+                runner.executor.shutdown();
+                while (!runner.executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    LOGGER.info("{}: waiting for stage {}, {} queued", name, runner.spec.name,
+                            runner.executor.getQueue().size());
+                }
+                runner.finishedNanos = System.nanoTime();
+            }
+            if (monitorExecutor != null) {
+                // Lets a report in progress end first, so it cannot follow the last one
+                monitorExecutor.shutdown();
+                monitorExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            for (StageRunner runner : runners) {
+                runner.executor.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+        if (monitorExecutor != null) {
+            monitorExecutor.shutdownNow();
+            report(true);
+        }
+
+        List<StageStats> stats = getStats();
+        for (StageStats stage : stats) {
+            LOGGER.info("{}: {}", name, stage);
+        }
+        return stats;
+    }
+
+    /**
+     * @return statistics of each stage so far, in order
+     */
+    public List<StageStats> getStats() {
+        List<StageStats> stats = new ArrayList<>();
+        for (StageRunner runner : runners) {
+            stats.add(runner.stats());
+        }
+        return Collections.unmodifiableList(stats);
+    }
+
+    /**
+     * Adds stages to a pipeline under construction.
+     *
+     * @param <I> type of the items submitted to the pipeline
+     * @param <O> type of the items produced by the last stage added so far
+     */
+    public static final class Builder<I, O> {
+        private final String name;
+        private final int queueCapacity;
+        private final List<StageSpec> specs;
+        private Monitor monitor;
+        private long monitorInterval;
+
+        private Builder(String name, int queueCapacity, List<StageSpec> specs) {
+            this.name = name;
+            this.queueCapacity = queueCapacity;
+            this.specs = specs;
+        }
+
+        /**
+         * Reports the statistics of the pipeline to a monitor while it runs.
+         *
+         * @param monitor receives the statistics
+         * @param intervalMillis time between reports
+         * @return this builder
+         */
+        public Builder<I, O> monitor(Monitor monitor, long intervalMillis) {
+            this.monitor = monitor;
+            this.monitorInterval = Math.max(1, intervalMillis);
+            return this;
+        }
+
+        /**
+         * Adds a stage.
+         *
+         * @param stageName name of the stage
+         * @param threads number of threads running the stage
+         * @param stage the work of the stage
+         * @return builder for the next stage
+         */
+        @SuppressWarnings("unchecked")
+        public <N> Builder<I, N> then(String stageName, int threads, Stage<? super O, N> stage) {
+            specs.add(new StageSpec(stageName, threads, (Stage<Object, Object>) stage, false));
+            Builder<I, N> next = new Builder<>(name, queueCapacity, specs);
+            next.monitor = monitor;
+            next.monitorInterval = monitorInterval;
+            return next;
+        }
+
+        /**
+         * Adds the last stage and starts the threads of all stages.
+         *
+         * @param stageName name of the stage
+         * @param threads number of threads running the stage
+         * @param sink the work of the stage
+         * @return the running pipeline
+         */
+        public Pipeline<I> into(String stageName, int threads, final Sink<? super O> sink) {
+            specs.add(new StageSpec(stageName, threads, new Stage<Object, Object>() {
+                @SuppressWarnings("unchecked")
+                @Override
+                public Object apply(Object input) throws Exception {
+                    sink.accept((O) input);
+                    return null;
+                }
+            }, true));
+            return new Pipeline<>(name, queueCapacity, specs, monitor, monitorInterval);
+        }
+    }
+
+    /**
+     * What a stage has done so far.
+     */
+    public static final class StageStats {
+        private final String name;
+        private final int threads;
+        private final long processed;
+        private final long dropped;
+        private final long failed;
+        private final int queueDepth;
+        private final int maxQueueDepth;
+        private final long busyMillis;
+        private final long elapsedMillis;
+
+        StageStats(String name, int threads, long processed, long dropped, long failed, int queueDepth,
+                   int maxQueueDepth, long busyMillis, long elapsedMillis) {
+            this.name = name;
+            this.threads = threads;
+            this.processed = processed;
+            this.dropped = dropped;
+            this.failed = failed;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.busyMillis = busyMillis;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * @return number of items the stage completed, including those it dropped
+         */
+        public long getProcessed() {
+            return processed;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return number of items currently waiting for a thread of the stage
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        /**
+         * @return time the threads of the stage spent working, added up
+         */
+        public long getBusyMillis() {
+            return busyMillis;
+        }
+
+        /**
+         * @return time since the pipeline started, or until the stage finished
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return items completed per second since the pipeline started
+         */
+        public double getThroughput() {
+            return elapsedMillis == 0 ? processed : processed * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[%d threads]: %d processed, %d dropped, %d failed, max queue %d, %.1f/s, busy %dms",
+                    name, threads, processed, dropped, failed, maxQueueDepth, getThroughput(), busyMillis);
+        }
+    }
+
+    private static final class StageSpec {
+        private final String name;
+        private final int threads;
+        private final Stage<Object, Object> stage;
+        private final boolean sink;
+
+        StageSpec(String name, int threads, Stage<Object, Object> stage, boolean sink) {
+            this.name = name;
+            this.threads = Math.max(1, threads);
+            this.stage = stage;
+            this.sink = sink;
+        }
+    }
+
+    private final class StageRunner {
+        private final StageSpec spec;
+        private final StageRunner next;
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private volatile long finishedNanos;
+
+        StageRunner(final StageSpec spec, int queueCapacity, StageRunner next) {
+            this.spec = spec;
+            this.next = next;
+            this.executor = new ThreadPoolExecutor(spec.threads, spec.threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, name + "-" + spec.name + "-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new BlockWhenFull());
+            this.executor.prestartAllCoreThreads();
+        }
+
+        void offer(final Object item) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    process(item);
+                }
+            });
+            int depth = executor.getQueue().size();
+            for (;;) {
+                int max = maxQueueDepth.get();
+                if (depth <= max || maxQueueDepth.compareAndSet(max, depth)) {
+                    return;
+                }
+            }
+        }
+
+        private void process(Object item) {
+            long start = System.nanoTime();
+            Object output;
+            try {
+                output = spec.stage.apply(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.incrementAndGet();
+                return;
+            } catch (Exception e) {
+                LOGGER.error(name + ": stage " + spec.name + " failed on " + item, e);
+                failed.incrementAndGet();
+                return;
+            } finally {
+                busyNanos.addAndGet(System.nanoTime() - start);
+            }
+            processed.incrementAndGet();
+            if (output == null) {
+                if (!spec.sink) {
+                    dropped.incrementAndGet();
+                }
+            } else if (next != null) {
+                next.offer(output);
+            }
+        }
+
+        StageStats stats() {
+            long end = finishedNanos == 0 ? System.nanoTime() : finishedNanos;
+            return new StageStats(spec.name, spec.threads, processed.get(), dropped.get(), failed.get(),
+                    executor.getQueue().size(), maxQueueDepth.get(),
+                    TimeUnit.NANOSECONDS.toMillis(busyNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(end - startNanos));
+        }
+    }
+
+    /**
+     * Makes the submitting thread wait for room in the queue instead of rejecting the task,
+     * which is what pushes back on the stages before a slow one. The pool threads are all
+     * started up front, so a queued task is always picked up.
+     */
+    private static final class BlockWhenFull implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Pipeline stage already finished");
+            }
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted waiting for room in the queue", e);
+            }
+        }
+    }
+}
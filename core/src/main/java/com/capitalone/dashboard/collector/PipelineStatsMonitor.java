@@ -0,0 +1,55 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.PipelineStageStats;
+import com.capitalone.dashboard.model.PipelineStats;
+import com.capitalone.dashboard.repository.PipelineStatsRepository;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the statistics of the pipelines of a collector in {@link PipelineStats}, where the
+ * API can show the queue depth and throughput of each stage.
+ */
+public class PipelineStatsMonitor implements Pipeline.Monitor {
+
+    private final PipelineStatsRepository pipelineStatsRepository;
+    private final ObjectId collectorId;
+    private final long started = System.currentTimeMillis();
+
+    public PipelineStatsMonitor(PipelineStatsRepository pipelineStatsRepository, ObjectId collectorId) {
+        this.pipelineStatsRepository = pipelineStatsRepository;
+        this.collectorId = collectorId;
+    }
+
+    @Override
+    public void report(String pipeline, List<Pipeline.StageStats> stats, boolean finished) {
+        PipelineStats pipelineStats = new PipelineStats();
+        pipelineStats.setCollectorId(collectorId);
+        pipelineStats.setName(pipeline);
+        pipelineStats.setRunning(!finished);
+        pipelineStats.setStarted(started);
+        pipelineStats.setLastUpdated(System.currentTimeMillis());
+        List<PipelineStageStats> stages = new ArrayList<>();
+        for (Pipeline.StageStats stage : stats) {
+            stages.add(toModel(stage));
+        }
+        pipelineStats.setStages(stages);
+        pipelineStatsRepository.record(pipelineStats);
+    }
+
+    private static PipelineStageStats toModel(Pipeline.StageStats stats) {
+        PipelineStageStats stage = new PipelineStageStats();
+        stage.setName(stats.getName());
+        stage.setThreads(stats.getThreads());
+        stage.setProcessed(stats.getProcessed());
+        stage.setDropped(stats.getDropped());
+        stage.setFailed(stats.getFailed());
+        stage.setQueueDepth(stats.getQueueDepth());
+        stage.setMaxQueueDepth(stats.getMaxQueueDepth());
+        stage.setThroughput(stats.getThroughput());
+        stage.setBusyMillis(stats.getBusyMillis());
+        return stage;
+    }
+}
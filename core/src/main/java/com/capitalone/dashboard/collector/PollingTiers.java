@@ -0,0 +1,118 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardAccess;
+import com.capitalone.dashboard.repository.DashboardAccessRepository;
+import com.capitalone.dashboard.repository.DashboardRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits collector items into a hot tier, the items shown on dashboards viewed recently, and
+ * a cold tier holding everything else. Hot items are polled on every run of a collector and
+ * cold items on every {@code collector.coldPollMultiple}th run, so collectors spend their
+ * effort on the dashboards people are looking at.
+ * <p>
+ * Cold items are spread over the runs by their id rather than all polled on the same run.
+ * Until the API has recorded any dashboard views every item counts as hot.
+ */
+@org.springframework.stereotype.Component
+public class PollingTiers {
+
+    private final DashboardAccessRepository dashboardAccessRepository;
+    private final DashboardRepository dashboardRepository;
+    private final int coldPollMultiple;
+    private final long hotMillis;
+
+    @Autowired
+    public PollingTiers(DashboardAccessRepository dashboardAccessRepository,
+                        DashboardRepository dashboardRepository,
+                        @Value("${collector.coldPollMultiple:4}") int coldPollMultiple,
+                        @Value("${collector.hotDashboardHours:24}") int hotDashboardHours) {
+        this.dashboardAccessRepository = dashboardAccessRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.coldPollMultiple = Math.max(1, coldPollMultiple);
+        this.hotMillis = TimeUnit.HOURS.toMillis(hotDashboardHours);
+    }
+
+    /**
+     * Works out which items are hot, for one run of a collector.
+     *
+     * @param run number of the run, counting from zero when the collector started
+     * @return schedule for the run
+     */
+    public Schedule schedule(int run) {
+        if (coldPollMultiple == 1 || dashboardAccessRepository.count() == 0) {
+            return Schedule.EVERYTHING;
+        }
+
+        List<ObjectId> dashboardIds = new ArrayList<>();
+        for (DashboardAccess access : dashboardAccessRepository.findByLastAccessedGreaterThan(
+                System.currentTimeMillis() - hotMillis)) {
+            dashboardIds.add(access.getDashboardId());
+        }
+
+        Set<ObjectId> hotItems = new HashSet<>();
+        for (Dashboard dashboard : dashboardRepository.findAll(dashboardIds)) {
+            if (dashboard.getApplication() == null) {
+                continue;
+            }
+            for (Component component : dashboard.getApplication().getComponents()) {
+                if (component == null) {
+                    continue;
+                }
+                for (List<CollectorItem> items : component.getCollectorItems().values()) {
+                    for (CollectorItem item : items) {
+                        hotItems.add(item.getId());
+                    }
+                }
+            }
+        }
+        return new Schedule(hotItems, run, coldPollMultiple);
+    }
+
+    /**
+     * Which items are due in one run of a collector.
+     */
+    public static final class Schedule {
+        static final Schedule EVERYTHING = new Schedule(null, 0, 1);
+
+        private final Set<ObjectId> hotItems;
+        private final int run;
+        private final int coldPollMultiple;
+
+        Schedule(Set<ObjectId> hotItems, int run, int coldPollMultiple) {
+            this.hotItems = hotItems;
+            this.run = run;
+            this.coldPollMultiple = coldPollMultiple;
+        }
+
+        /**
+         * @param itemId collector item id
+         * @return true if the item should be polled in this run
+         */
+        public boolean isDue(ObjectId itemId) {
+            if (coldPollMultiple == 1 || itemId == null || hotItems.contains(itemId)) {
+                return true;
+            }
+            long hash = itemId.hashCode() & Integer.MAX_VALUE;
+            return (run + hash) % coldPollMultiple == 0;
+        }
+
+        /**
+         * @return number of hot items, or -1 if every item is due
+         */
+        public int getHotItemCount() {
+            return hotItems == null ? -1 : hotItems.size();
+        }
+    }
+}
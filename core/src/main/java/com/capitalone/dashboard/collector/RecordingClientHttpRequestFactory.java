@@ -0,0 +1,146 @@
+package com.capitalone.dashboard.collector;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request factory that passes requests on to another factory and records the responses, or
+ * answers them from a recording, depending on the mode of the {@link HttpRecorder}.
+ */
+class RecordingClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final HttpRecorder recorder;
+    private final ClientHttpRequestFactory requestFactory;
+
+    RecordingClientHttpRequestFactory(HttpRecorder recorder, ClientHttpRequestFactory requestFactory) {
+        this.recorder = recorder;
+        this.requestFactory = requestFactory;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return new RecordingRequest(uri, httpMethod);
+    }
+
+    private final class RecordingRequest extends AbstractClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        RecordingRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            if (recorder.getMode() == HttpRecorder.Mode.REPLAY) {
+                return new RecordedResponse(recorder.replay(method.name(), uri.toString()));
+            }
+
+            ClientHttpRequest request = requestFactory.createRequest(uri, method);
+            request.getHeaders().putAll(headers);
+            if (body.size() > 0) {
+                request.getBody().write(body.toByteArray());
+            }
+            long start = System.nanoTime();
+            ClientHttpResponse response = request.execute();
+            try {
+                int status = response.getRawStatusCode();
+                byte[] content = read(response, status);
+                HttpRecorder.Exchange exchange = new HttpRecorder.Exchange(method.name(), uri.toString(), status,
+                        response.getStatusText(), response.getHeaders(), content,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                recorder.record(exchange);
+                return new RecordedResponse(exchange);
+            } finally {
+                response.close();
+            }
+        }
+
+        private byte[] read(ClientHttpResponse response, int status) throws IOException {
+            try {
+                return StreamUtils.copyToByteArray(response.getBody());
+            } catch (IOException e) {
+                // error responses without a body throw from getBody on some request factories
+                if (status >= HttpStatus.BAD_REQUEST.value()) {
+                    return new byte[0];
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class RecordedResponse implements ClientHttpResponse {
+        private final HttpRecorder.Exchange exchange;
+
+        RecordedResponse(HttpRecorder.Exchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.valueOf(exchange.getStatus());
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return exchange.getStatus();
+        }
+
+        @Override
+        public String getStatusText() {
+            return exchange.getReason();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            for (Map.Entry<String, List<String>> header : exchange.getHeaders().entrySet()) {
+                headers.put(header.getKey(), header.getValue());
+            }
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(exchange.getBody());
+        }
+
+        @Override
+        public void close() {
+            // nothing held open
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.capitalone.dashboard.config;
 
+import com.capitalone.dashboard.repository.BudgetedMongoTemplate;
 import com.capitalone.dashboard.repository.RepositoryPackage;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoCredential;
@@ -10,7 +11,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.data.mongodb.config.AbstractMongoConfiguration;
-import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -61,8 +61,8 @@ public class MongoConfig extends AbstractMongoConfiguration {
     }
 
     @Bean
-    public MongoTemplate mongoTemplate() throws Exception {
-        return new MongoTemplate(mongo(), getDatabaseName());
+    public BudgetedMongoTemplate mongoTemplate() throws Exception {
+        return new BudgetedMongoTemplate(mongo(), getDatabaseName());
     }
 
     @Bean
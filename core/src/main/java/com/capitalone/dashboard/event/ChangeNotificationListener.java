@@ -0,0 +1,137 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.capitalone.dashboard.model.CodeQuality;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.DataVersion;
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import com.capitalone.dashboard.model.EnvironmentStatus;
+import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.repository.BulkInsertListener;
+import com.capitalone.dashboard.repository.ChangeNotificationRepository;
+import com.capitalone.dashboard.repository.DataVersionRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a {@link ChangeNotification} whenever a collector saves widget data, so that API
+ * nodes can tell open dashboards to refresh without polling every widget endpoint, and bumps
+ * the {@link DataVersion} the API builds entity tags from. A batch of bulk inserts gets one
+ * notification and one version per collector item.
+ */
+@Component
+public class ChangeNotificationListener extends AbstractMongoEventListener<Object> implements BulkInsertListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeNotificationListener.class);
+
+    private static final String COLLECTION = "change_notifications";
+    private static final int CAPPED_SIZE_BYTES = 16 * 1024 * 1024;
+    private static final int CAPPED_MAX_DOCUMENTS = 100000;
+
+    private final ChangeNotificationRepository changeNotificationRepository;
+    private final DataVersionRepository dataVersionRepository;
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public ChangeNotificationListener(ChangeNotificationRepository changeNotificationRepository,
+                                      DataVersionRepository dataVersionRepository,
+                                      MongoOperations mongoOperations) {
+        this.changeNotificationRepository = changeNotificationRepository;
+        this.dataVersionRepository = dataVersionRepository;
+        this.mongoOperations = mongoOperations;
+    }
+
+    @PostConstruct
+    public void createCollection() {
+        if (mongoOperations.collectionExists(COLLECTION)) {
+            return;
+        }
+        try {
+            mongoOperations.createCollection(COLLECTION,
+                    new CollectionOptions(CAPPED_SIZE_BYTES, CAPPED_MAX_DOCUMENTS, true));
+        } catch (RuntimeException e) {
+            // Another collector or API node created it first
+            LOGGER.debug("Could not create " + COLLECTION, e);
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        notify(Collections.singletonList(event.getSource()));
+    }
+
+    @Override
+    public void afterInsert(List<?> records) {
+        notify(records);
+    }
+
+    /**
+     * Saves one notification for each collector item or team among the sources, and bumps
+     * each of their versions once.
+     */
+    private void notify(List<?> sources) {
+        Map<List<Object>, ChangeNotification> notifications = new LinkedHashMap<>();
+        Set<ObjectId> sourceIds = new LinkedHashSet<>();
+        for (Object source : sources) {
+            ChangeNotification notification = toNotification(source);
+            if (notification == null) {
+                continue;
+            }
+            List<Object> key = Arrays.<Object>asList(notification.getCollectorType(),
+                    notification.getCollectorItemId(), notification.getTeamId());
+            if (!notifications.containsKey(key)) {
+                notifications.put(key, notification);
+            }
+
+            // Features have no collector item, so their version is kept per feature collector
+            ObjectId sourceId = source instanceof Feature
+                    ? ((Feature) source).getCollectorId() : notification.getCollectorItemId();
+            if (sourceId != null) {
+                sourceIds.add(sourceId);
+            }
+        }
+        for (ChangeNotification notification : notifications.values()) {
+            changeNotificationRepository.save(notification);
+        }
+        for (ObjectId sourceId : sourceIds) {
+            dataVersionRepository.increment(sourceId);
+        }
+    }
+
+    private ChangeNotification toNotification(Object source) {
+        if (source instanceof Build) {
+            return new ChangeNotification(CollectorType.Build, ((Build) source).getCollectorItemId(), null);
+        } else if (source instanceof Commit) {
+            return new ChangeNotification(CollectorType.SCM, ((Commit) source).getCollectorItemId(), null);
+        } else if (source instanceof CodeQuality) {
+            return new ChangeNotification(CollectorType.CodeQuality, ((CodeQuality) source).getCollectorItemId(), null);
+        } else if (source instanceof TestResult) {
+            return new ChangeNotification(CollectorType.Test, ((TestResult) source).getCollectorItemId(), null);
+        } else if (source instanceof EnvironmentComponent) {
+            return new ChangeNotification(CollectorType.Deployment, ((EnvironmentComponent) source).getCollectorItemId(), null);
+        } else if (source instanceof EnvironmentStatus) {
+            return new ChangeNotification(CollectorType.Deployment, ((EnvironmentStatus) source).getCollectorItemId(), null);
+        } else if (source instanceof Feature) {
+            return new ChangeNotification(CollectorType.Feature, null, ((Feature) source).getsTeamID());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.repository.CollectorItemSearch;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the search keys of {@link CollectorItem}s, including collector specific subclasses,
+ * in step with their description and options.
+ *
+ * @see CollectorItemSearch
+ */
+@Component
+public class CollectorItemSearchListener extends AbstractMongoEventListener<CollectorItem> {
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<CollectorItem> event) {
+        CollectorItemSearch.addSearchKeys(event.getDBObject());
+    }
+}
@@ -0,0 +1,119 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.CodeQuality;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.repository.BulkInsertListener;
+import com.capitalone.dashboard.repository.DailyStatsBackfill;
+import com.capitalone.dashboard.repository.DailyStatsRepository;
+import com.mongodb.DBObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds builds, commits, test results and code quality snapshots to the
+ * {@link com.capitalone.dashboard.model.DailyStats} of their day as collectors insert them.
+ * Saves of documents that already exist are not counted again. Batches of bulk inserts are
+ * added with one update per collector item and day. Saves wait while another process
+ * rebuilds the stats of their type, see {@link DailyStatsBackfill#awaitRebuild}.
+ */
+@Component
+public class DailyStatsListener extends AbstractMongoEventListener<Object> implements BulkInsertListener {
+
+    private static final String ID = "_id";
+
+    private final DailyStatsRepository dailyStatsRepository;
+    private final DailyStatsBackfill dailyStatsBackfill;
+
+    // Document of the insert in progress on this thread. An insert that fails raises no after
+    // save event, so it is held only until the next insert on the thread replaces it.
+    private final ThreadLocal<DBObject> inserting = new ThreadLocal<>();
+
+    @Autowired
+    public DailyStatsListener(DailyStatsRepository dailyStatsRepository, DailyStatsBackfill dailyStatsBackfill) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.dailyStatsBackfill = dailyStatsBackfill;
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Object> event) {
+        CollectorType collectorType = typeOf(event.getSource());
+        if (collectorType == null) {
+            return;
+        }
+        // Also raised for each record of a bulk insert, before the batch is written
+        dailyStatsBackfill.awaitRebuild(collectorType);
+        if (event.getDBObject().get(ID) == null) {
+            inserting.set(event.getDBObject());
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        if (inserting.get() != event.getDBObject()) {
+            return;
+        }
+        inserting.remove();
+        Object source = event.getSource();
+        if (source instanceof Build) {
+            dailyStatsRepository.addBuild((Build) source);
+        } else if (source instanceof Commit) {
+            dailyStatsRepository.addCommit((Commit) source);
+        } else if (source instanceof TestResult) {
+            dailyStatsRepository.addTestResult((TestResult) source);
+        } else if (source instanceof CodeQuality) {
+            dailyStatsRepository.addCodeQuality((CodeQuality) source);
+        }
+    }
+
+    @Override
+    public void afterInsert(List<?> records) {
+        List<Build> builds = new ArrayList<>();
+        List<Commit> commits = new ArrayList<>();
+        List<TestResult> testResults = new ArrayList<>();
+        for (Object record : records) {
+            if (record instanceof Build) {
+                builds.add((Build) record);
+            } else if (record instanceof Commit) {
+                commits.add((Commit) record);
+            } else if (record instanceof TestResult) {
+                testResults.add((TestResult) record);
+            } else if (record instanceof CodeQuality) {
+                dailyStatsRepository.addCodeQuality((CodeQuality) record);
+            }
+        }
+        if (!builds.isEmpty()) {
+            dailyStatsRepository.addBuilds(builds);
+        }
+        if (!commits.isEmpty()) {
+            dailyStatsRepository.addCommits(commits);
+        }
+        if (!testResults.isEmpty()) {
+            dailyStatsRepository.addTestResults(testResults);
+        }
+    }
+
+    /**
+     * @return type of data the source is counted as, or null if it is not counted
+     */
+    private static CollectorType typeOf(Object source) {
+        if (source instanceof Build) {
+            return CollectorType.Build;
+        } else if (source instanceof Commit) {
+            return CollectorType.SCM;
+        } else if (source instanceof TestResult) {
+            return CollectorType.Test;
+        } else if (source instanceof CodeQuality) {
+            return CollectorType.CodeQuality;
+        }
+        return null;
+    }
+}
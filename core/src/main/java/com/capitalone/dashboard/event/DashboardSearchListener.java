@@ -0,0 +1,21 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.repository.DashboardSearch;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the title key of {@link Dashboard}s in step with their title.
+ *
+ * @see DashboardSearch
+ */
+@Component
+public class DashboardSearchListener extends AbstractMongoEventListener<Dashboard> {
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Dashboard> event) {
+        DashboardSearch.addTitleKey(event.getDBObject());
+    }
+}
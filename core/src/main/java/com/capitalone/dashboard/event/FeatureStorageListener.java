@@ -0,0 +1,27 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.repository.FeatureStorage;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores {@link Feature}s in their compact form and restores their String form on load.
+ *
+ * @see FeatureStorage
+ */
+@Component
+public class FeatureStorageListener extends AbstractMongoEventListener<Feature> {
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Feature> event) {
+        FeatureStorage.compact(event.getDBObject());
+    }
+
+    @Override
+    public void onAfterLoad(AfterLoadEvent<Feature> event) {
+        FeatureStorage.expand(event.getDBObject());
+    }
+}
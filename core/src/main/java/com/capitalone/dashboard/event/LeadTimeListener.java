@@ -0,0 +1,53 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import com.capitalone.dashboard.repository.BulkInsertListener;
+import com.capitalone.dashboard.repository.LeadTimeIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds builds and deployments to the {@link LeadTimeIndex} as collectors save them, and the
+ * builds of each bulk insert batch in one write.
+ */
+@Component
+public class LeadTimeListener extends AbstractMongoEventListener<Object> implements BulkInsertListener {
+
+    private final LeadTimeIndex leadTimeIndex;
+
+    @Autowired
+    public LeadTimeListener(LeadTimeIndex leadTimeIndex) {
+        this.leadTimeIndex = leadTimeIndex;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof Build) {
+            leadTimeIndex.addBuild((Build) source);
+        } else if (source instanceof EnvironmentComponent) {
+            leadTimeIndex.addDeployment((EnvironmentComponent) source);
+        }
+    }
+
+    @Override
+    public void afterInsert(List<?> records) {
+        List<Build> builds = new ArrayList<>();
+        for (Object record : records) {
+            if (record instanceof Build) {
+                builds.add((Build) record);
+            } else if (record instanceof EnvironmentComponent) {
+                leadTimeIndex.addDeployment((EnvironmentComponent) record);
+            }
+        }
+        if (!builds.isEmpty()) {
+            leadTimeIndex.addBuilds(builds);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.repository.BulkInsertListener;
+import com.capitalone.dashboard.repository.TestCaseRecordRepository;
+import com.capitalone.dashboard.repository.TestCaseStorage;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores {@link TestResult}s without their test cases and replaces the result's
+ * {@link TestCaseRecord}s once it is saved, inserting the new records before removing the old
+ * ones. Results are read back without their cases, so saving a result that carries no cases
+ * leaves its stored cases alone. The records of a batch of bulk inserted results, which have
+ * no stored cases yet, are inserted together.
+ *
+ * @see TestCaseStorage
+ */
+@Component
+public class TestCaseStorageListener extends AbstractMongoEventListener<TestResult> implements BulkInsertListener {
+
+    private final TestCaseRecordRepository testCaseRecordRepository;
+
+    @Autowired
+    public TestCaseStorageListener(TestCaseRecordRepository testCaseRecordRepository) {
+        this.testCaseRecordRepository = testCaseRecordRepository;
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<TestResult> event) {
+        TestCaseStorage.strip(event.getDBObject());
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<TestResult> event) {
+        TestResult testResult = event.getSource();
+        List<TestCaseRecord> records = TestCaseStorage.records(testResult);
+        if (!records.isEmpty()) {
+            // Insert before removing the old cases, so the result is never left without any
+            testCaseRecordRepository.insert(records);
+            List<ObjectId> ids = new ArrayList<>(records.size());
+            for (TestCaseRecord record : records) {
+                ids.add(record.getId());
+            }
+            testCaseRecordRepository.deleteByTestResultIdAndIdNotIn(testResult.getId(), ids);
+        }
+    }
+
+    @Override
+    public void afterInsert(List<?> records) {
+        List<TestCaseRecord> testCaseRecords = new ArrayList<>();
+        for (Object record : records) {
+            if (record instanceof TestResult) {
+                testCaseRecords.addAll(TestCaseStorage.records((TestResult) record));
+            }
+        }
+        if (!testCaseRecords.isEmpty()) {
+            testCaseRecordRepository.insert(testCaseRecords);
+        }
+    }
+}
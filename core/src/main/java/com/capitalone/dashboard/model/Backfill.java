@@ -0,0 +1,50 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Records that a backfill of derived data, such as daily stats, was completed for the items
+ * of a {@link Collector}. Backfills that find their record skip the work on later starts.
+ */
+@Document(collection = "backfills")
+@CompoundIndex(name = "name_collector", def = "{'name' : 1, 'collectorId' : 1}", unique = true)
+public class Backfill extends BaseModel {
+    private String name;
+    private ObjectId collectorId;
+    private long completed;
+
+    public Backfill() {
+    }
+
+    public Backfill(String name, ObjectId collectorId, long completed) {
+        this.name = name;
+        this.collectorId = collectorId;
+        this.completed = completed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public ObjectId getCollectorId() {
+        return collectorId;
+    }
+
+    public void setCollectorId(ObjectId collectorId) {
+        this.collectorId = collectorId;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+}
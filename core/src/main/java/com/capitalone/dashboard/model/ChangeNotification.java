@@ -0,0 +1,59 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Records that a collector wrote new data for a {@link CollectorItem}, or for a team in the
+ * case of features. Kept in a small capped collection that API nodes poll to push live
+ * updates to open dashboards.
+ */
+@Document(collection = "change_notifications")
+public class ChangeNotification extends BaseModel {
+    private CollectorType collectorType;
+    private ObjectId collectorItemId;
+    private String teamId;
+    private long timestamp;
+
+    public ChangeNotification() {
+    }
+
+    public ChangeNotification(CollectorType collectorType, ObjectId collectorItemId, String teamId) {
+        this.collectorType = collectorType;
+        this.collectorItemId = collectorItemId;
+        this.teamId = teamId;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public CollectorType getCollectorType() {
+        return collectorType;
+    }
+
+    public void setCollectorType(CollectorType collectorType) {
+        this.collectorType = collectorType;
+    }
+
+    public ObjectId getCollectorItemId() {
+        return collectorItemId;
+    }
+
+    public void setCollectorItemId(ObjectId collectorItemId) {
+        this.collectorItemId = collectorItemId;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,94 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Freshness of the data of all fetched items of one collector, in milliseconds behind the
+ * time it was computed.
+ */
+public class CollectorFreshness {
+    private ObjectId collectorId;
+    private int items;
+    private int failing;
+    private int notAttempted;
+    private long maxSuccessLag;
+    private long averageSuccessLag;
+    private long maxNewDataLag;
+    private long averageFetchMillis;
+
+    public ObjectId getCollectorId() {
+        return collectorId;
+    }
+
+    public void setCollectorId(ObjectId collectorId) {
+        this.collectorId = collectorId;
+    }
+
+    public int getItems() {
+        return items;
+    }
+
+    public void setItems(int items) {
+        this.items = items;
+    }
+
+    /**
+     * @return number of items whose last fetch failed
+     */
+    public int getFailing() {
+        return failing;
+    }
+
+    public void setFailing(int failing) {
+        this.failing = failing;
+    }
+
+    /**
+     * @return number of items that have not been fetched at all recently
+     */
+    public int getNotAttempted() {
+        return notAttempted;
+    }
+
+    public void setNotAttempted(int notAttempted) {
+        this.notAttempted = notAttempted;
+    }
+
+    /**
+     * @return time since the last successful fetch of the item that has gone longest without one
+     */
+    public long getMaxSuccessLag() {
+        return maxSuccessLag;
+    }
+
+    public void setMaxSuccessLag(long maxSuccessLag) {
+        this.maxSuccessLag = maxSuccessLag;
+    }
+
+    public long getAverageSuccessLag() {
+        return averageSuccessLag;
+    }
+
+    public void setAverageSuccessLag(long averageSuccessLag) {
+        this.averageSuccessLag = averageSuccessLag;
+    }
+
+    /**
+     * @return time since new data was last fetched for the item that has gone longest without any
+     */
+    public long getMaxNewDataLag() {
+        return maxNewDataLag;
+    }
+
+    public void setMaxNewDataLag(long maxNewDataLag) {
+        this.maxNewDataLag = maxNewDataLag;
+    }
+
+    public long getAverageFetchMillis() {
+        return averageFetchMillis;
+    }
+
+    public void setAverageFetchMillis(long averageFetchMillis) {
+        this.averageFetchMillis = averageFetchMillis;
+    }
+}
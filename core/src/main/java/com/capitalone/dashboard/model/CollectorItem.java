@@ -2,6 +2,8 @@ package com.capitalone.dashboard.model;
 
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.HashMap;
@@ -21,6 +23,11 @@ import java.util.Map;
  * </p>
  */
 @Document(collection="collector_items")
+@CompoundIndexes({
+        // searchKeys is kept by CollectorItemSearchListener rather than mapped
+        @CompoundIndex(name = "collector_search", def = "{'collectorId' : 1, 'searchKeys' : 1}"),
+        @CompoundIndex(name = "collector_description", def = "{'collectorId' : 1, 'description' : 1}")
+})
 public class CollectorItem extends BaseModel {
 
     private String description;
@@ -0,0 +1,149 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * How recently a collector managed to fetch data for one of its {@link CollectorItem}s, and
+ * how recently that data contained anything new. Kept apart from the item itself so that
+ * collectors saving their items do not overwrite it.
+ */
+@Document(collection = "collector_item_health")
+public class CollectorItemHealth extends BaseModel {
+    @Indexed(unique = true)
+    private ObjectId collectorItemId;
+    @Indexed
+    private ObjectId collectorId;
+    private long lastAttempt;
+    private Long lastSuccess;
+    private Long lastNewData;
+    private int consecutiveFailures;
+    private String lastError;
+    private long lastFetchMillis;
+    private long fetches;
+    private long totalFetchMillis;
+    private double changeRate;
+    private int idleFetches;
+
+    public ObjectId getCollectorItemId() {
+        return collectorItemId;
+    }
+
+    public void setCollectorItemId(ObjectId collectorItemId) {
+        this.collectorItemId = collectorItemId;
+    }
+
+    public ObjectId getCollectorId() {
+        return collectorId;
+    }
+
+    public void setCollectorId(ObjectId collectorId) {
+        this.collectorId = collectorId;
+    }
+
+    /**
+     * @return time of the last fetch, successful or not
+     */
+    public long getLastAttempt() {
+        return lastAttempt;
+    }
+
+    public void setLastAttempt(long lastAttempt) {
+        this.lastAttempt = lastAttempt;
+    }
+
+    /**
+     * @return time of the last successful fetch, or null if none succeeded
+     */
+    public Long getLastSuccess() {
+        return lastSuccess;
+    }
+
+    public void setLastSuccess(Long lastSuccess) {
+        this.lastSuccess = lastSuccess;
+    }
+
+    /**
+     * @return time of the last fetch that returned new data, or null if none did
+     */
+    public Long getLastNewData() {
+        return lastNewData;
+    }
+
+    public void setLastNewData(Long lastNewData) {
+        this.lastNewData = lastNewData;
+    }
+
+    /**
+     * @return number of fetches that failed since the last successful one
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    /**
+     * @return message of the last failure, cleared by the next successful fetch
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public long getLastFetchMillis() {
+        return lastFetchMillis;
+    }
+
+    public void setLastFetchMillis(long lastFetchMillis) {
+        this.lastFetchMillis = lastFetchMillis;
+    }
+
+    public long getFetches() {
+        return fetches;
+    }
+
+    public void setFetches(long fetches) {
+        this.fetches = fetches;
+    }
+
+    public long getTotalFetchMillis() {
+        return totalFetchMillis;
+    }
+
+    public void setTotalFetchMillis(long totalFetchMillis) {
+        this.totalFetchMillis = totalFetchMillis;
+    }
+
+    /**
+     * @return estimated number of new documents per day, weighted towards recent fetches
+     */
+    public double getChangeRate() {
+        return changeRate;
+    }
+
+    public void setChangeRate(double changeRate) {
+        this.changeRate = changeRate;
+    }
+
+    /**
+     * @return number of successful fetches in a row that found nothing new
+     */
+    public int getIdleFetches() {
+        return idleFetches;
+    }
+
+    public void setIdleFetches(int idleFetches) {
+        this.idleFetches = idleFetches;
+    }
+
+    public long getAverageFetchMillis() {
+        return fetches == 0 ? 0 : totalFetchMillis / fetches;
+    }
+}
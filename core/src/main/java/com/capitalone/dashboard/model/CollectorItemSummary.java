@@ -0,0 +1,156 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Rollup of the builds, deployments or code quality snapshots of one {@link CollectorItem},
+ * kept up to date by the API so that portfolio views can summarize every dashboard without
+ * reading the underlying collections. Only the fields of the item's collector type are set.
+ */
+@Document(collection = "collector_item_summaries")
+public class CollectorItemSummary extends BaseModel {
+    @Indexed(unique = true)
+    private ObjectId collectorItemId;
+    private CollectorType collectorType;
+    private long lastUpdated;
+
+    private BuildStatus lastBuildStatus;
+    private long lastBuildTime;
+    private int recentBuildCount;
+    private int recentSuccessCount;
+
+    private int componentCount;
+    private int deployedCount;
+    private long lastDeployed;
+
+    private long qualityTimestamp;
+    private Set<CodeQualityMetric> metrics = new HashSet<>();
+
+    public ObjectId getCollectorItemId() {
+        return collectorItemId;
+    }
+
+    public void setCollectorItemId(ObjectId collectorItemId) {
+        this.collectorItemId = collectorItemId;
+    }
+
+    public CollectorType getCollectorType() {
+        return collectorType;
+    }
+
+    public void setCollectorType(CollectorType collectorType) {
+        this.collectorType = collectorType;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    /**
+     * @return status of the build that finished last
+     */
+    public BuildStatus getLastBuildStatus() {
+        return lastBuildStatus;
+    }
+
+    public void setLastBuildStatus(BuildStatus lastBuildStatus) {
+        this.lastBuildStatus = lastBuildStatus;
+    }
+
+    /**
+     * @return end time of the build that finished last
+     */
+    public long getLastBuildTime() {
+        return lastBuildTime;
+    }
+
+    public void setLastBuildTime(long lastBuildTime) {
+        this.lastBuildTime = lastBuildTime;
+    }
+
+    /**
+     * @return number of builds that finished within the recent window
+     */
+    public int getRecentBuildCount() {
+        return recentBuildCount;
+    }
+
+    public void setRecentBuildCount(int recentBuildCount) {
+        this.recentBuildCount = recentBuildCount;
+    }
+
+    /**
+     * @return number of successful builds that finished within the recent window
+     */
+    public int getRecentSuccessCount() {
+        return recentSuccessCount;
+    }
+
+    public void setRecentSuccessCount(int recentSuccessCount) {
+        this.recentSuccessCount = recentSuccessCount;
+    }
+
+    /**
+     * @return number of distinct components across all environments
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public void setComponentCount(int componentCount) {
+        this.componentCount = componentCount;
+    }
+
+    /**
+     * @return number of those components whose latest report says they are deployed
+     */
+    public int getDeployedCount() {
+        return deployedCount;
+    }
+
+    public void setDeployedCount(int deployedCount) {
+        this.deployedCount = deployedCount;
+    }
+
+    /**
+     * @return most recent report time of a deployed component
+     */
+    public long getLastDeployed() {
+        return lastDeployed;
+    }
+
+    public void setLastDeployed(long lastDeployed) {
+        this.lastDeployed = lastDeployed;
+    }
+
+    /**
+     * @return timestamp of the latest code quality snapshot
+     */
+    public long getQualityTimestamp() {
+        return qualityTimestamp;
+    }
+
+    public void setQualityTimestamp(long qualityTimestamp) {
+        this.qualityTimestamp = qualityTimestamp;
+    }
+
+    /**
+     * @return metrics of the latest code quality snapshot
+     */
+    public Set<CodeQualityMetric> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Set<CodeQualityMetric> metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,78 @@
+package com.capitalone.dashboard.model;
+
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * The sprint a team is currently in, kept up to date by the feature collectors so that
+ * the feature widget can look it up by team alone.
+ */
+@Document(collection = "current_sprints")
+public class CurrentSprint extends BaseModel {
+    @Indexed(unique = true)
+    private String teamId;
+    private String sprintId;
+    private String sprintName;
+    private Date sprintBeginDate;
+    private Date sprintEndDate;
+    private long lastUpdated;
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public String getSprintId() {
+        return sprintId;
+    }
+
+    public void setSprintId(String sprintId) {
+        this.sprintId = sprintId;
+    }
+
+    public String getSprintName() {
+        return sprintName;
+    }
+
+    public void setSprintName(String sprintName) {
+        this.sprintName = sprintName;
+    }
+
+    public Date getSprintBeginDate() {
+        return sprintBeginDate;
+    }
+
+    public void setSprintBeginDate(Date sprintBeginDate) {
+        this.sprintBeginDate = sprintBeginDate;
+    }
+
+    public Date getSprintEndDate() {
+        return sprintEndDate;
+    }
+
+    public void setSprintEndDate(Date sprintEndDate) {
+        this.sprintEndDate = sprintEndDate;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    /**
+     * @param date a point in time
+     * @return true if the sprint runs at the given time
+     */
+    public boolean isCurrent(Date date) {
+        return sprintBeginDate != null && sprintEndDate != null
+                && !sprintBeginDate.after(date) && !sprintEndDate.before(date);
+    }
+}
@@ -0,0 +1,154 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Totals of one {@link CollectorItem} for one UTC day, so that trend charts read a row per
+ * day instead of every build, commit or test result. Rows are updated as collectors insert
+ * data and rebuilt from the raw collections by
+ * {@link com.capitalone.dashboard.repository.DailyStatsBackfill}.
+ */
+@Document(collection = "daily_stats")
+@CompoundIndex(name = "item_day", def = "{'collectorItemId' : 1, 'day' : 1}", unique = true)
+public class DailyStats extends BaseModel {
+    private ObjectId collectorItemId;
+    private Date day;
+
+    private int buildCount;
+    private Map<String, Integer> buildStatusCounts = new HashMap<>();
+    private long buildDurationSum;
+    private long buildDurationMax;
+
+    private int commitCount;
+
+    private int testsPassed;
+    private int testsFailed;
+    private int testsSkipped;
+
+    private Map<String, Object> metrics = new HashMap<>();
+
+    public ObjectId getCollectorItemId() {
+        return collectorItemId;
+    }
+
+    public void setCollectorItemId(ObjectId collectorItemId) {
+        this.collectorItemId = collectorItemId;
+    }
+
+    /**
+     * @return start of the UTC day
+     */
+    public Date getDay() {
+        return day;
+    }
+
+    public void setDay(Date day) {
+        this.day = day;
+    }
+
+    public int getBuildCount() {
+        return buildCount;
+    }
+
+    public void setBuildCount(int buildCount) {
+        this.buildCount = buildCount;
+    }
+
+    /**
+     * @return number of builds by {@link BuildStatus} name
+     */
+    public Map<String, Integer> getBuildStatusCounts() {
+        return buildStatusCounts;
+    }
+
+    public void setBuildStatusCounts(Map<String, Integer> buildStatusCounts) {
+        this.buildStatusCounts = buildStatusCounts;
+    }
+
+    public long getBuildDurationSum() {
+        return buildDurationSum;
+    }
+
+    public void setBuildDurationSum(long buildDurationSum) {
+        this.buildDurationSum = buildDurationSum;
+    }
+
+    public long getBuildDurationMax() {
+        return buildDurationMax;
+    }
+
+    public void setBuildDurationMax(long buildDurationMax) {
+        this.buildDurationMax = buildDurationMax;
+    }
+
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    public void setCommitCount(int commitCount) {
+        this.commitCount = commitCount;
+    }
+
+    public int getTestsPassed() {
+        return testsPassed;
+    }
+
+    public void setTestsPassed(int testsPassed) {
+        this.testsPassed = testsPassed;
+    }
+
+    /**
+     * @return number of tests that failed or errored
+     */
+    public int getTestsFailed() {
+        return testsFailed;
+    }
+
+    public void setTestsFailed(int testsFailed) {
+        this.testsFailed = testsFailed;
+    }
+
+    public int getTestsSkipped() {
+        return testsSkipped;
+    }
+
+    public void setTestsSkipped(int testsSkipped) {
+        this.testsSkipped = testsSkipped;
+    }
+
+    /**
+     * Metric names become field names, which may not contain dots or start with a dollar.
+     *
+     * @param name code quality metric name
+     * @return key of the metric in {@link #getMetrics()}
+     */
+    public static String metricKey(String name) {
+        String key = name.replace('.', '_');
+        return key.startsWith("$") ? "_" + key.substring(1) : key;
+    }
+
+    /**
+     * @return code quality metric values of the day's last snapshot, by {@link #metricKey}
+     */
+    public Map<String, Object> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Map<String, Object> metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param name code quality metric name
+     * @return value of the metric in the day's last snapshot, or null
+     */
+    public Object getMetric(String name) {
+        return metrics.get(metricKey(name));
+    }
+}
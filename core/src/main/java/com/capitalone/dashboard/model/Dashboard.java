@@ -1,5 +1,7 @@
 package com.capitalone.dashboard.model;
 
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -11,6 +13,11 @@ import java.util.List;
  *
  */
 @Document(collection="dashboards")
+@CompoundIndexes({
+        // titleKey is kept by DashboardSearchListener rather than mapped
+        @CompoundIndex(name = "title_key", def = "{'titleKey' : 1}"),
+        @CompoundIndex(name = "owner_title_key", def = "{'owner' : 1, 'titleKey' : 1}")
+})
 public class Dashboard extends BaseModel {
     private String template;
     private String title;
@@ -0,0 +1,33 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * When a {@link Dashboard} was last viewed. Written by the API and read by collectors to
+ * decide which collector items to poll more often.
+ */
+@Document(collection = "dashboard_access")
+public class DashboardAccess extends BaseModel {
+    @Indexed(unique = true)
+    private ObjectId dashboardId;
+    @Indexed
+    private long lastAccessed;
+
+    public ObjectId getDashboardId() {
+        return dashboardId;
+    }
+
+    public void setDashboardId(ObjectId dashboardId) {
+        this.dashboardId = dashboardId;
+    }
+
+    public long getLastAccessed() {
+        return lastAccessed;
+    }
+
+    public void setLastAccessed(long lastAccessed) {
+        this.lastAccessed = lastAccessed;
+    }
+}
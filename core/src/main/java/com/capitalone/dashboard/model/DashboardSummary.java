@@ -0,0 +1,46 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+
+/**
+ * What a list of {@link Dashboard}s shows of each: its id, title, owner and template. The
+ * full dashboard is loaded when it is opened.
+ */
+public class DashboardSummary {
+    private ObjectId id;
+    private String title;
+    private String owner;
+    private String template;
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+}
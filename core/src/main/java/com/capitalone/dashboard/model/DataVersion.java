@@ -0,0 +1,34 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Counts the writes of widget data for a {@link CollectorItem}, for a feature
+ * {@link Collector} since features have no collector item, or for a checked {@link Service}.
+ * Bumped as collectors save data and by repositories that write it with field-level updates,
+ * and read by the API to build entity tags that only change when the data does.
+ */
+@Document(collection = "data_versions")
+public class DataVersion extends BaseModel {
+    @Indexed(unique = true)
+    private ObjectId sourceId;
+    private long version;
+
+    public ObjectId getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(ObjectId sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -1,12 +1,14 @@
 package com.capitalone.dashboard.model;
 
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 /**
  * Represents deployable units (components) deployed to an environment.
  */
 @Document(collection = "environment_components")
+@CompoundIndex(name = "item_latest", def = "{'collectorItemId' : 1, 'asOfDate' : -1, '_id' : 1}")
 public class EnvironmentComponent extends BaseModel {
     private ObjectId collectorItemId;
     private String environmentName;
@@ -0,0 +1,54 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * Total estimate of the stories belonging to one epic within a
+ * {@link SprintEstimate}.
+ */
+public class EpicEstimate {
+    private String epicId;
+    private String epicNumber;
+    private String epicName;
+    private int estimate;
+
+    public EpicEstimate() {
+    }
+
+    public EpicEstimate(String epicId, String epicNumber, String epicName, int estimate) {
+        this.epicId = epicId;
+        this.epicNumber = epicNumber;
+        this.epicName = epicName;
+        this.estimate = estimate;
+    }
+
+    public String getEpicId() {
+        return epicId;
+    }
+
+    public void setEpicId(String epicId) {
+        this.epicId = epicId;
+    }
+
+    public String getEpicNumber() {
+        return epicNumber;
+    }
+
+    public void setEpicNumber(String epicNumber) {
+        this.epicNumber = epicNumber;
+    }
+
+    public String getEpicName() {
+        return epicName;
+    }
+
+    public void setEpicName(String epicName) {
+        this.epicName = epicName;
+    }
+
+    public int getEstimate() {
+        return estimate;
+    }
+
+    public void setEstimate(int estimate) {
+        this.estimate = estimate;
+    }
+}
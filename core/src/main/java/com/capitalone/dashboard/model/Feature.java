@@ -17,6 +17,7 @@
 package com.capitalone.dashboard.model;
 
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -31,6 +32,7 @@ import java.util.List;
  * 
  */
 @Document(collection = "feature")
+@CompoundIndex(name = "team_sprint_window", def = "{'sTeamID' : 1, 'isDeleted' : 1, 'sSprintBeginDate' : 1, 'sSprintEndDate' : 1}")
 public class Feature extends BaseModel {
 	private ObjectId collectorId;
 	/*
@@ -44,6 +46,8 @@ public class Feature extends BaseModel {
 	private String sState;
 	private String sSoftwareTesting;
 	private String sEstimate;
+	private Integer estimate;
+	private FeatureStatus status;
 	@Indexed
 	private String changeDate;
 	private String isDeleted;
@@ -66,7 +70,6 @@ public class Feature extends BaseModel {
 	private String sTeamAssetState;
 	private String sTeamChangeDate;
 	private String sTeamName;
-	@Indexed
 	private String sTeamID;
 
 	/*
@@ -75,9 +78,7 @@ public class Feature extends BaseModel {
 	private String sSprintIsDeleted;
 	private String sSprintChangeDate;
 	private String sSprintAssetState;
-	@Indexed
 	private String sSprintEndDate;
-	@Indexed
 	private String sSprintBeginDate;
 	private String sSprintName;
 	@Indexed
@@ -174,6 +175,41 @@ public class Feature extends BaseModel {
 		this.sEstimate = sEstimate;
 	}
 
+	public Integer getEstimate() {
+		return estimate;
+	}
+
+	public void setEstimate(Integer estimate) {
+		this.estimate = estimate;
+	}
+
+	public FeatureStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(FeatureStatus status) {
+		this.status = status;
+	}
+
+	/**
+	 * Parses a source system estimate into whole units. Blank or non-numeric
+	 * estimates count as zero, as they always have in the widget totals.
+	 * 
+	 * @param sEstimate
+	 *            The estimate as delivered by the source system
+	 * @return The numeric estimate
+	 */
+	public static int parseEstimate(String sEstimate) {
+		if (sEstimate == null) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(sEstimate.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
 	public String getsProjectID() {
 		return sProjectID;
 	}
@@ -0,0 +1,34 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * Normalized progress of a {@link Feature} within its sprint, derived from the
+ * source system's free-form status so that estimates can be rolled up without
+ * string matching.
+ */
+public enum FeatureStatus {
+    Backlog,
+    InProgress,
+    Done;
+
+    /**
+     * Maps a source system status (Jira status category or VersionOne status
+     * name) onto a normalized status. Unrecognized or empty values are treated
+     * as {@link #Backlog}.
+     */
+    public static FeatureStatus fromSourceStatus(String sStatus) {
+        if (sStatus == null) {
+            return Backlog;
+        }
+        switch (sStatus.trim()) {
+            case "In Progress":
+            case "Waiting":
+            case "Impeded":
+                return InProgress;
+            case "Done":
+            case "Accepted":
+                return Done;
+            default:
+                return Backlog;
+        }
+    }
+}
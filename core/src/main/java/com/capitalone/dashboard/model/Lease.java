@@ -0,0 +1,41 @@
+package com.capitalone.dashboard.model;
+
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Grants one process at a time a role shared by several, such as keeping summaries up to
+ * date when more than one API node runs. The holder renews the lease before it expires; once
+ * it has expired, any other process may take it.
+ */
+@Document(collection = "leases")
+public class Lease extends BaseModel {
+    @Indexed(unique = true)
+    private String name;
+    private String holder;
+    private long expiresAt;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
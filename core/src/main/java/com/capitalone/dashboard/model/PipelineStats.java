@@ -0,0 +1,81 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the stages of a pipeline a {@link Collector} runs its collection through are doing,
+ * recorded while a run is in progress and once more when it ends. Kept apart from the
+ * collector itself so that collectors saving their collector do not overwrite it.
+ */
+@Document(collection = "pipeline_stats")
+@CompoundIndex(name = "collector_name", def = "{'collectorId' : 1, 'name' : 1}", unique = true)
+public class PipelineStats extends BaseModel {
+    private ObjectId collectorId;
+    private String name;
+    private boolean running;
+    private long started;
+    private long lastUpdated;
+    private List<PipelineStageStats> stages = new ArrayList<>();
+
+    public ObjectId getCollectorId() {
+        return collectorId;
+    }
+
+    public void setCollectorId(ObjectId collectorId) {
+        this.collectorId = collectorId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return true until the run that recorded the statistics has finished
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    /**
+     * @return time the run started
+     */
+    public long getStarted() {
+        return started;
+    }
+
+    public void setStarted(long started) {
+        this.started = started;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    /**
+     * @return statistics of each stage, in order
+     */
+    public List<PipelineStageStats> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<PipelineStageStats> stages) {
+        this.stages = stages;
+    }
+}
@@ -0,0 +1,78 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Links a source revision to the first {@link Build} of a build job that contained it. Part of
+ * the lead time index kept by {@link com.capitalone.dashboard.repository.LeadTimeIndex}.
+ */
+@Document(collection = "revision_builds")
+@CompoundIndexes({
+        @CompoundIndex(name = "item_revision", def = "{'buildCollectorItemId' : 1, 'revision' : 1}", unique = true),
+        @CompoundIndex(name = "item_commit", def = "{'buildCollectorItemId' : 1, 'commitTimestamp' : 1}")
+})
+public class RevisionBuild extends BaseModel {
+    private ObjectId buildCollectorItemId;
+    private String revision;
+    private long commitTimestamp;
+    private String buildNumber;
+    private String version;
+    private long buildTimestamp;
+
+    public ObjectId getBuildCollectorItemId() {
+        return buildCollectorItemId;
+    }
+
+    public void setBuildCollectorItemId(ObjectId buildCollectorItemId) {
+        this.buildCollectorItemId = buildCollectorItemId;
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    public void setRevision(String revision) {
+        this.revision = revision;
+    }
+
+    public long getCommitTimestamp() {
+        return commitTimestamp;
+    }
+
+    public void setCommitTimestamp(long commitTimestamp) {
+        this.commitTimestamp = commitTimestamp;
+    }
+
+    public String getBuildNumber() {
+        return buildNumber;
+    }
+
+    public void setBuildNumber(String buildNumber) {
+        this.buildNumber = buildNumber;
+    }
+
+    /**
+     * @return artifact version of the build, or its number if it has none
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    /**
+     * @return time the build finished, or started if it has not finished
+     */
+    public long getBuildTimestamp() {
+        return buildTimestamp;
+    }
+
+    public void setBuildTimestamp(long buildTimestamp) {
+        this.buildTimestamp = buildTimestamp;
+    }
+}
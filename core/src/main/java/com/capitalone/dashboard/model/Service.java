@@ -3,7 +3,9 @@ package com.capitalone.dashboard.model;
 import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -18,6 +20,8 @@ public class Service extends BaseModel {
     private String message;
     private long lastUpdated;
     private Set<ObjectId> dependedBy = new HashSet<>();
+    private ServiceCheck check;
+    private List<ServiceCheckResult> checkHistory = new ArrayList<>();
 
     public String getName() {
         return name;
@@ -70,4 +74,22 @@ public class Service extends BaseModel {
     public Set<ObjectId> getDependedBy() {
         return dependedBy;
     }
+
+    /**
+     * @return how the service is checked, or null if its status is only set through the API
+     */
+    public ServiceCheck getCheck() {
+        return check;
+    }
+
+    public void setCheck(ServiceCheck check) {
+        this.check = check;
+    }
+
+    /**
+     * @return most recent checks, oldest first
+     */
+    public List<ServiceCheckResult> getCheckHistory() {
+        return checkHistory;
+    }
 }
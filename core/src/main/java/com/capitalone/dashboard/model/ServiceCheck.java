@@ -0,0 +1,64 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * How a {@link Service} is checked: the URL to request and what counts as healthy.
+ */
+public class ServiceCheck {
+    private String url;
+    private int intervalSeconds = 60;
+    private int timeoutMillis = 5000;
+    private int slowMillis;
+    private int failureThreshold = 1;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    /**
+     * @return seconds between checks, varied a little so checks do not line up
+     */
+    public int getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * @return milliseconds to wait for a connection, and then for the response
+     */
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * @return response time above which a healthy service is shown as a warning, or 0 for no limit
+     */
+    public int getSlowMillis() {
+        return slowMillis;
+    }
+
+    public void setSlowMillis(int slowMillis) {
+        this.slowMillis = slowMillis;
+    }
+
+    /**
+     * @return failed checks in a row before the service is shown as an alert rather than a warning
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+}
@@ -0,0 +1,56 @@
+package com.capitalone.dashboard.model;
+
+/**
+ * Outcome of one check of a {@link Service}.
+ */
+public class ServiceCheckResult {
+    private long timestamp;
+    private long latencyMillis;
+    private int statusCode;
+    private ServiceStatus status;
+
+    public ServiceCheckResult() {
+    }
+
+    public ServiceCheckResult(long timestamp, long latencyMillis, int statusCode, ServiceStatus status) {
+        this.timestamp = timestamp;
+        this.latencyMillis = latencyMillis;
+        this.statusCode = statusCode;
+        this.status = status;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * @return HTTP status of the response, or 0 if there was none
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public ServiceStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ServiceStatus status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,96 @@
+package com.capitalone.dashboard.model;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A query the API ran for longer than its slow query threshold. Kept in a small capped
+ * collection, so only the most recent ones survive.
+ */
+@Document(collection = "slow_queries")
+public class SlowQuery extends BaseModel {
+    private String endpoint;
+    private String collectionName;
+    private String shape;
+    private long durationMillis;
+    private int docsReturned;
+    private Integer docsExamined;
+    private long timestamp;
+
+    public SlowQuery() {
+    }
+
+    public SlowQuery(String endpoint, String collectionName, String shape, long durationMillis, int docsReturned) {
+        this.endpoint = endpoint;
+        this.collectionName = collectionName;
+        this.shape = shape;
+        this.durationMillis = durationMillis;
+        this.docsReturned = docsReturned;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * @return endpoint, or group of endpoints, that ran the query
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    public void setCollectionName(String collectionName) {
+        this.collectionName = collectionName;
+    }
+
+    /**
+     * @return the query with its values replaced by 1, so that queries differing only in
+     * their values share a shape
+     */
+    public String getShape() {
+        return shape;
+    }
+
+    public void setShape(String shape) {
+        this.shape = shape;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public int getDocsReturned() {
+        return docsReturned;
+    }
+
+    public void setDocsReturned(int docsReturned) {
+        this.docsReturned = docsReturned;
+    }
+
+    /**
+     * @return documents Mongo examined to answer the query, or null if it could not be explained
+     */
+    public Integer getDocsExamined() {
+        return docsExamined;
+    }
+
+    public void setDocsExamined(Integer docsExamined) {
+        this.docsExamined = docsExamined;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
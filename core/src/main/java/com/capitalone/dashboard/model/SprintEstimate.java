@@ -0,0 +1,115 @@
+package com.capitalone.dashboard.model;
+
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Precomputed estimate totals of one team's sprint, rebuilt from the team's
+ * {@link Feature}s whenever a feature collector writes them. Lets the feature
+ * widget read sprint totals without loading every story in the sprint.
+ */
+@Document(collection = "sprint_estimates")
+@CompoundIndexes({
+        @CompoundIndex(name = "team_sprint", def = "{'teamId' : 1, 'sprintId' : 1}", unique = true),
+        @CompoundIndex(name = "team_sprint_dates", def = "{'teamId' : 1, 'sprintBeginDate' : 1, 'sprintEndDate' : 1}")
+})
+public class SprintEstimate extends BaseModel {
+    private String teamId;
+    private String sprintId;
+    private String sprintName;
+    private Date sprintBeginDate;
+    private Date sprintEndDate;
+    private int totalEstimate;
+    private int inProgressEstimate;
+    private int doneEstimate;
+    private List<EpicEstimate> epics = new ArrayList<>();
+    private long lastUpdated;
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public String getSprintId() {
+        return sprintId;
+    }
+
+    public void setSprintId(String sprintId) {
+        this.sprintId = sprintId;
+    }
+
+    public String getSprintName() {
+        return sprintName;
+    }
+
+    public void setSprintName(String sprintName) {
+        this.sprintName = sprintName;
+    }
+
+    public Date getSprintBeginDate() {
+        return sprintBeginDate;
+    }
+
+    public void setSprintBeginDate(Date sprintBeginDate) {
+        this.sprintBeginDate = sprintBeginDate;
+    }
+
+    public Date getSprintEndDate() {
+        return sprintEndDate;
+    }
+
+    public void setSprintEndDate(Date sprintEndDate) {
+        this.sprintEndDate = sprintEndDate;
+    }
+
+    public int getTotalEstimate() {
+        return totalEstimate;
+    }
+
+    public void setTotalEstimate(int totalEstimate) {
+        this.totalEstimate = totalEstimate;
+    }
+
+    public int getInProgressEstimate() {
+        return inProgressEstimate;
+    }
+
+    public void setInProgressEstimate(int inProgressEstimate) {
+        this.inProgressEstimate = inProgressEstimate;
+    }
+
+    public int getDoneEstimate() {
+        return doneEstimate;
+    }
+
+    public void setDoneEstimate(int doneEstimate) {
+        this.doneEstimate = doneEstimate;
+    }
+
+    /**
+     * Per-epic totals, ordered by epic id descending.
+     */
+    public List<EpicEstimate> getEpics() {
+        return epics;
+    }
+
+    public void setEpics(List<EpicEstimate> epics) {
+        this.epics = epics;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+}
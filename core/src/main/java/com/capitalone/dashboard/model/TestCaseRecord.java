@@ -0,0 +1,122 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A {@link TestCase} of a {@link TestResult}, stored apart from the result so that test
+ * result documents stay small however many cases a run has. Cases are keyed by their
+ * result, the position of their {@link TestSuite} in the result and their position in the
+ * suite.
+ */
+@Document(collection = "test_cases")
+@CompoundIndex(name = "result_suite", def = "{'testResultId' : 1, 'suiteIndex' : 1, 'caseIndex' : 1}")
+public class TestCaseRecord extends BaseModel {
+    /**
+     * ID of the {@link TestResult} the case belongs to
+     */
+    private ObjectId testResultId;
+
+    /**
+     * ID of the {@link CollectorItem} of the test result
+     */
+    private ObjectId collectorItemId;
+
+    /**
+     * Position of the {@link TestSuite} in {@link TestResult#getTestSuites()}
+     */
+    private int suiteIndex;
+
+    /**
+     * Position of the case in {@link TestSuite#getTestCases()}
+     */
+    private int caseIndex;
+
+    /**
+     * Identifies the test case in the source system
+     */
+    private String testCaseId;
+
+    private String description;
+    private long duration;
+    private TestCaseStatus status;
+
+    public TestCaseRecord() {
+    }
+
+    public TestCaseRecord(TestResult testResult, int suiteIndex, int caseIndex, TestCase testCase) {
+        this.testResultId = testResult.getId();
+        this.collectorItemId = testResult.getCollectorItemId();
+        this.suiteIndex = suiteIndex;
+        this.caseIndex = caseIndex;
+        this.testCaseId = testCase.getId();
+        this.description = testCase.getDescription();
+        this.duration = testCase.getDuration();
+        this.status = testCase.getStatus();
+    }
+
+    public ObjectId getTestResultId() {
+        return testResultId;
+    }
+
+    public void setTestResultId(ObjectId testResultId) {
+        this.testResultId = testResultId;
+    }
+
+    public ObjectId getCollectorItemId() {
+        return collectorItemId;
+    }
+
+    public void setCollectorItemId(ObjectId collectorItemId) {
+        this.collectorItemId = collectorItemId;
+    }
+
+    public int getSuiteIndex() {
+        return suiteIndex;
+    }
+
+    public void setSuiteIndex(int suiteIndex) {
+        this.suiteIndex = suiteIndex;
+    }
+
+    public int getCaseIndex() {
+        return caseIndex;
+    }
+
+    public void setCaseIndex(int caseIndex) {
+        this.caseIndex = caseIndex;
+    }
+
+    public String getTestCaseId() {
+        return testCaseId;
+    }
+
+    public void setTestCaseId(String testCaseId) {
+        this.testCaseId = testCaseId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public TestCaseStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TestCaseStatus status) {
+        this.status = status;
+    }
+}
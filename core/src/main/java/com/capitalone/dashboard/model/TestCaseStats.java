@@ -0,0 +1,302 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rolling statistics of one test case of a {@link CollectorItem}, updated as test results
+ * are collected so that flaky and slow cases can be listed without reading past results.
+ * <p>
+ * A case is flaky when its outcome keeps flipping between passing and failing. Flakiness is
+ * the share of flips among the {@link #WINDOW} most recent outcomes. Durations are tracked
+ * as an exponentially weighted moving average and as percentiles of the most recent runs.
+ * <p>
+ * Statistics are versioned, so a save based on statistics that another writer has updated
+ * since they were read fails instead of overwriting that writer's runs.
+ */
+@Document(collection = "test_case_stats")
+@CompoundIndexes({
+        @CompoundIndex(name = "item_key", def = "{'collectorItemId' : 1, 'key' : 1}", unique = true),
+        @CompoundIndex(name = "item_flakiness", def = "{'collectorItemId' : 1, 'flakiness' : -1}"),
+        @CompoundIndex(name = "item_duration", def = "{'collectorItemId' : 1, 'durationP95' : -1}")
+})
+public class TestCaseStats extends BaseModel {
+    /**
+     * Number of recent outcomes and durations kept
+     */
+    public static final int WINDOW = 50;
+
+    /**
+     * Weight of the latest duration in the moving average
+     */
+    public static final double EWMA_WEIGHT = 0.2;
+
+    private static final char PASSED = 'P';
+    private static final char FAILED = 'F';
+
+    @Version
+    private Long version;
+
+    private ObjectId collectorItemId;
+
+    /**
+     * Suite description and test case id, identifying the case across test results
+     */
+    private String key;
+
+    private String suiteDescription;
+    private String testCaseId;
+    private String description;
+
+    private int runs;
+    private int failures;
+    private int flips;
+    private TestCaseStatus lastStatus;
+    private long lastRun;
+
+    /**
+     * Recent pass (P) and fail (F) outcomes, oldest first
+     */
+    private String recentOutcomes = "";
+    private double flakiness;
+
+    /**
+     * Recent durations in milliseconds, oldest first
+     */
+    private List<Long> recentDurations = new ArrayList<>();
+    private double durationEwma;
+    private long durationP50;
+    private long durationP95;
+
+    public TestCaseStats() {
+    }
+
+    public TestCaseStats(ObjectId collectorItemId, String suiteDescription, TestCase testCase) {
+        this.collectorItemId = collectorItemId;
+        this.key = key(suiteDescription, testCase);
+        this.suiteDescription = suiteDescription;
+        this.testCaseId = testCase.getId();
+        this.description = testCase.getDescription();
+    }
+
+    /**
+     * @return the key identifying a test case of a suite across test results
+     */
+    public static String key(String suiteDescription, TestCase testCase) {
+        return suiteDescription + '/' + testCase.getId();
+    }
+
+    /**
+     * Adds a run of the test case. Runs that neither passed nor failed only update the last
+     * status; runs without a duration do not count towards the duration statistics.
+     *
+     * @param status status of the run
+     * @param duration duration of the run in milliseconds
+     * @param timestamp time of the run
+     */
+    public void record(TestCaseStatus status, long duration, long timestamp) {
+        runs++;
+        lastStatus = status;
+        lastRun = Math.max(lastRun, timestamp);
+
+        Character outcome = outcome(status);
+        if (outcome != null) {
+            if (outcome == FAILED) {
+                failures++;
+            }
+            if (!recentOutcomes.isEmpty() && recentOutcomes.charAt(recentOutcomes.length() - 1) != outcome) {
+                flips++;
+            }
+            recentOutcomes = trim(recentOutcomes + outcome);
+            flakiness = flipRate(recentOutcomes);
+        }
+
+        if (duration > 0) {
+            durationEwma = recentDurations.isEmpty() ? duration
+                    : EWMA_WEIGHT * duration + (1 - EWMA_WEIGHT) * durationEwma;
+            recentDurations.add(duration);
+            if (recentDurations.size() > WINDOW) {
+                recentDurations.remove(0);
+            }
+            List<Long> sorted = new ArrayList<>(recentDurations);
+            Collections.sort(sorted);
+            durationP50 = percentile(sorted, 50);
+            durationP95 = percentile(sorted, 95);
+        }
+    }
+
+    private static Character outcome(TestCaseStatus status) {
+        if (status == TestCaseStatus.Success) {
+            return PASSED;
+        } else if (status == TestCaseStatus.Failure || status == TestCaseStatus.Error) {
+            return FAILED;
+        }
+        return null;
+    }
+
+    private static String trim(String outcomes) {
+        return outcomes.length() > WINDOW ? outcomes.substring(outcomes.length() - WINDOW) : outcomes;
+    }
+
+    private static double flipRate(String outcomes) {
+        if (outcomes.length() < 2) {
+            return 0;
+        }
+        int flips = 0;
+        for (int i = 1; i < outcomes.length(); i++) {
+            if (outcomes.charAt(i) != outcomes.charAt(i - 1)) {
+                flips++;
+            }
+        }
+        return (double) flips / (outcomes.length() - 1);
+    }
+
+    // Nearest rank percentile
+    private static long percentile(List<Long> sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public ObjectId getCollectorItemId() {
+        return collectorItemId;
+    }
+
+    public void setCollectorItemId(ObjectId collectorItemId) {
+        this.collectorItemId = collectorItemId;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getSuiteDescription() {
+        return suiteDescription;
+    }
+
+    public void setSuiteDescription(String suiteDescription) {
+        this.suiteDescription = suiteDescription;
+    }
+
+    public String getTestCaseId() {
+        return testCaseId;
+    }
+
+    public void setTestCaseId(String testCaseId) {
+        this.testCaseId = testCaseId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public void setFailures(int failures) {
+        this.failures = failures;
+    }
+
+    public int getFlips() {
+        return flips;
+    }
+
+    public void setFlips(int flips) {
+        this.flips = flips;
+    }
+
+    public TestCaseStatus getLastStatus() {
+        return lastStatus;
+    }
+
+    public void setLastStatus(TestCaseStatus lastStatus) {
+        this.lastStatus = lastStatus;
+    }
+
+    public long getLastRun() {
+        return lastRun;
+    }
+
+    public void setLastRun(long lastRun) {
+        this.lastRun = lastRun;
+    }
+
+    public String getRecentOutcomes() {
+        return recentOutcomes;
+    }
+
+    public void setRecentOutcomes(String recentOutcomes) {
+        this.recentOutcomes = recentOutcomes;
+    }
+
+    public double getFlakiness() {
+        return flakiness;
+    }
+
+    public void setFlakiness(double flakiness) {
+        this.flakiness = flakiness;
+    }
+
+    public List<Long> getRecentDurations() {
+        return recentDurations;
+    }
+
+    public void setRecentDurations(List<Long> recentDurations) {
+        this.recentDurations = recentDurations;
+    }
+
+    public double getDurationEwma() {
+        return durationEwma;
+    }
+
+    public void setDurationEwma(double durationEwma) {
+        this.durationEwma = durationEwma;
+    }
+
+    public long getDurationP50() {
+        return durationP50;
+    }
+
+    public void setDurationP50(long durationP50) {
+        this.durationP50 = durationP50;
+    }
+
+    public long getDurationP95() {
+        return durationP95;
+    }
+
+    public void setDurationP95(long durationP95) {
+        this.durationP95 = durationP95;
+    }
+}
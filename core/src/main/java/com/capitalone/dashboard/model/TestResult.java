@@ -80,7 +80,8 @@ public class TestResult extends BaseModel {
     private int totalCount;
 
     /**
-     * Collection of {@link TestSuite}s generated by this TestResult.
+     * Collection of {@link TestSuite}s generated by this TestResult. The test cases of the
+     * suites are stored as {@link TestCaseRecord}s.
      */
     private Collection<TestSuite> testSuites = new ArrayList<>();
 
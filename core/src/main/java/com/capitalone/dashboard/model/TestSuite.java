@@ -54,7 +54,8 @@ public class TestSuite {
     private int totalCount;
 
     /**
-     * Collection of {@link TestCase}s associated with this suite
+     * Collection of {@link TestCase}s associated with this suite. Stored apart from the suite
+     * as {@link TestCaseRecord}s, so suites read back from the store have no cases.
      */
     private Collection<TestCase> testCases = new ArrayList<>();
 
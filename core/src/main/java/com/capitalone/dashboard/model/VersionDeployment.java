@@ -0,0 +1,60 @@
+package com.capitalone.dashboard.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Links a version of a deployable component to its first deployment to an environment. Part
+ * of the lead time index kept by {@link com.capitalone.dashboard.repository.LeadTimeIndex}.
+ */
+@Document(collection = "version_deployments")
+@CompoundIndex(name = "item_version_environment", unique = true,
+        def = "{'deployCollectorItemId' : 1, 'version' : 1, 'componentName' : 1, 'environmentName' : 1}")
+public class VersionDeployment extends BaseModel {
+    private ObjectId deployCollectorItemId;
+    private String version;
+    private String componentName;
+    private String environmentName;
+    private long deployTimestamp;
+
+    public ObjectId getDeployCollectorItemId() {
+        return deployCollectorItemId;
+    }
+
+    public void setDeployCollectorItemId(ObjectId deployCollectorItemId) {
+        this.deployCollectorItemId = deployCollectorItemId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getComponentName() {
+        return componentName;
+    }
+
+    public void setComponentName(String componentName) {
+        this.componentName = componentName;
+    }
+
+    public String getEnvironmentName() {
+        return environmentName;
+    }
+
+    public void setEnvironmentName(String environmentName) {
+        this.environmentName = environmentName;
+    }
+
+    public long getDeployTimestamp() {
+        return deployTimestamp;
+    }
+
+    public void setDeployTimestamp(long deployTimestamp) {
+        this.deployTimestamp = deployTimestamp;
+    }
+}
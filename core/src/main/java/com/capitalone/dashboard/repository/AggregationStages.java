@@ -0,0 +1,28 @@
+package com.capitalone.dashboard.repository;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperationContext;
+
+/**
+ * Raw aggregation pipeline stages for the custom repository implementations.
+ */
+final class AggregationStages {
+
+    private AggregationStages() {
+    }
+
+    /**
+     * Wraps a raw pipeline stage. The typed operations cannot express $toLower in a group key,
+     * $cond or $$ROOT, and would reject references to the fields they produce.
+     */
+    static AggregationOperation stage(final String operator, final DBObject body) {
+        return new AggregationOperation() {
+            @Override
+            public DBObject toDBObject(AggregationOperationContext context) {
+                return new BasicDBObject(operator, body);
+            }
+        };
+    }
+}
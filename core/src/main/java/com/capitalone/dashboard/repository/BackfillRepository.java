@@ -0,0 +1,13 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository for {@link Backfill} data.
+ */
+public interface BackfillRepository extends CrudRepository<Backfill, ObjectId> {
+
+    Backfill findByNameAndCollectorId(String name, ObjectId collectorId);
+}
@@ -0,0 +1,317 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.util.Supplier;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.Mongo;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.ReadPreference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MongoTemplate} that enforces the {@link QueryBudget} of the current thread.
+ * <p>
+ * Queries run through {@link #find(Query, Class, String)} or through the collections handed
+ * out by {@link #getCollection(String)}, which is what the QueryDSL repositories use, are
+ * sent with the remaining budget as {@code maxTimeMS}, so Mongo itself stops them. Other
+ * operations are refused once the budget has run out. Every query is timed and reported to
+ * the {@link QueryListener}, if one is set. Explaining a query runs it again, so the explain
+ * gets the query's whole budget as {@code maxTimeMS} too.
+ * <p>
+ * Threads without a budget, which includes every collector, are not affected.
+ */
+public class BudgetedMongoTemplate extends MongoTemplate {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BudgetedMongoTemplate.class);
+
+    private final QueryMapper queryMapper;
+    private volatile QueryListener queryListener;
+
+    public BudgetedMongoTemplate(Mongo mongo, String databaseName) {
+        super(mongo, databaseName);
+        this.queryMapper = new QueryMapper(getConverter());
+    }
+
+    public void setQueryListener(QueryListener queryListener) {
+        this.queryListener = queryListener;
+    }
+
+    @Override
+    public <T> List<T> find(final Query query, Class<T> entityClass, final String collectionName) {
+        final QueryBudget budget = QueryBudget.current();
+        if (budget == null) {
+            return super.find(query, entityClass, collectionName);
+        }
+
+        final DBObject mapped = map(query, entityClass);
+        query.maxTime(remaining(budget, collectionName, mapped), TimeUnit.MILLISECONDS);
+        long start = System.currentTimeMillis();
+        List<T> result;
+        try {
+            result = super.find(query, entityClass, collectionName);
+        } catch (RuntimeException e) {
+            throw translate(e, budget, collectionName, mapped);
+        }
+        reportQuery(budget, collectionName, mapped, System.currentTimeMillis() - start, result.size(),
+                new Supplier<DBObject>() {
+                    @Override
+                    public DBObject get() {
+                        DBCursor cursor = getDb().getCollection(collectionName)
+                                .find(mapped, query.getFieldsObject());
+                        if (query.getSortObject() != null) {
+                            cursor.sort(query.getSortObject());
+                        }
+                        return explain(cursor.skip(query.getSkip()).limit(query.getLimit()), budget);
+                    }
+                });
+        return result;
+    }
+
+    @Override
+    public <T> T findOne(Query query, Class<T> entityClass, final String collectionName) {
+        final QueryBudget budget = QueryBudget.current();
+        if (budget == null) {
+            return super.findOne(query, entityClass, collectionName);
+        }
+
+        final DBObject mapped = map(query, entityClass);
+        remaining(budget, collectionName, mapped);
+        long start = System.currentTimeMillis();
+        T result;
+        try {
+            result = super.findOne(query, entityClass, collectionName);
+        } catch (RuntimeException e) {
+            throw translate(e, budget, collectionName, mapped);
+        }
+        reportQuery(budget, collectionName, mapped, System.currentTimeMillis() - start, result == null ? 0 : 1,
+                new Supplier<DBObject>() {
+                    @Override
+                    public DBObject get() {
+                        return explain(getDb().getCollection(collectionName).find(mapped).limit(1), budget);
+                    }
+                });
+        return result;
+    }
+
+    @Override
+    public long count(Query query, Class<?> entityClass, final String collectionName) {
+        final QueryBudget budget = QueryBudget.current();
+        if (budget == null) {
+            return super.count(query, entityClass, collectionName);
+        }
+
+        final DBObject mapped = map(query, entityClass);
+        remaining(budget, collectionName, mapped);
+        long start = System.currentTimeMillis();
+        long count;
+        try {
+            count = super.count(query, entityClass, collectionName);
+        } catch (RuntimeException e) {
+            throw translate(e, budget, collectionName, mapped);
+        }
+        reportQuery(budget, collectionName, mapped, System.currentTimeMillis() - start, 0,
+                new Supplier<DBObject>() {
+                    @Override
+                    public DBObject get() {
+                        return explain(getDb().getCollection(collectionName).find(mapped), budget);
+                    }
+                });
+        return count;
+    }
+
+    /**
+     * Aggregations are refused once the budget has run out and reported like queries, but
+     * this version of Spring Data cannot pass {@code maxTimeMS} with them.
+     */
+    @Override
+    protected <O> AggregationResults<O> aggregate(Aggregation aggregation, String collectionName,
+                                                  Class<O> outputType, AggregationOperationContext context) {
+        QueryBudget budget = QueryBudget.current();
+        if (budget == null) {
+            return super.aggregate(aggregation, collectionName, outputType, context);
+        }
+
+        DBObject pipeline = aggregation.toDbObject(collectionName, Aggregation.DEFAULT_CONTEXT);
+        remaining(budget, collectionName, pipeline);
+        long start = System.currentTimeMillis();
+        AggregationResults<O> result;
+        try {
+            result = super.aggregate(aggregation, collectionName, outputType, context);
+        } catch (RuntimeException e) {
+            throw translate(e, budget, collectionName, pipeline);
+        }
+        reportQuery(budget, collectionName, pipeline, System.currentTimeMillis() - start,
+                result.getMappedResults().size(), null);
+        return result;
+    }
+
+    @Override
+    public DBCollection getCollection(String collectionName) {
+        if (QueryBudget.current() == null) {
+            return super.getCollection(collectionName);
+        }
+        return new BudgetedCollection(getDb(), collectionName);
+    }
+
+    /**
+     * Explains a cursor's query, stopped by Mongo after the budget of the request that ran it.
+     */
+    static DBObject explain(DBCursor cursor, QueryBudget budget) {
+        return cursor.maxTime(budget.getBudgetMillis(), TimeUnit.MILLISECONDS).explain();
+    }
+
+    private DBObject map(Query query, Class<?> entityClass) {
+        return queryMapper.getMappedObject(query.getQueryObject(), entityClass == null ? null
+                : getConverter().getMappingContext().getPersistentEntity(entityClass));
+    }
+
+    private long remaining(QueryBudget budget, String collectionName, DBObject query) {
+        try {
+            return budget.remainingMillis();
+        } catch (QueryBudgetExceededException e) {
+            reportExceeded(budget, collectionName, query);
+            throw e;
+        }
+    }
+
+    private RuntimeException translate(RuntimeException e, QueryBudget budget, String collectionName,
+                                       DBObject query) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoExecutionTimeoutException) {
+                reportExceeded(budget, collectionName, query);
+                return new QueryBudgetExceededException(budget.getEndpoint(), budget.getBudgetMillis(), e);
+            }
+        }
+        return e;
+    }
+
+    private void reportQuery(QueryBudget budget, String collectionName, DBObject query, long durationMillis,
+                             int returned, Supplier<DBObject> explain) {
+        QueryListener listener = queryListener;
+        if (listener != null) {
+            try {
+                listener.onQuery(budget, collectionName, query, durationMillis, returned, explain);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Query listener failed", e);
+            }
+        }
+    }
+
+    private void reportExceeded(QueryBudget budget, String collectionName, DBObject query) {
+        QueryListener listener = queryListener;
+        if (listener != null) {
+            try {
+                listener.onBudgetExceeded(budget, collectionName, query);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Query listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Collection whose cursors carry the remaining budget and report when they are read.
+     */
+    private final class BudgetedCollection extends DBCollection {
+
+        private BudgetedCollection(DB database, String name) {
+            super(database, name);
+        }
+
+        @Override
+        public DBCursor find(DBObject query) {
+            return find(query, null);
+        }
+
+        @Override
+        public DBCursor find(DBObject query, DBObject fields) {
+            QueryBudget budget = QueryBudget.current();
+            if (budget == null) {
+                return super.find(query, fields);
+            }
+            long remaining = remaining(budget, getName(), query);
+            return new BudgetedCursor(this, query, fields, getReadPreference(), budget)
+                    .maxTime(remaining, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private final class BudgetedCursor extends DBCursor {
+        private final QueryBudget budget;
+
+        private BudgetedCursor(DBCollection collection, DBObject query, DBObject fields,
+                               ReadPreference preference, QueryBudget budget) {
+            super(collection, query, fields, preference);
+            this.budget = budget;
+        }
+
+        @Override
+        public Iterator<DBObject> iterator() {
+            final String collectionName = getCollection().getName();
+            final DBObject query = getQuery() == null ? new BasicDBObject() : getQuery();
+            final long start = System.currentTimeMillis();
+            final Iterator<DBObject> iterator = super.iterator();
+            return new Iterator<DBObject>() {
+                private int returned;
+                private boolean reported;
+
+                @Override
+                public boolean hasNext() {
+                    boolean hasNext;
+                    try {
+                        hasNext = iterator.hasNext();
+                    } catch (RuntimeException e) {
+                        throw translate(e, budget, collectionName, query);
+                    }
+                    if (!hasNext && !reported) {
+                        reported = true;
+                        reportQuery(budget, collectionName, query, System.currentTimeMillis() - start, returned,
+                                new Supplier<DBObject>() {
+                                    @Override
+                                    public DBObject get() {
+                                        return BudgetedMongoTemplate.explain(copy(), budget);
+                                    }
+                                });
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public DBObject next() {
+                    try {
+                        DBObject next = iterator.next();
+                        returned++;
+                        return next;
+                    } catch (RuntimeException e) {
+                        throw translate(e, budget, collectionName, query);
+                    }
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int count() {
+            try {
+                return super.count();
+            } catch (RuntimeException e) {
+                throw translate(e, budget, getCollection().getName(), getQuery());
+            }
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.capitalone.dashboard.repository;
 
 import com.capitalone.dashboard.model.Build;
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.querydsl.QueryDslPredicateExecutor;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository for {@link Build} data.
  */
@@ -18,4 +22,15 @@ public interface BuildRepository extends CrudRepository<Build, ObjectId>, QueryD
      * @return a {@link Build}
      */
     Build findByCollectorItemIdAndNumber(ObjectId collectorItemId, String number);
+
+    /**
+     * Finds which of the given build numbers are stored for a specific
+     * {@link com.capitalone.dashboard.model.CollectorItem}. The builds hold only their number.
+     *
+     * @param collectorItemId collector item id
+     * @param numbers build numbers
+     * @return the stored builds among the numbers
+     */
+    @Query(value = "{ collectorItemId : ?0, number : { $in : ?1 } }", fields = "{ number : 1 }")
+    List<Build> findNumbersByCollectorItemIdAndNumberIn(ObjectId collectorItemId, Collection<String> numbers);
 }
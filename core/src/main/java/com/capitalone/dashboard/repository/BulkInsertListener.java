@@ -0,0 +1,15 @@
+package com.capitalone.dashboard.repository;
+
+import java.util.List;
+
+/**
+ * Told about each batch the {@link BulkInserter} writes, so data derived from the records is
+ * updated once per batch instead of once per record.
+ */
+public interface BulkInsertListener {
+
+    /**
+     * @param records records of one type and collector item that were inserted, with their ids set
+     */
+    void afterInsert(List<?> records);
+}
@@ -0,0 +1,186 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.BaseModel;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inserts batches of records for one collector item in a single unordered bulk write,
+ * leaving out those whose natural key, such as a build number, is already stored for the
+ * item. The unique index {@link NaturalKeyIndexMigration} adds on the collector item and
+ * natural key refuses records another writer stored between the lookup and the write; those
+ * count as existing rather than failed.
+ * <p>
+ * Each record raises the same before save event as {@link MongoOperations#save}, so it is
+ * stored in the same form. Instead of an after save event per record, the inserted records
+ * are handed to every {@link BulkInsertListener} once per batch, so daily stats, lead times,
+ * change notifications and test cases follow bulk inserts in a few writes per batch.
+ */
+@Component
+public class BulkInserter implements ApplicationEventPublisherAware {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkInserter.class);
+
+    private static final String ID = "_id";
+    private static final String COLLECTOR_ITEM_ID = "collectorItemId";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoOperations mongoOperations;
+    private ApplicationEventPublisher eventPublisher;
+    private List<BulkInsertListener> listeners = Collections.emptyList();
+
+    @Autowired
+    public BulkInserter(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.eventPublisher = applicationEventPublisher;
+    }
+
+    @Autowired(required = false)
+    public void setListeners(List<BulkInsertListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * @param type class of the records, mapped to its collection
+     * @param collectorItemId collector item the records belong to
+     * @param keyField stored field holding the natural key
+     * @param records records by natural key, each with the collector item id set
+     * @return how many records were inserted and why the others were not
+     */
+    public <T> Outcome insertNew(Class<T> type, ObjectId collectorItemId, String keyField, Map<String, T> records) {
+        if (records.isEmpty()) {
+            return new Outcome(0, 0, 0);
+        }
+        String collectionName = mongoOperations.getCollectionName(type);
+        DBCollection collection = mongoOperations.getCollection(collectionName);
+
+        Set<String> existing = new HashSet<>();
+        DBObject query = new BasicDBObject(COLLECTOR_ITEM_ID, collectorItemId)
+                .append(keyField, new BasicDBObject("$in", new ArrayList<>(records.keySet())));
+        for (DBObject stored : collection.find(query, new BasicDBObject(keyField, 1))) {
+            existing.add(String.valueOf(stored.get(keyField)));
+        }
+
+        List<T> inserts = new ArrayList<>();
+        List<DBObject> dbObjects = new ArrayList<>();
+        BulkWriteOperation bulk = collection.initializeUnorderedBulkOperation();
+        for (Map.Entry<String, T> record : records.entrySet()) {
+            if (existing.contains(record.getKey())) {
+                continue;
+            }
+            DBObject dbObject = new BasicDBObject();
+            mongoOperations.getConverter().write(record.getValue(), dbObject);
+            // With its id already set the record is not taken for one inserted by a save
+            dbObject.put(ID, new ObjectId());
+            publish(new BeforeSaveEvent<>(record.getValue(), dbObject, collectionName));
+            bulk.insert(dbObject);
+            inserts.add(record.getValue());
+            dbObjects.add(dbObject);
+        }
+        if (inserts.isEmpty()) {
+            return new Outcome(0, existing.size(), 0);
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        int duplicates = 0;
+        try {
+            bulk.execute();
+        } catch (BulkWriteException e) {
+            BulkWriteError firstError = null;
+            for (BulkWriteError error : e.getWriteErrors()) {
+                failed.add(error.getIndex());
+                if (error.getCode() == DUPLICATE_KEY) {
+                    duplicates++;
+                } else if (firstError == null) {
+                    firstError = error;
+                }
+            }
+            if (firstError != null || e.getWriteErrors().isEmpty()) {
+                LOGGER.error("{} of {} {} could not be inserted, first error: {}", failed.size() - duplicates,
+                        inserts.size(), collectionName, firstError == null ? e.getMessage() : firstError);
+            }
+        }
+
+        List<T> inserted = new ArrayList<>();
+        for (int i = 0; i < inserts.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            T record = inserts.get(i);
+            if (record instanceof BaseModel) {
+                ((BaseModel) record).setId((ObjectId) dbObjects.get(i).get(ID));
+            }
+            inserted.add(record);
+        }
+        if (!inserted.isEmpty()) {
+            List<T> view = Collections.unmodifiableList(inserted);
+            for (BulkInsertListener listener : listeners) {
+                listener.afterInsert(view);
+            }
+        }
+        return new Outcome(inserted.size(), existing.size() + duplicates, failed.size() - duplicates);
+    }
+
+    private void publish(ApplicationEvent event) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    /**
+     * What became of a batch.
+     */
+    public static final class Outcome {
+        private final int inserted;
+        private final int existing;
+        private final int failed;
+
+        public Outcome(int inserted, int existing, int failed) {
+            this.inserted = inserted;
+            this.existing = existing;
+            this.failed = failed;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        /**
+         * @return records left out because their natural key was already stored
+         */
+        public int getExisting() {
+            return existing;
+        }
+
+        /**
+         * @return records the database refused
+         */
+        public int getFailed() {
+            return failed;
+        }
+    }
+}
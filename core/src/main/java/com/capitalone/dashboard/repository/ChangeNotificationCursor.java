@@ -0,0 +1,81 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.mongodb.DBObject;
+import com.mongodb.client.MongoCursor;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tailable cursor over the capped change_notifications collection.
+ * <p>
+ * Notifications come back in the order the server wrote them. Their ids are made by many
+ * collector processes with their own clocks, so reading past the last id seen would skip a
+ * notification written a little late with a smaller id. The cursor instead starts at the
+ * oldest notification kept and skips up to the last one read before. If that one has been
+ * overwritten in the meantime, everything kept is returned rather than risk missing any.
+ */
+public class ChangeNotificationCursor implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeNotificationCursor.class);
+
+    private final MongoCursor<? extends DBObject> cursor;
+    private final MongoConverter converter;
+    private ObjectId after;
+    private List<ChangeNotification> skipped = new ArrayList<>();
+
+    public ChangeNotificationCursor(MongoCursor<? extends DBObject> cursor, MongoConverter converter, ObjectId after) {
+        this.cursor = cursor;
+        this.converter = converter;
+        this.after = after;
+    }
+
+    /**
+     * Reads the notifications that have arrived since the last call, without waiting for
+     * more.
+     *
+     * @return notifications in the order they were written, possibly none
+     */
+    public List<ChangeNotification> readAvailable() {
+        List<ChangeNotification> read = new ArrayList<>();
+        for (DBObject next = cursor.tryNext(); next != null; next = cursor.tryNext()) {
+            ChangeNotification notification = converter.read(ChangeNotification.class, next);
+            if (after == null) {
+                read.add(notification);
+            } else if (after.equals(notification.getId())) {
+                after = null;
+                skipped = null;
+            } else {
+                skipped.add(notification);
+            }
+        }
+        if (after != null) {
+            LOGGER.warn("Change notification {} was overwritten before it could be resumed from, "
+                    + "returning all {} kept", after, skipped.size());
+            read = skipped;
+            after = null;
+            skipped = null;
+        }
+        return read;
+    }
+
+    /**
+     * A tailable cursor dies when it is opened on an empty collection, or when the capped
+     * collection wraps around past its position.
+     *
+     * @return false once the cursor has to be opened again
+     */
+    public boolean isAlive() {
+        return cursor.getServerCursor() != null;
+    }
+
+    @Override
+    public void close() {
+        cursor.close();
+    }
+}
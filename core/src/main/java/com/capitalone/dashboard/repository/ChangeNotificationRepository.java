@@ -0,0 +1,12 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.ChangeNotification;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository for {@link ChangeNotification} data.
+ */
+public interface ChangeNotificationRepository extends CrudRepository<ChangeNotification, ObjectId>,
+        ChangeNotificationRepositoryCustom {
+}
@@ -0,0 +1,26 @@
+package com.capitalone.dashboard.repository;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Reads {@link com.capitalone.dashboard.model.ChangeNotification}s in the order the server
+ * wrote them.
+ */
+public interface ChangeNotificationRepositoryCustom {
+
+    /**
+     * Finds the notification the server wrote last. Notification ids are made by the
+     * collectors, so the largest id is not necessarily the newest.
+     *
+     * @return notification id, or null if there are none
+     */
+    ObjectId findNewestId();
+
+    /**
+     * Opens a tailable cursor over the notifications written after the given one.
+     *
+     * @param after last notification already read, or null to read from the oldest one kept
+     * @return cursor, to be closed by the caller
+     */
+    ChangeNotificationCursor tail(ObjectId after);
+}
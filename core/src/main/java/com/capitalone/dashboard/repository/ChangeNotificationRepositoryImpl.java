@@ -0,0 +1,57 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.mongodb.BasicDBObject;
+import com.mongodb.CursorType;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCursor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+/**
+ * Implementation of {@link ChangeNotificationRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link ChangeNotificationRepository}.
+ */
+public class ChangeNotificationRepositoryImpl implements ChangeNotificationRepositoryCustom {
+
+    private static final String ID = "_id";
+    private static final String NATURAL = "$natural";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public ChangeNotificationRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public ObjectId findNewestId() {
+        DBCursor newest = collection().find(new BasicDBObject(), new BasicDBObject(ID, 1))
+                .sort(new BasicDBObject(NATURAL, -1)).limit(1);
+        try {
+            return newest.hasNext() ? (ObjectId) newest.next().get(ID) : null;
+        } finally {
+            newest.close();
+        }
+    }
+
+    @Override
+    public ChangeNotificationCursor tail(ObjectId after) {
+        DBCollection collection = collection();
+        // Only the collection API of the driver tells whether a tailable cursor is still alive
+        MongoCursor<BasicDBObject> cursor = ((MongoClient) collection.getDB().getMongo())
+                .getDatabase(collection.getDB().getName())
+                .getCollection(collection.getName(), BasicDBObject.class)
+                .find()
+                .cursorType(CursorType.Tailable)
+                .iterator();
+        return new ChangeNotificationCursor(cursor, mongoOperations.getConverter(), after);
+    }
+
+    private DBCollection collection() {
+        return mongoOperations.getCollection(mongoOperations.getCollectionName(ChangeNotification.class));
+    }
+}
@@ -0,0 +1,22 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorItemHealth;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for {@link CollectorItemHealth} data.
+ */
+public interface CollectorItemHealthRepository extends CrudRepository<CollectorItemHealth, ObjectId>,
+        CollectorItemHealthRepositoryCustom {
+
+    CollectorItemHealth findByCollectorItemId(ObjectId collectorItemId);
+
+    List<CollectorItemHealth> findByCollectorItemIdIn(Collection<ObjectId> collectorItemIds);
+
+    List<CollectorItemHealth> findByLastAttemptGreaterThanAndConsecutiveFailuresGreaterThanEqualOrderByConsecutiveFailuresDesc(
+            long lastAttempt, int consecutiveFailures);
+}
@@ -0,0 +1,40 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorFreshness;
+import com.capitalone.dashboard.model.CollectorItem;
+
+import java.util.List;
+
+/**
+ * Atomic updates and aggregates of {@link com.capitalone.dashboard.model.CollectorItemHealth}.
+ */
+public interface CollectorItemHealthRepositoryCustom {
+
+    /**
+     * Records a successful fetch for an item.
+     *
+     * @param item collector item fetched
+     * @param fetchMillis time the fetch took
+     * @param newData number of new documents the fetch produced
+     */
+    void recordSuccess(CollectorItem item, long fetchMillis, int newData);
+
+    /**
+     * Records a failed fetch for an item.
+     *
+     * @param item collector item fetched
+     * @param fetchMillis time until the fetch failed
+     * @param error what went wrong
+     */
+    void recordFailure(CollectorItem item, long fetchMillis, String error);
+
+    /**
+     * Computes the freshness of all items of each collector that were ever fetched. Items not
+     * fetched since a point in time, such as those the collector stopped fetching or those removed
+     * from every dashboard, count towards the lags and are also counted as not attempted.
+     *
+     * @param attemptedSince epoch milliseconds before which a last fetch counts as not attempted
+     * @return freshness per collector
+     */
+    List<CollectorFreshness> freshness(long attemptedSince);
+}
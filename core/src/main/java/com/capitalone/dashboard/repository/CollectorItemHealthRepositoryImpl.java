@@ -0,0 +1,151 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorFreshness;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemHealth;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.capitalone.dashboard.repository.AggregationStages.stage;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link CollectorItemHealthRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link CollectorItemHealthRepository}.
+ */
+public class CollectorItemHealthRepositoryImpl implements CollectorItemHealthRepositoryCustom {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final double RATE_WEIGHT = 0.3;
+    private static final long MIN_RATE_WINDOW = TimeUnit.MINUTES.toMillis(1);
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public CollectorItemHealthRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void recordSuccess(CollectorItem item, long fetchMillis, int newData) {
+        long now = System.currentTimeMillis();
+        Query previousQuery = forItem(item);
+        previousQuery.fields().include("lastSuccess").include("changeRate").include("idleFetches");
+        CollectorItemHealth previous = mongoOperations.findOne(previousQuery, CollectorItemHealth.class);
+
+        Update update = fetched(item, now, fetchMillis)
+                .set("lastSuccess", now)
+                .set("consecutiveFailures", 0)
+                .set("changeRate", changeRate(previous, newData, now))
+                .set("idleFetches", newData > 0 || previous == null ? 0 : previous.getIdleFetches() + 1)
+                .unset("lastError");
+        if (newData > 0) {
+            update.set("lastNewData", now);
+        }
+        mongoOperations.upsert(forItem(item), update, CollectorItemHealth.class);
+    }
+
+    /**
+     * Blends the rate seen since the previous successful fetch into the running estimate.
+     * The first fetch of an item usually brings in its backlog, so it sets no rate.
+     */
+    static double changeRate(CollectorItemHealth previous, int newData, long now) {
+        if (previous == null || previous.getLastSuccess() == null) {
+            return 0;
+        }
+        long window = Math.max(MIN_RATE_WINDOW, now - previous.getLastSuccess());
+        double observed = newData * (double) TimeUnit.DAYS.toMillis(1) / window;
+        return RATE_WEIGHT * observed + (1 - RATE_WEIGHT) * previous.getChangeRate();
+    }
+
+    @Override
+    public void recordFailure(CollectorItem item, long fetchMillis, String error) {
+        String message = error == null ? "Unknown error" : error;
+        Update update = fetched(item, System.currentTimeMillis(), fetchMillis)
+                .inc("consecutiveFailures", 1)
+                .set("lastError", message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        mongoOperations.upsert(forItem(item), update, CollectorItemHealth.class);
+    }
+
+    @Override
+    public List<CollectorFreshness> freshness(long attemptedSince) {
+        BasicDBList hasFailures = new BasicDBList();
+        hasFailures.add("$consecutiveFailures");
+        hasFailures.add(0);
+
+        BasicDBList failing = new BasicDBList();
+        failing.add(new BasicDBObject("$gt", hasFailures));
+        failing.add(1);
+        failing.add(0);
+
+        BasicDBList attemptedBefore = new BasicDBList();
+        attemptedBefore.add("$lastAttempt");
+        attemptedBefore.add(attemptedSince);
+
+        BasicDBList notAttempted = new BasicDBList();
+        notAttempted.add(new BasicDBObject("$lt", attemptedBefore));
+        notAttempted.add(1);
+        notAttempted.add(0);
+
+        List<DBObject> groups = mongoOperations.aggregate(Aggregation.newAggregation(
+                stage("$group", new BasicDBObject("_id", "$collectorId")
+                        .append("items", new BasicDBObject("$sum", 1))
+                        .append("failing", new BasicDBObject("$sum", new BasicDBObject("$cond", failing)))
+                        .append("notAttempted", new BasicDBObject("$sum", new BasicDBObject("$cond", notAttempted)))
+                        .append("oldestSuccess", new BasicDBObject("$min", "$lastSuccess"))
+                        .append("averageSuccess", new BasicDBObject("$avg", "$lastSuccess"))
+                        .append("oldestNewData", new BasicDBObject("$min", "$lastNewData"))
+                        .append("fetches", new BasicDBObject("$sum", "$fetches"))
+                        .append("totalFetchMillis", new BasicDBObject("$sum", "$totalFetchMillis")))),
+                CollectorItemHealth.class, DBObject.class).getMappedResults();
+
+        long now = System.currentTimeMillis();
+        List<CollectorFreshness> freshness = new ArrayList<>();
+        for (DBObject group : groups) {
+            CollectorFreshness collector = new CollectorFreshness();
+            collector.setCollectorId((ObjectId) group.get("_id"));
+            collector.setItems(toLong(group.get("items")).intValue());
+            collector.setFailing(toLong(group.get("failing")).intValue());
+            collector.setNotAttempted(toLong(group.get("notAttempted")).intValue());
+            collector.setMaxSuccessLag(lag(now, group.get("oldestSuccess")));
+            collector.setAverageSuccessLag(lag(now, group.get("averageSuccess")));
+            collector.setMaxNewDataLag(lag(now, group.get("oldestNewData")));
+            long fetches = toLong(group.get("fetches"));
+            collector.setAverageFetchMillis(fetches == 0 ? 0 : toLong(group.get("totalFetchMillis")) / fetches);
+            freshness.add(collector);
+        }
+        return freshness;
+    }
+
+    private static Query forItem(CollectorItem item) {
+        return new Query(where("collectorItemId").is(item.getId()));
+    }
+
+    private static Update fetched(CollectorItem item, long now, long fetchMillis) {
+        return new Update()
+                .set("collectorId", item.getCollectorId())
+                .set("lastAttempt", now)
+                .set("lastFetchMillis", fetchMillis)
+                .inc("fetches", 1)
+                .inc("totalFetchMillis", fetchMillis);
+    }
+
+    private static long lag(long now, Object timestamp) {
+        return timestamp instanceof Number ? Math.max(0, now - ((Number) timestamp).longValue()) : 0;
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -5,5 +5,6 @@ import com.capitalone.dashboard.model.CollectorItem;
 /**
  * A {@link CollectorItem} repository
  */
-public interface CollectorItemRepository extends BaseCollectorItemRepository<CollectorItem> {
+public interface CollectorItemRepository extends BaseCollectorItemRepository<CollectorItem>,
+        CollectorItemRepositoryCustom {
 }
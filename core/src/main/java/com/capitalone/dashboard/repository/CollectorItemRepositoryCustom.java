@@ -0,0 +1,27 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+
+/**
+ * Searching of {@link CollectorItem}s.
+ */
+public interface CollectorItemRepositoryCustom {
+
+    /**
+     * Finds a page of the {@link CollectorItem}s of the given collectors whose description or
+     * option values match a search term, case insensitively. Items hold only their id,
+     * collector id, description, enabled flag and options.
+     *
+     * @param collectorIds collector ids
+     * @param search search term; null or empty matches every item
+     * @param prefix true to match values starting with the term, false to match values containing it
+     * @param pageable page to return
+     * @return page of {@link CollectorItem}s
+     */
+    Page<CollectorItem> search(Collection<ObjectId> collectorIds, String search, boolean prefix, Pageable pageable);
+}
@@ -0,0 +1,48 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+import static com.capitalone.dashboard.repository.CollectorItemSearch.SEARCH_KEYS;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link CollectorItemRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link CollectorItemRepository}.
+ */
+public class CollectorItemRepositoryImpl implements CollectorItemRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public CollectorItemRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Page<CollectorItem> search(Collection<ObjectId> collectorIds, String search, boolean prefix,
+                                      Pageable pageable) {
+        Criteria criteria = where("collectorId").in(collectorIds);
+        if (StringUtils.hasText(search)) {
+            criteria.and(SEARCH_KEYS).regex(CollectorItemSearch.pattern(search.trim(), prefix));
+        }
+        Query query = new Query(criteria);
+        long total = mongoOperations.count(query, CollectorItem.class);
+
+        query.with(pageable);
+        query.fields().include("collectorId").include("description").include("enabled").include("options");
+        List<CollectorItem> items = mongoOperations.find(query, CollectorItem.class);
+        return new PageImpl<>(items, pageable, total);
+    }
+}
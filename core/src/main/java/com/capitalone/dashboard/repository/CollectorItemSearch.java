@@ -0,0 +1,75 @@
+package com.capitalone.dashboard.repository;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.DBObject;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Search keys of {@link com.capitalone.dashboard.model.CollectorItem}s: the lower-cased
+ * description and option values, stored with each item so that a single indexed array field
+ * answers searches across all of them.
+ */
+public final class CollectorItemSearch {
+
+    public static final String SEARCH_KEYS = "searchKeys";
+
+    private CollectorItemSearch() {
+    }
+
+    /**
+     * Sets the search keys of a collector item document from its description and options.
+     *
+     * @param dbObject collector item document, modified in place
+     */
+    public static void addSearchKeys(DBObject dbObject) {
+        Set<String> keys = new LinkedHashSet<>();
+        addKey(keys, dbObject.get("description"));
+        Object options = dbObject.get("options");
+        if (options instanceof DBObject) {
+            for (Object value : ((DBObject) options).toMap().values()) {
+                addKey(keys, value);
+            }
+        } else if (options instanceof Map) {
+            for (Object value : ((Map<?, ?>) options).values()) {
+                addKey(keys, value);
+            }
+        }
+
+        BasicDBList searchKeys = new BasicDBList();
+        searchKeys.addAll(keys);
+        dbObject.put(SEARCH_KEYS, searchKeys);
+    }
+
+    /**
+     * Builds the pattern matching search keys against a search term. Prefix patterns are
+     * anchored without flags so that Mongo can answer them from index bounds.
+     *
+     * @param search search term, in any case
+     * @param prefix true to match keys starting with the term, false to match keys containing it
+     * @return the pattern
+     */
+    public static Pattern pattern(String search, boolean prefix) {
+        StringBuilder regex = new StringBuilder(prefix ? "^" : "");
+        for (char c : search.toLowerCase(Locale.ENGLISH).toCharArray()) {
+            if (!Character.isLetterOrDigit(c)) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static void addKey(Set<String> keys, Object value) {
+        if (value instanceof String || value instanceof Number) {
+            String key = value.toString().toLowerCase(Locale.ENGLISH);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import static com.capitalone.dashboard.repository.CollectorItemSearch.SEARCH_KEYS;
+
+/**
+ * Adds search keys to {@link CollectorItem}s saved before they were kept. The API runs it at
+ * startup, before it serves searches, so every item can be found. Later saves keep the keys up
+ * to date.
+ *
+ * @see CollectorItemSearch
+ */
+@Component
+public class CollectorItemSearchMigration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CollectorItemSearchMigration.class);
+
+    private static final String ID = "_id";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public CollectorItemSearchMigration(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    /**
+     * Adds search keys to every collector item without them. An item that a collector saves
+     * while it is being migrated keeps the keys the collector wrote.
+     *
+     * @return number of collector items updated
+     */
+    public int migrate() {
+        DBCollection collection = mongoOperations.getCollection(mongoOperations.getCollectionName(CollectorItem.class));
+        DBObject missing = new BasicDBObject(SEARCH_KEYS, new BasicDBObject("$exists", false));
+
+        int updated = 0;
+        try (DBCursor cursor = collection.find(missing, new BasicDBObject("description", 1).append("options", 1))) {
+            for (DBObject item : cursor) {
+                CollectorItemSearch.addSearchKeys(item);
+                updated += collection.update(new BasicDBObject(ID, item.get(ID)).append(SEARCH_KEYS, missing.get(SEARCH_KEYS)),
+                        new BasicDBObject("$set", new BasicDBObject(SEARCH_KEYS, item.get(SEARCH_KEYS)))).getN();
+            }
+        }
+        LOGGER.info("Added search keys to {} stored collector items", updated);
+        return updated;
+    }
+}
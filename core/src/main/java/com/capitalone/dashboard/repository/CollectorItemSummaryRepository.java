@@ -0,0 +1,23 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorItemSummary;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for {@link CollectorItemSummary} data.
+ */
+public interface CollectorItemSummaryRepository extends CrudRepository<CollectorItemSummary, ObjectId>,
+        CollectorItemSummaryRepositoryCustom {
+
+    /**
+     * Finds the summaries of the given collector items.
+     *
+     * @param collectorItemIds collector item ids
+     * @return list of {@link CollectorItemSummary}s; items without data have none
+     */
+    List<CollectorItemSummary> findByCollectorItemIdIn(Collection<ObjectId> collectorItemIds);
+}
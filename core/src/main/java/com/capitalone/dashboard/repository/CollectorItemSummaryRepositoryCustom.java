@@ -0,0 +1,33 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorItemSummary;
+import com.capitalone.dashboard.model.CollectorType;
+import org.bson.types.ObjectId;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintenance of the {@link CollectorItemSummary} collection.
+ */
+public interface CollectorItemSummaryRepositoryCustom {
+
+    /**
+     * Recomputes the summaries of the given collector items from the collection that holds
+     * data of their type. Items are aggregated in batches; items without data lose their
+     * summary.
+     *
+     * @param collectorType Build, Deployment or CodeQuality
+     * @param collectorItemIds collector items to recompute
+     * @param now the time the recent build window ends at
+     */
+    void refresh(CollectorType collectorType, Collection<ObjectId> collectorItemIds, long now);
+
+    /**
+     * Finds every collector item that has data of the given type.
+     *
+     * @param collectorType Build, Deployment or CodeQuality
+     * @return collector item ids
+     */
+    List<ObjectId> findCollectorItemIds(CollectorType collectorType);
+}
@@ -0,0 +1,189 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.BuildStatus;
+import com.capitalone.dashboard.model.CodeQuality;
+import com.capitalone.dashboard.model.CollectorItemSummary;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.capitalone.dashboard.repository.AggregationStages.stage;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link CollectorItemSummaryRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link CollectorItemSummaryRepository}.
+ * <p>
+ * The latest build, deployment report or snapshot of an item is picked with {@code $max} over
+ * a sub-document whose first field is the time, which Mongo compares field by field. That
+ * avoids sorting every document of the batch.
+ */
+public class CollectorItemSummaryRepositoryImpl implements CollectorItemSummaryRepositoryCustom {
+
+    static final int BATCH_SIZE = 500;
+    static final long RECENT_BUILD_MILLIS = TimeUnit.DAYS.toMillis(14);
+
+    private static final String ID = "_id";
+    private static final String ITEM = "$collectorItemId";
+    private static final String LATEST = "latest";
+    private static final String COLLECTOR_ITEM_ID = "collectorItemId";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public CollectorItemSummaryRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void refresh(CollectorType collectorType, Collection<ObjectId> collectorItemIds, long now) {
+        List<ObjectId> ids = new ArrayList<>(collectorItemIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<ObjectId> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            DBObject match = new BasicDBObject(COLLECTOR_ITEM_ID, new BasicDBObject("$in", batch));
+
+            Set<ObjectId> found = new HashSet<>();
+            for (DBObject result : aggregate(collectorType, match, now)) {
+                ObjectId collectorItemId = (ObjectId) result.get(ID);
+                found.add(collectorItemId);
+                mongoOperations.upsert(new Query(where(COLLECTOR_ITEM_ID).is(collectorItemId)),
+                        toUpdate(collectorType, result).set("lastUpdated", System.currentTimeMillis()),
+                        CollectorItemSummary.class);
+            }
+
+            List<ObjectId> missing = new ArrayList<>(batch);
+            missing.removeAll(found);
+            if (!missing.isEmpty()) {
+                mongoOperations.remove(new Query(where(COLLECTOR_ITEM_ID).in(missing)), CollectorItemSummary.class);
+            }
+        }
+    }
+
+    @Override
+    public List<ObjectId> findCollectorItemIds(CollectorType collectorType) {
+        String collection = mongoOperations.getCollectionName(sourceClass(collectorType));
+        List<ObjectId> ids = new ArrayList<>();
+        for (Object id : mongoOperations.getCollection(collection).distinct(COLLECTOR_ITEM_ID)) {
+            if (id instanceof ObjectId) {
+                ids.add((ObjectId) id);
+            }
+        }
+        return ids;
+    }
+
+    private List<DBObject> aggregate(CollectorType collectorType, DBObject match, long now) {
+        Aggregation aggregation;
+        switch (collectorType) {
+            case Build:
+                DBObject recent = new BasicDBObject("$gte", list("$endTime", now - RECENT_BUILD_MILLIS));
+                DBObject recentSuccess = new BasicDBObject("$and",
+                        list(recent, new BasicDBObject("$eq", list("$buildStatus", BuildStatus.Success.name()))));
+                aggregation = Aggregation.newAggregation(
+                        stage("$match", match),
+                        stage("$group", new BasicDBObject(ID, ITEM)
+                                .append(LATEST, new BasicDBObject("$max", new BasicDBObject("endTime", "$endTime")
+                                        .append("buildStatus", "$buildStatus")))
+                                .append("recentBuildCount", countWhere(recent))
+                                .append("recentSuccessCount", countWhere(recentSuccess))));
+                break;
+            case Deployment:
+                DBObject componentKey = new BasicDBObject("item", ITEM)
+                        .append("environmentName", "$environmentName")
+                        .append("componentName", new BasicDBObject("$toLower", "$componentName"));
+                aggregation = Aggregation.newAggregation(
+                        stage("$match", match),
+                        stage("$group", new BasicDBObject(ID, componentKey)
+                                .append(LATEST, new BasicDBObject("$max", new BasicDBObject("asOfDate", "$asOfDate")
+                                        .append("deployed", "$deployed")))),
+                        stage("$group", new BasicDBObject(ID, "$_id.item")
+                                .append("componentCount", new BasicDBObject("$sum", 1))
+                                .append("deployedCount", countWhere("$latest.deployed"))
+                                .append("lastDeployed", new BasicDBObject("$max",
+                                        new BasicDBObject("$cond", list("$latest.deployed", "$latest.asOfDate", 0))))));
+                break;
+            case CodeQuality:
+                aggregation = Aggregation.newAggregation(
+                        stage("$match", match),
+                        stage("$group", new BasicDBObject(ID, ITEM)
+                                .append(LATEST, new BasicDBObject("$max", new BasicDBObject("timestamp", "$timestamp")
+                                        .append("metrics", "$metrics")))));
+                break;
+            default:
+                throw new IllegalArgumentException("No summary for collector type " + collectorType);
+        }
+        return mongoOperations.aggregate(aggregation,
+                mongoOperations.getCollectionName(sourceClass(collectorType)), DBObject.class).getMappedResults();
+    }
+
+    private static Update toUpdate(CollectorType collectorType, DBObject result) {
+        Update update = new Update().set("collectorType", collectorType.name());
+        DBObject latest = (DBObject) result.get(LATEST);
+        switch (collectorType) {
+            case Build:
+                return update
+                        .set("lastBuildStatus", latest.get("buildStatus"))
+                        .set("lastBuildTime", toLong(latest.get("endTime")))
+                        .set("recentBuildCount", toInt(result.get("recentBuildCount")))
+                        .set("recentSuccessCount", toInt(result.get("recentSuccessCount")));
+            case Deployment:
+                return update
+                        .set("componentCount", toInt(result.get("componentCount")))
+                        .set("deployedCount", toInt(result.get("deployedCount")))
+                        .set("lastDeployed", toLong(result.get("lastDeployed")));
+            default:
+                Object metrics = latest.get("metrics");
+                return update
+                        .set("qualityTimestamp", toLong(latest.get("timestamp")))
+                        .set("metrics", metrics == null ? new BasicDBList() : metrics);
+        }
+    }
+
+    private static Class<?> sourceClass(CollectorType collectorType) {
+        switch (collectorType) {
+            case Build:
+                return Build.class;
+            case Deployment:
+                return EnvironmentComponent.class;
+            case CodeQuality:
+                return CodeQuality.class;
+            default:
+                throw new IllegalArgumentException("No summary for collector type " + collectorType);
+        }
+    }
+
+    private static DBObject countWhere(Object condition) {
+        return new BasicDBObject("$sum", new BasicDBObject("$cond", list(condition, 1, 0)));
+    }
+
+    private static BasicDBList list(Object... values) {
+        BasicDBList list = new BasicDBList();
+        for (Object value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CurrentSprint;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository for {@link CurrentSprint} data.
+ */
+public interface CurrentSprintRepository extends CrudRepository<CurrentSprint, ObjectId>,
+        CurrentSprintRepositoryCustom {
+
+    /**
+     * Finds the sprint a team is currently in.
+     *
+     * @param teamId source system id of the team
+     * @return a {@link CurrentSprint}, or null if the team is not in a sprint
+     */
+    CurrentSprint findByTeamId(String teamId);
+}
@@ -0,0 +1,20 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CurrentSprint;
+
+import java.util.Date;
+
+/**
+ * Maintenance of the {@link CurrentSprint} table.
+ */
+public interface CurrentSprintRepositoryCustom {
+
+    /**
+     * Recomputes the current sprint of every team from the
+     * {@link com.capitalone.dashboard.model.SprintEstimate} rollups. Of several sprints running
+     * at the same time, the one that started last wins. Teams not in a sprint are removed.
+     *
+     * @param now the time to evaluate sprints at
+     */
+    void refresh(Date now);
+}
@@ -0,0 +1,86 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CurrentSprint;
+import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.model.SprintEstimate;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link CurrentSprintRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link CurrentSprintRepository}.
+ */
+public class CurrentSprintRepositoryImpl implements CurrentSprintRepositoryCustom {
+
+    private static final String TEAM_ID = "teamId";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public CurrentSprintRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void refresh(Date now) {
+        Query running = new Query(where("sprintBeginDate").lte(now).and("sprintEndDate").gte(now))
+                .with(new Sort(Sort.Direction.ASC, TEAM_ID).and(new Sort(Sort.Direction.DESC, "sprintBeginDate")));
+        running.fields().include(TEAM_ID).include("sprintId").include("sprintName")
+                .include("sprintBeginDate").include("sprintEndDate");
+
+        Map<String, CurrentSprint> stored = new HashMap<>();
+        for (CurrentSprint sprint : mongoOperations.findAll(CurrentSprint.class)) {
+            stored.put(sprint.getTeamId(), sprint);
+        }
+
+        Set<String> teamIds = new LinkedHashSet<>();
+        long lastUpdated = System.currentTimeMillis();
+        boolean changed = false;
+        for (SprintEstimate sprint : mongoOperations.find(running, SprintEstimate.class)) {
+            if (!teamIds.add(sprint.getTeamId()) || isSame(stored.get(sprint.getTeamId()), sprint)) {
+                continue;
+            }
+            Update update = new Update()
+                    .set("sprintId", sprint.getSprintId())
+                    .set("sprintName", sprint.getSprintName())
+                    .set("sprintBeginDate", sprint.getSprintBeginDate())
+                    .set("sprintEndDate", sprint.getSprintEndDate())
+                    .set("lastUpdated", lastUpdated);
+            mongoOperations.upsert(new Query(where(TEAM_ID).is(sprint.getTeamId())), update, CurrentSprint.class);
+            changed = true;
+        }
+
+        changed |= mongoOperations.remove(new Query(where(TEAM_ID).nin(teamIds)), CurrentSprint.class).getN() > 0;
+
+        // Feature data is versioned per feature collector, and these writes raise no save events
+        if (changed) {
+            for (Object collectorId : mongoOperations.getCollection(mongoOperations.getCollectionName(Feature.class))
+                    .distinct("collectorId")) {
+                if (collectorId instanceof ObjectId) {
+                    DataVersionRepositoryImpl.increment(mongoOperations, (ObjectId) collectorId);
+                }
+            }
+        }
+    }
+
+    private static boolean isSame(CurrentSprint current, SprintEstimate sprint) {
+        return current != null
+                && Objects.equals(current.getSprintId(), sprint.getSprintId())
+                && Objects.equals(current.getSprintName(), sprint.getSprintName())
+                && Objects.equals(current.getSprintBeginDate(), sprint.getSprintBeginDate())
+                && Objects.equals(current.getSprintEndDate(), sprint.getSprintEndDate());
+    }
+}
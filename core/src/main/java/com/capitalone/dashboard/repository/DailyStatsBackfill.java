@@ -0,0 +1,159 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Lease;
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the {@link com.capitalone.dashboard.model.DailyStats} of a collector's items from the
+ * data already stored for them. Each collector runs it before its first collection; once done,
+ * a {@link Backfill} record keeps later starts from rebuilding again.
+ * <p>
+ * A rebuild overwrites the totals of its rows, so an insert counted while it runs could be
+ * lost or counted twice, whether it comes from another instance of the collector or from the
+ * API. The rebuilding process therefore holds a {@link Lease} for the type of data, and every
+ * other process waits in {@link #awaitRebuild} before saving data of that type. Once it has
+ * the lease, the rebuild waits for inserts that started before to finish.
+ */
+@Component
+public class DailyStatsBackfill {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DailyStatsBackfill.class);
+
+    static final String NAME = "dailyStats";
+    static final String LEASE = "dailyStatsRebuild.";
+
+    private static final long LEASE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    // How long a process saves without looking at the lease again
+    private static final long CHECK_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long SETTLE_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final MongoOperations mongoOperations;
+    private final DailyStatsRepository dailyStatsRepository;
+    private final BackfillRepository backfillRepository;
+    private final LeaseRepository leaseRepository;
+    private final long settleMillis;
+    private final String holder = ManagementFactory.getRuntimeMXBean().getName() + "/" + ObjectId.get();
+    private final Set<ObjectId> backfilled = Collections.newSetFromMap(new ConcurrentHashMap<ObjectId, Boolean>());
+    // Time until which each type was last seen free of another process's rebuild
+    private final Map<CollectorType, Long> freeUntil = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DailyStatsBackfill(MongoOperations mongoOperations, DailyStatsRepository dailyStatsRepository,
+                              BackfillRepository backfillRepository, LeaseRepository leaseRepository) {
+        this(mongoOperations, dailyStatsRepository, backfillRepository, leaseRepository, SETTLE_MILLIS);
+    }
+
+    DailyStatsBackfill(MongoOperations mongoOperations, DailyStatsRepository dailyStatsRepository,
+                       BackfillRepository backfillRepository, LeaseRepository leaseRepository, long settleMillis) {
+        this.mongoOperations = mongoOperations;
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.backfillRepository = backfillRepository;
+        this.leaseRepository = leaseRepository;
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * Rebuilds the daily totals of every item of a collector, unless that was already done
+     * for the collector by this or an earlier process. If another process is rebuilding the
+     * same type of data, nothing is done and the next call tries again.
+     *
+     * @param collectorType type of data the collector writes
+     * @param collectorId collector id
+     * @return number of rows written
+     */
+    public int backfill(CollectorType collectorType, ObjectId collectorId) {
+        if (collectorId == null || !backfilled.add(collectorId)) {
+            return 0;
+        }
+
+        try {
+            if (backfillRepository.findByNameAndCollectorId(NAME, collectorId) != null) {
+                return 0;
+            }
+            if (!leaseRepository.acquire(LEASE + collectorType, holder, LEASE_MILLIS)) {
+                LOGGER.info("Daily {} stats are being rebuilt by another process", collectorType);
+                backfilled.remove(collectorId);
+                return 0;
+            }
+
+            try {
+                // Another instance of the collector may have finished since the check above
+                if (backfillRepository.findByNameAndCollectorId(NAME, collectorId) != null) {
+                    return 0;
+                }
+                sleep(settleMillis);
+
+                List<ObjectId> collectorItemIds = new ArrayList<>();
+                for (Object id : mongoOperations.getCollection(mongoOperations.getCollectionName(CollectorItem.class))
+                        .distinct("_id", new BasicDBObject("collectorId", collectorId))) {
+                    collectorItemIds.add((ObjectId) id);
+                }
+
+                int written = dailyStatsRepository.rebuild(collectorType, collectorItemIds);
+                backfillRepository.save(new Backfill(NAME, collectorId, System.currentTimeMillis()));
+                LOGGER.info("Rebuilt {} daily {} stats for {} collector items", written, collectorType, collectorItemIds.size());
+                return written;
+            } finally {
+                leaseRepository.release(LEASE + collectorType, holder);
+            }
+        } catch (RuntimeException e) {
+            backfilled.remove(collectorId);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits while another process rebuilds the daily stats of a type of data, so that data
+     * saved now is counted by its own insert and not also, or instead, by the rebuild. The
+     * lease is looked up at most once a second while no rebuild runs.
+     *
+     * @param collectorType type of the data about to be saved
+     */
+    public void awaitRebuild(CollectorType collectorType) {
+        Long free = freeUntil.get(collectorType);
+        if (free != null && free > System.currentTimeMillis()) {
+            return;
+        }
+        while (true) {
+            Lease lease = leaseRepository.findByName(LEASE + collectorType);
+            long now = System.currentTimeMillis();
+            if (lease == null || holder.equals(lease.getHolder()) || lease.getExpiresAt() < now) {
+                freeUntil.put(collectorType, now + CHECK_MILLIS);
+                return;
+            }
+            if (!sleep(Math.min(CHECK_MILLIS, lease.getExpiresAt() - now + 1))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if the thread was interrupted
+     */
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
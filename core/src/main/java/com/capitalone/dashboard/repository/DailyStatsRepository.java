@@ -0,0 +1,23 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.DailyStats;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository for {@link DailyStats} data.
+ */
+public interface DailyStatsRepository extends CrudRepository<DailyStats, ObjectId>, DailyStatsRepositoryCustom {
+
+    /**
+     * Finds the daily totals of a collector item from a given day on, oldest first.
+     *
+     * @param collectorItemId collector item id
+     * @param day first day to include
+     * @return list of {@link DailyStats}
+     */
+    List<DailyStats> findByCollectorItemIdAndDayGreaterThanEqualOrderByDayAsc(ObjectId collectorItemId, Date day);
+}
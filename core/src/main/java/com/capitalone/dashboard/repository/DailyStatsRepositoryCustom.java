@@ -0,0 +1,95 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.CodeQuality;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.DailyStats;
+import com.capitalone.dashboard.model.TestResult;
+import org.bson.types.ObjectId;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Maintenance of the {@link DailyStats} view.
+ */
+public interface DailyStatsRepositoryCustom {
+
+    /**
+     * Adds a newly inserted build to the totals of the day it ended.
+     *
+     * @param build build
+     */
+    void addBuild(Build build);
+
+    /**
+     * Adds newly inserted builds to the totals of the days they ended, with one update per
+     * collector item and day.
+     *
+     * @param builds builds
+     */
+    void addBuilds(Collection<Build> builds);
+
+    /**
+     * Adds a newly inserted commit to the totals of the day it was committed.
+     *
+     * @param commit commit
+     */
+    void addCommit(Commit commit);
+
+    /**
+     * Adds newly inserted commits to the totals of the days they were committed, with one
+     * update per collector item and day.
+     *
+     * @param commits commits
+     */
+    void addCommits(Collection<Commit> commits);
+
+    /**
+     * Adds a newly inserted test result to the totals of the day it ended.
+     *
+     * @param testResult test result
+     */
+    void addTestResult(TestResult testResult);
+
+    /**
+     * Adds newly inserted test results to the totals of the days they ended, with one update
+     * per collector item and day.
+     *
+     * @param testResults test results
+     */
+    void addTestResults(Collection<TestResult> testResults);
+
+    /**
+     * Records the metric values of a newly inserted code quality snapshot for its day.
+     *
+     * @param codeQuality code quality snapshot
+     */
+    void addCodeQuality(CodeQuality codeQuality);
+
+    /**
+     * Finds the daily values of one code quality metric of a collector item from a given day
+     * on, oldest first. Only the day and the metric are read, and days without a value for the
+     * metric are left out.
+     *
+     * @param collectorItemId collector item id
+     * @param metric code quality metric name
+     * @param day first day to include
+     * @return list of {@link DailyStats} holding only the metric
+     */
+    List<DailyStats> findMetric(ObjectId collectorItemId, String metric, Date day);
+
+    /**
+     * Recomputes the totals of one collector type for the given collector items from the raw
+     * collection, replacing what the rows held for that type. Data of that type inserted
+     * while it runs may be missed or counted twice, so callers keep inserts out meanwhile,
+     * see {@link DailyStatsBackfill}.
+     *
+     * @param collectorType Build, SCM, Test or CodeQuality
+     * @param collectorItemIds collector items to recompute
+     * @return number of rows written
+     */
+    int rebuild(CollectorType collectorType, Collection<ObjectId> collectorItemIds);
+}
@@ -0,0 +1,342 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.BuildStatus;
+import com.capitalone.dashboard.model.CodeQuality;
+import com.capitalone.dashboard.model.CodeQualityMetric;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.DailyStats;
+import com.capitalone.dashboard.model.TestResult;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DuplicateKeyException;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.capitalone.dashboard.repository.AggregationStages.stage;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link DailyStatsRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link DailyStatsRepository}.
+ * <p>
+ * Inserts update their day's row with a single upsert of {@code $inc} and {@code $max}
+ * operators; a batch of inserts is summed first, into one upsert per collector item and day. Rebuilds group the raw collection by collector item and day and {@code $set} the
+ * totals of their own type, leaving the other types' totals on the row alone.
+ */
+public class DailyStatsRepositoryImpl implements DailyStatsRepositoryCustom {
+
+    static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    static final int BATCH_SIZE = 500;
+
+    private static final String ID = "_id";
+    private static final String ITEM = "item";
+    private static final String DAY = "day";
+    private static final String COLLECTOR_ITEM_ID = "collectorItemId";
+    private static final String METRICS = "metrics";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public DailyStatsRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void addBuild(Build build) {
+        addBuilds(Collections.singletonList(build));
+    }
+
+    @Override
+    public void addBuilds(Collection<Build> builds) {
+        Map<List<Object>, DBObject> updates = new LinkedHashMap<>();
+        for (Build build : builds) {
+            String status = build.getBuildStatus() == null ? BuildStatus.Unknown.name() : build.getBuildStatus().name();
+            DBObject update = update(updates, build.getCollectorItemId(), dayOf(build.getEndTime(), build.getTimestamp()));
+            DBObject inc = (DBObject) update.get("$inc");
+            inc(inc, "buildCount", 1);
+            inc(inc, "buildStatusCounts." + status, 1);
+            inc(inc, "buildDurationSum", build.getDuration());
+            DBObject max = (DBObject) update.get("$max");
+            if (max == null) {
+                update.put("$max", new BasicDBObject("buildDurationMax", build.getDuration()));
+            } else {
+                max.put("buildDurationMax", Math.max(toLong(max.get("buildDurationMax")), build.getDuration()));
+            }
+        }
+        upsert(updates);
+    }
+
+    @Override
+    public void addCommit(Commit commit) {
+        addCommits(Collections.singletonList(commit));
+    }
+
+    @Override
+    public void addCommits(Collection<Commit> commits) {
+        Map<List<Object>, DBObject> updates = new LinkedHashMap<>();
+        for (Commit commit : commits) {
+            DBObject update = update(updates, commit.getCollectorItemId(),
+                    dayOf(commit.getScmCommitTimestamp(), commit.getTimestamp()));
+            inc((DBObject) update.get("$inc"), "commitCount", 1);
+        }
+        upsert(updates);
+    }
+
+    @Override
+    public void addTestResult(TestResult testResult) {
+        addTestResults(Collections.singletonList(testResult));
+    }
+
+    @Override
+    public void addTestResults(Collection<TestResult> testResults) {
+        Map<List<Object>, DBObject> updates = new LinkedHashMap<>();
+        for (TestResult testResult : testResults) {
+            int failed = testResult.getFailureCount() + testResult.getErrorCount();
+            int passed = testResult.getTotalCount() - failed - testResult.getSkippedCount();
+            DBObject update = update(updates, testResult.getCollectorItemId(),
+                    dayOf(testResult.getEndTime(), testResult.getTimestamp()));
+            DBObject inc = (DBObject) update.get("$inc");
+            inc(inc, "testsPassed", Math.max(passed, 0));
+            inc(inc, "testsFailed", failed);
+            inc(inc, "testsSkipped", testResult.getSkippedCount());
+        }
+        upsert(updates);
+    }
+
+    @Override
+    public void addCodeQuality(CodeQuality codeQuality) {
+        if (codeQuality.getMetrics().isEmpty()) {
+            return;
+        }
+        BasicDBObject values = new BasicDBObject();
+        for (CodeQualityMetric metric : codeQuality.getMetrics()) {
+            values.append(METRICS + "." + DailyStats.metricKey(metric.getName()), metric.getValue());
+        }
+        upsert(codeQuality.getCollectorItemId(), dayOf(codeQuality.getTimestamp(), codeQuality.getTimestamp()),
+                new BasicDBObject("$set", values));
+        DataVersionRepositoryImpl.increment(mongoOperations, codeQuality.getCollectorItemId());
+    }
+
+    @Override
+    public List<DailyStats> findMetric(ObjectId collectorItemId, String metric, Date day) {
+        String field = METRICS + "." + DailyStats.metricKey(metric);
+        Query query = new Query(where(COLLECTOR_ITEM_ID).is(collectorItemId).and(DAY).gte(day).and(field).exists(true))
+                .with(new Sort(DAY));
+        query.fields().include(DAY).include(field);
+        return mongoOperations.find(query, DailyStats.class);
+    }
+
+    @Override
+    public int rebuild(CollectorType collectorType, Collection<ObjectId> collectorItemIds) {
+        List<ObjectId> ids = new ArrayList<>(collectorItemIds);
+        int written = 0;
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            DBObject match = new BasicDBObject(COLLECTOR_ITEM_ID,
+                    new BasicDBObject("$in", ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()))));
+            Map<List<Object>, BasicDBObject> rows = aggregate(collectorType, match);
+            Set<ObjectId> rebuilt = new LinkedHashSet<>();
+            for (Map.Entry<List<Object>, BasicDBObject> row : rows.entrySet()) {
+                upsert((ObjectId) row.getKey().get(0), (Date) row.getKey().get(1), new BasicDBObject("$set", row.getValue()));
+                rebuilt.add((ObjectId) row.getKey().get(0));
+            }
+            for (ObjectId collectorItemId : rebuilt) {
+                DataVersionRepositoryImpl.increment(mongoOperations, collectorItemId);
+            }
+            written += rows.size();
+        }
+        return written;
+    }
+
+    /**
+     * Groups the raw data of a batch of collector items by item and day.
+     *
+     * @return the fields to set, keyed by collector item id and day
+     */
+    private Map<List<Object>, BasicDBObject> aggregate(CollectorType collectorType, DBObject match) {
+        Map<List<Object>, BasicDBObject> rows = new LinkedHashMap<>();
+        switch (collectorType) {
+            case Build:
+                for (DBObject group : aggregate(Build.class,
+                        stage("$match", match),
+                        stage("$group", new BasicDBObject(ID, new BasicDBObject(ITEM, "$collectorItemId")
+                                .append(DAY, dayExpression("$endTime", "$timestamp"))
+                                .append("status", "$buildStatus"))
+                                .append("count", new BasicDBObject("$sum", 1))
+                                .append("durationSum", new BasicDBObject("$sum", "$duration"))
+                                .append("durationMax", new BasicDBObject("$max", "$duration"))))) {
+                    BasicDBObject row = row(rows, group);
+                    if (!row.containsField("buildStatusCounts")) {
+                        row.put("buildStatusCounts", new BasicDBObject());
+                    }
+                    Object status = ((DBObject) group.get(ID)).get("status");
+                    int count = toInt(group.get("count"));
+                    ((DBObject) row.get("buildStatusCounts")).put(
+                            status == null ? BuildStatus.Unknown.name() : status.toString(), count);
+                    row.put("buildCount", toInt(row.get("buildCount")) + count);
+                    row.put("buildDurationSum", toLong(row.get("buildDurationSum")) + toLong(group.get("durationSum")));
+                    row.put("buildDurationMax", Math.max(toLong(row.get("buildDurationMax")), toLong(group.get("durationMax"))));
+                }
+                break;
+            case SCM:
+                for (DBObject group : aggregate(Commit.class,
+                        stage("$match", match),
+                        stage("$group", new BasicDBObject(ID, new BasicDBObject(ITEM, "$collectorItemId")
+                                .append(DAY, dayExpression("$scmCommitTimestamp", "$timestamp")))
+                                .append("commitCount", new BasicDBObject("$sum", 1))))) {
+                    row(rows, group).append("commitCount", toInt(group.get("commitCount")));
+                }
+                break;
+            case Test:
+                DBObject failed = new BasicDBObject("$add", Arrays.asList("$failureCount", "$errorCount"));
+                for (DBObject group : aggregate(TestResult.class,
+                        stage("$match", match),
+                        stage("$group", new BasicDBObject(ID, new BasicDBObject(ITEM, "$collectorItemId")
+                                .append(DAY, dayExpression("$endTime", "$timestamp")))
+                                .append("total", new BasicDBObject("$sum", "$totalCount"))
+                                .append("testsFailed", new BasicDBObject("$sum", failed))
+                                .append("testsSkipped", new BasicDBObject("$sum", "$skippedCount"))))) {
+                    int testsFailed = toInt(group.get("testsFailed"));
+                    int testsSkipped = toInt(group.get("testsSkipped"));
+                    row(rows, group)
+                            .append("testsPassed", Math.max(toInt(group.get("total")) - testsFailed - testsSkipped, 0))
+                            .append("testsFailed", testsFailed)
+                            .append("testsSkipped", testsSkipped);
+                }
+                break;
+            case CodeQuality:
+                for (DBObject group : aggregate(CodeQuality.class,
+                        stage("$match", match),
+                        stage("$sort", new BasicDBObject("timestamp", 1)),
+                        stage("$group", new BasicDBObject(ID, new BasicDBObject(ITEM, "$collectorItemId")
+                                .append(DAY, dayExpression("$timestamp", "$timestamp")))
+                                .append("metrics", new BasicDBObject("$last", "$metrics"))))) {
+                    BasicDBObject metrics = new BasicDBObject();
+                    Object snapshot = group.get("metrics");
+                    if (snapshot instanceof List) {
+                        for (Object metric : (List<?>) snapshot) {
+                            DBObject metricObject = (DBObject) metric;
+                            metrics.append(DailyStats.metricKey((String) metricObject.get("name")), metricObject.get("value"));
+                        }
+                    }
+                    row(rows, group).append("metrics", metrics);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("No daily stats for collector type " + collectorType);
+        }
+        return rows;
+    }
+
+    private List<DBObject> aggregate(Class<?> source, AggregationOperation... stages) {
+        return mongoOperations.aggregate(Aggregation.newAggregation(stages),
+                mongoOperations.getCollectionName(source), DBObject.class).getMappedResults();
+    }
+
+    private void upsert(ObjectId collectorItemId, Date day, DBObject update) {
+        DBCollection collection = mongoOperations.getCollection(mongoOperations.getCollectionName(DailyStats.class));
+        DBObject query = new BasicDBObject(COLLECTOR_ITEM_ID, collectorItemId).append(DAY, day);
+        try {
+            collection.update(query, update, true, false);
+        } catch (DuplicateKeyException e) {
+            // Another writer created the row between our match and insert; it exists now
+            collection.update(query, update, true, false);
+        }
+    }
+
+    /**
+     * Update of the row of a collector item and day, with an empty {@code $inc} to add to.
+     */
+    private static DBObject update(Map<List<Object>, DBObject> updates, ObjectId collectorItemId, Date day) {
+        List<Object> rowKey = Arrays.asList((Object) collectorItemId, day);
+        DBObject update = updates.get(rowKey);
+        if (update == null) {
+            update = new BasicDBObject("$inc", new BasicDBObject());
+            updates.put(rowKey, update);
+        }
+        return update;
+    }
+
+    private static void inc(DBObject inc, String field, int amount) {
+        inc.put(field, toInt(inc.get(field)) + amount);
+    }
+
+    private static void inc(DBObject inc, String field, long amount) {
+        inc.put(field, toLong(inc.get(field)) + amount);
+    }
+
+    /**
+     * Applies a batch of row updates, then bumps the data version of each collector item once,
+     * so that an entity tag taken between the raw save and these updates is not left current.
+     */
+    private void upsert(Map<List<Object>, DBObject> updates) {
+        Set<ObjectId> collectorItemIds = new LinkedHashSet<>();
+        for (Map.Entry<List<Object>, DBObject> update : updates.entrySet()) {
+            upsert((ObjectId) update.getKey().get(0), (Date) update.getKey().get(1), update.getValue());
+            collectorItemIds.add((ObjectId) update.getKey().get(0));
+        }
+        for (ObjectId collectorItemId : collectorItemIds) {
+            DataVersionRepositoryImpl.increment(mongoOperations, collectorItemId);
+        }
+    }
+
+    private static BasicDBObject row(Map<List<Object>, BasicDBObject> rows, DBObject group) {
+        DBObject key = (DBObject) group.get(ID);
+        List<Object> rowKey = Arrays.asList(key.get(ITEM), (Object) new Date(toLong(key.get(DAY))));
+        BasicDBObject row = rows.get(rowKey);
+        if (row == null) {
+            row = new BasicDBObject();
+            rows.put(rowKey, row);
+        }
+        return row;
+    }
+
+    /**
+     * Start of the UTC day of a time field, falling back to a second field when the first is
+     * not set.
+     */
+    private static DBObject dayExpression(String time, String fallback) {
+        BasicDBList positive = new BasicDBList();
+        positive.add(time);
+        positive.add(0);
+        BasicDBList cond = new BasicDBList();
+        cond.add(new BasicDBObject("$gt", positive));
+        cond.add(time);
+        cond.add(fallback);
+        DBObject millis = new BasicDBObject("$cond", cond);
+        return new BasicDBObject("$subtract", Arrays.asList(millis, new BasicDBObject("$mod", Arrays.asList(millis, DAY_MILLIS))));
+    }
+
+    static Date dayOf(long time, long fallback) {
+        long millis = time > 0 ? time : fallback;
+        return new Date(millis - millis % DAY_MILLIS);
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
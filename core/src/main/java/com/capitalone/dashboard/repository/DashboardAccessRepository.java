@@ -0,0 +1,16 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.DashboardAccess;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+
+/**
+ * Repository for {@link DashboardAccess} data.
+ */
+public interface DashboardAccessRepository extends CrudRepository<DashboardAccess, ObjectId>,
+        DashboardAccessRepositoryCustom {
+
+    List<DashboardAccess> findByLastAccessedGreaterThan(long lastAccessed);
+}
@@ -0,0 +1,17 @@
+package com.capitalone.dashboard.repository;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Atomic updates of {@link com.capitalone.dashboard.model.DashboardAccess}.
+ */
+public interface DashboardAccessRepositoryCustom {
+
+    /**
+     * Records that a dashboard was viewed.
+     *
+     * @param dashboardId dashboard id
+     * @param timestamp epoch milliseconds of the view
+     */
+    void recordAccess(ObjectId dashboardId, long timestamp);
+}
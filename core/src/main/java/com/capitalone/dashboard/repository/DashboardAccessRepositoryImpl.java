@@ -0,0 +1,30 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.DashboardAccess;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link DashboardAccessRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link DashboardAccessRepository}.
+ */
+public class DashboardAccessRepositoryImpl implements DashboardAccessRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public DashboardAccessRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void recordAccess(ObjectId dashboardId, long timestamp) {
+        mongoOperations.upsert(new Query(where("dashboardId").is(dashboardId)),
+                new Update().set("lastAccessed", timestamp), DashboardAccess.class);
+    }
+}
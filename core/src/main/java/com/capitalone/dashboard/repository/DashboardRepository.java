@@ -3,6 +3,9 @@ package com.capitalone.dashboard.repository;
 import java.util.List;
 
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 import com.capitalone.dashboard.model.Dashboard;
@@ -10,8 +13,18 @@ import com.capitalone.dashboard.model.Dashboard;
 /**
  * {@link Dashboard} repository.
  */
-public interface DashboardRepository extends PagingAndSortingRepository<Dashboard, ObjectId> {
+public interface DashboardRepository extends PagingAndSortingRepository<Dashboard, ObjectId>, DashboardRepositoryCustom {
 	
 	List<Dashboard> findByOwner(String owner);
 	List<Dashboard> findByTitle(String title);
+
+	/**
+	 * Finds a page of dashboards holding only their title, owner, application name and the
+	 * component ids of their widgets. The application's components are not loaded.
+	 *
+	 * @param pageable page to return
+	 * @return page of {@link Dashboard}s
+	 */
+	@Query(value = "{}", fields = "{'title' : 1, 'owner' : 1, 'application.name' : 1, 'widgets.componentId' : 1}")
+	Page<Dashboard> findOutlines(Pageable pageable);
 }
@@ -0,0 +1,24 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Searching of {@link Dashboard}s.
+ */
+public interface DashboardRepositoryCustom {
+
+    /**
+     * Finds a page of summaries of the {@link Dashboard}s whose title matches a search term,
+     * case insensitively.
+     *
+     * @param owner owner of the dashboards; null for the dashboards of every owner
+     * @param search search term; null or empty matches every dashboard
+     * @param prefix true to match titles starting with the term, false to match titles containing it
+     * @param pageable page to return
+     * @return page of {@link DashboardSummary}s
+     */
+    Page<DashboardSummary> search(String owner, String search, boolean prefix, Pageable pageable);
+}
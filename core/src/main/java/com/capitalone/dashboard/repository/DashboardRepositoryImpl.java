@@ -0,0 +1,49 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+import static com.capitalone.dashboard.repository.DashboardSearch.TITLE_KEY;
+
+/**
+ * Implementation of {@link DashboardRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link DashboardRepository}.
+ */
+public class DashboardRepositoryImpl implements DashboardRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public DashboardRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Page<DashboardSummary> search(String owner, String search, boolean prefix, Pageable pageable) {
+        Criteria criteria = new Criteria();
+        if (owner != null) {
+            criteria.and("owner").is(owner);
+        }
+        if (StringUtils.hasText(search)) {
+            criteria.and(TITLE_KEY).regex(CollectorItemSearch.pattern(search.trim(), prefix));
+        }
+        Query query = new Query(criteria);
+        long total = mongoOperations.count(query, Dashboard.class);
+
+        query.with(pageable);
+        query.fields().include("title").include("owner").include("template");
+        List<DashboardSummary> dashboards = mongoOperations.find(query, DashboardSummary.class,
+                mongoOperations.getCollectionName(Dashboard.class));
+        return new PageImpl<>(dashboards, pageable, total);
+    }
+}
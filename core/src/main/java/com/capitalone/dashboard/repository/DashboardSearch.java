@@ -0,0 +1,32 @@
+package com.capitalone.dashboard.repository;
+
+import com.mongodb.DBObject;
+
+import java.util.Locale;
+
+/**
+ * Search key of {@link com.capitalone.dashboard.model.Dashboard}s: the lower-cased title,
+ * stored with each dashboard so that an index answers case insensitive title searches and
+ * orders the results.
+ */
+public final class DashboardSearch {
+
+    public static final String TITLE_KEY = "titleKey";
+
+    private DashboardSearch() {
+    }
+
+    /**
+     * Sets the title key of a dashboard document from its title.
+     *
+     * @param dbObject dashboard document, modified in place
+     */
+    public static void addTitleKey(DBObject dbObject) {
+        Object title = dbObject.get("title");
+        if (title instanceof String) {
+            dbObject.put(TITLE_KEY, ((String) title).toLowerCase(Locale.ENGLISH));
+        } else {
+            dbObject.removeField(TITLE_KEY);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Dashboard;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import static com.capitalone.dashboard.repository.DashboardSearch.TITLE_KEY;
+
+/**
+ * Adds title keys to {@link Dashboard}s saved before they were kept. The API runs it at
+ * startup, before it serves searches, so every dashboard can be found. Later saves keep the
+ * keys up to date.
+ *
+ * @see DashboardSearch
+ */
+@Component
+public class DashboardSearchMigration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardSearchMigration.class);
+
+    private static final String ID = "_id";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public DashboardSearchMigration(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    /**
+     * Adds a title key to every dashboard with a title but no key. A dashboard that is saved
+     * while it is being migrated keeps the key of that save.
+     *
+     * @return number of dashboards updated
+     */
+    public int migrate() {
+        DBCollection collection = mongoOperations.getCollection(mongoOperations.getCollectionName(Dashboard.class));
+        DBObject missing = new BasicDBObject(TITLE_KEY, new BasicDBObject("$exists", false));
+
+        int updated = 0;
+        try (DBCursor cursor = collection.find(missing, new BasicDBObject("title", 1))) {
+            for (DBObject dashboard : cursor) {
+                DashboardSearch.addTitleKey(dashboard);
+                if (dashboard.containsField(TITLE_KEY)) {
+                    updated += collection.update(new BasicDBObject(ID, dashboard.get(ID)).append(TITLE_KEY, missing.get(TITLE_KEY)),
+                            new BasicDBObject("$set", new BasicDBObject(TITLE_KEY, dashboard.get(TITLE_KEY)))).getN();
+                }
+            }
+        }
+        LOGGER.info("Added title keys to {} stored dashboards", updated);
+        return updated;
+    }
+}
@@ -0,0 +1,14 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.DataVersion;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository for {@link DataVersion} data.
+ */
+public interface DataVersionRepository extends CrudRepository<DataVersion, ObjectId>,
+        DataVersionRepositoryCustom {
+
+    DataVersion findBySourceId(ObjectId sourceId);
+}
@@ -0,0 +1,16 @@
+package com.capitalone.dashboard.repository;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Atomic updates of {@link com.capitalone.dashboard.model.DataVersion}.
+ */
+public interface DataVersionRepositoryCustom {
+
+    /**
+     * Records that widget data was written for a collector item or feature collector.
+     *
+     * @param sourceId collector item id, or collector id for features
+     */
+    void increment(ObjectId sourceId);
+}
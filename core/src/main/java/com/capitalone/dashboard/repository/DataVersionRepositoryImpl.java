@@ -0,0 +1,38 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.DataVersion;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link DataVersionRepositoryCustom}, picked up by Spring Data through
+ * its name and mixed into {@link DataVersionRepository}.
+ */
+public class DataVersionRepositoryImpl implements DataVersionRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public DataVersionRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void increment(ObjectId sourceId) {
+        increment(mongoOperations, sourceId);
+    }
+
+    /**
+     * Bumps a version from repositories that write widget data with field-level updates,
+     * which raise no save events for {@link com.capitalone.dashboard.event.ChangeNotificationListener}.
+     */
+    static void increment(MongoOperations mongoOperations, ObjectId sourceId) {
+        mongoOperations.upsert(new Query(where("sourceId").is(sourceId)),
+                new Update().inc("version", 1), DataVersion.class);
+    }
+}
@@ -0,0 +1,22 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+
+/**
+ * Aggregation queries for {@link EnvironmentComponent}s that cannot be expressed as derived queries.
+ */
+public interface EnvironmentComponentRepositoryCustom {
+
+    /**
+     * Finds the most recent {@link EnvironmentComponent} for each environment and component of a
+     * {@link com.capitalone.dashboard.model.CollectorItem}. Component names are compared ignoring
+     * case; of several deployments with the same date the first one stored wins.
+     *
+     * @param collectorItemId collector item id
+     * @return list of {@link EnvironmentComponent}, ordered by when they were first stored
+     */
+    List<EnvironmentComponent> findLatestByCollectorItemId(ObjectId collectorItemId);
+}
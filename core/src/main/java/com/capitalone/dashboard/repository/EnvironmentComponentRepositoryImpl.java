@@ -0,0 +1,54 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.capitalone.dashboard.repository.AggregationStages.stage;
+
+/**
+ * Implementation of {@link EnvironmentComponentRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link EnvironmentComponentRepository}.
+ */
+public class EnvironmentComponentRepositoryImpl implements EnvironmentComponentRepositoryCustom {
+
+    private static final String LATEST = "latest";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public EnvironmentComponentRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public List<EnvironmentComponent> findLatestByCollectorItemId(ObjectId collectorItemId) {
+        DBObject groupKey = new BasicDBObject("environmentName", "$environmentName")
+                .append("componentName", new BasicDBObject("$toLower", "$componentName"));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                stage("$match", new BasicDBObject("collectorItemId", collectorItemId)),
+                stage("$sort", new BasicDBObject("asOfDate", -1).append("_id", 1)),
+                stage("$group", new BasicDBObject("_id", groupKey)
+                        .append(LATEST, new BasicDBObject("$first", "$$ROOT"))),
+                stage("$sort", new BasicDBObject(LATEST + "._id", 1)))
+                // The item_latest index serves the first sort; the last one sorts a group per component
+                .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+        List<DBObject> groups = mongoOperations.aggregate(aggregation,
+                mongoOperations.getCollectionName(EnvironmentComponent.class), DBObject.class).getMappedResults();
+
+        List<EnvironmentComponent> latest = new ArrayList<>(groups.size());
+        for (DBObject group : groups) {
+            latest.add(mongoOperations.getConverter().read(EnvironmentComponent.class, (DBObject) group.get(LATEST)));
+        }
+        return latest;
+    }
+}
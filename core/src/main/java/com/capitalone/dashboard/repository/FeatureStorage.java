@@ -0,0 +1,249 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Feature;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates between the String-typed {@link Feature} model and its compact stored form.
+ * <p>
+ * Stored features leave out every value equal to its field's default in {@link #DEFAULTS}:
+ * the empty string, "False" for the deleted flags and the empty list. They keep the deleted
+ * flags as booleans and dates as dates. Reading a stored feature puts the defaults back, so
+ * API responses do not change; the rare field a collector left null is stored as an explicit
+ * null so that it does not read back as its default. A date whose string {@link #DATE_FORMAT}
+ * would not reproduce also keeps that string in {@link #ORIGINAL_DATES}. Other values that
+ * cannot be converted without loss are stored as they are.
+ */
+public final class FeatureStorage {
+
+    /**
+     * Format the feature collectors use for dates, with the sub-millisecond digits of the
+     * source systems zeroed.
+     */
+    public static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS'0000'";
+
+    /**
+     * Field of a stored feature holding, by field name, the strings of dates that
+     * {@link #DATE_FORMAT} would not reproduce.
+     */
+    public static final String ORIGINAL_DATES = "originalDates";
+
+    static final String TRUE = "True";
+    static final String FALSE = "False";
+    private static final Pattern ISO_DATE = Pattern.compile(
+            "(\\d{4})-(\\d{2})-(\\d{2})(?:T(\\d{2}):(\\d{2}):(\\d{2})(?:\\.(\\d{1,9}))?)?");
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final Set<String> BOOLEAN_FIELDS = new HashSet<>(Arrays.asList(
+            "isDeleted", "sTeamIsDeleted", "sSprintIsDeleted", "sEpicIsDeleted", "sProjectIsDeleted",
+            "sOwnersIsDeleted"));
+    private static final Set<String> DATE_FIELDS = new HashSet<>(Arrays.asList(
+            "changeDate", "sTeamChangeDate", "sSprintChangeDate", "sSprintBeginDate", "sSprintEndDate",
+            "sEpicChangeDate", "sEpicBeginDate", "sEpicEndDate", "sProjectChangeDate", "sProjectBeginDate",
+            "sProjectEndDate", "sOwnersChangeDate"));
+
+    /**
+     * Model value of each String and List field that a stored feature leaves out: what the
+     * collectors write when the source system has nothing for the field.
+     */
+    static final Map<String, Object> DEFAULTS;
+
+    static {
+        final Map<String, Object> defaults = new HashMap<>();
+        ReflectionUtils.doWithFields(Feature.class, new ReflectionUtils.FieldCallback() {
+            @Override
+            public void doWith(Field field) {
+                if (field.getType() == String.class) {
+                    defaults.put(field.getName(), BOOLEAN_FIELDS.contains(field.getName()) ? FALSE : "");
+                } else if (field.getType() == List.class) {
+                    defaults.put(field.getName(), Collections.emptyList());
+                }
+            }
+        }, ReflectionUtils.COPYABLE_FIELDS);
+        DEFAULTS = Collections.unmodifiableMap(defaults);
+    }
+
+    private FeatureStorage() {
+    }
+
+    /**
+     * Rewrites a feature document in its String form, as produced by the mapping converter,
+     * into its compact form. A field missing from the document is null in the model.
+     *
+     * @param dbObject feature document, modified in place
+     * @return true if the document changed
+     */
+    public static boolean compact(DBObject dbObject) {
+        boolean changed = false;
+        DBObject originalDates = null;
+        for (Map.Entry<String, Object> field : DEFAULTS.entrySet()) {
+            String key = field.getKey();
+            Object value = dbObject.get(key);
+            if (value == null) {
+                // A missing field reads back as its default, so a null has to be stored
+                if (!dbObject.containsField(key)) {
+                    dbObject.put(key, null);
+                    changed = true;
+                }
+            } else if (field.getValue().equals(value)) {
+                dbObject.removeField(key);
+                changed = true;
+            } else if (value instanceof String) {
+                Object stored = toStored(key, (String) value);
+                if (stored == value) {
+                    continue;
+                }
+                if (stored instanceof Date && !formatDate((Date) stored).equals(value)) {
+                    // Queries need the date, responses need the string as the source system sent it
+                    if (originalDates == null) {
+                        originalDates = new BasicDBObject();
+                    }
+                    originalDates.put(key, value);
+                }
+                dbObject.put(key, stored);
+                changed = true;
+            } else if (value instanceof List) {
+                BasicDBList stored = new BasicDBList();
+                boolean converted = false;
+                for (Object element : (List<?>) value) {
+                    Object storedElement = element instanceof String ? toStored(key, (String) element) : element;
+                    // Nothing queries these lists, so only dates that read back the same are converted
+                    if (storedElement instanceof Date && !formatDate((Date) storedElement).equals(element)) {
+                        storedElement = element;
+                    }
+                    converted |= storedElement != element;
+                    stored.add(storedElement);
+                }
+                if (converted) {
+                    dbObject.put(key, stored);
+                    changed = true;
+                }
+            }
+        }
+        if (originalDates != null) {
+            dbObject.put(ORIGINAL_DATES, originalDates);
+        }
+        return changed;
+    }
+
+    /**
+     * Restores the String form of a compact feature document before it is mapped onto a
+     * {@link Feature}, putting back the default of every field the document leaves out.
+     *
+     * @param dbObject feature document, modified in place
+     */
+    public static void expand(DBObject dbObject) {
+        DBObject originalDates = (DBObject) dbObject.removeField(ORIGINAL_DATES);
+        for (Map.Entry<String, Object> field : DEFAULTS.entrySet()) {
+            String key = field.getKey();
+            Object value = dbObject.get(key);
+            if (!dbObject.containsField(key)) {
+                dbObject.put(key, field.getValue() instanceof List ? new BasicDBList() : field.getValue());
+            } else if (value == null) {
+                // Stored null, which the converter reads the same as a missing field
+                dbObject.removeField(key);
+            } else if (originalDates != null && originalDates.containsField(key)) {
+                dbObject.put(key, originalDates.get(key));
+            } else if (value instanceof List) {
+                BasicDBList restored = new BasicDBList();
+                for (Object element : (List<?>) value) {
+                    restored.add(toModel(element));
+                }
+                dbObject.put(key, restored);
+            } else if (!(value instanceof String)) {
+                dbObject.put(key, toModel(value));
+            }
+        }
+    }
+
+    /**
+     * Parses a date as written by the feature collectors: an ISO date, optionally with a
+     * time and up to nine fractional digits, in UTC.
+     *
+     * @param value date string
+     * @return the date, or null if the value is not such a date
+     */
+    public static Date parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher matcher = ISO_DATE.matcher(value);
+        if (!matcher.matches()) {
+            return null;
+        }
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.clear();
+        calendar.setLenient(false);
+        calendar.set(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)) - 1,
+                Integer.parseInt(matcher.group(3)));
+        if (matcher.group(4) != null) {
+            calendar.set(Calendar.HOUR_OF_DAY, Integer.parseInt(matcher.group(4)));
+            calendar.set(Calendar.MINUTE, Integer.parseInt(matcher.group(5)));
+            calendar.set(Calendar.SECOND, Integer.parseInt(matcher.group(6)));
+        }
+        if (matcher.group(7) != null) {
+            String millis = (matcher.group(7) + "00").substring(0, 3);
+            calendar.set(Calendar.MILLISECOND, Integer.parseInt(millis));
+        }
+        try {
+            return calendar.getTime();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Formats a stored date the way the feature collectors write dates.
+     *
+     * @param date date
+     * @return the date in {@link #DATE_FORMAT}
+     */
+    public static String formatDate(Date date) {
+        SimpleDateFormat format = new SimpleDateFormat(DATE_FORMAT);
+        format.setTimeZone(UTC);
+        return format.format(date);
+    }
+
+    private static Object toStored(String key, String value) {
+        if (BOOLEAN_FIELDS.contains(key)) {
+            if (TRUE.equals(value)) {
+                return Boolean.TRUE;
+            } else if (FALSE.equals(value)) {
+                return Boolean.FALSE;
+            }
+        } else if (DATE_FIELDS.contains(key)) {
+            Date date = parseDate(value);
+            if (date != null) {
+                return date;
+            }
+        }
+        return value;
+    }
+
+    private static Object toModel(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? TRUE : FALSE;
+        } else if (value instanceof Date) {
+            return formatDate((Date) value);
+        }
+        return value;
+    }
+}
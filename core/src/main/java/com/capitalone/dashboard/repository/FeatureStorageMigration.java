@@ -0,0 +1,86 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.Feature;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rewrites the {@link Feature}s of a feature collector that earlier versions stored as they
+ * are into the compact form. The feature collectors run it before their first collection, so
+ * queries on the deleted flag and on dates find every feature. Once done, a {@link Backfill}
+ * record keeps later starts from scanning the features again.
+ *
+ * @see FeatureStorage
+ */
+@Component
+public class FeatureStorageMigration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FeatureStorageMigration.class);
+
+    static final String NAME = "featureStorage";
+
+    private final MongoOperations mongoOperations;
+    private final BackfillRepository backfillRepository;
+    private final Set<ObjectId> migrated = Collections.newSetFromMap(new ConcurrentHashMap<ObjectId, Boolean>());
+
+    @Autowired
+    public FeatureStorageMigration(MongoOperations mongoOperations, BackfillRepository backfillRepository) {
+        this.mongoOperations = mongoOperations;
+        this.backfillRepository = backfillRepository;
+    }
+
+    /**
+     * Compacts every feature of a collector still stored as it is, unless that was already
+     * done for the collector by this or an earlier process. Those features hold their deleted
+     * flag as the String "True" or "False", which the compact form never stores, so a run cut
+     * short is resumed without touching the features it already compacted. A feature that a
+     * collector rewrites while it is being migrated keeps the collector's version.
+     *
+     * @param collectorId feature collector id
+     * @return number of features rewritten
+     */
+    public int migrate(ObjectId collectorId) {
+        if (collectorId == null || !migrated.add(collectorId)) {
+            return 0;
+        }
+
+        try {
+            if (backfillRepository.findByNameAndCollectorId(NAME, collectorId) != null) {
+                return 0;
+            }
+
+            DBCollection collection = mongoOperations.getCollection(mongoOperations.getCollectionName(Feature.class));
+            int rewritten = 0;
+            DBObject stored = new BasicDBObject("collectorId", collectorId).append("isDeleted",
+                    new BasicDBObject("$in", Arrays.asList(FeatureStorage.TRUE, FeatureStorage.FALSE)));
+            try (DBCursor cursor = collection.find(stored).snapshot()) {
+                for (DBObject feature : cursor) {
+                    DBObject original = new BasicDBObject(feature.toMap());
+                    if (FeatureStorage.compact(feature)) {
+                        rewritten += collection.update(original, feature).getN();
+                    }
+                }
+            }
+
+            backfillRepository.save(new Backfill(NAME, collectorId, System.currentTimeMillis()));
+            LOGGER.info("Compacted {} stored features", rewritten);
+            return rewritten;
+        } catch (RuntimeException e) {
+            migrated.remove(collectorId);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import com.capitalone.dashboard.model.RevisionBuild;
+import com.capitalone.dashboard.model.SCM;
+import com.capitalone.dashboard.model.VersionDeployment;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBCollection;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keeps the lead time index: the first build containing each source revision
+ * ({@link RevisionBuild}) and the first deployment of each component version to each
+ * environment ({@link VersionDeployment}). Builds and deployments are matched through the
+ * version, which is the build's artifact version or, failing that, its number.
+ * <p>
+ * Adding the same build or deployment again, or one later than the one already indexed,
+ * changes nothing, so the index can be fed every save and replayed from stored data. Replaying
+ * a collector's data is recorded as a {@link Backfill}, so later starts do not repeat it.
+ */
+@Component
+public class LeadTimeIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LeadTimeIndex.class);
+
+    private static final String COLLECTOR_ITEM_ID = "collectorItemId";
+    static final String BACKFILL = "leadTime";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoOperations mongoOperations;
+    private final BackfillRepository backfillRepository;
+    private final Set<ObjectId> backfilled = Collections.newSetFromMap(new ConcurrentHashMap<ObjectId, Boolean>());
+
+    @Autowired
+    public LeadTimeIndex(MongoOperations mongoOperations, BackfillRepository backfillRepository) {
+        this.mongoOperations = mongoOperations;
+        this.backfillRepository = backfillRepository;
+    }
+
+    /**
+     * Indexes the revisions of a build.
+     *
+     * @param build build
+     * @return number of revisions for which this is the first build so far
+     */
+    public int addBuild(Build build) {
+        if (build.getCollectorItemId() == null) {
+            return 0;
+        }
+        int indexed = 0;
+        for (SCM scm : build.getSourceChangeSet()) {
+            if (StringUtils.hasText(scm.getScmRevisionNumber())
+                    && keepEarliest(earlierRevision(build, scm), revisionUpdate(build, scm), RevisionBuild.class)) {
+                indexed++;
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * Indexes the revisions of a batch of builds in one unordered bulk write.
+     *
+     * @param builds builds
+     * @return number of revisions for which one of the builds is the first build so far
+     */
+    public int addBuilds(Collection<Build> builds) {
+        DBCollection collection = mongoOperations.getCollection(mongoOperations.getCollectionName(RevisionBuild.class));
+        BulkWriteOperation bulk = collection.initializeUnorderedBulkOperation();
+        int upserts = 0;
+        for (Build build : builds) {
+            if (build.getCollectorItemId() == null) {
+                continue;
+            }
+            for (SCM scm : build.getSourceChangeSet()) {
+                if (StringUtils.hasText(scm.getScmRevisionNumber())) {
+                    bulk.find(earlierRevision(build, scm).getQueryObject()).upsert()
+                            .updateOne(revisionUpdate(build, scm).getUpdateObject());
+                    upserts++;
+                }
+            }
+        }
+        if (upserts == 0) {
+            return 0;
+        }
+        try {
+            bulk.execute();
+            return upserts;
+        } catch (BulkWriteException e) {
+            // As in keepEarliest, a collision on the unique key means an earlier build is indexed
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            return upserts - e.getWriteErrors().size();
+        }
+    }
+
+    /**
+     * Indexes a deployment. Components that are not deployed are ignored.
+     *
+     * @param component deployed component
+     * @return true if this is the first deployment of its version to its environment so far
+     */
+    public boolean addDeployment(EnvironmentComponent component) {
+        if (!component.isDeployed() || component.getCollectorItemId() == null
+                || !StringUtils.hasText(component.getComponentVersion())) {
+            return false;
+        }
+        Query earlier = new Query(where("deployCollectorItemId").is(component.getCollectorItemId())
+                .and("version").is(component.getComponentVersion())
+                .and("componentName").is(component.getComponentName())
+                .and("environmentName").is(component.getEnvironmentName())
+                .and("deployTimestamp").gt(component.getAsOfDate()));
+        return keepEarliest(earlier, new Update().set("deployTimestamp", component.getAsOfDate()),
+                VersionDeployment.class);
+    }
+
+    /**
+     * Indexes the builds or deployments already stored for the items of a collector, unless
+     * that was already done for the collector by this or an earlier process.
+     *
+     * @param collectorType {@link CollectorType#Build} or {@link CollectorType#Deployment}
+     * @param collectorId collector id
+     * @return number of builds or deployments read
+     */
+    public int backfill(CollectorType collectorType, ObjectId collectorId) {
+        if (collectorId == null || !backfilled.add(collectorId)) {
+            return 0;
+        }
+
+        try {
+            if (backfillRepository.findByNameAndCollectorId(BACKFILL, collectorId) != null) {
+                return 0;
+            }
+
+            List<ObjectId> collectorItemIds = new ArrayList<>();
+            for (Object id : mongoOperations.getCollection(mongoOperations.getCollectionName(CollectorItem.class))
+                    .distinct("_id", new BasicDBObject("collectorId", collectorId))) {
+                collectorItemIds.add((ObjectId) id);
+            }
+
+            int read = 0;
+            if (collectorType == CollectorType.Build) {
+                Query query = new Query(where(COLLECTOR_ITEM_ID).in(collectorItemIds));
+                query.fields().include(COLLECTOR_ITEM_ID).include("number").include("artifactVersionNumber")
+                        .include("timestamp").include("startTime").include("endTime")
+                        .include("sourceChangeSet.scmRevisionNumber").include("sourceChangeSet.scmCommitTimestamp");
+                try (CloseableIterator<Build> builds = mongoOperations.stream(query, Build.class)) {
+                    while (builds.hasNext()) {
+                        addBuild(builds.next());
+                        read++;
+                    }
+                }
+            } else if (collectorType == CollectorType.Deployment) {
+                Query query = new Query(where(COLLECTOR_ITEM_ID).in(collectorItemIds).and("deployed").is(true));
+                for (EnvironmentComponent component : mongoOperations.find(query, EnvironmentComponent.class)) {
+                    addDeployment(component);
+                    read++;
+                }
+            }
+            backfillRepository.save(new Backfill(BACKFILL, collectorId, System.currentTimeMillis()));
+            LOGGER.info("Indexed lead times of {} {}s for {} collector items", read, collectorType,
+                    collectorItemIds.size());
+            return read;
+        } catch (RuntimeException e) {
+            backfilled.remove(collectorId);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the artifact version of a build, or its number if it has none
+     */
+    public static String version(Build build) {
+        return StringUtils.hasText(build.getArtifactVersionNumber()) ? build.getArtifactVersionNumber()
+                : build.getNumber();
+    }
+
+    /**
+     * Matches the index entry of a build's revision if it was built later than this build.
+     */
+    private static Query earlierRevision(Build build, SCM scm) {
+        return new Query(where("buildCollectorItemId").is(build.getCollectorItemId())
+                .and("revision").is(scm.getScmRevisionNumber())
+                .and("buildTimestamp").gt(buildTimestamp(build)));
+    }
+
+    private static Update revisionUpdate(Build build, SCM scm) {
+        return new Update()
+                .set("commitTimestamp", scm.getScmCommitTimestamp())
+                .set("buildNumber", build.getNumber())
+                .set("version", version(build))
+                .set("buildTimestamp", buildTimestamp(build));
+    }
+
+    private static long buildTimestamp(Build build) {
+        if (build.getEndTime() > 0) {
+            return build.getEndTime();
+        }
+        return build.getStartTime() > 0 ? build.getStartTime() : build.getTimestamp();
+    }
+
+    /**
+     * Inserts the entry, or updates the existing one if it is later. When an entry at least
+     * as early exists, the upsert collides with it on the unique key and nothing changes.
+     */
+    private boolean keepEarliest(Query earlier, Update update, Class<?> entityClass) {
+        try {
+            mongoOperations.upsert(earlier, update, entityClass);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Lease;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository for {@link Lease} data.
+ */
+public interface LeaseRepository extends CrudRepository<Lease, ObjectId>, LeaseRepositoryCustom {
+
+    Lease findByName(String name);
+}
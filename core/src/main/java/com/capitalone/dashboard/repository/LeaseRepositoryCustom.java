@@ -0,0 +1,27 @@
+package com.capitalone.dashboard.repository;
+
+/**
+ * Atomic updates of {@link com.capitalone.dashboard.model.Lease}.
+ */
+public interface LeaseRepositoryCustom {
+
+    /**
+     * Takes or renews a lease. Succeeds if nobody holds it, the holder already does, or the
+     * current holder let it expire.
+     *
+     * @param name lease name
+     * @param holder identifies the calling process
+     * @param durationMillis how long the lease lasts from now unless renewed
+     * @return true if the holder now has the lease
+     */
+    boolean acquire(String name, String holder, long durationMillis);
+
+    /**
+     * Gives up a lease so another process can take it without waiting for it to expire.
+     * Does nothing if the holder does not have it.
+     *
+     * @param name lease name
+     * @param holder identifies the calling process
+     */
+    void release(String name, String holder);
+}
@@ -0,0 +1,46 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Lease;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link LeaseRepositoryCustom}, picked up by Spring Data through its name
+ * and mixed into {@link LeaseRepository}.
+ */
+public class LeaseRepositoryImpl implements LeaseRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public LeaseRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public boolean acquire(String name, String holder, long durationMillis) {
+        long now = System.currentTimeMillis();
+        Query query = new Query(where("name").is(name)
+                .orOperator(where("holder").is(holder), where("expiresAt").lt(now)));
+        Update update = new Update().set("holder", holder).set("expiresAt", now + durationMillis);
+        try {
+            // Nothing matches while another process holds the lease, so the upsert inserts a
+            // second lease of the same name and the unique index refuses it
+            mongoOperations.upsert(query, update, Lease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String name, String holder) {
+        mongoOperations.updateFirst(new Query(where("name").is(name).and("holder").is(holder)),
+                new Update().set("expiresAt", 0L), Lease.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestResult;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.capitalone.dashboard.repository.AggregationStages.stage;
+
+/**
+ * Adds unique indexes on the collector item and natural key of builds, commits and test
+ * results, so that {@link BulkInserter} can tell a record another writer stored first from
+ * a failed insert. Records stored more than once under the same key are removed first,
+ * keeping the first stored, as the index could not be built over them; the test case records
+ * of removed test results go with them. The API runs it at startup. Once the index of a
+ * collection is in place, a {@link Backfill} record keeps later starts from scanning the
+ * collection again.
+ * <p>
+ * If the index cannot be built, for instance because a collector stored a duplicate in the
+ * meantime, the collection is left without it and migrated again on the next start.
+ */
+@Component
+public class NaturalKeyIndexMigration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NaturalKeyIndexMigration.class);
+
+    static final String NAME = "naturalKeyIndex.";
+
+    private static final String ID = "_id";
+    private static final String COLLECTOR_ITEM_ID = "collectorItemId";
+    private static final String IDS = "ids";
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoOperations mongoOperations;
+    private final BackfillRepository backfillRepository;
+
+    @Autowired
+    public NaturalKeyIndexMigration(MongoOperations mongoOperations, BackfillRepository backfillRepository) {
+        this.mongoOperations = mongoOperations;
+        this.backfillRepository = backfillRepository;
+    }
+
+    /**
+     * Removes duplicates and adds the unique index of every collection that does not have
+     * it yet.
+     *
+     * @return number of duplicate records removed
+     */
+    public int migrate() {
+        return migrate(Build.class, "number", "item_number")
+                + migrate(Commit.class, "scmRevisionNumber", "item_revision")
+                + migrate(TestResult.class, "executionId", "item_execution");
+    }
+
+    private int migrate(Class<?> type, String keyField, String indexName) {
+        String collectionName = mongoOperations.getCollectionName(type);
+        String name = NAME + collectionName;
+        if (backfillRepository.findByNameAndCollectorId(name, null) != null) {
+            return 0;
+        }
+
+        List<ObjectId> duplicates = duplicates(collectionName, keyField);
+        DBCollection collection = mongoOperations.getCollection(collectionName);
+        int removed = 0;
+        for (int from = 0; from < duplicates.size(); from += BATCH_SIZE) {
+            List<ObjectId> batch = duplicates.subList(from, Math.min(from + BATCH_SIZE, duplicates.size()));
+            removed += collection.remove(new BasicDBObject(ID, new BasicDBObject("$in", batch))).getN();
+            if (type == TestResult.class) {
+                mongoOperations.getCollection(mongoOperations.getCollectionName(TestCaseRecord.class))
+                        .remove(new BasicDBObject("testResultId", new BasicDBObject("$in", batch)));
+            }
+        }
+
+        try {
+            mongoOperations.indexOps(type).ensureIndex(new Index().on(COLLECTOR_ITEM_ID, Sort.Direction.ASC)
+                    .on(keyField, Sort.Direction.ASC).unique().named(indexName));
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not add unique index " + indexName + " to " + collectionName
+                    + ", trying again on the next start", e);
+            return removed;
+        }
+
+        backfillRepository.save(new Backfill(name, null, System.currentTimeMillis()));
+        LOGGER.info("Removed {} duplicate {} and added unique index {}", removed, collectionName, indexName);
+        return removed;
+    }
+
+    /**
+     * @return ids of the records stored under the same collector item and key as an earlier one
+     */
+    private List<ObjectId> duplicates(String collectionName, String keyField) {
+        DBObject groupKey = new BasicDBObject(COLLECTOR_ITEM_ID, "$" + COLLECTOR_ITEM_ID)
+                .append(keyField, "$" + keyField);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                stage("$match", new BasicDBObject(keyField, new BasicDBObject("$ne", null))),
+                stage("$sort", new BasicDBObject(ID, 1)),
+                stage("$group", new BasicDBObject(ID, groupKey)
+                        .append(IDS, new BasicDBObject("$push", "$" + ID))
+                        .append("count", new BasicDBObject("$sum", 1))),
+                stage("$match", new BasicDBObject("count", new BasicDBObject("$gt", 1))))
+                .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+        List<ObjectId> duplicates = new ArrayList<>();
+        for (DBObject group : mongoOperations.aggregate(aggregation, collectionName, DBObject.class).getMappedResults()) {
+            List<?> ids = (List<?>) group.get(IDS);
+            for (Object id : ids.subList(1, ids.size())) {
+                duplicates.add((ObjectId) id);
+            }
+        }
+        return duplicates;
+    }
+}
@@ -0,0 +1,16 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.PipelineStats;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+
+/**
+ * Repository for {@link PipelineStats} data.
+ */
+public interface PipelineStatsRepository extends CrudRepository<PipelineStats, ObjectId>,
+        PipelineStatsRepositoryCustom {
+
+    List<PipelineStats> findByCollectorId(ObjectId collectorId);
+}
@@ -0,0 +1,17 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.PipelineStats;
+
+/**
+ * Atomic updates of {@link PipelineStats}.
+ */
+public interface PipelineStatsRepositoryCustom {
+
+    /**
+     * Replaces the statistics recorded for the pipeline of the same name and collector, or
+     * adds them if there are none.
+     *
+     * @param stats statistics of a pipeline
+     */
+    void record(PipelineStats stats);
+}
@@ -0,0 +1,34 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.PipelineStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link PipelineStatsRepositoryCustom}, picked up by Spring Data through
+ * its name and mixed into {@link PipelineStatsRepository}.
+ */
+public class PipelineStatsRepositoryImpl implements PipelineStatsRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public PipelineStatsRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void record(PipelineStats stats) {
+        Query query = new Query(where("collectorId").is(stats.getCollectorId()).and("name").is(stats.getName()));
+        Update update = new Update()
+                .set("running", stats.isRunning())
+                .set("started", stats.getStarted())
+                .set("lastUpdated", stats.getLastUpdated())
+                .set("stages", stats.getStages());
+        mongoOperations.upsert(query, update, PipelineStats.class);
+    }
+}
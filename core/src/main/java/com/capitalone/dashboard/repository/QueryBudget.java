@@ -0,0 +1,66 @@
+package com.capitalone.dashboard.repository;
+
+/**
+ * Time budget for the queries a thread runs on behalf of one API request. While a budget is
+ * active, {@link BudgetedMongoTemplate} passes the remaining time to Mongo as
+ * {@code maxTimeMS}, and queries started after the budget ran out fail with a
+ * {@link QueryBudgetExceededException} without reaching Mongo.
+ */
+public final class QueryBudget {
+
+    private static final ThreadLocal<QueryBudget> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+    private final long budgetMillis;
+    private final long deadline;
+
+    private QueryBudget(String endpoint, long budgetMillis) {
+        this.endpoint = endpoint;
+        this.budgetMillis = budgetMillis;
+        this.deadline = System.currentTimeMillis() + budgetMillis;
+    }
+
+    /**
+     * Starts a budget for the current thread, replacing any budget it had.
+     *
+     * @param endpoint name of the endpoint the queries are run for
+     * @param budgetMillis milliseconds the queries may take in total
+     */
+    public static void start(String endpoint, long budgetMillis) {
+        CURRENT.set(new QueryBudget(endpoint, budgetMillis));
+    }
+
+    /**
+     * Ends the budget of the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the budget of the current thread, or null
+     */
+    public static QueryBudget current() {
+        return CURRENT.get();
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * @return milliseconds left, at least one
+     * @throws QueryBudgetExceededException if the budget has run out
+     */
+    public long remainingMillis() {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new QueryBudgetExceededException(endpoint, budgetMillis);
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,27 @@
+package com.capitalone.dashboard.repository;
+
+/**
+ * Thrown when the queries of a request take longer than its {@link QueryBudget}.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    private final String endpoint;
+    private final long budgetMillis;
+
+    public QueryBudgetExceededException(String endpoint, long budgetMillis) {
+        this(endpoint, budgetMillis, null);
+    }
+
+    public QueryBudgetExceededException(String endpoint, long budgetMillis, Throwable cause) {
+        super("Queries for " + endpoint + " exceeded their budget of " + budgetMillis + " ms", cause);
+        this.endpoint = endpoint;
+        this.budgetMillis = budgetMillis;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+}
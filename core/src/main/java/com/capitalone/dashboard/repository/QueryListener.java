@@ -0,0 +1,33 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.util.Supplier;
+import com.mongodb.DBObject;
+
+/**
+ * Notified by {@link BudgetedMongoTemplate} of the queries run under a {@link QueryBudget}.
+ * Called on the querying thread, so implementations should hand off anything slow.
+ */
+public interface QueryListener {
+
+    /**
+     * A query completed.
+     *
+     * @param budget budget the query ran under
+     * @param collectionName collection queried
+     * @param query query document, or a summary of an aggregation pipeline
+     * @param durationMillis time from issuing the query to reading its last document
+     * @param returned number of documents returned
+     * @param explain explains the query when called; runs it again, so call it off the request thread
+     */
+    void onQuery(QueryBudget budget, String collectionName, DBObject query, long durationMillis, int returned,
+                 Supplier<DBObject> explain);
+
+    /**
+     * A query failed because the budget ran out.
+     *
+     * @param budget budget the query ran under
+     * @param collectionName collection queried
+     * @param query query document, or a summary of an aggregation pipeline
+     */
+    void onBudgetExceeded(QueryBudget budget, String collectionName, DBObject query);
+}
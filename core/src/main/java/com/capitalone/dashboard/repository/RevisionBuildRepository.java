@@ -0,0 +1,24 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.RevisionBuild;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for {@link RevisionBuild} data.
+ */
+public interface RevisionBuildRepository extends CrudRepository<RevisionBuild, ObjectId> {
+
+    /**
+     * Finds the builds of revisions committed after a point in time.
+     *
+     * @param buildCollectorItemIds build job collector item ids
+     * @param commitTimestamp epoch milliseconds
+     * @return list of {@link RevisionBuild}s
+     */
+    List<RevisionBuild> findByBuildCollectorItemIdInAndCommitTimestampGreaterThan(
+            Collection<ObjectId> buildCollectorItemIds, long commitTimestamp);
+}
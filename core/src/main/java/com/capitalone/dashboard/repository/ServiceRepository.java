@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * A {@link Service} repository
  */
-public interface ServiceRepository extends PagingAndSortingRepository<Service, ObjectId> {
+public interface ServiceRepository extends PagingAndSortingRepository<Service, ObjectId>, ServiceRepositoryCustom {
 
     /**
      * Find all {@link Service}s for a given {@link com.capitalone.dashboard.model.Dashboard}.
@@ -0,0 +1,59 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Service;
+import com.capitalone.dashboard.model.ServiceCheckResult;
+import com.capitalone.dashboard.model.ServiceStatus;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+
+/**
+ * Atomic updates of {@link Service}.
+ */
+public interface ServiceRepositoryCustom {
+
+    /**
+     * Adds a check to the history of a service, dropping the oldest beyond the most recent
+     * {@link ServiceRepositoryImpl#CHECK_HISTORY}, and sets its status and message if either
+     * differs from what is stored. The last updated time only moves when they do.
+     *
+     * @param serviceId service id
+     * @param result outcome of the check
+     * @param status status the check puts the service in
+     * @param message message explaining the status, or null
+     * @return true if the status or message changed
+     */
+    boolean recordCheck(ObjectId serviceId, ServiceCheckResult result, ServiceStatus status, String message);
+
+    /**
+     * Finds the services that have a URL to check. The services hold only their id, check
+     * and status.
+     *
+     * @return list of {@link Service}s
+     */
+    List<Service> findChecked();
+
+    /**
+     * Sets the status, message, check and last updated time of a service, leaving its other
+     * fields, such as the history the checker adds to, as they are stored.
+     *
+     * @param service service holding the new values; a null check removes the check
+     */
+    void updateStatus(Service service);
+
+    /**
+     * Adds a dashboard to those depending on a service.
+     *
+     * @param serviceId service id
+     * @param dashboardId dashboard id
+     */
+    void addDependedBy(ObjectId serviceId, ObjectId dashboardId);
+
+    /**
+     * Removes a dashboard from those depending on a service.
+     *
+     * @param serviceId service id
+     * @param dashboardId dashboard id
+     */
+    void removeDependedBy(ObjectId serviceId, ObjectId dashboardId);
+}
@@ -0,0 +1,101 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Service;
+import com.capitalone.dashboard.model.ServiceCheckResult;
+import com.capitalone.dashboard.model.ServiceStatus;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link ServiceRepositoryCustom}, picked up by Spring Data through its
+ * name and mixed into {@link ServiceRepository}.
+ */
+public class ServiceRepositoryImpl implements ServiceRepositoryCustom {
+
+    static final int CHECK_HISTORY = 50;
+
+    private static final String ID = "_id";
+    private static final String STATUS = "status";
+    private static final String MESSAGE = "message";
+    private static final String CHECK = "check";
+    private static final String DEPENDED_BY = "dependedBy";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public ServiceRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public boolean recordCheck(ObjectId serviceId, ServiceCheckResult result, ServiceStatus status, String message) {
+        DBCollection collection = mongoOperations.getCollection(mongoOperations.getCollectionName(Service.class));
+
+        // $push with $slice is not in the Update of this Spring Data version
+        BasicDBList each = new BasicDBList();
+        each.add(new BasicDBObject("timestamp", result.getTimestamp())
+                .append("latencyMillis", result.getLatencyMillis())
+                .append("statusCode", result.getStatusCode())
+                .append(STATUS, result.getStatus().name()));
+        collection.update(new BasicDBObject(ID, serviceId), new BasicDBObject("$push",
+                new BasicDBObject("checkHistory", new BasicDBObject("$each", each).append("$slice", -CHECK_HISTORY))));
+
+        BasicDBList changed = new BasicDBList();
+        changed.add(new BasicDBObject(STATUS, new BasicDBObject("$ne", status.name())));
+        changed.add(new BasicDBObject(MESSAGE, new BasicDBObject("$ne", message)));
+        boolean statusChanged = collection.update(new BasicDBObject(ID, serviceId).append("$or", changed),
+                new BasicDBObject("$set", new BasicDBObject(STATUS, status.name())
+                        .append(MESSAGE, message)
+                        .append("lastUpdated", result.getTimestamp()))).getN() > 0;
+        if (statusChanged) {
+            DataVersionRepositoryImpl.increment(mongoOperations, serviceId);
+        }
+        return statusChanged;
+    }
+
+    @Override
+    public List<Service> findChecked() {
+        Query query = new Query(where("check.url").ne(null));
+        query.fields().include(CHECK).include(STATUS);
+        return mongoOperations.find(query, Service.class);
+    }
+
+    @Override
+    public void updateStatus(Service service) {
+        Update update = new Update()
+                .set(STATUS, service.getStatus())
+                .set(MESSAGE, service.getMessage())
+                .set("lastUpdated", service.getLastUpdated());
+        if (service.getCheck() == null) {
+            update.unset(CHECK);
+        } else {
+            update.set(CHECK, service.getCheck());
+        }
+        mongoOperations.updateFirst(byId(service.getId()), update, Service.class);
+        DataVersionRepositoryImpl.increment(mongoOperations, service.getId());
+    }
+
+    @Override
+    public void addDependedBy(ObjectId serviceId, ObjectId dashboardId) {
+        mongoOperations.updateFirst(byId(serviceId), new Update().addToSet(DEPENDED_BY, dashboardId), Service.class);
+    }
+
+    @Override
+    public void removeDependedBy(ObjectId serviceId, ObjectId dashboardId) {
+        mongoOperations.updateFirst(byId(serviceId), new Update().pull(DEPENDED_BY, dashboardId), Service.class);
+    }
+
+    private static Query byId(ObjectId serviceId) {
+        return new Query(where(ID).is(serviceId));
+    }
+}
@@ -0,0 +1,23 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.SlowQuery;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+
+/**
+ * Repository for {@link SlowQuery} data.
+ */
+public interface SlowQueryRepository extends CrudRepository<SlowQuery, ObjectId> {
+
+    /**
+     * Finds the slow queries recorded after a point in time, newest first.
+     *
+     * @param timestamp epoch milliseconds
+     * @param pageable limits the number of queries returned
+     * @return list of {@link SlowQuery}s
+     */
+    List<SlowQuery> findByTimestampGreaterThanOrderByIdDesc(long timestamp, Pageable pageable);
+}
@@ -0,0 +1,93 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.model.FeatureStatus;
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Rolls up the {@link com.capitalone.dashboard.model.SprintEstimate}s of every team of a
+ * feature collector, after giving the features stored before numeric estimates and statuses
+ * were tracked their estimate and status. The feature collectors run it before their first
+ * collection, so that the API only ever reads rollups. Once done, a {@link Backfill} record
+ * keeps later starts from repeating it.
+ */
+@Component
+public class SprintEstimateBackfill {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SprintEstimateBackfill.class);
+
+    static final String NAME = "sprintEstimates";
+
+    private final MongoOperations mongoOperations;
+    private final SprintEstimateRepository sprintEstimateRepository;
+    private final BackfillRepository backfillRepository;
+    private final Set<ObjectId> backfilled = Collections.newSetFromMap(new ConcurrentHashMap<ObjectId, Boolean>());
+
+    @Autowired
+    public SprintEstimateBackfill(MongoOperations mongoOperations, SprintEstimateRepository sprintEstimateRepository,
+                                  BackfillRepository backfillRepository) {
+        this.mongoOperations = mongoOperations;
+        this.sprintEstimateRepository = sprintEstimateRepository;
+        this.backfillRepository = backfillRepository;
+    }
+
+    /**
+     * Rolls up every team of a feature collector, unless that was already done for the
+     * collector by this or an earlier process.
+     *
+     * @param collectorId feature collector id
+     * @return number of teams rolled up
+     */
+    public int backfill(ObjectId collectorId) {
+        if (collectorId == null || !backfilled.add(collectorId)) {
+            return 0;
+        }
+
+        try {
+            if (backfillRepository.findByNameAndCollectorId(NAME, collectorId) != null) {
+                return 0;
+            }
+
+            Query missing = new Query(where("collectorId").is(collectorId).and("estimate").exists(false));
+            missing.fields().include("sEstimate").include("sStatus");
+            int features = 0;
+            for (Feature feature : mongoOperations.find(missing, Feature.class)) {
+                mongoOperations.updateFirst(new Query(where("_id").is(feature.getId())),
+                        new Update().set("estimate", Feature.parseEstimate(feature.getsEstimate()))
+                                .set("status", FeatureStatus.fromSourceStatus(feature.getsStatus()).name()),
+                        Feature.class);
+                features++;
+            }
+
+            int teams = 0;
+            for (Object teamId : mongoOperations.getCollection(mongoOperations.getCollectionName(Feature.class))
+                    .distinct("sTeamID", new BasicDBObject("collectorId", collectorId))) {
+                if (teamId instanceof String) {
+                    sprintEstimateRepository.refresh((String) teamId);
+                    teams++;
+                }
+            }
+
+            backfillRepository.save(new Backfill(NAME, collectorId, System.currentTimeMillis()));
+            LOGGER.info("Backfilled {} feature estimates and rolled up {} teams", features, teams);
+            return teams;
+        } catch (RuntimeException e) {
+            backfilled.remove(collectorId);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.SprintEstimate;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository for {@link SprintEstimate} rollups.
+ */
+public interface SprintEstimateRepository extends CrudRepository<SprintEstimate, ObjectId>,
+        SprintEstimateRepositoryCustom {
+
+    /**
+     * Finds the rollups of the sprints a team is in at the given time.
+     *
+     * @param teamId source system id of the team
+     * @param currentDate current time
+     * @return list of {@link SprintEstimate}s
+     */
+    @Query(value = "{'teamId' : ?0, 'sprintBeginDate' : {$lte : ?1}, 'sprintEndDate' : {$gte : ?1}}")
+    List<SprintEstimate> findCurrentByTeamId(String teamId, Date currentDate);
+}
@@ -0,0 +1,19 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.SprintEstimate;
+
+/**
+ * Maintenance of the {@link SprintEstimate} rollups.
+ */
+public interface SprintEstimateRepositoryCustom {
+
+    /**
+     * Rebuilds the {@link SprintEstimate}s of a team from its features in a single aggregation
+     * pass, and removes the rollups of sprints the team no longer has stories in. Features
+     * stored before their numeric estimate and status were tracked need
+     * {@link SprintEstimateBackfill} first.
+     *
+     * @param teamId source system id of the team
+     */
+    void refresh(String teamId);
+}
@@ -0,0 +1,127 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.model.FeatureStatus;
+import com.capitalone.dashboard.model.SprintEstimate;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.capitalone.dashboard.repository.AggregationStages.stage;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link SprintEstimateRepositoryCustom}, picked up by Spring Data
+ * through its name and mixed into {@link SprintEstimateRepository}.
+ */
+public class SprintEstimateRepositoryImpl implements SprintEstimateRepositoryCustom {
+
+    private static final String ID = "_id";
+    private static final String ESTIMATE = "$estimate";
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public SprintEstimateRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void refresh(String teamId) {
+        String features = mongoOperations.getCollectionName(Feature.class);
+        DBObject inSprint = new BasicDBObject("sTeamID", teamId)
+                .append("isDeleted", new BasicDBObject("$ne", true))
+                .append("sSprintID", new BasicDBObject("$ne", null));
+
+        List<DBObject> sprints = mongoOperations.aggregate(Aggregation.newAggregation(
+                stage("$match", inSprint),
+                stage("$group", new BasicDBObject(ID, "$sSprintID")
+                        .append("sprintName", new BasicDBObject("$first", "$sSprintName"))
+                        .append("sprintBeginDate", new BasicDBObject("$first", "$sSprintBeginDate"))
+                        .append("sprintEndDate", new BasicDBObject("$first", "$sSprintEndDate"))
+                        .append("totalEstimate", new BasicDBObject("$sum", ESTIMATE))
+                        .append("inProgressEstimate", sumWhere(FeatureStatus.InProgress))
+                        .append("doneEstimate", sumWhere(FeatureStatus.Done)))),
+                features, DBObject.class).getMappedResults();
+
+        DBObject withEpic = new BasicDBObject(inSprint.toMap())
+                .append("sEpicID", new BasicDBObject("$nin", Arrays.asList(null, "")));
+        List<DBObject> epics = mongoOperations.aggregate(Aggregation.newAggregation(
+                stage("$match", withEpic),
+                stage("$group", new BasicDBObject(ID, new BasicDBObject("sprint", "$sSprintID").append("epic", "$sEpicID"))
+                        .append("epicNumber", new BasicDBObject("$first", "$sEpicNumber"))
+                        .append("epicName", new BasicDBObject("$first", "$sEpicName"))
+                        .append("estimate", new BasicDBObject("$sum", ESTIMATE))),
+                stage("$sort", new BasicDBObject(ID + ".epic", -1))),
+                features, DBObject.class).getMappedResults();
+
+        Map<Object, BasicDBList> epicsBySprint = new LinkedHashMap<>();
+        for (DBObject sprint : sprints) {
+            epicsBySprint.put(sprint.get(ID), new BasicDBList());
+        }
+        for (DBObject epic : epics) {
+            DBObject key = (DBObject) epic.get(ID);
+            BasicDBList sprintEpics = epicsBySprint.get(key.get("sprint"));
+            if (sprintEpics != null) {
+                sprintEpics.add(new BasicDBObject("epicId", key.get("epic"))
+                        .append("epicNumber", epic.get("epicNumber"))
+                        .append("epicName", epic.get("epicName"))
+                        .append("estimate", toInt(epic.get("estimate"))));
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (DBObject sprint : sprints) {
+            Object sprintId = sprint.get(ID);
+            Update update = new Update()
+                    .set("sprintName", sprint.get("sprintName"))
+                    .set("sprintBeginDate", sprint.get("sprintBeginDate"))
+                    .set("sprintEndDate", sprint.get("sprintEndDate"))
+                    .set("totalEstimate", toInt(sprint.get("totalEstimate")))
+                    .set("inProgressEstimate", toInt(sprint.get("inProgressEstimate")))
+                    .set("doneEstimate", toInt(sprint.get("doneEstimate")))
+                    .set("epics", epicsBySprint.get(sprintId))
+                    .set("lastUpdated", now);
+            mongoOperations.upsert(new Query(where("teamId").is(teamId).and("sprintId").is(sprintId)),
+                    update, SprintEstimate.class);
+        }
+
+        mongoOperations.remove(new Query(where("teamId").is(teamId).and("sprintId").nin(epicsBySprint.keySet())),
+                SprintEstimate.class);
+
+        // Feature data is versioned per feature collector, and these writes raise no save events
+        for (Object collectorId : mongoOperations.getCollection(features).distinct("collectorId",
+                new BasicDBObject("sTeamID", teamId))) {
+            if (collectorId instanceof ObjectId) {
+                DataVersionRepositoryImpl.increment(mongoOperations, (ObjectId) collectorId);
+            }
+        }
+    }
+
+    private static DBObject sumWhere(FeatureStatus status) {
+        BasicDBList matches = new BasicDBList();
+        matches.add("$status");
+        matches.add(status.name());
+
+        BasicDBList cond = new BasicDBList();
+        cond.add(new BasicDBObject("$eq", matches));
+        cond.add(ESTIMATE);
+        cond.add(0);
+        return new BasicDBObject("$sum", new BasicDBObject("$cond", cond));
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+}
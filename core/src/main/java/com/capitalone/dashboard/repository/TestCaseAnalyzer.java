@@ -0,0 +1,151 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestCaseStats;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestSuite;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the test cases of newly collected {@link TestResult}s to their {@link TestCaseStats}.
+ * Test collectors call it for every result they save, and the {@link BulkInserter} hands it
+ * the results of every batch it inserts.
+ * <p>
+ * Both can update the same test cases at once. A case whose statistics another writer
+ * updated or created since they were read is read again and its runs added again.
+ */
+@Component
+public class TestCaseAnalyzer implements BulkInsertListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestCaseAnalyzer.class);
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final TestCaseStatsRepository testCaseStatsRepository;
+
+    @Autowired
+    public TestCaseAnalyzer(TestCaseStatsRepository testCaseStatsRepository) {
+        this.testCaseStatsRepository = testCaseStatsRepository;
+    }
+
+    /**
+     * Updates the statistics of every test case of a result, reading the current statistics
+     * of all its cases in one query. A case that appears more than once in the result counts
+     * every run.
+     *
+     * @param testResult a new test result, with its test cases
+     * @return number of test cases updated
+     */
+    public int analyze(TestResult testResult) {
+        return analyze(Collections.singletonList(testResult));
+    }
+
+    /**
+     * Updates the statistics of every test case of a batch of results, in the order given,
+     * reading the current statistics with one query per collector item.
+     *
+     * @param testResults new test results, with their test cases
+     * @return number of test cases updated
+     */
+    public int analyze(Collection<TestResult> testResults) {
+        Map<ObjectId, Map<String, List<Run>>> runsByItem = new HashMap<>();
+        for (TestResult testResult : testResults) {
+            long timestamp = testResult.getEndTime() > 0 ? testResult.getEndTime() : testResult.getTimestamp();
+            for (TestSuite suite : testResult.getTestSuites()) {
+                for (TestCase testCase : suite.getTestCases()) {
+                    Map<String, List<Run>> runsByKey = runsByItem.get(testResult.getCollectorItemId());
+                    if (runsByKey == null) {
+                        runsByKey = new LinkedHashMap<>();
+                        runsByItem.put(testResult.getCollectorItemId(), runsByKey);
+                    }
+                    String key = TestCaseStats.key(suite.getDescription(), testCase);
+                    List<Run> runs = runsByKey.get(key);
+                    if (runs == null) {
+                        runs = new ArrayList<>();
+                        runsByKey.put(key, runs);
+                    }
+                    runs.add(new Run(suite.getDescription(), testCase, timestamp));
+                }
+            }
+        }
+
+        int updated = 0;
+        for (Map.Entry<ObjectId, Map<String, List<Run>>> item : runsByItem.entrySet()) {
+            Map<String, TestCaseStats> statsByKey = new HashMap<>();
+            for (TestCaseStats stats : testCaseStatsRepository.findByCollectorItemIdAndKeyIn(item.getKey(),
+                    item.getValue().keySet())) {
+                statsByKey.put(stats.getKey(), stats);
+            }
+            for (Map.Entry<String, List<Run>> runs : item.getValue().entrySet()) {
+                if (update(item.getKey(), runs.getKey(), runs.getValue(), statsByKey.get(runs.getKey()))) {
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+
+    private boolean update(ObjectId collectorItemId, String key, List<Run> runs, TestCaseStats stored) {
+        TestCaseStats stats = stored;
+        for (int attempt = 1; ; attempt++) {
+            if (stats == null) {
+                Run first = runs.get(0);
+                stats = new TestCaseStats(collectorItemId, first.suiteDescription, first.testCase);
+            }
+            for (Run run : runs) {
+                stats.record(run.testCase.getStatus(), run.testCase.getDuration(), run.timestamp);
+            }
+            try {
+                testCaseStatsRepository.save(stats);
+                return true;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    LOGGER.warn("Gave up updating test case {} of {} after {} concurrent updates", key,
+                            collectorItemId, attempt);
+                    return false;
+                }
+                List<TestCaseStats> current = testCaseStatsRepository.findByCollectorItemIdAndKeyIn(collectorItemId,
+                        Collections.singleton(key));
+                stats = current.isEmpty() ? null : current.get(0);
+            }
+        }
+    }
+
+    @Override
+    public void afterInsert(List<?> records) {
+        List<TestResult> testResults = new ArrayList<>();
+        for (Object record : records) {
+            if (record instanceof TestResult) {
+                testResults.add((TestResult) record);
+            }
+        }
+        if (!testResults.isEmpty()) {
+            analyze(testResults);
+        }
+    }
+
+    private static final class Run {
+        private final String suiteDescription;
+        private final TestCase testCase;
+        private final long timestamp;
+
+        private Run(String suiteDescription, TestCase testCase, long timestamp) {
+            this.suiteDescription = suiteDescription;
+            this.testCase = testCase;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCaseRecord;
+import org.bson.types.ObjectId;
+import org.springframework.data.querydsl.QueryDslPredicateExecutor;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+
+/**
+ * Repository for {@link TestCaseRecord} data.
+ */
+public interface TestCaseRecordRepository extends CrudRepository<TestCaseRecord, ObjectId>, QueryDslPredicateExecutor<TestCaseRecord>,
+        TestCaseRecordRepositoryCustom {
+
+    /**
+     * Removes the test cases of a {@link com.capitalone.dashboard.model.TestResult} other than
+     * the given ones.
+     *
+     * @param testResultId test result ID
+     * @param ids IDs of the test cases to keep
+     * @return number of test cases removed
+     */
+    Long deleteByTestResultIdAndIdNotIn(ObjectId testResultId, Collection<ObjectId> ids);
+}
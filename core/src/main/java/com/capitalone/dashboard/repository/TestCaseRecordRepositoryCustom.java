@@ -0,0 +1,18 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCaseRecord;
+
+import java.util.Collection;
+
+/**
+ * Batch writes of {@link TestCaseRecord}s.
+ */
+public interface TestCaseRecordRepositoryCustom {
+
+    /**
+     * Inserts new test case records in a single write.
+     *
+     * @param records records without ids
+     */
+    void insert(Collection<TestCaseRecord> records);
+}
@@ -0,0 +1,26 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCaseRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.Collection;
+
+/**
+ * Implementation of {@link TestCaseRecordRepositoryCustom}, picked up by Spring Data through
+ * its name and mixed into {@link TestCaseRecordRepository}.
+ */
+public class TestCaseRecordRepositoryImpl implements TestCaseRecordRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Autowired
+    public TestCaseRecordRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void insert(Collection<TestCaseRecord> records) {
+        mongoOperations.insert(records, TestCaseRecord.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCaseStats;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for {@link TestCaseStats} data.
+ */
+public interface TestCaseStatsRepository extends CrudRepository<TestCaseStats, ObjectId> {
+
+    /**
+     * Finds the statistics of the given test cases of a collector item.
+     *
+     * @param collectorItemId collector item id
+     * @param keys test case keys
+     * @return list of {@link TestCaseStats}
+     */
+    List<TestCaseStats> findByCollectorItemIdAndKeyIn(ObjectId collectorItemId, Collection<String> keys);
+
+    /**
+     * Finds the test cases of a collector item with more than the given flakiness.
+     *
+     * @param collectorItemId collector item id
+     * @param flakiness flakiness to exceed
+     * @param pageable page and sort order
+     * @return list of {@link TestCaseStats}
+     */
+    List<TestCaseStats> findByCollectorItemIdAndFlakinessGreaterThan(ObjectId collectorItemId, double flakiness,
+                                                                    Pageable pageable);
+
+    /**
+     * Finds the test cases of a collector item.
+     *
+     * @param collectorItemId collector item id
+     * @param pageable page and sort order
+     * @return list of {@link TestCaseStats}
+     */
+    List<TestCaseStats> findByCollectorItemId(ObjectId collectorItemId, Pageable pageable);
+}
@@ -0,0 +1,61 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestSuite;
+import com.mongodb.DBObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the {@link TestCase}s of a {@link TestResult} from its stored form. Test results
+ * keep their suites and counts; the cases are stored as {@link TestCaseRecord}s.
+ */
+public final class TestCaseStorage {
+
+    public static final String TEST_SUITES = "testSuites";
+    public static final String TEST_CASES = "testCases";
+
+    private TestCaseStorage() {
+    }
+
+    /**
+     * Removes the test cases from the suites of a test result document.
+     *
+     * @param dbObject test result document, modified in place
+     * @return true if the document had test cases
+     */
+    public static boolean strip(DBObject dbObject) {
+        Object suites = dbObject.get(TEST_SUITES);
+        if (!(suites instanceof List)) {
+            return false;
+        }
+        boolean stripped = false;
+        for (Object suite : (List<?>) suites) {
+            if (suite instanceof DBObject && ((DBObject) suite).containsField(TEST_CASES)) {
+                ((DBObject) suite).removeField(TEST_CASES);
+                stripped = true;
+            }
+        }
+        return stripped;
+    }
+
+    /**
+     * @param testResult a saved test result
+     * @return a record for every test case of the result, in suite and case order
+     */
+    public static List<TestCaseRecord> records(TestResult testResult) {
+        List<TestCaseRecord> records = new ArrayList<>();
+        int suiteIndex = 0;
+        for (TestSuite suite : testResult.getTestSuites()) {
+            int caseIndex = 0;
+            for (TestCase testCase : suite.getTestCases()) {
+                records.add(new TestCaseRecord(testResult, suiteIndex, caseIndex++, testCase));
+            }
+            suiteIndex++;
+        }
+        return records;
+    }
+}
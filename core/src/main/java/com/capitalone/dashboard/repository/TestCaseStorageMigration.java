@@ -0,0 +1,77 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestResult;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Moves the test cases of {@link TestResult}s stored before test cases were split out into
+ * {@link TestCaseRecord}s. The test collectors run it before their first collection.
+ *
+ * @see TestCaseStorage
+ */
+@Component
+public class TestCaseStorageMigration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestCaseStorageMigration.class);
+
+    private static final String ID = "_id";
+
+    private final MongoOperations mongoOperations;
+    private final AtomicBoolean migrated = new AtomicBoolean();
+
+    @Autowired
+    public TestCaseStorageMigration(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    /**
+     * Splits every test result that still embeds test cases. Only the first call in a process
+     * does any work. A result is rewritten only after its cases are stored, so an interrupted
+     * migration resumes with the result that was in progress.
+     *
+     * @return number of test results rewritten
+     */
+    public int migrate() {
+        if (!migrated.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        DBCollection collection = mongoOperations.getCollection(mongoOperations.getCollectionName(TestResult.class));
+        DBObject legacy = new BasicDBObject(TestCaseStorage.TEST_SUITES + "." + TestCaseStorage.TEST_CASES,
+                new BasicDBObject("$exists", true));
+
+        int rewritten = 0;
+        try (DBCursor cursor = collection.find(legacy).snapshot()) {
+            for (DBObject dbObject : cursor) {
+                TestResult testResult = mongoOperations.getConverter().read(TestResult.class, dbObject);
+                List<TestCaseRecord> records = TestCaseStorage.records(testResult);
+
+                mongoOperations.remove(query(where("testResultId").is(testResult.getId())), TestCaseRecord.class);
+                if (!records.isEmpty()) {
+                    mongoOperations.insert(records, TestCaseRecord.class);
+                }
+
+                TestCaseStorage.strip(dbObject);
+                rewritten += collection.update(new BasicDBObject(ID, dbObject.get(ID)),
+                        new BasicDBObject("$set", new BasicDBObject(TestCaseStorage.TEST_SUITES,
+                                dbObject.get(TestCaseStorage.TEST_SUITES)))).getN();
+            }
+        }
+        LOGGER.info("Split the test cases out of {} stored test results", rewritten);
+        return rewritten;
+    }
+}
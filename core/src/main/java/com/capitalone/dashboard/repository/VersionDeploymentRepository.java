@@ -0,0 +1,24 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.VersionDeployment;
+import org.bson.types.ObjectId;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for {@link VersionDeployment} data.
+ */
+public interface VersionDeploymentRepository extends CrudRepository<VersionDeployment, ObjectId> {
+
+    /**
+     * Finds the first deployments of the given versions.
+     *
+     * @param deployCollectorItemIds deployment collector item ids
+     * @param versions component versions
+     * @return list of {@link VersionDeployment}s
+     */
+    List<VersionDeployment> findByDeployCollectorItemIdInAndVersionIn(Collection<ObjectId> deployCollectorItemIds,
+                                                                      Collection<String> versions);
+}
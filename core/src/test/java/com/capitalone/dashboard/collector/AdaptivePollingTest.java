@@ -0,0 +1,83 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemHealth;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AdaptivePollingTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final CollectorItemHealthRepository repository = mock(CollectorItemHealthRepository.class);
+    private final AdaptivePolling polling = new AdaptivePolling(repository, 5, 60);
+
+    @Test
+    public void interval_doublesWhileIdle() {
+        assertThat(polling.interval(health(0, 0, 0)), is(0L));
+        assertThat(polling.interval(health(1, 0, 0)), is(5 * MINUTE));
+        assertThat(polling.interval(health(2, 0, 0)), is(10 * MINUTE));
+        assertThat(polling.interval(health(4, 0, 0)), is(40 * MINUTE));
+        assertThat(polling.interval(health(5, 0, 0)), is(60 * MINUTE));
+        assertThat(polling.interval(health(40, 0, 0)), is(60 * MINUTE));
+    }
+
+    @Test
+    public void interval_failingOrNeverFetched_dueNow() {
+        assertThat(polling.interval(null), is(0L));
+        assertThat(polling.interval(health(4, 0, 2)), is(0L));
+    }
+
+    @Test
+    public void interval_busyItem_backsOffLess() {
+        // 96 changes a day, one every 15 minutes
+        assertThat(polling.interval(health(5, 96, 0)), is(30 * MINUTE));
+    }
+
+    @Test
+    public void dueItems_skipsItemsStillBackingOff() {
+        long now = System.currentTimeMillis();
+        CollectorItem fresh = item();
+        CollectorItem idle = item();
+        CollectorItem waited = item();
+        CollectorItemHealth idleHealth = health(3, 0, 0);
+        idleHealth.setCollectorItemId(idle.getId());
+        idleHealth.setLastSuccess(now - 5 * MINUTE);
+        CollectorItemHealth waitedHealth = health(3, 0, 0);
+        waitedHealth.setCollectorItemId(waited.getId());
+        waitedHealth.setLastSuccess(now - 19 * MINUTE);
+        when(repository.findByCollectorItemIdIn(anyCollectionOf(ObjectId.class)))
+                .thenReturn(Arrays.asList(idleHealth, waitedHealth));
+
+        List<CollectorItem> due = polling.dueItems(Arrays.asList(fresh, idle, waited), now);
+
+        assertThat(due, contains(fresh, waited));
+    }
+
+    private CollectorItemHealth health(int idleFetches, double changeRate, int failures) {
+        CollectorItemHealth health = new CollectorItemHealth();
+        health.setLastSuccess(System.currentTimeMillis());
+        health.setIdleFetches(idleFetches);
+        health.setChangeRate(changeRate);
+        health.setConsecutiveFailures(failures);
+        return health;
+    }
+
+    private CollectorItem item() {
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        return item;
+    }
+}
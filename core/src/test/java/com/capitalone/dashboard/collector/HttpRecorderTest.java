@@ -0,0 +1,132 @@
+package com.capitalone.dashboard.collector;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class HttpRecorderTest {
+
+    private static final String JOBS = "http://jenkins/api/json?tree=jobs";
+    private static final String JOB = "http://jenkins/job/one/api/json";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ClientHttpRequestFactory requestFactory = mock(ClientHttpRequestFactory.class);
+
+    @Test
+    public void off_returnsFactoryItself() {
+        HttpRecorder recorder = new HttpRecorder(HttpRecorder.Mode.OFF, new File("unused"), 1);
+
+        assertThat(recorder.wrap(requestFactory), sameInstance(requestFactory));
+    }
+
+    @Test
+    public void replay_servesRecordedResponsesInOrder() throws Exception {
+        File archive = folder.newFile("http.gz");
+        when(requestFactory.createRequest(any(URI.class), any(HttpMethod.class)))
+                .thenReturn(request("jobs-1", HttpStatus.OK), request("job", HttpStatus.OK),
+                        request("jobs-2", HttpStatus.OK));
+        HttpRecorder recorder = new HttpRecorder(HttpRecorder.Mode.RECORD, archive, 1);
+        RestTemplate rest = new RestTemplate(recorder.wrap(requestFactory));
+        assertThat(rest.getForObject(JOBS, String.class), is("jobs-1"));
+        assertThat(rest.getForObject(JOB, String.class), is("job"));
+        assertThat(rest.getForObject(JOBS, String.class), is("jobs-2"));
+        recorder.close();
+        verify(requestFactory, times(3)).createRequest(any(URI.class), any(HttpMethod.class));
+
+        ClientHttpRequestFactory offline = mock(ClientHttpRequestFactory.class);
+        HttpRecorder replayer = new HttpRecorder(HttpRecorder.Mode.REPLAY, archive, 0);
+        rest = new RestTemplate(replayer.wrap(offline));
+
+        assertThat(rest.getForObject(JOBS, String.class), is("jobs-1"));
+        assertThat(rest.getForObject(JOBS, String.class), is("jobs-2"));
+        assertThat(rest.getForObject(JOBS, String.class), is("jobs-2"));
+        assertThat(rest.getForObject(JOB, String.class), is("job"));
+        verifyZeroInteractions(offline);
+    }
+
+    @Test(expected = ResourceAccessException.class)
+    public void replay_notRecorded_fails() throws Exception {
+        File archive = folder.newFile("http.gz");
+        new HttpRecorder(HttpRecorder.Mode.RECORD, archive, 1).close();
+        HttpRecorder replayer = new HttpRecorder(HttpRecorder.Mode.REPLAY, archive, 0);
+
+        new RestTemplate(replayer.wrap(requestFactory)).getForObject(JOB, String.class);
+    }
+
+    @Test
+    public void replay_timesInUrlDiffer_servesRecordedResponse() throws Exception {
+        File archive = folder.newFile("http.gz");
+        HttpRecorder recorder = new HttpRecorder(HttpRecorder.Mode.RECORD, archive, 1);
+        recorder.record(new HttpRecorder.Exchange("GET", "https://api.github.com/repos/a/b/commits?sha=master&since=2016-03-01T10:15Z",
+                200, "OK", new HashMap<String, List<String>>(), "commits".getBytes(StandardCharsets.UTF_8), 0));
+        recorder.record(new HttpRecorder.Exchange("GET", "https://jira/rest/api/2/search?jql=updatedDate%3E%3D%272016-03-01%2010:15%27",
+                200, "OK", new HashMap<String, List<String>>(), "issues".getBytes(StandardCharsets.UTF_8), 0));
+        recorder.close();
+        HttpRecorder replayer = new HttpRecorder(HttpRecorder.Mode.REPLAY, archive, 0);
+
+        assertThat(new String(replayer.replay("GET", "https://api.github.com/repos/a/b/commits?sha=master&since=2016-04-02T08:00Z").getBody(),
+                StandardCharsets.UTF_8), is("commits"));
+        assertThat(new String(replayer.replay("GET", "https://jira/rest/api/2/search?jql=updatedDate%3E%3D%272016-04-02%2008:00%27").getBody(),
+                StandardCharsets.UTF_8), is("issues"));
+    }
+
+    @Test
+    public void key_masksConfiguredParts() {
+        HttpRecorder recorder = new HttpRecorder(HttpRecorder.Mode.REPLAY, new File("unused"), 0,
+                Pattern.compile("(?<=[?&]ts=)[^&]*"));
+
+        assertThat(recorder.key("GET", "http://jenkins/api/json?ts=123&tree=jobs"),
+                is(recorder.key("GET", "http://jenkins/api/json?ts=456&tree=jobs")));
+        assertThat(recorder.key("GET", "http://jenkins/api/json?ts=123&tree=jobs"),
+                is(not(recorder.key("GET", "http://jenkins/api/json?ts=123&tree=builds"))));
+    }
+
+    @Test
+    public void replay_waitsScaledLatency() throws Exception {
+        File archive = folder.newFile("http.gz");
+        HttpRecorder recorder = new HttpRecorder(HttpRecorder.Mode.RECORD, archive, 1);
+        recorder.record(new HttpRecorder.Exchange("GET", JOB, 200, "OK",
+                new HashMap<String, List<String>>(), new byte[0], 200));
+        recorder.close();
+        HttpRecorder replayer = new HttpRecorder(HttpRecorder.Mode.REPLAY, archive, 0.5);
+
+        long start = System.currentTimeMillis();
+        replayer.replay("GET", JOB);
+
+        assertThat(System.currentTimeMillis() - start >= 100, is(true));
+    }
+
+    private MockClientHttpRequest request(String body, HttpStatus status) throws IOException {
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        request.setResponse(new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), status));
+        return request;
+    }
+}
@@ -0,0 +1,169 @@
+package com.capitalone.dashboard.collector;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineTest {
+
+    @Test
+    public void finish_itemsPassThroughEveryStage() {
+        final Set<String> persisted = new ConcurrentSkipListSet<>();
+        Pipeline<Integer> pipeline = Pipeline.<Integer>builder("test", 10)
+                .then("fetch", 4, new Pipeline.Stage<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer input) {
+                        return input % 3 == 0 ? null : input * 10;
+                    }
+                })
+                .then("transform", 2, new Pipeline.Stage<Integer, String>() {
+                    @Override
+                    public String apply(Integer input) {
+                        return "item" + input;
+                    }
+                })
+                .into("persist", 1, new Pipeline.Sink<String>() {
+                    @Override
+                    public void accept(String input) {
+                        persisted.add(input);
+                    }
+                });
+        for (int i = 1; i <= 9; i++) {
+            pipeline.submit(i);
+        }
+
+        List<Pipeline.StageStats> stats = pipeline.finish();
+
+        assertThat(persisted, contains("item10", "item20", "item40", "item50", "item70", "item80"));
+        assertThat(stats, hasSize(3));
+        assertThat(stats.get(0).getName(), is("fetch"));
+        assertThat(stats.get(0).getThreads(), is(4));
+        assertThat(stats.get(0).getProcessed(), is(9L));
+        assertThat(stats.get(0).getDropped(), is(3L));
+        assertThat(stats.get(1).getProcessed(), is(6L));
+        assertThat(stats.get(2).getProcessed(), is(6L));
+        assertThat(stats.get(2).getDropped(), is(0L));
+        assertThat(stats.get(2).getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void finish_failedItemCountedAndOthersContinue() {
+        final AtomicInteger persisted = new AtomicInteger();
+        Pipeline<Integer> pipeline = Pipeline.<Integer>builder("test", 10)
+                .then("fetch", 1, new Pipeline.Stage<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer input) {
+                        if (input == 2) {
+                            throw new IllegalStateException("unreachable");
+                        }
+                        return input;
+                    }
+                })
+                .into("persist", 1, new Pipeline.Sink<Integer>() {
+                    @Override
+                    public void accept(Integer input) {
+                        persisted.incrementAndGet();
+                    }
+                });
+        for (int i = 1; i <= 3; i++) {
+            pipeline.submit(i);
+        }
+
+        List<Pipeline.StageStats> stats = pipeline.finish();
+
+        assertThat(persisted.get(), is(2));
+        assertThat(stats.get(0).getFailed(), is(1L));
+        assertThat(stats.get(0).getProcessed(), is(2L));
+    }
+
+    @Test
+    public void submit_slowStage_blocksUpstream() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Pipeline<Integer> pipeline = Pipeline.<Integer>builder("test", 2)
+                .then("fetch", 1, new Pipeline.Stage<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer input) {
+                        return input;
+                    }
+                })
+                .into("persist", 1, new Pipeline.Sink<Integer>() {
+                    @Override
+                    public void accept(Integer input) throws InterruptedException {
+                        release.await();
+                    }
+                });
+
+        final CountDownLatch submitted = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 20; i++) {
+                    pipeline.submit(i);
+                }
+                submitted.countDown();
+            }
+        });
+        producer.start();
+
+        // One item in each stage's thread plus two queued before each stage
+        assertThat(submitted.await(500, TimeUnit.MILLISECONDS), is(false));
+        List<Pipeline.StageStats> stalled = pipeline.getStats();
+        assertThat(stalled.get(0).getQueueDepth(), is(2));
+        assertThat(stalled.get(1).getQueueDepth(), is(2));
+
+        release.countDown();
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        List<Pipeline.StageStats> stats = pipeline.finish();
+
+        assertThat(stats.get(1).getProcessed(), is(20L));
+        assertThat(stats.get(0).getMaxQueueDepth(), lessThanOrEqualTo(2));
+        assertThat(stats.get(1).getMaxQueueDepth(), lessThanOrEqualTo(2));
+    }
+
+    @Test
+    public void finish_reportsStatsToMonitorLast() {
+        final List<Boolean> reports = new CopyOnWriteArrayList<>();
+        final List<List<Pipeline.StageStats>> finished = new CopyOnWriteArrayList<>();
+        Pipeline<Integer> pipeline = Pipeline.<Integer>builder("test", 10)
+                .monitor(new Pipeline.Monitor() {
+                    @Override
+                    public void report(String name, List<Pipeline.StageStats> stats, boolean last) {
+                        reports.add(last);
+                        if (last) {
+                            finished.add(stats);
+                        }
+                    }
+                }, 5)
+                .then("fetch", 1, new Pipeline.Stage<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer input) {
+                        return input;
+                    }
+                })
+                .into("persist", 1, new Pipeline.Sink<Integer>() {
+                    @Override
+                    public void accept(Integer input) {
+                    }
+                });
+        for (int i = 1; i <= 3; i++) {
+            pipeline.submit(i);
+        }
+
+        pipeline.finish();
+
+        assertThat(reports.get(reports.size() - 1), is(true));
+        assertThat(reports.indexOf(true), is(reports.size() - 1));
+        assertThat(finished.get(0), hasSize(2));
+        assertThat(finished.get(0).get(1).getProcessed(), is(3L));
+    }
+}
@@ -0,0 +1,70 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.Application;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Component;
+import com.capitalone.dashboard.model.Dashboard;
+import com.capitalone.dashboard.model.DashboardAccess;
+import com.capitalone.dashboard.repository.DashboardAccessRepository;
+import com.capitalone.dashboard.repository.DashboardRepository;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class PollingTiersTest {
+
+    private final DashboardAccessRepository dashboardAccessRepository = mock(DashboardAccessRepository.class);
+    private final DashboardRepository dashboardRepository = mock(DashboardRepository.class);
+    private final PollingTiers tiers = new PollingTiers(dashboardAccessRepository, dashboardRepository, 4, 24);
+
+    @Test
+    public void schedule_noViewsRecorded_everythingDue() {
+        when(dashboardAccessRepository.count()).thenReturn(0L);
+
+        PollingTiers.Schedule schedule = tiers.schedule(1);
+
+        assertThat(schedule.getHotItemCount(), is(-1));
+        assertThat(schedule.isDue(ObjectId.get()), is(true));
+        verify(dashboardRepository, never()).findAll(anyListOf(ObjectId.class));
+    }
+
+    @Test
+    public void schedule_hotItemsEveryRun_coldItemsEveryFourthRun() {
+        ObjectId dashboardId = ObjectId.get();
+        CollectorItem hot = item();
+        DashboardAccess access = new DashboardAccess();
+        access.setDashboardId(dashboardId);
+        Component component = new Component("component");
+        component.addCollectorItem(CollectorType.Build, hot);
+
+        when(dashboardAccessRepository.count()).thenReturn(1L);
+        when(dashboardAccessRepository.findByLastAccessedGreaterThan(anyLong())).thenReturn(Arrays.asList(access));
+        when(dashboardRepository.findAll(Arrays.asList(dashboardId))).thenReturn(Arrays.asList(
+                new Dashboard("template", "title", new Application("app", component), "owner")));
+
+        ObjectId cold = ObjectId.get();
+        int coldRuns = 0;
+        for (int run = 0; run < 8; run++) {
+            PollingTiers.Schedule schedule = tiers.schedule(run);
+            assertThat(schedule.getHotItemCount(), is(1));
+            assertThat(schedule.isDue(hot.getId()), is(true));
+            if (schedule.isDue(cold)) {
+                coldRuns++;
+            }
+        }
+        assertThat(coldRuns, is(2));
+    }
+
+    private CollectorItem item() {
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        return item;
+    }
+}
@@ -0,0 +1,58 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.repository.ChangeNotificationRepository;
+import com.capitalone.dashboard.repository.DataVersionRepository;
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class ChangeNotificationListenerTest {
+
+    private final ChangeNotificationRepository changeNotificationRepository = mock(ChangeNotificationRepository.class);
+    private final DataVersionRepository dataVersionRepository = mock(DataVersionRepository.class);
+    private final ChangeNotificationListener listener = new ChangeNotificationListener(changeNotificationRepository,
+            dataVersionRepository, mock(MongoOperations.class));
+
+    @Test
+    public void onAfterSave_notifiesAndBumpsVersion() {
+        ObjectId itemId = ObjectId.get();
+
+        listener.onAfterSave(new AfterSaveEvent<Object>(build(itemId), new BasicDBObject(), "builds"));
+
+        ArgumentCaptor<ChangeNotification> notification = ArgumentCaptor.forClass(ChangeNotification.class);
+        verify(changeNotificationRepository).save(notification.capture());
+        assertThat(notification.getValue().getCollectorType(), is(CollectorType.Build));
+        assertThat(notification.getValue().getCollectorItemId(), is(itemId));
+        verify(dataVersionRepository).increment(itemId);
+    }
+
+    @Test
+    public void afterInsert_oneNotificationPerCollectorItem() {
+        ObjectId itemId = ObjectId.get();
+
+        listener.afterInsert(Arrays.asList(build(itemId), build(itemId), build(itemId), new Collector()));
+
+        verify(changeNotificationRepository, times(1)).save(any(ChangeNotification.class));
+        verify(dataVersionRepository, times(1)).increment(itemId);
+    }
+
+    private Build build(ObjectId collectorItemId) {
+        Build build = new Build();
+        build.setCollectorItemId(collectorItemId);
+        return build;
+    }
+}
@@ -0,0 +1,94 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.Collector;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.repository.DailyStatsBackfill;
+import com.capitalone.dashboard.repository.DailyStatsRepository;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+
+import java.util.Arrays;
+
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DailyStatsListenerTest {
+
+    @Mock private DailyStatsRepository dailyStatsRepository;
+    @Mock private DailyStatsBackfill dailyStatsBackfill;
+    @InjectMocks private DailyStatsListener listener;
+
+    @Test
+    public void insertedBuild_added() {
+        Build build = new Build();
+        DBObject dbObject = new BasicDBObject("_id", null);
+
+        listener.onBeforeSave(new BeforeSaveEvent<Object>(build, dbObject));
+        dbObject.put("_id", ObjectId.get());
+        listener.onAfterSave(new AfterSaveEvent<Object>(build, dbObject));
+
+        verify(dailyStatsBackfill).awaitRebuild(CollectorType.Build);
+        verify(dailyStatsRepository).addBuild(build);
+    }
+
+    @Test
+    public void failedInsert_replacedByNextInsert() {
+        Build failed = new Build();
+        DBObject failedObject = new BasicDBObject("_id", null);
+        Build build = new Build();
+        DBObject dbObject = new BasicDBObject("_id", null);
+
+        listener.onBeforeSave(new BeforeSaveEvent<Object>(failed, failedObject));
+        listener.onBeforeSave(new BeforeSaveEvent<Object>(build, dbObject));
+        listener.onAfterSave(new AfterSaveEvent<Object>(failed, failedObject));
+        listener.onAfterSave(new AfterSaveEvent<Object>(build, dbObject));
+
+        verify(dailyStatsRepository).addBuild(build);
+        verifyNoMoreInteractions(dailyStatsRepository);
+    }
+
+    @Test
+    public void updatedBuild_notAddedAgain() {
+        Build build = new Build();
+        DBObject dbObject = new BasicDBObject("_id", ObjectId.get());
+
+        listener.onBeforeSave(new BeforeSaveEvent<Object>(build, dbObject));
+        listener.onAfterSave(new AfterSaveEvent<Object>(build, dbObject));
+
+        verifyZeroInteractions(dailyStatsRepository);
+    }
+
+    @Test
+    public void bulkInsertedBatch_addedTogether() {
+        Build first = new Build();
+        Build second = new Build();
+        Commit commit = new Commit();
+
+        listener.afterInsert(Arrays.asList(first, second, commit, new Collector()));
+
+        verify(dailyStatsRepository).addBuilds(Arrays.asList(first, second));
+        verify(dailyStatsRepository).addCommits(Arrays.asList(commit));
+        verifyNoMoreInteractions(dailyStatsRepository);
+    }
+
+    @Test
+    public void otherDocuments_ignored() {
+        Collector collector = new Collector();
+        DBObject dbObject = new BasicDBObject();
+
+        listener.onBeforeSave(new BeforeSaveEvent<Object>(collector, dbObject));
+        listener.onAfterSave(new AfterSaveEvent<Object>(collector, dbObject));
+
+        verifyZeroInteractions(dailyStatsRepository, dailyStatsBackfill);
+    }
+}
@@ -0,0 +1,105 @@
+package com.capitalone.dashboard.event;
+
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestSuite;
+import com.capitalone.dashboard.repository.TestCaseRecordRepository;
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestCaseStorageListenerTest {
+
+    @Mock private TestCaseRecordRepository testCaseRecordRepository;
+    @Captor private ArgumentCaptor<Collection<TestCaseRecord>> records;
+    @Captor private ArgumentCaptor<Collection<ObjectId>> kept;
+    @InjectMocks private TestCaseStorageListener listener;
+
+    @Test
+    public void onAfterSave_insertsCasesThenRemovesOldOnes() {
+        // Ids are set by the insert, as Mongo does
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                for (Object record : (Collection<?>) invocation.getArguments()[0]) {
+                    ((TestCaseRecord) record).setId(ObjectId.get());
+                }
+                return null;
+            }
+        }).when(testCaseRecordRepository).insert(anyCollectionOf(TestCaseRecord.class));
+        TestResult testResult = new TestResult();
+        testResult.setId(ObjectId.get());
+        TestSuite suite = new TestSuite();
+        suite.setDescription("suite");
+        suite.getTestCases().add(makeCase("a"));
+        suite.getTestCases().add(makeCase("b"));
+        testResult.getTestSuites().add(suite);
+
+        listener.onAfterSave(new AfterSaveEvent<>(testResult, new BasicDBObject(), "test_results"));
+
+        InOrder inOrder = inOrder(testCaseRecordRepository);
+        inOrder.verify(testCaseRecordRepository).insert(records.capture());
+        inOrder.verify(testCaseRecordRepository).deleteByTestResultIdAndIdNotIn(eq(testResult.getId()), kept.capture());
+        assertThat(records.getValue(), hasSize(2));
+        List<ObjectId> ids = new ArrayList<>();
+        for (TestCaseRecord record : records.getValue()) {
+            ids.add(record.getId());
+        }
+        assertThat(ids, everyItem(notNullValue(ObjectId.class)));
+        assertThat(kept.getValue(), is((Collection<ObjectId>) ids));
+        verify(testCaseRecordRepository, never()).save(anyCollectionOf(TestCaseRecord.class));
+    }
+
+    @Test
+    public void afterInsert_insertsCasesOfBatchTogether() {
+        listener.afterInsert(Arrays.asList(makeResult("a", "b"), makeResult("c")));
+
+        verify(testCaseRecordRepository).insert(records.capture());
+        assertThat(records.getValue(), hasSize(3));
+        verify(testCaseRecordRepository, never()).deleteByTestResultIdAndIdNotIn(any(ObjectId.class),
+                anyCollectionOf(ObjectId.class));
+    }
+
+    private TestResult makeResult(String... caseIds) {
+        TestResult testResult = new TestResult();
+        testResult.setId(ObjectId.get());
+        TestSuite suite = new TestSuite();
+        suite.setDescription("suite");
+        for (String caseId : caseIds) {
+            suite.getTestCases().add(makeCase(caseId));
+        }
+        testResult.getTestSuites().add(suite);
+        return testResult;
+    }
+
+    private TestCase makeCase(String id) {
+        TestCase testCase = new TestCase();
+        testCase.setId(id);
+        testCase.setDescription(id);
+        return testCase;
+    }
+}
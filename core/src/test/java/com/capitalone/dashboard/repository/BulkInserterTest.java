@@ -0,0 +1,171 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.BuildStatus;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class BulkInserterTest {
+
+    private static final ObjectId COLLECTOR_ITEM_ID = ObjectId.get();
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final DBCollection collection = mock(DBCollection.class);
+    private final DBCursor cursor = mock(DBCursor.class);
+    private final BulkWriteOperation bulk = mock(BulkWriteOperation.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final BulkInsertListener listener = mock(BulkInsertListener.class);
+    private final BulkInserter bulkInserter = new BulkInserter(mongoOperations);
+
+    @Before
+    public void setup() {
+        MappingMongoConverter converter = new MappingMongoConverter(mock(DbRefResolver.class), new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoOperations.getConverter()).thenReturn(converter);
+        when(mongoOperations.getCollectionName(Build.class)).thenReturn("builds");
+        when(mongoOperations.getCollection("builds")).thenReturn(collection);
+        when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+        when(collection.initializeUnorderedBulkOperation()).thenReturn(bulk);
+        bulkInserter.setApplicationEventPublisher(eventPublisher);
+        bulkInserter.setListeners(Collections.singletonList(listener));
+    }
+
+    @Test
+    public void insertNew_skipsStoredKeysAndTellsListenersOncePerBatch() {
+        stored("1");
+        Map<String, Build> records = builds("1", "2", "3");
+
+        BulkInserter.Outcome outcome = bulkInserter.insertNew(Build.class, COLLECTOR_ITEM_ID, "number", records);
+
+        assertThat(outcome.getInserted(), is(2));
+        assertThat(outcome.getExisting(), is(1));
+        assertThat(outcome.getFailed(), is(0));
+
+        ArgumentCaptor<DBObject> query = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection).find(query.capture(), any(DBObject.class));
+        assertThat(query.getValue().get("collectorItemId"), is((Object) COLLECTOR_ITEM_ID));
+        assertThat((List<?>) ((DBObject) query.getValue().get("number")).get("$in"), contains((Object) "1", "2", "3"));
+
+        ArgumentCaptor<DBObject> inserted = ArgumentCaptor.forClass(DBObject.class);
+        verify(bulk, times(2)).insert(inserted.capture());
+        verify(bulk).execute();
+        assertThat(inserted.getAllValues().get(0).get("number"), is((Object) "2"));
+        assertThat(inserted.getAllValues().get(0).get("buildStatus"), is((Object) "Success"));
+        assertThat(inserted.getAllValues().get(0).get("_id"), is(instanceOf(ObjectId.class)));
+        assertThat(records.get("2").getId(), is(inserted.getAllValues().get(0).get("_id")));
+        assertThat(records.get("1").getId(), is(nullValue()));
+
+        ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        for (ApplicationEvent event : events.getAllValues()) {
+            assertThat(event, is(instanceOf(BeforeSaveEvent.class)));
+        }
+        assertThat(((BeforeSaveEvent<?>) events.getAllValues().get(1)).getDBObject().get("_id"), is(notNullValue()));
+
+        ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+        verify(listener).afterInsert(batch.capture());
+        assertThat((List<?>) batch.getValue(), contains((Object) records.get("2"), records.get("3")));
+    }
+
+    @Test
+    public void insertNew_reportsRefusedRecords() {
+        stored();
+        refused(new BulkWriteError(121, "document failed validation", new BasicDBObject(), 0));
+        Map<String, Build> records = builds("1", "2");
+
+        BulkInserter.Outcome outcome = bulkInserter.insertNew(Build.class, COLLECTOR_ITEM_ID, "number", records);
+
+        assertThat(outcome.getInserted(), is(1));
+        assertThat(outcome.getExisting(), is(0));
+        assertThat(outcome.getFailed(), is(1));
+        assertThat(records.get("1").getId(), is(nullValue()));
+        assertThat(records.get("2").getId(), is(notNullValue()));
+        verify(eventPublisher, times(2)).publishEvent(any(ApplicationEvent.class));
+        ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+        verify(listener).afterInsert(batch.capture());
+        assertThat((List<?>) batch.getValue(), contains((Object) records.get("2")));
+    }
+
+    @Test
+    public void insertNew_duplicateKey_countsAsExisting() {
+        // Stored by another writer between the lookup and the bulk write
+        stored();
+        refused(new BulkWriteError(11000, "duplicate key", new BasicDBObject(), 0));
+        Map<String, Build> records = builds("1", "2");
+
+        BulkInserter.Outcome outcome = bulkInserter.insertNew(Build.class, COLLECTOR_ITEM_ID, "number", records);
+
+        assertThat(outcome.getInserted(), is(1));
+        assertThat(outcome.getExisting(), is(1));
+        assertThat(outcome.getFailed(), is(0));
+        assertThat(records.get("1").getId(), is(nullValue()));
+        ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+        verify(listener).afterInsert(batch.capture());
+        assertThat((List<?>) batch.getValue(), contains((Object) records.get("2")));
+    }
+
+    @Test
+    public void insertNew_allStored_listenersNotTold() {
+        stored("1");
+
+        BulkInserter.Outcome outcome = bulkInserter.insertNew(Build.class, COLLECTOR_ITEM_ID, "number", builds("1"));
+
+        assertThat(outcome.getExisting(), is(1));
+        verify(bulk, never()).execute();
+        verifyZeroInteractions(listener);
+    }
+
+    private void refused(BulkWriteError error) {
+        BulkWriteException refused = mock(BulkWriteException.class);
+        when(refused.getWriteErrors()).thenReturn(Collections.singletonList(error));
+        when(bulk.execute()).thenThrow(refused);
+    }
+
+    private void stored(String... numbers) {
+        List<DBObject> stored = new ArrayList<>();
+        for (String number : numbers) {
+            stored.add(new BasicDBObject("number", number));
+        }
+        when(cursor.iterator()).thenReturn(stored.iterator());
+    }
+
+    private static Map<String, Build> builds(String... numbers) {
+        Map<String, Build> builds = new LinkedHashMap<>();
+        for (String number : Arrays.asList(numbers)) {
+            Build build = new Build();
+            build.setNumber(number);
+            build.setCollectorItemId(COLLECTOR_ITEM_ID);
+            build.setBuildStatus(BuildStatus.Success);
+            builds.put(number, build);
+        }
+        return builds;
+    }
+}
@@ -0,0 +1,84 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.ChangeNotification;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.client.MongoCursor;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ChangeNotificationCursorTest {
+
+    @SuppressWarnings("unchecked")
+    private final MongoCursor<DBObject> mongoCursor = mock(MongoCursor.class);
+    private MappingMongoConverter converter;
+
+    // Written in this order by collectors whose clocks disagree, so the ids are not ascending
+    private final ObjectId first = new ObjectId("5600000200000000000000a1");
+    private final ObjectId second = new ObjectId("5600000100000000000000b2");
+    private final ObjectId third = new ObjectId("5600000000000000000000c3");
+
+    @Before
+    public void setup() {
+        converter = new MappingMongoConverter(mock(DbRefResolver.class), new MongoMappingContext());
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    public void readAvailable_returnsNotificationsAfterTheMarkerInWrittenOrder() {
+        written(first, second, third);
+
+        ChangeNotificationCursor cursor = new ChangeNotificationCursor(mongoCursor, converter, first);
+
+        assertThat(ids(cursor.readAvailable()), contains(second, third));
+    }
+
+    @Test
+    public void readAvailable_fromStart_returnsEverything() {
+        written(first, second);
+
+        ChangeNotificationCursor cursor = new ChangeNotificationCursor(mongoCursor, converter, null);
+
+        assertThat(ids(cursor.readAvailable()), contains(first, second));
+        written(third);
+        assertThat(ids(cursor.readAvailable()), contains(third));
+    }
+
+    @Test
+    public void readAvailable_markerOverwritten_returnsEverythingKept() {
+        written(second, third);
+
+        ChangeNotificationCursor cursor = new ChangeNotificationCursor(mongoCursor, converter, first);
+
+        assertThat(ids(cursor.readAvailable()), contains(second, third));
+    }
+
+    private void written(ObjectId... ids) {
+        List<DBObject> documents = new ArrayList<>();
+        for (ObjectId id : ids) {
+            documents.add(new BasicDBObject("_id", id).append("collectorType", "Build"));
+        }
+        documents.add(null);
+        when(mongoCursor.tryNext()).thenReturn(documents.get(0),
+                documents.subList(1, documents.size()).toArray(new DBObject[documents.size() - 1]));
+    }
+
+    private static List<ObjectId> ids(List<ChangeNotification> notifications) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (ChangeNotification notification : notifications) {
+            ids.add(notification.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,144 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorFreshness;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorItemHealth;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CollectorItemHealthRepositoryImplTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final CollectorItemHealthRepositoryImpl repository = new CollectorItemHealthRepositoryImpl(mongoOperations);
+
+    @Test
+    public void recordSuccess_noNewData_keepsLastNewData() {
+        CollectorItem item = item();
+
+        repository.recordSuccess(item, 120, 0);
+
+        DBObject update = upsert(item).getUpdateObject();
+        DBObject set = (DBObject) update.get("$set");
+        assertThat(set.get("consecutiveFailures"), is((Object) 0));
+        assertThat(set.get("lastFetchMillis"), is((Object) 120L));
+        assertThat(set.containsField("lastSuccess"), is(true));
+        assertThat(set.containsField("lastNewData"), is(false));
+        assertThat(((DBObject) update.get("$unset")).containsField("lastError"), is(true));
+    }
+
+    @Test
+    public void recordSuccess_idleAfterPreviousSuccess_countsIdleFetch() {
+        CollectorItem item = item();
+        CollectorItemHealth previous = new CollectorItemHealth();
+        previous.setLastSuccess(System.currentTimeMillis() - 60000);
+        previous.setIdleFetches(2);
+        when(mongoOperations.findOne(any(Query.class), eq(CollectorItemHealth.class))).thenReturn(previous);
+
+        repository.recordSuccess(item, 50, 0);
+
+        assertThat(((DBObject) upsert(item).getUpdateObject().get("$set")).get("idleFetches"), is((Object) 3));
+    }
+
+    @Test
+    public void changeRate_blendsRecentRate() {
+        long now = System.currentTimeMillis();
+        CollectorItemHealth previous = new CollectorItemHealth();
+        previous.setLastSuccess(now - TimeUnit.HOURS.toMillis(12));
+        previous.setChangeRate(10);
+
+        // 5 changes in half a day is 10 a day, matching the estimate
+        assertThat(CollectorItemHealthRepositoryImpl.changeRate(previous, 5, now), closeTo(10, 0.001));
+        assertThat(CollectorItemHealthRepositoryImpl.changeRate(previous, 0, now), closeTo(7, 0.001));
+        assertThat(CollectorItemHealthRepositoryImpl.changeRate(null, 100, now), is(0.0));
+    }
+
+    @Test
+    public void recordFailure_countsAndTruncatesError() {
+        CollectorItem item = item();
+
+        repository.recordFailure(item, 30, StringUtils.repeat("x", 600));
+
+        DBObject update = upsert(item).getUpdateObject();
+        assertThat(((DBObject) update.get("$inc")).get("consecutiveFailures"), is((Object) 1));
+        assertThat(((String) ((DBObject) update.get("$set")).get("lastError")).length(), is(500));
+        assertThat(((DBObject) update.get("$set")).containsField("lastSuccess"), is(false));
+    }
+
+    @Test
+    public void freshness_convertsTimestampsToLag() {
+        ObjectId collectorId = ObjectId.get();
+        long now = System.currentTimeMillis();
+        DBObject group = new BasicDBObject("_id", collectorId)
+                .append("items", 4)
+                .append("failing", 1)
+                .append("notAttempted", 2)
+                .append("oldestSuccess", now - 60000)
+                .append("averageSuccess", (double) (now - 20000))
+                .append("oldestNewData", null)
+                .append("fetches", 10L)
+                .append("totalFetchMillis", 1500L);
+        when(mongoOperations.aggregate(any(Aggregation.class), eq(CollectorItemHealth.class), eq(DBObject.class)))
+                .thenReturn(new AggregationResults<>(Arrays.asList(group), new BasicDBObject()));
+
+        List<CollectorFreshness> freshness = repository.freshness(now - 1000);
+
+        assertThat(freshness, hasSize(1));
+        CollectorFreshness collector = freshness.get(0);
+        assertThat(collector.getCollectorId(), is(collectorId));
+        assertThat(collector.getItems(), is(4));
+        assertThat(collector.getFailing(), is(1));
+        assertThat(collector.getNotAttempted(), is(2));
+        assertThat(collector.getMaxSuccessLag(), greaterThanOrEqualTo(60000L));
+        assertThat(collector.getAverageSuccessLag(), allOf(greaterThanOrEqualTo(20000L), lessThan(60000L)));
+        assertThat(collector.getMaxNewDataLag(), is(0L));
+        assertThat(collector.getAverageFetchMillis(), is(150L));
+    }
+
+    @Test
+    public void freshness_keepsItemsNotAttemptedRecently() {
+        when(mongoOperations.aggregate(any(Aggregation.class), eq(CollectorItemHealth.class), eq(DBObject.class)))
+                .thenReturn(new AggregationResults<>(Arrays.<DBObject>asList(), new BasicDBObject()));
+
+        repository.freshness(1000);
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoOperations).aggregate(aggregation.capture(), eq(CollectorItemHealth.class), eq(DBObject.class));
+        String pipeline = aggregation.getValue().toString();
+        assertThat(pipeline, not(containsString("$match")));
+        assertThat(pipeline, containsString("\"notAttempted\" : { \"$sum\" : { \"$cond\" : [ { \"$lt\" : [ \"$lastAttempt\" , 1000]}"));
+    }
+
+    private Update upsert(CollectorItem item) {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).upsert(query.capture(), update.capture(), eq(CollectorItemHealth.class));
+        assertThat(query.getValue().getQueryObject().get("collectorItemId"), is((Object) item.getId()));
+        return update.getValue();
+    }
+
+    private CollectorItem item() {
+        CollectorItem item = new CollectorItem();
+        item.setId(ObjectId.get());
+        item.setCollectorId(ObjectId.get());
+        return item;
+    }
+}
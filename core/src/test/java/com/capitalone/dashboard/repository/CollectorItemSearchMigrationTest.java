@@ -0,0 +1,52 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.CollectorItem;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class CollectorItemSearchMigrationTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final DBCollection collection = mock(DBCollection.class);
+
+    @Test
+    public void migrate_setsKeysOnlyWhereStillMissing() {
+        ObjectId id = ObjectId.get();
+        DBObject item = new BasicDBObject("_id", id).append("description", "My App");
+        Iterator<DBObject> items = Arrays.asList(item).iterator();
+        DBCursor cursor = mock(DBCursor.class);
+        when(cursor.iterator()).thenReturn(items);
+        WriteResult writeResult = mock(WriteResult.class);
+        when(writeResult.getN()).thenReturn(1);
+        when(mongoOperations.getCollectionName(CollectorItem.class)).thenReturn("collector_items");
+        when(mongoOperations.getCollection("collector_items")).thenReturn(collection);
+        when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+        when(collection.update(any(DBObject.class), any(DBObject.class))).thenReturn(writeResult);
+
+        int updated = new CollectorItemSearchMigration(mongoOperations).migrate();
+
+        assertThat(updated, is(1));
+        ArgumentCaptor<DBObject> query = ArgumentCaptor.forClass(DBObject.class);
+        ArgumentCaptor<DBObject> update = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection).update(query.capture(), update.capture());
+        assertThat(query.getValue().get("_id"), is((Object) id));
+        assertThat(query.getValue().containsField(CollectorItemSearch.SEARCH_KEYS), is(true));
+        assertThat(update.getValue().toString(), containsString("my app"));
+        verify(cursor).close();
+    }
+}
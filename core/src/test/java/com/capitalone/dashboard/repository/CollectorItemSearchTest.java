@@ -0,0 +1,46 @@
+package com.capitalone.dashboard.repository;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class CollectorItemSearchTest {
+
+    @Test
+    public void addSearchKeys_descriptionAndOptionValues() {
+        DBObject item = new BasicDBObject("description", "My-App Build")
+                .append("options", new BasicDBObject("jobName", "My-App Build")
+                        .append("instanceUrl", "http://Jenkins.example.com")
+                        .append("port", 8080)
+                        .append("nested", new BasicDBObject("ignored", "x"))
+                        .append("empty", ""));
+
+        CollectorItemSearch.addSearchKeys(item);
+
+        assertThat((List<?>) item.get(CollectorItemSearch.SEARCH_KEYS),
+                contains((Object) "my-app build", "http://jenkins.example.com", "8080"));
+    }
+
+    @Test
+    public void pattern_prefix() {
+        Pattern pattern = CollectorItemSearch.pattern("My-App", true);
+
+        assertThat(pattern.pattern(), is("^my\\-app"));
+        assertThat(pattern.matcher("my-app build").find(), is(true));
+        assertThat(pattern.matcher("old my-app").find(), is(false));
+    }
+
+    @Test
+    public void pattern_contains_escapesSearchTerm() {
+        Pattern pattern = CollectorItemSearch.pattern("a.b(", false);
+
+        assertThat(pattern.matcher("xa.b(y").find(), is(true));
+        assertThat(pattern.matcher("xaxb(y").find(), is(false));
+    }
+}
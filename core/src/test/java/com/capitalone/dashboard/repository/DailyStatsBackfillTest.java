@@ -0,0 +1,110 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.Lease;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class DailyStatsBackfillTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final DBCollection collection = mock(DBCollection.class);
+    private final DailyStatsRepository dailyStatsRepository = mock(DailyStatsRepository.class);
+    private final BackfillRepository backfillRepository = mock(BackfillRepository.class);
+    private final LeaseRepository leaseRepository = mock(LeaseRepository.class);
+    private final DailyStatsBackfill backfill =
+            new DailyStatsBackfill(mongoOperations, dailyStatsRepository, backfillRepository, leaseRepository, 0);
+    private final ObjectId collectorId = ObjectId.get();
+    private final ObjectId itemId = ObjectId.get();
+
+    @Before
+    public void setup() {
+        when(mongoOperations.getCollectionName(CollectorItem.class)).thenReturn("collector_items");
+        when(mongoOperations.getCollection("collector_items")).thenReturn(collection);
+        when(collection.distinct(eq("_id"), any(DBObject.class))).thenReturn((List) Arrays.asList(itemId));
+        when(dailyStatsRepository.rebuild(eq(CollectorType.Build), anyListOf(ObjectId.class))).thenReturn(3);
+        when(leaseRepository.acquire(eq("dailyStatsRebuild.Build"), anyString(), anyLong())).thenReturn(true);
+    }
+
+    @Test
+    public void backfill_firstTime_rebuildsAndRecordsCompletion() {
+        assertThat(backfill.backfill(CollectorType.Build, collectorId), is(3));
+
+        verify(dailyStatsRepository).rebuild(CollectorType.Build, Arrays.asList(itemId));
+        ArgumentCaptor<Backfill> marker = ArgumentCaptor.forClass(Backfill.class);
+        verify(backfillRepository).save(marker.capture());
+        assertThat(marker.getValue().getName(), is("dailyStats"));
+        assertThat(marker.getValue().getCollectorId(), is(collectorId));
+        verify(leaseRepository).release(eq("dailyStatsRebuild.Build"), anyString());
+    }
+
+    @Test
+    public void backfill_otherProcessRebuilding_triesAgainLater() {
+        when(leaseRepository.acquire(eq("dailyStatsRebuild.Build"), anyString(), anyLong())).thenReturn(false, true);
+
+        assertThat(backfill.backfill(CollectorType.Build, collectorId), is(0));
+        verifyZeroInteractions(dailyStatsRepository);
+
+        assertThat(backfill.backfill(CollectorType.Build, collectorId), is(3));
+    }
+
+    @Test
+    public void awaitRebuild_otherProcessRebuilding_waitsForLease() {
+        Lease lease = new Lease();
+        lease.setName("dailyStatsRebuild.SCM");
+        lease.setHolder("other");
+        lease.setExpiresAt(System.currentTimeMillis() + 50);
+        when(leaseRepository.findByName("dailyStatsRebuild.SCM")).thenReturn(lease, (Lease) null);
+
+        backfill.awaitRebuild(CollectorType.SCM);
+        backfill.awaitRebuild(CollectorType.SCM);
+
+        // The second call trusts the free lease seen by the first
+        verify(leaseRepository, times(2)).findByName("dailyStatsRebuild.SCM");
+    }
+
+    @Test
+    public void backfill_completedByEarlierProcess_skipped() {
+        when(backfillRepository.findByNameAndCollectorId("dailyStats", collectorId))
+                .thenReturn(new Backfill("dailyStats", collectorId, 1L));
+
+        assertThat(backfill.backfill(CollectorType.Build, collectorId), is(0));
+
+        verifyZeroInteractions(dailyStatsRepository);
+        verify(backfillRepository, never()).save(any(Backfill.class));
+    }
+
+    @Test
+    public void backfill_failed_notRecorded() {
+        when(dailyStatsRepository.rebuild(eq(CollectorType.Build), anyListOf(ObjectId.class)))
+                .thenThrow(new IllegalStateException("down"));
+
+        try {
+            backfill.backfill(CollectorType.Build, collectorId);
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        verify(backfillRepository, never()).save(any(Backfill.class));
+        verify(leaseRepository).release(eq("dailyStatsRebuild.Build"), anyString());
+    }
+}
@@ -0,0 +1,88 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.BuildStatus;
+import com.capitalone.dashboard.model.DailyStats;
+import com.capitalone.dashboard.model.DataVersion;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DailyStatsRepositoryImplTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    public void addBuilds_oneUpsertPerItemAndDay() {
+        MongoOperations mongoOperations = mock(MongoOperations.class);
+        DBCollection collection = mock(DBCollection.class);
+        when(mongoOperations.getCollectionName(DailyStats.class)).thenReturn("daily_stats");
+        when(mongoOperations.getCollection("daily_stats")).thenReturn(collection);
+        ObjectId itemId = ObjectId.get();
+
+        new DailyStatsRepositoryImpl(mongoOperations).addBuilds(Arrays.asList(
+                build(itemId, DAY + 10, BuildStatus.Success, 30),
+                build(itemId, DAY + 20, BuildStatus.Failure, 50),
+                build(itemId, DAY + 30, BuildStatus.Success, 40),
+                build(itemId, 2 * DAY, BuildStatus.Success, 10)));
+
+        ArgumentCaptor<DBObject> query = ArgumentCaptor.forClass(DBObject.class);
+        ArgumentCaptor<DBObject> update = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection, times(2)).update(query.capture(), update.capture(), eq(true), eq(false));
+        assertThat(query.getAllValues().get(0).get("day"), is((Object) new Date(DAY)));
+        DBObject inc = (DBObject) update.getAllValues().get(0).get("$inc");
+        assertThat(inc.get("buildCount"), is((Object) 3));
+        assertThat(inc.get("buildStatusCounts.Success"), is((Object) 2));
+        assertThat(inc.get("buildStatusCounts.Failure"), is((Object) 1));
+        assertThat(inc.get("buildDurationSum"), is((Object) 120L));
+        assertThat(((DBObject) update.getAllValues().get(0).get("$max")).get("buildDurationMax"), is((Object) 50L));
+        assertThat(query.getAllValues().get(1).get("day"), is((Object) new Date(2 * DAY)));
+
+        // One version bump for the item, after both rows were written
+        verify(mongoOperations).upsert(any(Query.class), any(Update.class), eq(DataVersion.class));
+    }
+
+    @Test
+    public void dayOf_truncatesToUtcDay() {
+        assertThat(DailyStatsRepositoryImpl.dayOf(3 * DAY + 12345, 0), is(new Date(3 * DAY)));
+        assertThat(DailyStatsRepositoryImpl.dayOf(3 * DAY, 0), is(new Date(3 * DAY)));
+    }
+
+    @Test
+    public void dayOf_missingTime_usesFallback() {
+        assertThat(DailyStatsRepositoryImpl.dayOf(0, 5 * DAY + 1), is(new Date(5 * DAY)));
+    }
+
+    @Test
+    public void metricKey_escapesFieldNames() {
+        assertThat(DailyStats.metricKey("coverage"), is("coverage"));
+        assertThat(DailyStats.metricKey("line.coverage"), is("line_coverage"));
+        assertThat(DailyStats.metricKey("$cost"), is("_cost"));
+    }
+
+    private static Build build(ObjectId collectorItemId, long endTime, BuildStatus status, long duration) {
+        Build build = new Build();
+        build.setCollectorItemId(collectorItemId);
+        build.setEndTime(endTime);
+        build.setBuildStatus(status);
+        build.setDuration(duration);
+        return build;
+    }
+}
@@ -0,0 +1,52 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Dashboard;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class DashboardSearchMigrationTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final DBCollection collection = mock(DBCollection.class);
+
+    @Test
+    public void migrate_setsKeysOnlyWhereStillMissing() {
+        ObjectId id = ObjectId.get();
+        DBObject dashboard = new BasicDBObject("_id", id).append("title", "My App");
+        Iterator<DBObject> dashboards = Arrays.asList(dashboard).iterator();
+        DBCursor cursor = mock(DBCursor.class);
+        when(cursor.iterator()).thenReturn(dashboards);
+        WriteResult writeResult = mock(WriteResult.class);
+        when(writeResult.getN()).thenReturn(1);
+        when(mongoOperations.getCollectionName(Dashboard.class)).thenReturn("dashboards");
+        when(mongoOperations.getCollection("dashboards")).thenReturn(collection);
+        when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+        when(collection.update(any(DBObject.class), any(DBObject.class))).thenReturn(writeResult);
+
+        int updated = new DashboardSearchMigration(mongoOperations).migrate();
+
+        assertThat(updated, is(1));
+        ArgumentCaptor<DBObject> query = ArgumentCaptor.forClass(DBObject.class);
+        ArgumentCaptor<DBObject> update = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection).update(query.capture(), update.capture());
+        assertThat(query.getValue().get("_id"), is((Object) id));
+        assertThat(query.getValue().containsField(DashboardSearch.TITLE_KEY), is(true));
+        assertThat(update.getValue().toString(), containsString("my app"));
+        verify(cursor).close();
+    }
+}
@@ -0,0 +1,29 @@
+package com.capitalone.dashboard.repository;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class DashboardSearchTest {
+
+    @Test
+    public void addTitleKey_lowerCasesTitle() {
+        DBObject dashboard = new BasicDBObject("title", "My-App Dashboard");
+
+        DashboardSearch.addTitleKey(dashboard);
+
+        assertThat(dashboard.get(DashboardSearch.TITLE_KEY), is((Object) "my-app dashboard"));
+    }
+
+    @Test
+    public void addTitleKey_noTitle_removesKey() {
+        DBObject dashboard = new BasicDBObject(DashboardSearch.TITLE_KEY, "old");
+
+        DashboardSearch.addTitleKey(dashboard);
+
+        assertThat(dashboard.containsField(DashboardSearch.TITLE_KEY), is(false));
+    }
+}
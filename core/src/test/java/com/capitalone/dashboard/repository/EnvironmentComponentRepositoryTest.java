@@ -0,0 +1,181 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.config.MongoConfig;
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+@ContextConfiguration(classes = { MongoConfig.class })
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class EnvironmentComponentRepositoryTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnvironmentComponentRepositoryTest.class);
+
+    @ClassRule
+    public static final EmbeddedMongoDBRule RULE = new EmbeddedMongoDBRule();
+
+    @Autowired
+    private EnvironmentComponentRepository environmentComponentRepository;
+
+    @Autowired
+    private MongoOperations mongoOperations;
+
+    private final ObjectId itemId = ObjectId.get();
+
+    @Before
+    public void setup() {
+        environmentComponentRepository.deleteAll();
+    }
+
+    @Test
+    public void findLatestByCollectorItemId_latestPerEnvironmentAndComponent() {
+        save(itemId, "DEV", "api", "1.0", 100);
+        EnvironmentComponent devNew = save(itemId, "DEV", "API", "1.1", 200);
+        EnvironmentComponent qa = save(itemId, "QA", "api", "1.0", 150);
+        save(itemId, "QA", "api", "0.9", 50);
+        save(ObjectId.get(), "DEV", "api", "9.9", 999);
+
+        List<EnvironmentComponent> latest = environmentComponentRepository.findLatestByCollectorItemId(itemId);
+
+        assertThat(latest, hasSize(2));
+        // Ordered by the first stored of each group's latest deployments
+        assertThat(latest.get(0).getId(), is(devNew.getId()));
+        assertThat(latest.get(0).getComponentVersion(), is("1.1"));
+        assertThat(latest.get(1).getId(), is(qa.getId()));
+    }
+
+    @Test
+    public void findLatestByCollectorItemId_sameDate_firstStoredWins() {
+        EnvironmentComponent first = save(itemId, "DEV", "api", "1.0", 100);
+        save(itemId, "DEV", "api", "1.1", 100);
+
+        List<EnvironmentComponent> latest = environmentComponentRepository.findLatestByCollectorItemId(itemId);
+
+        assertThat(latest, hasSize(1));
+        assertThat(latest.get(0).getId(), is(first.getId()));
+    }
+
+    @Test
+    public void findLatestByCollectorItemId_largeHistory_benchmark() {
+        // Benchmark only: logs how long each way of picking the latest deployments takes over
+        // the same data, asserts nothing about time
+        int environments = 20;
+        int components = 50;
+        int history = 20;
+        int runs = 10;
+        List<EnvironmentComponent> deployments = new ArrayList<>();
+        for (int run = 0; run < history; run++) {
+            for (int env = 0; env < environments; env++) {
+                for (int comp = 0; comp < components; comp++) {
+                    deployments.add(component(itemId, "env" + env, "comp" + comp, "1." + run, run));
+                }
+            }
+        }
+        mongoOperations.insert(deployments, EnvironmentComponent.class);
+
+        // Warm up both, then time each over the same runs
+        List<EnvironmentComponent> inMemory = latestInMemory(environmentComponentRepository.findByCollectorItemId(itemId));
+        List<EnvironmentComponent> latest = environmentComponentRepository.findLatestByCollectorItemId(itemId);
+        long start = System.nanoTime();
+        for (int run = 0; run < runs; run++) {
+            inMemory = latestInMemory(environmentComponentRepository.findByCollectorItemId(itemId));
+        }
+        long inMemoryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / runs;
+        start = System.nanoTime();
+        for (int run = 0; run < runs; run++) {
+            latest = environmentComponentRepository.findLatestByCollectorItemId(itemId);
+        }
+        long groupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / runs;
+
+        LOGGER.info("Latest of " + deployments.size() + " deployments: read and grouped in memory in "
+                + inMemoryMillis + " ms, grouped by the aggregation in " + groupMillis + " ms");
+        assertThat(latest, hasSize(environments * components));
+        assertThat(versions(latest), is(versions(inMemory)));
+        assertThat(latest.get(0).getComponentVersion(), is("1." + (history - 1)));
+    }
+
+    /**
+     * Picks the latest deployment per environment and component the way the deploy service
+     * did before the aggregation: every deployment read, each compared with those already
+     * kept for its environment.
+     */
+    private static List<EnvironmentComponent> latestInMemory(List<EnvironmentComponent> components) {
+        Map<String, List<EnvironmentComponent>> map = new LinkedHashMap<>();
+        for (EnvironmentComponent component : components) {
+            List<EnvironmentComponent> kept = map.get(component.getEnvironmentName());
+            if (kept == null) {
+                kept = new ArrayList<>();
+                map.put(component.getEnvironmentName(), kept);
+            }
+            boolean found = false;
+            List<EnvironmentComponent> toRemove = new ArrayList<>();
+            List<EnvironmentComponent> toAdd = new ArrayList<>();
+            for (EnvironmentComponent ec : kept) {
+                if (component.getComponentName().equalsIgnoreCase(ec.getComponentName())) {
+                    found = true;
+                    if (component.getAsOfDate() > ec.getAsOfDate()) {
+                        toRemove.add(ec);
+                        toAdd.add(component);
+                    }
+                }
+            }
+            if (!found) {
+                toAdd.add(component);
+            }
+            kept.removeAll(toRemove);
+            kept.addAll(toAdd);
+        }
+        List<EnvironmentComponent> latest = new ArrayList<>();
+        for (List<EnvironmentComponent> kept : map.values()) {
+            latest.addAll(kept);
+        }
+        return latest;
+    }
+
+    private static Map<String, String> versions(List<EnvironmentComponent> components) {
+        Map<String, String> versions = new HashMap<>();
+        for (EnvironmentComponent component : components) {
+            versions.put(component.getEnvironmentName() + "/" + component.getComponentName().toLowerCase(),
+                    component.getComponentVersion());
+        }
+        return versions;
+    }
+
+    private EnvironmentComponent save(ObjectId collectorItemId, String environment, String name,
+                                      String version, long asOfDate) {
+        return environmentComponentRepository.save(component(collectorItemId, environment, name, version, asOfDate));
+    }
+
+    private static EnvironmentComponent component(ObjectId collectorItemId, String environment, String name,
+                                                  String version, long asOfDate) {
+        EnvironmentComponent component = new EnvironmentComponent();
+        component.setCollectorItemId(collectorItemId);
+        component.setEnvironmentName(environment);
+        component.setComponentName(name);
+        component.setComponentVersion(version);
+        component.setDeployed(true);
+        component.setAsOfDate(asOfDate);
+        return component;
+    }
+}
@@ -0,0 +1,83 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.Feature;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class FeatureStorageMigrationTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final BackfillRepository backfillRepository = mock(BackfillRepository.class);
+    private final DBCollection collection = mock(DBCollection.class);
+    private final DBCursor cursor = mock(DBCursor.class);
+    private final ObjectId collectorId = ObjectId.get();
+
+    @Before
+    public void setup() {
+        WriteResult writeResult = mock(WriteResult.class);
+        when(writeResult.getN()).thenReturn(1);
+        when(mongoOperations.getCollectionName(Feature.class)).thenReturn("feature");
+        when(mongoOperations.getCollection("feature")).thenReturn(collection);
+        when(collection.find(any(DBObject.class))).thenReturn(cursor);
+        when(cursor.snapshot()).thenReturn(cursor);
+        when(collection.update(any(DBObject.class), any(DBObject.class))).thenReturn(writeResult);
+    }
+
+    @Test
+    public void migrate_storedAsIs_compactsAndRecordsBackfill() {
+        DBObject feature = new BasicDBObject("_id", ObjectId.get()).append("collectorId", collectorId)
+                .append("sName", "Story").append("sEpicID", "").append("isDeleted", "False")
+                .append("sSprintBeginDate", "2015-07-01T00:00:00.0000000");
+        when(cursor.iterator()).thenReturn(Arrays.asList(feature).iterator());
+
+        int rewritten = new FeatureStorageMigration(mongoOperations, backfillRepository).migrate(collectorId);
+
+        assertThat(rewritten, is(1));
+        // Only features still holding a String deleted flag, which compact ones never do
+        ArgumentCaptor<DBObject> query = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection).find(query.capture());
+        assertThat(query.getValue().get("collectorId"), is((Object) collectorId));
+        assertThat((List<?>) ((DBObject) query.getValue().get("isDeleted")).get("$in"),
+                contains((Object) "True", "False"));
+        ArgumentCaptor<DBObject> update = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection).update(any(DBObject.class), update.capture());
+        assertThat(update.getValue().containsField("sEpicID"), is(false));
+        assertThat(update.getValue().containsField("isDeleted"), is(false));
+        assertThat(update.getValue().get("sSprintBeginDate"), instanceOf(Date.class));
+        // Left out by the feature as stored, so null rather than its default
+        assertThat(update.getValue().containsField("sEpicPDD"), is(true));
+        assertThat(update.getValue().get("sEpicPDD"), nullValue());
+        verify(backfillRepository).save(any(Backfill.class));
+        verify(cursor).close();
+    }
+
+    @Test
+    public void migrate_backfillRecorded_skipsScan() {
+        when(backfillRepository.findByNameAndCollectorId(FeatureStorageMigration.NAME, collectorId))
+                .thenReturn(new Backfill(FeatureStorageMigration.NAME, collectorId, 1L));
+
+        int rewritten = new FeatureStorageMigration(mongoOperations, backfillRepository).migrate(collectorId);
+
+        assertThat(rewritten, is(0));
+        verify(collection, never()).find(any(DBObject.class));
+        verify(backfillRepository, never()).save(any(Backfill.class));
+    }
+}
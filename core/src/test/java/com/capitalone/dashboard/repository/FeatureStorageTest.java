@@ -0,0 +1,184 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Feature;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class FeatureStorageTest {
+
+    private MappingMongoConverter converter;
+
+    @Before
+    public void setup() {
+        converter = new MappingMongoConverter(Mockito.mock(DbRefResolver.class), new MongoMappingContext());
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    public void compact_omitsDefaultValues() {
+        DBObject dbObject = write(makeFeature());
+
+        assertThat(FeatureStorage.compact(dbObject), is(true));
+        assertThat(dbObject.containsField("sEpicPDD"), is(false));
+        assertThat(dbObject.containsField("sProjectBeginDate"), is(false));
+        assertThat(dbObject.containsField("sOwnersChangeDate"), is(false));
+        assertThat(dbObject.containsField("isDeleted"), is(false));
+        assertThat(dbObject.containsField(FeatureStorage.ORIGINAL_DATES), is(false));
+    }
+
+    @Test
+    public void compact_nullValue_storedExplicitly() {
+        DBObject dbObject = write(makeFeature());
+
+        FeatureStorage.compact(dbObject);
+
+        assertThat(dbObject.containsField("sProjectEndDate"), is(true));
+        assertThat(dbObject.get("sProjectEndDate"), nullValue());
+    }
+
+    @Test
+    public void compact_dateInOtherForm_keepsOriginalString() {
+        Feature feature = makeFeature();
+        feature.setChangeDate("2015-07-02T08:15:00.1234567");
+        feature.setsEpicBeginDate("2015-07-01");
+        feature.setsOwnersChangeDate(Arrays.asList("2015-07-02T08:15:00.1230000", "2015-07-02T08:15:00.12"));
+        DBObject dbObject = write(feature);
+
+        FeatureStorage.compact(dbObject);
+
+        assertThat(dbObject.get("changeDate"), instanceOf(Date.class));
+        assertThat(dbObject.get("sEpicBeginDate"), instanceOf(Date.class));
+        assertThat(dbObject.get("sSprintBeginDate"), instanceOf(Date.class));
+        DBObject originalDates = (DBObject) dbObject.get(FeatureStorage.ORIGINAL_DATES);
+        assertThat(originalDates.keySet(), containsInAnyOrder("changeDate", "sEpicBeginDate"));
+        List<?> ownersChangeDate = (List<?>) dbObject.get("sOwnersChangeDate");
+        assertThat(ownersChangeDate.get(0), instanceOf(Date.class));
+        assertThat(ownersChangeDate.get(1), is((Object) "2015-07-02T08:15:00.12"));
+    }
+
+    @Test
+    public void compact_storesNativeTypes() {
+        DBObject dbObject = write(makeFeature());
+
+        FeatureStorage.compact(dbObject);
+
+        assertThat(dbObject.get("sSprintIsDeleted"), is((Object) Boolean.TRUE));
+        assertThat(dbObject.get("sSprintBeginDate"), instanceOf(Date.class));
+        assertThat(((List<?>) dbObject.get("sOwnersIsDeleted")).get(0), is((Object) Boolean.FALSE));
+    }
+
+    @Test
+    public void compact_keepsValuesItCannotConvert() {
+        Feature feature = makeFeature();
+        feature.setsTeamIsDeleted("false");
+        feature.setsEpicEndDate("next week");
+        DBObject dbObject = write(feature);
+
+        FeatureStorage.compact(dbObject);
+
+        assertThat(dbObject.get("sTeamIsDeleted"), is((Object) "false"));
+        assertThat(dbObject.get("sEpicEndDate"), is((Object) "next week"));
+    }
+
+    @Test
+    public void expand_restoresWrittenFeature() {
+        Feature feature = makeFeature();
+        DBObject dbObject = write(feature);
+        DBObject expected = write(feature);
+
+        FeatureStorage.compact(dbObject);
+        FeatureStorage.expand(dbObject);
+
+        assertThat(dbObject, is(expected));
+        Feature read = converter.read(Feature.class, dbObject);
+        assertThat(read.getsSprintBeginDate(), is("2015-07-01T00:00:00.0000000"));
+        assertThat(read.getsEpicPDD(), is(""));
+        assertThat(read.getIsDeleted(), is("False"));
+        assertThat(read.getsProjectEndDate(), nullValue());
+        assertThat(read.getsOwnersChangeDate(), is(empty()));
+    }
+
+    @Test
+    public void expand_missingFields_restoresDefaults() {
+        DBObject dbObject = new BasicDBObject("sId", "1234").append("sSprintIsDeleted", Boolean.TRUE);
+
+        FeatureStorage.expand(dbObject);
+
+        Feature read = converter.read(Feature.class, dbObject);
+        assertThat(read.getsName(), is(""));
+        assertThat(read.getIsDeleted(), is("False"));
+        assertThat(read.getsSprintIsDeleted(), is("True"));
+        assertThat(read.getsOwnersID(), is(empty()));
+    }
+
+    @Test
+    public void expand_dateInOtherForm_restoresOriginalString() {
+        Feature feature = makeFeature();
+        feature.setChangeDate("2015-07-02T08:15:00.1234567");
+        feature.setsEpicBeginDate("2015-07-01");
+        feature.setsOwnersChangeDate(Arrays.asList("2015-07-02T08:15:00.1230000", "2015-07-02T08:15:00.12"));
+        DBObject dbObject = write(feature);
+        DBObject expected = write(feature);
+
+        FeatureStorage.compact(dbObject);
+        FeatureStorage.expand(dbObject);
+
+        assertThat(dbObject, is(expected));
+    }
+
+    @Test
+    public void parseDate_formats() {
+        Date date = FeatureStorage.parseDate("2015-07-01T10:20:30.1234567");
+
+        assertThat(FeatureStorage.formatDate(date), is("2015-07-01T10:20:30.1230000"));
+        assertThat(FeatureStorage.formatDate(FeatureStorage.parseDate("2015-07-01")),
+                is("2015-07-01T00:00:00.0000000"));
+        assertThat(FeatureStorage.parseDate("2015-02-30T00:00:00.000"), nullValue());
+        assertThat(FeatureStorage.parseDate(""), nullValue());
+    }
+
+    private DBObject write(Feature feature) {
+        DBObject dbObject = new BasicDBObject();
+        converter.write(feature, dbObject);
+        return dbObject;
+    }
+
+    private Feature makeFeature() {
+        Feature feature = new Feature();
+        feature.setsId("1234");
+        feature.setsNumber("S-1");
+        feature.setsName("Story");
+        feature.setsStatus("In Progress");
+        feature.setsEstimate("3");
+        feature.setIsDeleted("False");
+        feature.setChangeDate("2015-07-02T08:15:00.1230000");
+        feature.setsTeamID("team1");
+        feature.setsTeamIsDeleted("False");
+        feature.setsSprintID("sprint1");
+        feature.setsSprintIsDeleted("True");
+        feature.setsSprintBeginDate("2015-07-01T00:00:00.0000000");
+        feature.setsSprintEndDate("2015-07-14T00:00:00.0000000");
+        feature.setsEpicID("");
+        feature.setsEpicPDD("");
+        feature.setsEpicEndDate("");
+        feature.setsProjectBeginDate("");
+        feature.setsOwnersID(Arrays.asList("owner1"));
+        feature.setsOwnersIsDeleted(Arrays.asList("False"));
+        feature.setsOwnersChangeDate(Collections.<String>emptyList());
+        return feature;
+    }
+}
@@ -0,0 +1,182 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.CollectorItem;
+import com.capitalone.dashboard.model.CollectorType;
+import com.capitalone.dashboard.model.EnvironmentComponent;
+import com.capitalone.dashboard.model.RevisionBuild;
+import com.capitalone.dashboard.model.SCM;
+import com.capitalone.dashboard.model.VersionDeployment;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkUpdateRequestBuilder;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteRequestBuilder;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class LeadTimeIndexTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final BackfillRepository backfillRepository = mock(BackfillRepository.class);
+    private final LeadTimeIndex index = new LeadTimeIndex(mongoOperations, backfillRepository);
+
+    @Test
+    public void addBuild_indexesEachRevision() {
+        Build build = build("12", null);
+        build.getSourceChangeSet().add(scm("r1", 100));
+        build.getSourceChangeSet().add(scm("", 100));
+        build.getSourceChangeSet().add(scm("r2", 200));
+
+        assertThat(index.addBuild(build), is(2));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations, times(2)).upsert(query.capture(), update.capture(), eq(RevisionBuild.class));
+        assertThat(query.getAllValues().get(0).getQueryObject().get("revision"), is((Object) "r1"));
+        Object set = update.getAllValues().get(1).getUpdateObject().get("$set");
+        assertThat(set.toString(), containsString("\"version\" : \"12\""));
+        assertThat(set.toString(), containsString("\"buildTimestamp\" : 5000"));
+    }
+
+    @Test
+    public void addBuild_earlierBuildIndexed_notCounted() {
+        when(mongoOperations.upsert(any(Query.class), any(Update.class), eq(RevisionBuild.class)))
+                .thenThrow(new DuplicateKeyException("exists"));
+        Build build = build("12", "1.0.3");
+        build.getSourceChangeSet().add(scm("r1", 100));
+
+        assertThat(index.addBuild(build), is(0));
+    }
+
+    @Test
+    public void addBuilds_upsertsRevisionsInOneBulkWrite() {
+        BulkUpdateRequestBuilder upsert = mock(BulkUpdateRequestBuilder.class);
+        BulkWriteOperation bulk = bulk(upsert);
+        Build first = build("12", null);
+        first.getSourceChangeSet().add(scm("r1", 100));
+        first.getSourceChangeSet().add(scm("r2", 200));
+        Build second = build("13", null);
+        second.getSourceChangeSet().add(scm("", 300));
+        second.getSourceChangeSet().add(scm("r3", 300));
+
+        assertThat(index.addBuilds(Arrays.asList(first, second)), is(3));
+
+        ArgumentCaptor<DBObject> query = ArgumentCaptor.forClass(DBObject.class);
+        ArgumentCaptor<DBObject> update = ArgumentCaptor.forClass(DBObject.class);
+        verify(bulk, times(3)).find(query.capture());
+        verify(upsert, times(3)).updateOne(update.capture());
+        verify(bulk).execute();
+        assertThat(query.getAllValues().get(2).get("revision"), is((Object) "r3"));
+        assertThat(update.getAllValues().get(2).get("$set").toString(), containsString("\"buildNumber\" : \"13\""));
+        verify(mongoOperations, never()).upsert(any(Query.class), any(Update.class), eq(RevisionBuild.class));
+    }
+
+    @Test
+    public void addBuilds_earlierBuildsIndexed_notCounted() {
+        BulkWriteOperation bulk = bulk(mock(BulkUpdateRequestBuilder.class));
+        BulkWriteException collided = mock(BulkWriteException.class);
+        when(collided.getWriteErrors()).thenReturn(Arrays.asList(
+                new BulkWriteError(11000, "duplicate key", new BasicDBObject(), 0)));
+        when(bulk.execute()).thenThrow(collided);
+        Build build = build("12", null);
+        build.getSourceChangeSet().add(scm("r1", 100));
+        build.getSourceChangeSet().add(scm("r2", 200));
+
+        assertThat(index.addBuilds(Arrays.asList(build)), is(1));
+    }
+
+    @Test
+    public void backfill_completedByEarlierProcess_skipped() {
+        ObjectId collectorId = ObjectId.get();
+        when(backfillRepository.findByNameAndCollectorId("leadTime", collectorId))
+                .thenReturn(new Backfill("leadTime", collectorId, 1L));
+
+        assertThat(index.backfill(CollectorType.Build, collectorId), is(0));
+
+        verifyZeroInteractions(mongoOperations);
+        verify(backfillRepository, never()).save(any(Backfill.class));
+    }
+
+    @Test
+    public void backfill_firstTime_recordsCompletion() {
+        ObjectId collectorId = ObjectId.get();
+        DBCollection collection = mock(DBCollection.class);
+        when(mongoOperations.getCollectionName(CollectorItem.class)).thenReturn("collector_items");
+        when(mongoOperations.getCollection("collector_items")).thenReturn(collection);
+        when(collection.distinct(eq("_id"), any(DBObject.class))).thenReturn((List) Arrays.asList(ObjectId.get()));
+
+        assertThat(index.backfill(CollectorType.Deployment, collectorId), is(0));
+
+        ArgumentCaptor<Backfill> marker = ArgumentCaptor.forClass(Backfill.class);
+        verify(backfillRepository).save(marker.capture());
+        assertThat(marker.getValue().getName(), is("leadTime"));
+        assertThat(marker.getValue().getCollectorId(), is(collectorId));
+    }
+
+    @Test
+    public void version_prefersArtifactVersion() {
+        assertThat(LeadTimeIndex.version(build("12", "1.0.3")), is("1.0.3"));
+        assertThat(LeadTimeIndex.version(build("12", "")), is("12"));
+    }
+
+    @Test
+    public void addDeployment_onlyDeployed() {
+        EnvironmentComponent component = new EnvironmentComponent();
+        component.setCollectorItemId(ObjectId.get());
+        component.setComponentVersion("1.0.3");
+        component.setEnvironmentName("QA");
+        component.setAsOfDate(300);
+
+        assertThat(index.addDeployment(component), is(false));
+        component.setDeployed(true);
+        assertThat(index.addDeployment(component), is(true));
+        verify(mongoOperations).upsert(any(Query.class), any(Update.class), eq(VersionDeployment.class));
+    }
+
+    private BulkWriteOperation bulk(BulkUpdateRequestBuilder upsert) {
+        DBCollection collection = mock(DBCollection.class);
+        BulkWriteOperation bulk = mock(BulkWriteOperation.class);
+        BulkWriteRequestBuilder find = mock(BulkWriteRequestBuilder.class);
+        when(mongoOperations.getCollectionName(RevisionBuild.class)).thenReturn("revision_builds");
+        when(mongoOperations.getCollection("revision_builds")).thenReturn(collection);
+        when(collection.initializeUnorderedBulkOperation()).thenReturn(bulk);
+        when(bulk.find(any(DBObject.class))).thenReturn(find);
+        when(find.upsert()).thenReturn(upsert);
+        return bulk;
+    }
+
+    private Build build(String number, String artifactVersion) {
+        Build build = new Build();
+        build.setCollectorItemId(ObjectId.get());
+        build.setNumber(number);
+        build.setArtifactVersionNumber(artifactVersion);
+        build.setEndTime(5000);
+        return build;
+    }
+
+    private SCM scm(String revision, long timestamp) {
+        SCM scm = new SCM();
+        scm.setScmRevisionNumber(revision);
+        scm.setScmCommitTimestamp(timestamp);
+        return scm;
+    }
+}
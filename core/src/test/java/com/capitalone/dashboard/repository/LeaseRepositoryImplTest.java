@@ -0,0 +1,47 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Lease;
+import com.mongodb.DBObject;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class LeaseRepositoryImplTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final LeaseRepositoryImpl repository = new LeaseRepositoryImpl(mongoOperations);
+
+    @Test
+    public void acquire_freeOrOwnOrExpired_upsertsHolder() {
+        long before = System.currentTimeMillis();
+
+        assertThat(repository.acquire("portfolio", "node1", 1000), is(true));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).upsert(query.capture(), update.capture(), eq(Lease.class));
+        DBObject criteria = query.getValue().getQueryObject();
+        assertThat(criteria.get("name"), is((Object) "portfolio"));
+        assertThat(criteria.get("$or").toString(), containsString("node1"));
+        DBObject set = (DBObject) update.getValue().getUpdateObject().get("$set");
+        assertThat(set.get("holder"), is((Object) "node1"));
+        assertThat((Long) set.get("expiresAt"), greaterThanOrEqualTo(before + 1000));
+    }
+
+    @Test
+    public void acquire_heldByAnother_fails() {
+        when(mongoOperations.upsert(any(Query.class), any(Update.class), eq(Lease.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        assertThat(repository.acquire("portfolio", "node2", 1000), is(false));
+    }
+}
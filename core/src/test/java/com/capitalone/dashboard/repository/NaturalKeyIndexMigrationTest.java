@@ -0,0 +1,139 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.Build;
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestResult;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.IndexOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class NaturalKeyIndexMigrationTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final BackfillRepository backfillRepository = mock(BackfillRepository.class);
+    private final DBCollection builds = mock(DBCollection.class);
+    private final DBCollection testResults = mock(DBCollection.class);
+    private final DBCollection testCases = mock(DBCollection.class);
+    private final IndexOperations buildIndexes = mock(IndexOperations.class);
+    private final NaturalKeyIndexMigration migration = new NaturalKeyIndexMigration(mongoOperations, backfillRepository);
+
+    @Before
+    public void setup() {
+        WriteResult writeResult = mock(WriteResult.class);
+        when(writeResult.getN()).thenReturn(2);
+        when(mongoOperations.getCollectionName(Build.class)).thenReturn("builds");
+        when(mongoOperations.getCollectionName(Commit.class)).thenReturn("commits");
+        when(mongoOperations.getCollectionName(TestResult.class)).thenReturn("test_results");
+        when(mongoOperations.getCollectionName(TestCaseRecord.class)).thenReturn("test_cases");
+        when(mongoOperations.getCollection("builds")).thenReturn(builds);
+        when(mongoOperations.getCollection("commits")).thenReturn(mock(DBCollection.class));
+        when(mongoOperations.getCollection("test_results")).thenReturn(testResults);
+        when(mongoOperations.getCollection("test_cases")).thenReturn(testCases);
+        when(builds.remove(any(DBObject.class))).thenReturn(writeResult);
+        when(testResults.remove(any(DBObject.class))).thenReturn(writeResult);
+        when(mongoOperations.indexOps(any(Class.class))).thenReturn(mock(IndexOperations.class));
+        when(mongoOperations.indexOps(Build.class)).thenReturn(buildIndexes);
+        groups("builds");
+        groups("commits");
+        groups("test_results");
+    }
+
+    @Test
+    public void migrate_removesLaterDuplicatesThenAddsIndex() {
+        ObjectId first = ObjectId.get();
+        ObjectId second = ObjectId.get();
+        ObjectId third = ObjectId.get();
+        groups("builds", group(first, second, third));
+
+        assertThat(migration.migrate(), is(2));
+
+        ArgumentCaptor<DBObject> removed = ArgumentCaptor.forClass(DBObject.class);
+        verify(builds).remove(removed.capture());
+        assertThat((List<?>) ((DBObject) removed.getValue().get("_id")).get("$in"), contains((Object) second, third));
+        ArgumentCaptor<Index> index = ArgumentCaptor.forClass(Index.class);
+        verify(buildIndexes).ensureIndex(index.capture());
+        assertThat(index.getValue().getIndexKeys().keySet(), contains("collectorItemId", "number"));
+        assertThat(index.getValue().getIndexOptions().get("unique"), is((Object) true));
+        assertThat(backfills(), hasItem(NaturalKeyIndexMigration.NAME + "builds"));
+    }
+
+    @Test
+    public void migrate_testResults_removesTheirTestCases() {
+        ObjectId kept = ObjectId.get();
+        ObjectId duplicate = ObjectId.get();
+        groups("test_results", group(kept, duplicate));
+
+        migration.migrate();
+
+        ArgumentCaptor<DBObject> removed = ArgumentCaptor.forClass(DBObject.class);
+        verify(testCases).remove(removed.capture());
+        assertThat((List<?>) ((DBObject) removed.getValue().get("testResultId")).get("$in"), contains((Object) duplicate));
+    }
+
+    @Test
+    public void migrate_indexFails_triesAgainNextStart() {
+        doThrow(new DuplicateKeyException("item_number")).when(buildIndexes).ensureIndex(any(Index.class));
+
+        migration.migrate();
+
+        assertThat(backfills(), contains(NaturalKeyIndexMigration.NAME + "commits",
+                NaturalKeyIndexMigration.NAME + "test_results"));
+    }
+
+    @Test
+    public void migrate_backfillRecorded_skipsCollection() {
+        when(backfillRepository.findByNameAndCollectorId(NaturalKeyIndexMigration.NAME + "builds", null))
+                .thenReturn(new Backfill(NaturalKeyIndexMigration.NAME + "builds", null, 1L));
+
+        migration.migrate();
+
+        verify(mongoOperations, never()).aggregate(any(Aggregation.class), eq("builds"), eq(DBObject.class));
+        verifyZeroInteractions(buildIndexes);
+    }
+
+    private List<String> backfills() {
+        ArgumentCaptor<Backfill> backfills = ArgumentCaptor.forClass(Backfill.class);
+        verify(backfillRepository, atLeastOnce()).save(backfills.capture());
+        List<String> names = new ArrayList<>();
+        for (Backfill backfill : backfills.getAllValues()) {
+            names.add(backfill.getName());
+        }
+        return names;
+    }
+
+    private void groups(String collectionName, DBObject... groups) {
+        AggregationResults<DBObject> results = new AggregationResults<>(Arrays.asList(groups), new BasicDBObject());
+        when(mongoOperations.aggregate(any(Aggregation.class), eq(collectionName), eq(DBObject.class)))
+                .thenReturn(results);
+    }
+
+    private static DBObject group(ObjectId... ids) {
+        BasicDBList list = new BasicDBList();
+        list.addAll(Arrays.asList(ids));
+        return new BasicDBObject("ids", list).append("count", ids.length);
+    }
+}
@@ -0,0 +1,71 @@
+package com.capitalone.dashboard.repository;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QueryBudgetTest {
+
+    @After
+    public void teardown() {
+        QueryBudget.clear();
+    }
+
+    @Test
+    public void remainingMillis_withinBudget() {
+        QueryBudget.start("build", 60000);
+
+        long remaining = QueryBudget.current().remainingMillis();
+
+        assertThat(remaining, is(both(greaterThan(0L)).and(lessThanOrEqualTo(60000L))));
+    }
+
+    @Test
+    public void remainingMillis_exhausted_throws() throws Exception {
+        QueryBudget.start("build", 1);
+        Thread.sleep(5);
+
+        try {
+            QueryBudget.current().remainingMillis();
+            fail("Expected the budget to be exhausted");
+        } catch (QueryBudgetExceededException e) {
+            assertThat(e.getEndpoint(), is("build"));
+            assertThat(e.getBudgetMillis(), is(1L));
+        }
+    }
+
+    @Test
+    public void clear_endsBudget() {
+        QueryBudget.start("build", 60000);
+        QueryBudget.clear();
+
+        assertThat(QueryBudget.current(), nullValue());
+    }
+
+    @Test
+    public void explain_stoppedAfterBudget() {
+        QueryBudget.start("build", 250);
+        DBCursor cursor = mock(DBCursor.class);
+        DBObject plan = new BasicDBObject("executionStats", new BasicDBObject());
+        when(cursor.maxTime(250, TimeUnit.MILLISECONDS)).thenReturn(cursor);
+        when(cursor.explain()).thenReturn(plan);
+
+        assertThat(BudgetedMongoTemplate.explain(cursor, QueryBudget.current()), is(plan));
+
+        InOrder inOrder = inOrder(cursor);
+        inOrder.verify(cursor).maxTime(250, TimeUnit.MILLISECONDS);
+        inOrder.verify(cursor).explain();
+    }
+}
@@ -0,0 +1,104 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.DataVersion;
+import com.capitalone.dashboard.model.Service;
+import com.capitalone.dashboard.model.ServiceCheckResult;
+import com.capitalone.dashboard.model.ServiceStatus;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ServiceRepositoryImplTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final DBCollection collection = mock(DBCollection.class);
+    private final WriteResult writeResult = mock(WriteResult.class);
+    private final ServiceRepositoryImpl repository = new ServiceRepositoryImpl(mongoOperations);
+
+    @Before
+    public void setup() {
+        when(mongoOperations.getCollectionName(Service.class)).thenReturn("services");
+        when(mongoOperations.getCollection("services")).thenReturn(collection);
+        when(collection.update(any(DBObject.class), any(DBObject.class))).thenReturn(writeResult);
+    }
+
+    @Test
+    public void recordCheck_pushesHistoryAndSetsStatusOnlyIfChanged() {
+        ObjectId id = ObjectId.get();
+        when(writeResult.getN()).thenReturn(1);
+
+        boolean changed = repository.recordCheck(id,
+                new ServiceCheckResult(1000L, 42L, 503, ServiceStatus.Alert), ServiceStatus.Alert, "HTTP 503");
+
+        ArgumentCaptor<DBObject> query = ArgumentCaptor.forClass(DBObject.class);
+        ArgumentCaptor<DBObject> update = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection, times(2)).update(query.capture(), update.capture());
+        assertThat(changed, is(true));
+
+        DBObject push = (DBObject) ((DBObject) update.getAllValues().get(0).get("$push")).get("checkHistory");
+        assertThat(push.get("$slice"), is((Object) (-ServiceRepositoryImpl.CHECK_HISTORY)));
+        DBObject entry = (DBObject) ((List<?>) push.get("$each")).get(0);
+        assertThat(entry.get("latencyMillis"), is((Object) 42L));
+        assertThat(entry.get("status"), is((Object) "Alert"));
+
+        assertThat(query.getAllValues().get(1).containsField("$or"), is(true));
+        DBObject set = (DBObject) update.getAllValues().get(1).get("$set");
+        assertThat(set.get("status"), is((Object) "Alert"));
+        assertThat(set.get("message"), is((Object) "HTTP 503"));
+        assertThat(set.get("lastUpdated"), is((Object) 1000L));
+        verify(mongoOperations).upsert(any(Query.class), any(Update.class), eq(DataVersion.class));
+    }
+
+    @Test
+    public void recordCheck_unchangedStatus_keepsDataVersion() {
+        when(writeResult.getN()).thenReturn(0);
+
+        boolean changed = repository.recordCheck(ObjectId.get(),
+                new ServiceCheckResult(1000L, 42L, 200, ServiceStatus.Ok), ServiceStatus.Ok, null);
+
+        assertThat(changed, is(false));
+        verify(mongoOperations, never()).upsert(any(Query.class), any(Update.class), eq(DataVersion.class));
+    }
+
+    @Test
+    public void findChecked_readsOnlyCheckAndStatus() {
+        repository.findChecked();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(query.capture(), eq(Service.class));
+        assertThat(query.getValue().getQueryObject().toString(), containsString("check.url"));
+        assertThat(query.getValue().getFieldsObject().keySet(), containsInAnyOrder("check", "status"));
+    }
+
+    @Test
+    public void updateStatus_setsOnlyRequestFields() {
+        Service service = new Service();
+        service.setId(ObjectId.get());
+        service.setStatus(ServiceStatus.Warning);
+        service.setMessage("Slow");
+        service.setLastUpdated(1000L);
+
+        repository.updateStatus(service);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).updateFirst(any(Query.class), update.capture(), eq(Service.class));
+        DBObject updateObject = update.getValue().getUpdateObject();
+        assertThat(((DBObject) updateObject.get("$set")).keySet(), containsInAnyOrder("status", "message", "lastUpdated"));
+        assertThat(((DBObject) updateObject.get("$unset")).keySet(), containsInAnyOrder("check"));
+    }
+}
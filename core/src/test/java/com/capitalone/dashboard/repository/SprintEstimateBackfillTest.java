@@ -0,0 +1,96 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.Backfill;
+import com.capitalone.dashboard.model.Feature;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SprintEstimateBackfillTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final DBCollection collection = mock(DBCollection.class);
+    private final SprintEstimateRepository sprintEstimateRepository = mock(SprintEstimateRepository.class);
+    private final BackfillRepository backfillRepository = mock(BackfillRepository.class);
+    private final SprintEstimateBackfill backfill =
+            new SprintEstimateBackfill(mongoOperations, sprintEstimateRepository, backfillRepository);
+    private final ObjectId collectorId = ObjectId.get();
+
+    @Before
+    public void setup() {
+        when(mongoOperations.getCollectionName(Feature.class)).thenReturn("feature");
+        when(mongoOperations.getCollection("feature")).thenReturn(collection);
+        when(collection.distinct(eq("sTeamID"), any(DBObject.class))).thenReturn((List) Arrays.asList("t1", "t2"));
+    }
+
+    @Test
+    public void backfill_firstTime_setsEstimatesRollsUpTeamsAndRecordsCompletion() {
+        Feature legacy = new Feature();
+        legacy.setId(ObjectId.get());
+        legacy.setsEstimate("5");
+        legacy.setsStatus("Done");
+        when(mongoOperations.find(any(Query.class), eq(Feature.class))).thenReturn(Collections.singletonList(legacy));
+
+        assertThat(backfill.backfill(collectorId), is(2));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).updateFirst(any(Query.class), update.capture(), eq(Feature.class));
+        DBObject set = (DBObject) update.getValue().getUpdateObject().get("$set");
+        assertThat(set.get("estimate"), is((Object) 5));
+        verify(sprintEstimateRepository).refresh("t1");
+        verify(sprintEstimateRepository).refresh("t2");
+        ArgumentCaptor<Backfill> marker = ArgumentCaptor.forClass(Backfill.class);
+        verify(backfillRepository).save(marker.capture());
+        assertThat(marker.getValue().getName(), is("sprintEstimates"));
+        assertThat(marker.getValue().getCollectorId(), is(collectorId));
+    }
+
+    @Test
+    public void backfill_completedByEarlierProcess_skipped() {
+        when(backfillRepository.findByNameAndCollectorId("sprintEstimates", collectorId))
+                .thenReturn(new Backfill("sprintEstimates", collectorId, 1L));
+
+        assertThat(backfill.backfill(collectorId), is(0));
+
+        verifyZeroInteractions(sprintEstimateRepository);
+        verify(backfillRepository, never()).save(any(Backfill.class));
+    }
+
+    @Test
+    public void backfill_secondCall_skipped() {
+        backfill.backfill(collectorId);
+        backfill.backfill(collectorId);
+
+        verify(sprintEstimateRepository, times(1)).refresh("t1");
+    }
+
+    @Test
+    public void backfill_failed_notRecorded() {
+        doThrow(new IllegalStateException("down")).when(sprintEstimateRepository).refresh(anyString());
+
+        try {
+            backfill.backfill(collectorId);
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        verify(backfillRepository, never()).save(any(Backfill.class));
+    }
+}
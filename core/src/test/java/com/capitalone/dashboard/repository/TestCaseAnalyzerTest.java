@@ -0,0 +1,214 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestCaseStats;
+import com.capitalone.dashboard.model.TestCaseStatus;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestSuite;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestCaseAnalyzerTest {
+
+    private static final ObjectId ITEM_ID = ObjectId.get();
+
+    @Mock private TestCaseStatsRepository testCaseStatsRepository;
+    @InjectMocks private TestCaseAnalyzer analyzer;
+
+    @Test
+    public void analyze_newCases_createsStats() {
+        TestResult result = makeResult(makeSuite("feature", makeCase("a", TestCaseStatus.Success, 100),
+                makeCase("b", TestCaseStatus.Failure, 200)));
+
+        assertThat(analyzer.analyze(result), is(2));
+
+        List<TestCaseStats> saved = saved();
+        assertThat(saved, hasSize(2));
+        for (TestCaseStats stats : saved) {
+            assertThat(stats.getCollectorItemId(), is(ITEM_ID));
+            assertThat(stats.getSuiteDescription(), is("feature"));
+            assertThat(stats.getRuns(), is(1));
+            assertThat(stats.getFlips(), is(0));
+        }
+    }
+
+    @Test
+    public void analyze_existingCase_updatesStats() {
+        TestCaseStats existing = new TestCaseStats(ITEM_ID, "feature", makeCase("a", TestCaseStatus.Success, 100));
+        existing.record(TestCaseStatus.Success, 100, 1);
+        when(testCaseStatsRepository.findByCollectorItemIdAndKeyIn(eq(ITEM_ID), anyCollectionOf(String.class)))
+                .thenReturn(Arrays.asList(existing));
+
+        analyzer.analyze(makeResult(makeSuite("feature", makeCase("a", TestCaseStatus.Failure, 200))));
+
+        assertThat(saved(), contains(existing));
+        assertThat(existing.getRuns(), is(2));
+        assertThat(existing.getFailures(), is(1));
+        assertThat(existing.getFlips(), is(1));
+        assertThat(existing.getLastStatus(), is(TestCaseStatus.Failure));
+    }
+
+    @Test
+    public void analyze_batch_oneQueryPerItemAndRunsInOrder() {
+        TestResult first = makeResult(makeSuite("feature", makeCase("a", TestCaseStatus.Success, 100)));
+        TestResult second = makeResult(makeSuite("feature", makeCase("a", TestCaseStatus.Failure, 200),
+                makeCase("b", TestCaseStatus.Success, 50)));
+
+        assertThat(analyzer.analyze(Arrays.asList(first, second)), is(2));
+
+        verify(testCaseStatsRepository).findByCollectorItemIdAndKeyIn(eq(ITEM_ID), anyCollectionOf(String.class));
+        TestCaseStats a = null;
+        for (TestCaseStats stats : saved()) {
+            if ("a".equals(stats.getTestCaseId())) {
+                a = stats;
+            }
+        }
+        assertThat(a.getRuns(), is(2));
+        assertThat(a.getLastStatus(), is(TestCaseStatus.Failure));
+    }
+
+    @Test
+    public void analyze_updatedConcurrently_readsAgainAndRetries() {
+        TestCaseStats stale = new TestCaseStats(ITEM_ID, "feature", makeCase("a", TestCaseStatus.Success, 100));
+        stale.record(TestCaseStatus.Success, 100, 1);
+        TestCaseStats current = new TestCaseStats(ITEM_ID, "feature", makeCase("a", TestCaseStatus.Success, 100));
+        current.record(TestCaseStatus.Success, 100, 1);
+        current.record(TestCaseStatus.Success, 100, 2);
+        when(testCaseStatsRepository.findByCollectorItemIdAndKeyIn(eq(ITEM_ID), anyCollectionOf(String.class)))
+                .thenReturn(Arrays.asList(stale))
+                .thenReturn(Arrays.asList(current));
+        when(testCaseStatsRepository.save(stale)).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        assertThat(analyzer.analyze(makeResult(makeSuite("feature", makeCase("a", TestCaseStatus.Failure, 200)))),
+                is(1));
+
+        verify(testCaseStatsRepository).save(current);
+        assertThat(current.getRuns(), is(3));
+        assertThat(current.getFlips(), is(1));
+    }
+
+    @Test
+    public void analyze_createdConcurrently_updatesTheOtherWritersStats() {
+        TestCaseStats created = new TestCaseStats(ITEM_ID, "feature", makeCase("a", TestCaseStatus.Success, 100));
+        created.record(TestCaseStatus.Success, 100, 1);
+        when(testCaseStatsRepository.findByCollectorItemIdAndKeyIn(eq(ITEM_ID), anyCollectionOf(String.class)))
+                .thenReturn(new ArrayList<TestCaseStats>())
+                .thenReturn(Arrays.asList(created));
+        when(testCaseStatsRepository.save(any(TestCaseStats.class)))
+                .thenThrow(new DuplicateKeyException("item_key"))
+                .thenReturn(created);
+
+        assertThat(analyzer.analyze(makeResult(makeSuite("feature", makeCase("a", TestCaseStatus.Failure, 200)))),
+                is(1));
+
+        assertThat(saved(), hasItem(created));
+        assertThat(created.getRuns(), is(2));
+    }
+
+    @Test
+    public void analyze_keepsConflicting_givesUpWithoutThrowing() {
+        when(testCaseStatsRepository.save(any(TestCaseStats.class)))
+                .thenThrow(new DuplicateKeyException("item_key"));
+
+        assertThat(analyzer.analyze(makeResult(makeSuite("feature", makeCase("a", TestCaseStatus.Failure, 200)))),
+                is(0));
+
+        verify(testCaseStatsRepository, times(5)).save(any(TestCaseStats.class));
+    }
+
+    @Test
+    public void afterInsert_analyzesInsertedResults() {
+        analyzer.afterInsert(Arrays.asList(makeResult(makeSuite("feature", makeCase("a", TestCaseStatus.Success, 100)))));
+
+        assertThat(saved(), hasSize(1));
+    }
+
+    @Test
+    public void analyze_noCases_doesNothing() {
+        assertThat(analyzer.analyze(makeResult(makeSuite("feature"))), is(0));
+        verifyZeroInteractions(testCaseStatsRepository);
+    }
+
+    @Test
+    public void record_flakinessOverRecentOutcomes() {
+        TestCaseStats stats = new TestCaseStats(ITEM_ID, "feature", makeCase("a", TestCaseStatus.Success, 0));
+        for (TestCaseStatus status : Arrays.asList(TestCaseStatus.Success, TestCaseStatus.Failure,
+                TestCaseStatus.Skipped, TestCaseStatus.Success, TestCaseStatus.Success)) {
+            stats.record(status, 0, 1);
+        }
+
+        assertThat(stats.getRecentOutcomes(), is("PFPP"));
+        assertThat(stats.getFlips(), is(2));
+        assertThat(stats.getFlakiness(), closeTo(2.0 / 3, 0.0001));
+
+        for (int i = 0; i < TestCaseStats.WINDOW; i++) {
+            stats.record(TestCaseStatus.Success, 0, 1);
+        }
+        assertThat(stats.getRecentOutcomes().length(), is(TestCaseStats.WINDOW));
+        assertThat(stats.getFlakiness(), is(0.0));
+        assertThat(stats.getFlips(), is(2));
+    }
+
+    @Test
+    public void record_durationAverageAndPercentiles() {
+        TestCaseStats stats = new TestCaseStats(ITEM_ID, "feature", makeCase("a", TestCaseStatus.Success, 0));
+        for (long duration = 1; duration <= 20; duration++) {
+            stats.record(TestCaseStatus.Success, duration, 1);
+        }
+        stats.record(TestCaseStatus.Success, 0, 1);
+
+        assertThat(stats.getRecentDurations(), hasSize(20));
+        assertThat(stats.getDurationP50(), is(10L));
+        assertThat(stats.getDurationP95(), is(19L));
+        assertThat(stats.getDurationEwma(), allOf(greaterThan(10.0), lessThan(20.0)));
+    }
+
+    private List<TestCaseStats> saved() {
+        ArgumentCaptor<TestCaseStats> captor = ArgumentCaptor.forClass(TestCaseStats.class);
+        verify(testCaseStatsRepository, atLeastOnce()).save(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private TestResult makeResult(TestSuite... suites) {
+        TestResult result = new TestResult();
+        result.setCollectorItemId(ITEM_ID);
+        result.setTimestamp(1000);
+        result.getTestSuites().addAll(Arrays.asList(suites));
+        return result;
+    }
+
+    private TestSuite makeSuite(String description, TestCase... cases) {
+        TestSuite suite = new TestSuite();
+        suite.setDescription(description);
+        suite.getTestCases().addAll(Arrays.asList(cases));
+        return suite;
+    }
+
+    private TestCase makeCase(String id, TestCaseStatus status, long duration) {
+        TestCase testCase = new TestCase();
+        testCase.setId(id);
+        testCase.setDescription(id);
+        testCase.setStatus(status);
+        testCase.setDuration(duration);
+        return testCase;
+    }
+}
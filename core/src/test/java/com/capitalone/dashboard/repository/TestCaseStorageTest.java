@@ -0,0 +1,74 @@
+package com.capitalone.dashboard.repository;
+
+import com.capitalone.dashboard.model.TestCase;
+import com.capitalone.dashboard.model.TestCaseRecord;
+import com.capitalone.dashboard.model.TestCaseStatus;
+import com.capitalone.dashboard.model.TestResult;
+import com.capitalone.dashboard.model.TestSuite;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class TestCaseStorageTest {
+
+    @Test
+    public void strip_removesCasesKeepsSuites() {
+        BasicDBList suites = new BasicDBList();
+        suites.add(new BasicDBObject("description", "suite1").append("totalCount", 2)
+                .append("testCases", Arrays.asList(new BasicDBObject("id", "1"), new BasicDBObject("id", "2"))));
+        suites.add(new BasicDBObject("description", "suite2"));
+        DBObject dbObject = new BasicDBObject("testSuites", suites);
+
+        assertThat(TestCaseStorage.strip(dbObject), is(true));
+
+        DBObject suite = (DBObject) suites.get(0);
+        assertThat(suite.containsField("testCases"), is(false));
+        assertThat(suite.get("totalCount"), is((Object) 2));
+        assertThat(TestCaseStorage.strip(dbObject), is(false));
+    }
+
+    @Test
+    public void records_inSuiteAndCaseOrder() {
+        TestResult testResult = new TestResult();
+        testResult.setId(ObjectId.get());
+        testResult.setCollectorItemId(ObjectId.get());
+        testResult.getTestSuites().add(makeSuite("a", "b"));
+        testResult.getTestSuites().add(makeSuite());
+        testResult.getTestSuites().add(makeSuite("c"));
+
+        List<TestCaseRecord> records = TestCaseStorage.records(testResult);
+
+        assertThat(records, hasSize(3));
+        assertRecord(records.get(0), testResult, 0, 0, "a");
+        assertRecord(records.get(1), testResult, 0, 1, "b");
+        assertRecord(records.get(2), testResult, 2, 0, "c");
+    }
+
+    private void assertRecord(TestCaseRecord record, TestResult testResult, int suiteIndex, int caseIndex, String id) {
+        assertThat(record.getTestResultId(), is(testResult.getId()));
+        assertThat(record.getCollectorItemId(), is(testResult.getCollectorItemId()));
+        assertThat(record.getSuiteIndex(), is(suiteIndex));
+        assertThat(record.getCaseIndex(), is(caseIndex));
+        assertThat(record.getTestCaseId(), is(id));
+        assertThat(record.getStatus(), is(TestCaseStatus.Success));
+    }
+
+    private TestSuite makeSuite(String... ids) {
+        TestSuite suite = new TestSuite();
+        for (String id : ids) {
+            TestCase testCase = new TestCase();
+            testCase.setId(id);
+            testCase.setStatus(TestCaseStatus.Success);
+            suite.getTestCases().add(testCase);
+        }
+        return suite;
+    }
+}
@@ -7,8 +7,10 @@ import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.GitHubRepo;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsBackfill;
 import com.capitalone.dashboard.repository.GitHubRepoRepository;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -19,6 +21,7 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * CollectorTask that fetches Commit information from GitHub
@@ -33,6 +36,8 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
     private final GitHubClient gitHubClient;
     private final GitHubSettings gitHubSettings;
     private final ComponentRepository dbComponentRepository;
+    private final DailyStatsBackfill dailyStatsBackfill;
+    private final CollectorItemHealthRepository collectorItemHealthRepository;
 
     @Autowired
     public GitHubCollectorTask(TaskScheduler taskScheduler,
@@ -41,7 +46,9 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
                                    CommitRepository commitRepository,
                                    GitHubClient gitHubClient,
                                    GitHubSettings gitHubSettings,
-                                   ComponentRepository dbComponentRepository) {
+                                   ComponentRepository dbComponentRepository,
+                                   DailyStatsBackfill dailyStatsBackfill,
+                                   CollectorItemHealthRepository collectorItemHealthRepository) {
         super(taskScheduler, "GitHub");
         this.collectorRepository = collectorRepository;
         this.gitHubRepoRepository = gitHubRepoRepository;
@@ -49,6 +56,8 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
         this.gitHubClient = gitHubClient;
         this.gitHubSettings = gitHubSettings;
         this.dbComponentRepository = dbComponentRepository;
+        this.dailyStatsBackfill = dailyStatsBackfill;
+        this.collectorItemHealthRepository = collectorItemHealthRepository;
     }
 
     @Override
@@ -116,43 +125,119 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
 
     @Override
     public void collect(Collector collector) {
+        dailyStatsBackfill.backfill(CollectorType.SCM, collector.getId());
 
         logBanner("Starting...");
         long start = System.currentTimeMillis();
         int repoCount = 0;
-        int commitCount = 0;
+        final AtomicInteger commitCount = new AtomicInteger();
 
         clean(collector);
-        for (GitHubRepo repo : enabledRepos(collector)) {
-        	boolean firstRun = false;
-        	if (repo.getLastUpdateTime() == null) firstRun = true;
-        	repo.setLastUpdateTime(new Date());
-            gitHubRepoRepository.save(repo);
-            LOG.debug(repo.getOptions().toString()+"::"+repo.getBranch());
-            for (Commit commit : gitHubClient.getCommits(repo, firstRun)) {
-            	LOG.debug(commit.getTimestamp()+":::"+commit.getScmCommitLog());
-                if (isNewCommit(repo, commit)) {
-                    commit.setCollectorItemId(repo.getId());
-                    commitRepository.save(commit);
-                    commitCount++;
-                }
-            }
+        Pipeline<RepoCommits> pipeline = this.<RepoCommits>pipeline(collector, "github-commits", gitHubSettings.getQueueCapacity())
+                .then("fetch", gitHubSettings.getFetchThreads(), new Pipeline.Stage<RepoCommits, RepoCommits>() {
+                    @Override
+                    public RepoCommits apply(RepoCommits repoCommits) {
+                        return fetchCommits(repoCommits);
+                    }
+                })
+                .then("transform", gitHubSettings.getTransformThreads(), new Pipeline.Stage<RepoCommits, RepoCommits>() {
+                    @Override
+                    public RepoCommits apply(RepoCommits repoCommits) {
+                        try {
+                            return newCommits(repoCommits);
+                        } catch (RuntimeException e) {
+                            recordFailure(repoCommits, "Failed to check commits", e);
+                            throw e;
+                        }
+                    }
+                })
+                .into("persist", gitHubSettings.getPersistThreads(), new Pipeline.Sink<RepoCommits>() {
+                    @Override
+                    public void accept(RepoCommits repoCommits) {
+                        try {
+                            if (!repoCommits.commits.isEmpty()) {
+                                commitRepository.save(repoCommits.commits);
+                            }
+                        } catch (RuntimeException e) {
+                            recordFailure(repoCommits, "Failed to save commits", e);
+                            throw e;
+                        }
+                        collectorItemHealthRepository.recordSuccess(repoCommits.repo, repoCommits.fetchMillis,
+                                repoCommits.commits.size());
+                        commitCount.addAndGet(repoCommits.commits.size());
+                    }
+                });
+
+        try {
+            for (GitHubRepo repo : enabledRepos(collector)) {
+                boolean firstRun = false;
+                if (repo.getLastUpdateTime() == null) firstRun = true;
+                repo.setLastUpdateTime(new Date());
+                gitHubRepoRepository.save(repo);
+                LOG.debug(repo.getOptions().toString()+"::"+repo.getBranch());
+                pipeline.submit(new RepoCommits(repo, firstRun));
 
-            repoCount++;
+                repoCount++;
+            }
+        } finally {
+            pipeline.finish();
         }
         log("Repo Count", start, repoCount);
-        log("New Commits", start, commitCount);
+        log("New Commits", start, commitCount.get());
 
         log("Finished", start);
     }
 
+    /**
+     * Fetch stage of {@link #collect}.
+     *
+     * @return the repo with its recent commits, or null if they could not be fetched
+     */
+    private RepoCommits fetchCommits(RepoCommits repoCommits) {
+        long fetchStart = System.currentTimeMillis();
+        try {
+            repoCommits.commits = gitHubClient.getCommits(repoCommits.repo, repoCommits.firstRun);
+        } catch (RuntimeException e) {
+            LOG.error("Failed to fetch commits for " + repoCommits.repo.getRepoUrl(), e);
+            collectorItemHealthRepository.recordFailure(repoCommits.repo, System.currentTimeMillis() - fetchStart,
+                    e.getMessage());
+            return null;
+        }
+        repoCommits.fetchMillis = System.currentTimeMillis() - fetchStart;
+        return repoCommits;
+    }
+
+    /**
+     * Records a failure of a stage after the fetch, which the pipeline only counts.
+     */
+    private void recordFailure(RepoCommits repoCommits, String what, RuntimeException e) {
+        collectorItemHealthRepository.recordFailure(repoCommits.repo, repoCommits.fetchMillis,
+                what + ": " + e.getMessage());
+    }
+
+    /**
+     * Transform stage of {@link #collect}: keeps the commits not yet stored and ties them to their repo.
+     */
+    private RepoCommits newCommits(RepoCommits repoCommits) {
+        List<Commit> newCommits = new ArrayList<>();
+        for (Commit commit : repoCommits.commits) {
+        	LOG.debug(commit.getTimestamp()+":::"+commit.getScmCommitLog());
+            if (isNewCommit(repoCommits.repo, commit)) {
+                commit.setCollectorItemId(repoCommits.repo.getId());
+                newCommits.add(commit);
+            }
+        }
+        repoCommits.commits = newCommits;
+        return repoCommits;
+    }
+
     @SuppressWarnings("unused")
     private Date lastUpdated(GitHubRepo repo) {
         return repo.getLastUpdateTime();
     }
 
     private List<GitHubRepo> enabledRepos(Collector collector) {
-        return gitHubRepoRepository.findEnabledGitHubRepos(collector.getId());
+        return dueItems(gitHubRepoRepository.findEnabledGitHubRepos(collector.getId()));
     }
 
     private boolean isNewCommit(GitHubRepo repo, Commit commit) {
@@ -179,6 +264,23 @@ public class GitHubCollectorTask extends CollectorTask<Collector> {
         LOG.info(text + token2 + token3);
     }
 
+    private static final class RepoCommits {
+        private final GitHubRepo repo;
+        private final boolean firstRun;
+        private List<Commit> commits;
+        private long fetchMillis;
+
+        RepoCommits(GitHubRepo repo, boolean firstRun) {
+            this.repo = repo;
+            this.firstRun = firstRun;
+        }
+
+        @Override
+        public String toString() {
+            return repo.getRepoUrl();
+        }
+    }
+
     private void logBanner(String instanceUrl) {
         LOG.info("------------------------------");
         LOG.info(instanceUrl);
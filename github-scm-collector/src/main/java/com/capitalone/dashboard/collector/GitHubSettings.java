@@ -13,6 +13,10 @@ public class GitHubSettings {
     private String host;
     private String key;
     private int firstRunHistoryDays;
+    private int fetchThreads = 4;
+    private int transformThreads = 1;
+    private int persistThreads = 2;
+    private int queueCapacity = 20;
 
 
 	public String getHost() {
@@ -46,4 +50,36 @@ public class GitHubSettings {
 	public void setFirstRunHistoryDays(int firstRunHistoryDays) {
 		this.firstRunHistoryDays = firstRunHistoryDays;
 	}
+
+	public int getFetchThreads() {
+		return fetchThreads;
+	}
+
+	public void setFetchThreads(int fetchThreads) {
+		this.fetchThreads = fetchThreads;
+	}
+
+	public int getTransformThreads() {
+		return transformThreads;
+	}
+
+	public void setTransformThreads(int transformThreads) {
+		this.transformThreads = transformThreads;
+	}
+
+	public int getPersistThreads() {
+		return persistThreads;
+	}
+
+	public void setPersistThreads(int persistThreads) {
+		this.persistThreads = persistThreads;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
 }
@@ -0,0 +1,111 @@
+package com.capitalone.dashboard.collector;
+
+import com.capitalone.dashboard.model.Commit;
+import com.capitalone.dashboard.model.GitHubRepo;
+import com.capitalone.dashboard.util.Supplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestOperations;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A recorded GitHub run replays later, when the commits are asked for since another time.
+ */
+public class DefaultGitHubClientReplayTest {
+
+    private static final String PAGE_1 = "[{\"sha\":\"a1\",\"commit\":{\"message\":\"first\","
+            + "\"author\":{\"name\":\"Ann\",\"date\":\"2016-03-01T10:00:00Z\"}}}]";
+    private static final String PAGE_2 = "[{\"sha\":\"b2\",\"commit\":{\"message\":\"second\","
+            + "\"author\":{\"name\":\"Bob\",\"date\":\"2016-03-01T11:00:00Z\"}}}]";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void getCommits_replayedOnLaterRun() throws Exception {
+        File archive = folder.newFile("github.gz");
+        final List<String> requested = new ArrayList<>();
+        ClientHttpRequestFactory github = mock(ClientHttpRequestFactory.class);
+        when(github.createRequest(any(URI.class), any(HttpMethod.class))).thenAnswer(new Answer<MockClientHttpRequest>() {
+            @Override
+            public MockClientHttpRequest answer(InvocationOnMock invocation) {
+                String url = invocation.getArguments()[0].toString();
+                requested.add(url);
+                MockClientHttpResponse response;
+                if (url.contains("&page=2")) {
+                    response = new MockClientHttpResponse(PAGE_2.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+                } else {
+                    response = new MockClientHttpResponse(PAGE_1.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+                    response.getHeaders().add("Link", "<" + url + "&page=2>; rel=\"next\"");
+                }
+                MockClientHttpRequest request = new MockClientHttpRequest();
+                request.setResponse(response);
+                return request;
+            }
+        });
+        HttpRecorder recorder = new HttpRecorder(HttpRecorder.Mode.RECORD, archive, 1);
+        List<Commit> recorded = client(recorder, github).getCommits(repo(new Date()), false);
+        recorder.close();
+
+        ClientHttpRequestFactory offline = mock(ClientHttpRequestFactory.class);
+        HttpRecorder replayer = new HttpRecorder(HttpRecorder.Mode.REPLAY, archive, 0);
+        Date nextRun = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(5));
+        List<Commit> replayed = client(replayer, offline).getCommits(repo(nextRun), false);
+
+        assertThat(requested.get(0), containsString("&since="));
+        assertThat(revisions(recorded), contains("a1", "b2"));
+        assertThat(revisions(replayed), contains("a1", "b2"));
+        verifyZeroInteractions(offline);
+    }
+
+    private DefaultGitHubClient client(final HttpRecorder recorder, final ClientHttpRequestFactory requestFactory) {
+        return new DefaultGitHubClient(new GitHubSettings(), new Supplier<RestOperations>() {
+            @Override
+            public RestOperations get() {
+                return new RestTemplate(recorder.wrap(requestFactory));
+            }
+        });
+    }
+
+    private GitHubRepo repo(Date lastUpdateTime) {
+        GitHubRepo repo = new GitHubRepo();
+        repo.getOptions().put("url", "https://github.com/capitalone/Hygieia.git");
+        repo.setRepoUrl("https://github.com/capitalone/Hygieia.git");
+        repo.setBranch("master");
+        repo.setPassword("");
+        repo.setLastUpdateTime(lastUpdateTime);
+        return repo;
+    }
+
+    private List<String> revisions(List<Commit> commits) {
+        List<String> revisions = new ArrayList<>();
+        for (Commit commit : commits) {
+            revisions.add(commit.getScmRevisionNumber());
+        }
+        return revisions;
+    }
+}
@@ -7,9 +7,12 @@ import com.capitalone.dashboard.model.HudsonCollector;
 import com.capitalone.dashboard.model.HudsonJob;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.BuildRepository;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsBackfill;
 import com.capitalone.dashboard.repository.HudsonCollectorRepository;
 import com.capitalone.dashboard.repository.HudsonJobRepository;
+import com.capitalone.dashboard.repository.LeadTimeIndex;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -20,10 +23,14 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * CollectorTask that fetches Build information from Hudson
@@ -39,6 +46,9 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 	private final HudsonClient hudsonClient;
 	private final HudsonSettings hudsonSettings;
 	private final ComponentRepository dbComponentRepository;
+	private final DailyStatsBackfill dailyStatsBackfill;
+	private final LeadTimeIndex leadTimeIndex;
+	private final CollectorItemHealthRepository collectorItemHealthRepository;
 	private final int CLEANUP_INTERVAL = 3600000;
 
 	@Autowired
@@ -47,7 +57,10 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 			HudsonJobRepository hudsonJobRepository,
 			BuildRepository buildRepository, HudsonClient hudsonClient,
 			HudsonSettings hudsonSettings,
-			ComponentRepository dbComponentRepository) {
+			ComponentRepository dbComponentRepository,
+			DailyStatsBackfill dailyStatsBackfill,
+			LeadTimeIndex leadTimeIndex,
+			CollectorItemHealthRepository collectorItemHealthRepository) {
 		super(taskScheduler, "Hudson");
 		this.hudsonCollectorRepository = hudsonCollectorRepository;
 		this.hudsonJobRepository = hudsonJobRepository;
@@ -55,6 +68,9 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 		this.hudsonClient = hudsonClient;
 		this.hudsonSettings = hudsonSettings;
 		this.dbComponentRepository = dbComponentRepository;
+		this.dailyStatsBackfill = dailyStatsBackfill;
+		this.leadTimeIndex = leadTimeIndex;
+		this.collectorItemHealthRepository = collectorItemHealthRepository;
 	}
 
 	@Override
@@ -72,8 +88,20 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 		return hudsonSettings.getCron();
 	}
 
+	/**
+	 * The jobs of an instance are listed with their builds on every run anyway, so instead of
+	 * skipping idle jobs the listing tells which jobs have new builds.
+	 */
+	@Override
+	protected boolean pollsAdaptively() {
+		return false;
+	}
+
 	@Override
 	public void collect(HudsonCollector collector) {
+		dailyStatsBackfill.backfill(CollectorType.Build, collector.getId());
+		leadTimeIndex.backfill(CollectorType.Build, collector.getId());
+
 		long start = System.currentTimeMillis();
 
 		// Clean up every hour
@@ -83,13 +111,15 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 		for (String instanceUrl : collector.getBuildServers()) {
 			logInstanceBanner(instanceUrl);
 
+			long fetchStart = System.currentTimeMillis();
 			Map<HudsonJob, Set<Build>> buildsByJob = hudsonClient
 					.getInstanceJobs(instanceUrl);
+			long fetchMillis = System.currentTimeMillis() - fetchStart;
 			log("Fetched jobs", start);
 
 			addNewJobs(buildsByJob.keySet(), collector);
 
-			addNewBuilds(enabledJobs(collector, instanceUrl), buildsByJob);
+			addNewBuilds(collector, enabledJobs(collector, instanceUrl), buildsByJob, fetchMillis);
 
 			log("Finished", start);
 		}
@@ -135,38 +165,102 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 
 	/**
 	 * Iterates over the enabled build jobs and adds new builds to the database.
+	 * Build details are fetched and saved by separate stages of a {@link Pipeline},
+	 * so several builds are in flight at once. A job whose builds could not all be fetched
+	 * or saved is recorded as failed.
 	 *
+	 * @param collector
+	 *            the {@link HudsonCollector}
 	 * @param enabledJobs
 	 *            list of enabled {@link HudsonJob}s
 	 * @param buildsByJob
 	 *            maps a {@link HudsonJob} to a set of {@link Build}s.
+	 * @param fetchMillis
+	 *            time it took to fetch the jobs of the instance
 	 */
-	private void addNewBuilds(List<HudsonJob> enabledJobs,
-			Map<HudsonJob, Set<Build>> buildsByJob) {
+	private void addNewBuilds(HudsonCollector collector, List<HudsonJob> enabledJobs,
+			Map<HudsonJob, Set<Build>> buildsByJob, long fetchMillis) {
 		long start = System.currentTimeMillis();
-		int count = 0;
-
-		for (HudsonJob job : enabledJobs) {
-
-			for (Build buildSummary : nullSafe(buildsByJob.get(job))) {
-
-				if (isNewBuild(job, buildSummary)) {
-					Build build = hudsonClient.getBuildDetails(buildSummary
-							.getBuildUrl());
-					if (build != null) {
-						build.setCollectorItemId(job.getId());
-						buildRepository.save(build);
-						count++;
+		final AtomicInteger count = new AtomicInteger();
+
+		Pipeline<JobBuild> pipeline = this.<JobBuild>pipeline(collector, "hudson-builds", hudsonSettings.getQueueCapacity())
+				.then("fetch", hudsonSettings.getFetchThreads(), new Pipeline.Stage<JobBuild, JobBuild>() {
+					@Override
+					public JobBuild apply(JobBuild jobBuild) {
+						try {
+							return fetchNewBuild(jobBuild);
+						} catch (RuntimeException e) {
+							jobBuild.progress.error = "Could not read build " + jobBuild.summary.getBuildUrl()
+									+ ": " + e.getMessage();
+							throw e;
+						}
+					}
+				})
+				.into("persist", hudsonSettings.getPersistThreads(), new Pipeline.Sink<JobBuild>() {
+					@Override
+					public void accept(JobBuild jobBuild) {
+						try {
+							buildRepository.save(jobBuild.build);
+						} catch (RuntimeException e) {
+							jobBuild.progress.error = "Could not save build " + jobBuild.summary.getBuildUrl()
+									+ ": " + e.getMessage();
+							throw e;
+						}
+						jobBuild.progress.newBuilds.incrementAndGet();
+						count.incrementAndGet();
 					}
+				});
+
+		List<JobProgress> jobs = new ArrayList<>();
+		try {
+			for (HudsonJob job : enabledJobs) {
+				Set<Build> builds = buildsByJob.get(job);
+				if (builds == null) {
+					// The client logs and swallows errors, so a missing job is all we get to see
+					collectorItemHealthRepository.recordFailure(job, fetchMillis,
+							"Job not found on " + job.getInstanceUrl());
+					continue;
 				}
 
+				JobProgress progress = new JobProgress(job);
+				jobs.add(progress);
+				// A job whose listed builds are all stored has not changed and costs no more calls
+				for (Build buildSummary : newBuilds(job, builds)) {
+					pipeline.submit(new JobBuild(progress, buildSummary));
+				}
 			}
+		} finally {
+			pipeline.finish();
 		}
-		log("New builds", start, count);
+
+		for (JobProgress progress : jobs) {
+			long jobMillis = fetchMillis + progress.fetchMillis.get();
+			if (progress.error == null) {
+				collectorItemHealthRepository.recordSuccess(progress.job, jobMillis, progress.newBuilds.get());
+			} else {
+				collectorItemHealthRepository.recordFailure(progress.job, jobMillis, progress.error);
+			}
+		}
+		log("New builds", start, count.get());
 	}
 
-	private Set<Build> nullSafe(Set<Build> builds) {
-		return builds == null ? new HashSet<Build>() : builds;
+	/**
+	 * Fetch stage of {@link #addNewBuilds}.
+	 *
+	 * @return the build with its details, or null if it could not be read
+	 */
+	private JobBuild fetchNewBuild(JobBuild jobBuild) {
+		HudsonJob job = jobBuild.progress.job;
+		long fetchStart = System.currentTimeMillis();
+		Build build = hudsonClient.getBuildDetails(jobBuild.summary.getBuildUrl());
+		jobBuild.progress.fetchMillis.addAndGet(System.currentTimeMillis() - fetchStart);
+		if (build == null) {
+			jobBuild.progress.error = "Could not read build " + jobBuild.summary.getBuildUrl();
+			return null;
+		}
+		build.setCollectorItemId(job.getId());
+		jobBuild.build = build;
+		return jobBuild;
 	}
 
 	/**
@@ -198,8 +292,8 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 
 	private List<HudsonJob> enabledJobs(HudsonCollector collector,
 			String instanceUrl) {
-		return hudsonJobRepository.findEnabledHudsonJobs(collector.getId(),
-				instanceUrl);
+		return dueItems(hudsonJobRepository.findEnabledHudsonJobs(collector.getId(),
+				instanceUrl));
 	}
 
 	private boolean isNewJob(HudsonCollector collector, HudsonJob job) {
@@ -207,9 +301,22 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 				job.getInstanceUrl(), job.getJobName()) == null;
 	}
 
-	private boolean isNewBuild(HudsonJob job, Build build) {
-		return buildRepository.findByCollectorItemIdAndNumber(job.getId(),
-				build.getNumber()) == null;
+	/**
+	 * Picks the builds of a job's listing that are not stored yet, with one query.
+	 */
+	private List<Build> newBuilds(HudsonJob job, Set<Build> builds) {
+		if (builds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		Map<String, Build> byNumber = new HashMap<>();
+		for (Build build : builds) {
+			byNumber.put(build.getNumber(), build);
+		}
+		for (Build stored : buildRepository.findNumbersByCollectorItemIdAndNumberIn(job.getId(),
+				byNumber.keySet())) {
+			byNumber.remove(stored.getNumber());
+		}
+		return new ArrayList<>(byNumber.values());
 	}
 
 	private void log(String marker, long start) {
@@ -231,6 +338,36 @@ public class HudsonCollectorTask extends CollectorTask<HudsonCollector> {
 		LOG.info(text + token2 + token3);
 	}
 
+	/**
+	 * What happened to the builds of one job during a run.
+	 */
+	private static final class JobProgress {
+		private final HudsonJob job;
+		private final AtomicInteger newBuilds = new AtomicInteger();
+		private final AtomicLong fetchMillis = new AtomicLong();
+		private volatile String error;
+
+		JobProgress(HudsonJob job) {
+			this.job = job;
+		}
+	}
+
+	private static final class JobBuild {
+		private final JobProgress progress;
+		private final Build summary;
+		private Build build;
+
+		JobBuild(JobProgress progress, Build summary) {
+			this.progress = progress;
+			this.summary = summary;
+		}
+
+		@Override
+		public String toString() {
+			return summary.getBuildUrl();
+		}
+	}
+
 	private void logInstanceBanner(String instanceUrl) {
 		LOG.info("------------------------------");
 		LOG.info(instanceUrl);
@@ -18,6 +18,9 @@ public class HudsonSettings {
     private List<String> servers;
     private String username;
     private String apiKey;
+    private int fetchThreads = 4;
+    private int persistThreads = 2;
+    private int queueCapacity = 100;
 
     public String getCron() {
         return cron;
@@ -59,4 +62,28 @@ public class HudsonSettings {
         this.apiKey = apiKey;
     }
 
+    public int getFetchThreads() {
+        return fetchThreads;
+    }
+
+    public void setFetchThreads(int fetchThreads) {
+        this.fetchThreads = fetchThreads;
+    }
+
+    public int getPersistThreads() {
+        return persistThreads;
+    }
+
+    public void setPersistThreads(int persistThreads) {
+        this.persistThreads = persistThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
 }
@@ -5,7 +5,10 @@ import com.capitalone.dashboard.model.Component;
 import com.capitalone.dashboard.model.HudsonCollector;
 import com.capitalone.dashboard.model.HudsonJob;
 import com.capitalone.dashboard.repository.BuildRepository;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsBackfill;
+import com.capitalone.dashboard.repository.LeadTimeIndex;
 import com.capitalone.dashboard.repository.HudsonCollectorRepository;
 import com.capitalone.dashboard.repository.HudsonJobRepository;
 import com.google.common.collect.Sets;
@@ -36,6 +39,9 @@ public class HudsonCollectorTaskTests {
     @Mock private HudsonClient hudsonClient;
     @Mock private HudsonSettings hudsonSettings;
     @Mock private ComponentRepository dbComponentRepository;
+    @Mock private DailyStatsBackfill dailyStatsBackfill;
+    @Mock private LeadTimeIndex leadTimeIndex;
+    @Mock private CollectorItemHealthRepository collectorItemHealthRepository;
 
     @InjectMocks private HudsonCollectorTask task;
 
@@ -103,11 +109,33 @@ public class HudsonCollectorTaskTests {
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
         when(hudsonJobRepository.findEnabledHudsonJobs(collector.getId(), SERVER1))
                 .thenReturn(Arrays.asList(job));
-        when(buildRepository.findByCollectorItemIdAndNumber(job.getId(), build.getNumber())).thenReturn(build);
+        when(buildRepository.findNumbersByCollectorItemIdAndNumberIn(job.getId(), Sets.newHashSet("JOB1_1")))
+                .thenReturn(Arrays.asList(build));
         when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
         verify(buildRepository, never()).save(build);
+        verify(hudsonClient, never()).getBuildDetails(anyString());
+        verify(collectorItemHealthRepository).recordSuccess(eq(job), anyLong(), eq(0));
+    }
+
+    @Test
+    public void collect_idleJob_stillCheckedAgainstListing() {
+        AdaptivePolling adaptivePolling = mock(AdaptivePolling.class);
+        task.setAdaptivePolling(adaptivePolling);
+        HudsonCollector collector = collectorWithOneServer();
+        HudsonJob job = hudsonJob("JOB1", SERVER1, "JOB1_URL");
+        Build build = build("JOB1_1", "JOB1_1_URL");
+
+        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
+        when(hudsonJobRepository.findEnabledHudsonJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        when(hudsonClient.getBuildDetails(build.getBuildUrl())).thenReturn(build);
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        task.collect(collector);
+
+        verifyZeroInteractions(adaptivePolling);
+        verify(buildRepository).save(build);
     }
 
     @Test
@@ -119,12 +147,67 @@ public class HudsonCollectorTaskTests {
         when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
         when(hudsonJobRepository.findEnabledHudsonJobs(collector.getId(), SERVER1))
                 .thenReturn(Arrays.asList(job));
-        when(buildRepository.findByCollectorItemIdAndNumber(job.getId(), build.getNumber())).thenReturn(null);
         when(hudsonClient.getBuildDetails(build.getBuildUrl())).thenReturn(build);
         when(dbComponentRepository.findAll()).thenReturn(components());
         task.collect(collector);
 
         verify(buildRepository, times(1)).save(build);
+        verify(collectorItemHealthRepository).recordSuccess(eq(job), anyLong(), eq(1));
+    }
+
+    @Test
+    public void collect_jobEnabled_unreadableBuild_othersAddedAndFailureRecorded() {
+        HudsonCollector collector = collectorWithOneServer();
+        HudsonJob job = hudsonJob("JOB1", SERVER1, "JOB1_URL");
+        Build build1 = build("JOB1_1", "JOB1_1_URL");
+        Build build2 = build("JOB1_2", "JOB1_2_URL");
+        Build build3 = build("JOB1_3", "JOB1_3_URL");
+
+        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build1, build2, build3));
+        when(hudsonJobRepository.findEnabledHudsonJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        when(hudsonClient.getBuildDetails(build1.getBuildUrl())).thenReturn(build1);
+        when(hudsonClient.getBuildDetails(build3.getBuildUrl())).thenReturn(build3);
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        task.collect(collector);
+
+        verify(buildRepository).save(build1);
+        verify(buildRepository).save(build3);
+        verify(collectorItemHealthRepository).recordFailure(eq(job), anyLong(), eq("Could not read build JOB1_2_URL"));
+    }
+
+    @Test
+    public void collect_jobEnabled_buildNotSaved_failureRecorded() {
+        HudsonCollector collector = collectorWithOneServer();
+        HudsonJob job = hudsonJob("JOB1", SERVER1, "JOB1_URL");
+        Build build = build("JOB1_1", "JOB1_1_URL");
+
+        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(oneJobWithBuilds(job, build));
+        when(hudsonJobRepository.findEnabledHudsonJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        when(hudsonClient.getBuildDetails(build.getBuildUrl())).thenReturn(build);
+        when(buildRepository.save(build)).thenThrow(new IllegalStateException("write failed"));
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        task.collect(collector);
+
+        verify(collectorItemHealthRepository).recordFailure(eq(job), anyLong(),
+                eq("Could not save build JOB1_1_URL: write failed"));
+        verify(collectorItemHealthRepository, never()).recordSuccess(any(HudsonJob.class), anyLong(), anyInt());
+    }
+
+    @Test
+    public void collect_jobEnabled_missingFromServer_failureRecorded() {
+        HudsonCollector collector = collectorWithOneServer();
+        HudsonJob job = hudsonJob("JOB1", SERVER1, "JOB1_URL");
+
+        when(hudsonClient.getInstanceJobs(SERVER1)).thenReturn(new HashMap<HudsonJob, Set<Build>>());
+        when(hudsonJobRepository.findEnabledHudsonJobs(collector.getId(), SERVER1))
+                .thenReturn(Arrays.asList(job));
+        when(dbComponentRepository.findAll()).thenReturn(components());
+        task.collect(collector);
+
+        verify(collectorItemHealthRepository).recordFailure(eq(job), anyLong(), anyString());
+        verify(collectorItemHealthRepository, never()).recordSuccess(any(HudsonJob.class), anyLong(), anyInt());
     }
 
     private HudsonCollector collectorWithOneServer() {
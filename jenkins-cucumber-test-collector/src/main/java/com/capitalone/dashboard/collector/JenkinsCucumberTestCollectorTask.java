@@ -22,8 +22,11 @@ import com.capitalone.dashboard.model.JenkinsJob;
 import com.capitalone.dashboard.model.TestResult;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsBackfill;
 import com.capitalone.dashboard.repository.JenkinsCucumberTestCollectorRepository;
 import com.capitalone.dashboard.repository.JenkinsCucumberTestJobRepository;
+import com.capitalone.dashboard.repository.TestCaseAnalyzer;
+import com.capitalone.dashboard.repository.TestCaseStorageMigration;
 import com.capitalone.dashboard.repository.TestResultRepository;
 
 /**
@@ -42,6 +45,9 @@ public class JenkinsCucumberTestCollectorTask extends
 	private final JenkinsClient jenkinsClient;
 	private final JenkinsSettings jenkinsCucumberTestSettings;
 	private final ComponentRepository dbComponentRepository;
+	private final DailyStatsBackfill dailyStatsBackfill;
+	private final TestCaseStorageMigration testCaseStorageMigration;
+	private final TestCaseAnalyzer testCaseAnalyzer;
 	private final int CLEANUP_INTERVAL = 3600000;
 
 	@Autowired
@@ -52,7 +58,10 @@ public class JenkinsCucumberTestCollectorTask extends
 			TestResultRepository testResultRepository,
 			JenkinsClient jenkinsCucumberTestClient,
 			JenkinsSettings jenkinsCucumberTestSettings,
-			ComponentRepository dbComponentRepository) {
+			ComponentRepository dbComponentRepository,
+			DailyStatsBackfill dailyStatsBackfill,
+			TestCaseStorageMigration testCaseStorageMigration,
+			TestCaseAnalyzer testCaseAnalyzer) {
 		super(taskScheduler, "JenkinsCucumberTest");
 		this.jenkinsCucumberTestCollectorRepository = jenkinsCucumberTestCollectorRepository;
 		this.jenkinsCucumberTestJobRepository = jenkinsCucumberTestJobRepository;
@@ -60,6 +69,9 @@ public class JenkinsCucumberTestCollectorTask extends
 		this.jenkinsClient = jenkinsCucumberTestClient;
 		this.jenkinsCucumberTestSettings = jenkinsCucumberTestSettings;
 		this.dbComponentRepository = dbComponentRepository;
+		this.dailyStatsBackfill = dailyStatsBackfill;
+		this.testCaseStorageMigration = testCaseStorageMigration;
+		this.testCaseAnalyzer = testCaseAnalyzer;
 	}
 
 	@Override
@@ -80,6 +92,8 @@ public class JenkinsCucumberTestCollectorTask extends
 
 	@Override
 	public void collect(JenkinsCucumberTestCollector collector) {
+		testCaseStorageMigration.migrate();
+		dailyStatsBackfill.backfill(CollectorType.Test, collector.getId());
 
 		long start = System.currentTimeMillis();
 
@@ -144,8 +158,8 @@ public class JenkinsCucumberTestCollectorTask extends
 
 	private List<JenkinsJob> enabledJobs(
 			JenkinsCucumberTestCollector collector, String instanceUrl) {
-		return jenkinsCucumberTestJobRepository.findEnabledJenkinsJobs(
-				collector.getId(), instanceUrl);
+		return dueItems(jenkinsCucumberTestJobRepository.findEnabledJenkinsJobs(
+				collector.getId(), instanceUrl));
 	}
 
 	/**
@@ -197,6 +211,7 @@ public class JenkinsCucumberTestCollectorTask extends
 						result.setCollectorItemId(job.getId());
 						result.setTimestamp(System.currentTimeMillis());
 						testResultRepository.save(result);
+						testCaseAnalyzer.analyze(result);
 						count++;
 					}
 				}
@@ -1,6 +1,8 @@
 package com.capitalone.dashboard.collector;
 
 import com.capitalone.dashboard.util.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
@@ -10,8 +12,15 @@ import org.springframework.web.client.RestTemplate;
  */
 @Component
 public class RestOperationsSupplier implements Supplier<RestOperations> {
+    private final HttpRecorder httpRecorder;
+
+    @Autowired
+    public RestOperationsSupplier(HttpRecorder httpRecorder) {
+        this.httpRecorder = httpRecorder;
+    }
+
     @Override
     public RestOperations get() {
-        return new RestTemplate();
+        return new RestTemplate(httpRecorder.wrap(new SimpleClientHttpRequestFactory()));
     }
 }
@@ -8,6 +8,7 @@ import org.bson.types.ObjectId;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.capitalone.dashboard.model.Scope;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.ProjectRepository;
@@ -39,8 +40,10 @@ public class ProjectDataClientImpl extends ProjectDataClientSetupImpl implements
 	 * @param teamRepository
 	 */
 	public ProjectDataClientImpl(FeatureSettings featureSettings,
-			ProjectRepository projectRepository, FeatureCollectorRepository featureCollectorRepository) {
-		super(featureSettings, projectRepository, featureCollectorRepository);
+			ProjectRepository projectRepository, FeatureCollectorRepository featureCollectorRepository,
+			HttpRecorder httpRecorder) {
+		super(featureSettings, projectRepository, featureCollectorRepository,
+				httpRecorder);
 		logger.debug("Constructing data collection for the feature widget, project-level data...");
 
 		this.featureSettings = featureSettings;
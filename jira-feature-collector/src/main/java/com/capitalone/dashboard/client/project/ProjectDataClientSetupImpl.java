@@ -26,6 +26,7 @@ import org.json.simple.JSONArray;
 import org.springframework.stereotype.Component;
 
 import com.capitalone.dashboard.client.DataClientSetup;
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.capitalone.dashboard.datafactory.jira.JiraDataFactoryImpl;
 import com.capitalone.dashboard.model.Scope;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
@@ -46,6 +47,7 @@ public abstract class ProjectDataClientSetupImpl implements DataClientSetup {
 			.getLog(ProjectDataClientSetupImpl.class);
 	protected final FeatureSettings featureSettings;
 	protected final FeatureCollectorRepository featureCollectorRepository;
+	protected final HttpRecorder httpRecorder;
 	protected String todayDateISO;
 	protected String query;
 	protected Class<?> objClass;
@@ -57,16 +59,20 @@ public abstract class ProjectDataClientSetupImpl implements DataClientSetup {
 	 * 
 	 * @param featureSettings
 	 *            Feature collector system settings
+	 * @param httpRecorder
+	 *            Records or replays the responses from Jira when enabled
 	 */
 	public ProjectDataClientSetupImpl(FeatureSettings featureSettings,
 			ProjectRepository projectRepository,
-			FeatureCollectorRepository featureCollectorRepository) {
+			FeatureCollectorRepository featureCollectorRepository,
+			HttpRecorder httpRecorder) {
 		super();
 		logger.debug("Constructing data collection for the feature widget...");
 
 		this.featureSettings = featureSettings;
 		this.projectRepo = projectRepository;
 		this.featureCollectorRepository = featureCollectorRepository;
+		this.httpRecorder = httpRecorder;
 		returnDate = featureSettings.getMasterStartDate();
 		setTodayDateISO(DateUtil.toISODateFormat(DateUtil.getTodayNoTime()));
 	}
@@ -87,7 +93,7 @@ public abstract class ProjectDataClientSetupImpl implements DataClientSetup {
 		JSONArray tmpDetailArray = new JSONArray();
 		try {
 			JiraDataFactoryImpl jiraApi = new JiraDataFactoryImpl(
-					jiraCredentials, jiraBaseUrl, jiraQueryEndpoint);
+					jiraCredentials, jiraBaseUrl, jiraQueryEndpoint, httpRecorder);
 			jiraApi.buildBasicQuery(query);
 			outPutMainArray = jiraApi.getArrayQueryResponse();
 			if (outPutMainArray == null) {
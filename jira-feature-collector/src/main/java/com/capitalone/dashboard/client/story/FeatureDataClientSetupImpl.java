@@ -17,10 +17,12 @@
 package com.capitalone.dashboard.client.story;
 
 import com.capitalone.dashboard.client.DataClientSetup;
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.capitalone.dashboard.datafactory.jira.JiraDataFactoryImpl;
 import com.capitalone.dashboard.model.Feature;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.FeatureRepository;
+import com.capitalone.dashboard.repository.FeatureStorage;
 import com.capitalone.dashboard.util.DateUtil;
 import com.capitalone.dashboard.util.FeatureSettings;
 import org.apache.commons.logging.Log;
@@ -45,6 +47,7 @@ public abstract class FeatureDataClientSetupImpl implements DataClientSetup {
 			.getLog(FeatureDataClientSetupImpl.class);
 	protected final FeatureSettings featureSettings;
 	protected final FeatureCollectorRepository featureCollectorRepository;
+	protected final HttpRecorder httpRecorder;
 	protected String todayDateISO;
 	protected String query;
 	protected Class<?> objClass;
@@ -56,16 +59,20 @@ public abstract class FeatureDataClientSetupImpl implements DataClientSetup {
 	 *
 	 * @param featureSettings
 	 *            Feature collector system settings
+	 * @param httpRecorder
+	 *            Records or replays the responses from Jira when enabled
 	 */
 	public FeatureDataClientSetupImpl(FeatureSettings featureSettings,
 			FeatureRepository featureRepository,
-			FeatureCollectorRepository featureCollectorRepository) {
+			FeatureCollectorRepository featureCollectorRepository,
+			HttpRecorder httpRecorder) {
 		super();
 		logger.debug("Constructing data collection for the feature widget...");
 
 		this.featureSettings = featureSettings;
 		this.featureRepo = featureRepository;
 		this.featureCollectorRepository = featureCollectorRepository;
+		this.httpRecorder = httpRecorder;
 		returnDate = featureSettings.getMasterStartDate();
 		setTodayDateISO(DateUtil.toISODateFormat(DateUtil.getTodayNoTime()));
 	}
@@ -88,7 +95,7 @@ public abstract class FeatureDataClientSetupImpl implements DataClientSetup {
 		JSONArray tmpDetailArray = new JSONArray();
 		try {
 			JiraDataFactoryImpl jiraApi = new JiraDataFactoryImpl(pageSize,
-					jiraCredentials, jiraBaseUrl, jiraQueryEndpoint);
+					jiraCredentials, jiraBaseUrl, jiraQueryEndpoint, httpRecorder);
 			jiraApi.buildBasicQuery(query);
 			jiraApi.buildPagingQuery(pageIndex);
 			outPutMainArray = jiraApi.getPagingQueryResponse();
@@ -215,7 +222,7 @@ public abstract class FeatureDataClientSetupImpl implements DataClientSetup {
 		try {
 			response = featureRepo.getFeatureMaxChangeDate(
 					featureCollectorRepository.findByName("Jira").getId(),
-					featureSettings.getDeltaStartDate());
+					FeatureStorage.parseDate(featureSettings.getDeltaStartDate()));
 			if (response.size() > 0) {
 				data = response.get(0).getChangeDate();
 			}
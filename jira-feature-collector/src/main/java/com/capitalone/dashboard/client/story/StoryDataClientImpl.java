@@ -16,8 +16,10 @@
 
 package com.capitalone.dashboard.client.story;
 
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.capitalone.dashboard.datafactory.jira.JiraDataFactoryImpl;
 import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.model.FeatureStatus;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.FeatureRepository;
 import com.capitalone.dashboard.util.ClientUtil;
@@ -30,7 +32,9 @@ import org.json.simple.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This is the primary implemented/extended data collector for the feature
@@ -49,6 +53,7 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 	private final FeatureWidgetQueries featureWidgetQueries;
 	private final FeatureRepository featureRepo;
 	private final ClientUtil tools;
+	private final Set<String> updatedTeamIds = new HashSet<String>();
 
 	/**
 	 * Extends the constructor from the super class.
@@ -57,8 +62,10 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 	 */
 	public StoryDataClientImpl(FeatureSettings featureSettings,
 			FeatureRepository featureRepository,
-			FeatureCollectorRepository featureCollectorRepository) {
-		super(featureSettings, featureRepository, featureCollectorRepository);
+			FeatureCollectorRepository featureCollectorRepository,
+			HttpRecorder httpRecorder) {
+		super(featureSettings, featureRepository, featureCollectorRepository,
+				httpRecorder);
 		logger.debug("Constructing data collection for the feature widget, story-level data...");
 
 		this.featureSettings = featureSettings;
@@ -131,6 +138,10 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 					feature.setsState(tools.sanitizeResponse(statusCategory
 							.get("name")));
 
+					// status
+					feature.setStatus(FeatureStatus.fromSourceStatus(feature
+							.getsStatus()));
+
 					// sSoftwareTesting - does not exist for Jira
 					feature.setsSoftwareTesting("");
 
@@ -145,6 +156,8 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 					} catch (Exception e) {
 						feature.setsEstimate("0");
 					}
+					feature.setEstimate(Feature.parseEstimate(feature
+							.getsEstimate()));
 
 					// sChangeDate
 					feature.setChangeDate(tools.toCanonicalDate(tools
@@ -375,6 +388,7 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 
 					try {
 						featureRepo.save(feature);
+						updatedTeamIds.add(feature.getsTeamID());
 					} catch (Exception e) {
 						logger.error("Unexpected error caused when attempting to save data\nCaused by:\n"
 								+ e.getMessage()
@@ -425,7 +439,7 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 
 		try {
 			JiraDataFactoryImpl jiraConnect = new JiraDataFactoryImpl(
-					jiraCredentials, jiraBaseUrl, jiraQueryEndpoint);
+					jiraCredentials, jiraBaseUrl, jiraQueryEndpoint, httpRecorder);
 			jiraConnect.buildBasicQuery(query);
 			nativeRs = jiraConnect.getEpicQueryResponse();
 
@@ -476,6 +490,16 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 
 	}
 
+	/**
+	 * Accessor for the teams whose stories were written or replaced since this
+	 * client was constructed, so that their sprint rollups can be refreshed.
+	 *
+	 * @return The source system IDs of the updated teams
+	 */
+	public Set<String> getUpdatedTeamIds() {
+		return updatedTeamIds;
+	}
+
 	/**
 	 * Validates current entry and removes new entry if an older item exists in
 	 * the repo
@@ -489,6 +513,9 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 		try {
 			List<Feature> listOfFeature = featureRepo.getFeatureIdById(localId);
 			for (Feature f : listOfFeature) {
+				if (f.getsTeamID() != null) {
+					updatedTeamIds.add(f.getsTeamID());
+				}
 				featureRepo.delete(f.getId());
 				deleted = true;
 				logger.debug("Removed existing entities that will be replaced by newer instances");
@@ -8,6 +8,7 @@ import org.bson.types.ObjectId;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.capitalone.dashboard.model.TeamCollectorItem;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.TeamRepository;
@@ -41,8 +42,10 @@ public class TeamDataClientImpl extends TeamDataClientSetupImpl implements
 	 */
 	public TeamDataClientImpl(
 			FeatureCollectorRepository featureCollectorRepository,
-			FeatureSettings featureSettings, TeamRepository teamRepository) {
-		super(featureSettings, teamRepository, featureCollectorRepository);
+			FeatureSettings featureSettings, TeamRepository teamRepository,
+			HttpRecorder httpRecorder) {
+		super(featureSettings, teamRepository, featureCollectorRepository,
+				httpRecorder);
 		logger.debug("Constructing data collection for the feature widget, team-level data...");
 
 		this.featureSettings = featureSettings;
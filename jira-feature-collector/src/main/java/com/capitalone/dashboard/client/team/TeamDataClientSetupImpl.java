@@ -17,6 +17,7 @@
 package com.capitalone.dashboard.client.team;
 
 import com.capitalone.dashboard.client.DataClientSetup;
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.capitalone.dashboard.datafactory.jira.JiraDataFactoryImpl;
 import com.capitalone.dashboard.model.TeamCollectorItem;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
@@ -45,6 +46,7 @@ public abstract class TeamDataClientSetupImpl implements DataClientSetup {
 			.getLog(TeamDataClientSetupImpl.class);
 	protected final FeatureSettings featureSettings;
 	protected final FeatureCollectorRepository featureCollectorRepository;
+	protected final HttpRecorder httpRecorder;
 	protected String todayDateISO;
 	protected String query;
 	protected Class<?> objClass;
@@ -56,16 +58,20 @@ public abstract class TeamDataClientSetupImpl implements DataClientSetup {
 	 *
 	 * @param featureSettings
 	 *            Feature collector system settings
+	 * @param httpRecorder
+	 *            Records or replays the responses from Jira when enabled
 	 */
 	public TeamDataClientSetupImpl(FeatureSettings featureSettings,
 			TeamRepository teamRepository,
-			FeatureCollectorRepository featureCollectorRepository) {
+			FeatureCollectorRepository featureCollectorRepository,
+			HttpRecorder httpRecorder) {
 		super();
 		logger.debug("Constructing data collection for the feature widget...");
 
 		this.featureSettings = featureSettings;
 		this.teamRepo = teamRepository;
 		this.featureCollectorRepository = featureCollectorRepository;
+		this.httpRecorder = httpRecorder;
 		returnDate = featureSettings.getMasterStartDate();
 		setTodayDateISO(DateUtil.toISODateFormat(DateUtil.getTodayNoTime()));
 	}
@@ -86,7 +92,7 @@ public abstract class TeamDataClientSetupImpl implements DataClientSetup {
 		JSONArray tmpDetailArray = new JSONArray();
 		try {
 			JiraDataFactoryImpl jiraApi = new JiraDataFactoryImpl(
-					jiraCredentials, jiraBaseUrl, jiraQueryEndpoint);
+					jiraCredentials, jiraBaseUrl, jiraQueryEndpoint, httpRecorder);
 			jiraApi.buildBasicQuery(query);
 			outPutMainArray = jiraApi.getArrayQueryResponse();
 			if (outPutMainArray == null) {
@@ -5,9 +5,13 @@ import com.capitalone.dashboard.client.story.StoryDataClientImpl;
 import com.capitalone.dashboard.client.team.TeamDataClientImpl;
 import com.capitalone.dashboard.model.FeatureCollector;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
+import com.capitalone.dashboard.repository.CurrentSprintRepository;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.FeatureRepository;
+import com.capitalone.dashboard.repository.FeatureStorageMigration;
 import com.capitalone.dashboard.repository.ProjectRepository;
+import com.capitalone.dashboard.repository.SprintEstimateBackfill;
+import com.capitalone.dashboard.repository.SprintEstimateRepository;
 import com.capitalone.dashboard.repository.TeamRepository;
 import com.capitalone.dashboard.util.FeatureSettings;
 
@@ -17,6 +21,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+
 /**
  * Collects {@link FeatureCollector} data from feature content source system.
  *
@@ -31,7 +37,12 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 	private final TeamRepository teamRepository;
 	private final ProjectRepository projectRepository;
 	private final FeatureCollectorRepository featureCollectorRepository;
+	private final SprintEstimateRepository sprintEstimateRepository;
+	private final CurrentSprintRepository currentSprintRepository;
+	private final FeatureStorageMigration featureStorageMigration;
+	private final SprintEstimateBackfill sprintEstimateBackfill;
 	private final FeatureSettings featureSettings;
+	private final HttpRecorder httpRecorder;
 
 	/**
 	 * Default constructor for the collector task. This will construct this
@@ -42,22 +53,45 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 	 *            A task scheduler artifact
 	 * @param teamRepository
 	 *            The repository being use for feature collection
+	 * @param sprintEstimateRepository
+	 *            The repository of sprint estimate rollups, refreshed for
+	 *            every team whose stories were collected
+	 * @param currentSprintRepository
+	 *            The table of each team's current sprint, recomputed after
+	 *            every collection
+	 * @param featureStorageMigration
+	 *            Compacts features stored by earlier versions before the first
+	 *            collection
+	 * @param sprintEstimateBackfill
+	 *            Rolls up the teams of features stored by earlier versions
+	 *            before the first collection
 	 * @param featureSettings
 	 *            The settings being used for feature collection from the source
 	 *            system
+	 * @param httpRecorder
+	 *            Records or replays the responses from Jira when enabled
 	 */
 	@Autowired
 	public FeatureCollectorTask(TaskScheduler taskScheduler,
 			FeatureRepository featureRepository, TeamRepository teamRepository,
 			ProjectRepository projectRepository,
 			FeatureCollectorRepository featureCollectorRepository,
-			FeatureSettings featureSettings) {
+			SprintEstimateRepository sprintEstimateRepository,
+			CurrentSprintRepository currentSprintRepository,
+			FeatureStorageMigration featureStorageMigration,
+			SprintEstimateBackfill sprintEstimateBackfill,
+			FeatureSettings featureSettings, HttpRecorder httpRecorder) {
 		super(taskScheduler, "Jira");
 		this.featureCollectorRepository = featureCollectorRepository;
 		this.teamRepository = teamRepository;
 		this.projectRepository = projectRepository;
 		this.featureRepository = featureRepository;
+		this.sprintEstimateRepository = sprintEstimateRepository;
+		this.currentSprintRepository = currentSprintRepository;
+		this.featureStorageMigration = featureStorageMigration;
+		this.sprintEstimateBackfill = sprintEstimateBackfill;
 		this.featureSettings = featureSettings;
+		this.httpRecorder = httpRecorder;
 	}
 
 	/**
@@ -92,22 +126,31 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 	@Override
 	public void collect(FeatureCollector collector) {
 		logger.info("Starting Feature collection...");
+		this.featureStorageMigration.migrate(collector.getId());
+		this.sprintEstimateBackfill.backfill(collector.getId());
 
 		TeamDataClientImpl teamData = new TeamDataClientImpl(
 				this.featureCollectorRepository, this.featureSettings,
-				this.teamRepository);
+				this.teamRepository, this.httpRecorder);
 		teamData.updateTeamInformation();
 
 		ProjectDataClientImpl projectData = new ProjectDataClientImpl(
 				this.featureSettings, this.projectRepository,
-				this.featureCollectorRepository);
+				this.featureCollectorRepository, this.httpRecorder);
 		projectData.updateProjectInformation();
 
 		StoryDataClientImpl storyData = new StoryDataClientImpl(
 				this.featureSettings, this.featureRepository,
-				this.featureCollectorRepository);
+				this.featureCollectorRepository, this.httpRecorder);
 		storyData.updateStoryInformation();
 
+		for (String teamId : storyData.getUpdatedTeamIds()) {
+			if (teamId != null) {
+				this.sprintEstimateRepository.refresh(teamId);
+			}
+		}
+		this.currentSprintRepository.refresh(new Date());
+
 		logger.info("Feature Data Collection Finished");
 	}
 }
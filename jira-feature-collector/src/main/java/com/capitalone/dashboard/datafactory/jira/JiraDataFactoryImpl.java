@@ -6,6 +6,7 @@ import org.json.simple.JSONObject;
 import org.json.simple.JSONArray;
 import org.springframework.stereotype.Component;
 
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.capitalone.dashboard.datafactory.jira.sdk.connector.GetResponseBuilder;
 import com.capitalone.dashboard.datafactory.jira.sdk.connector.GetResponseBuilderImpl;
 import com.google.api.client.http.HttpRequestFactory;
@@ -13,7 +14,7 @@ import com.google.api.client.http.HttpRequestFactory;
 @Component
 public class JiraDataFactoryImpl implements JiraDataFactory {
 	private static Log logger = LogFactory.getLog(JiraDataFactoryImpl.class);
-	protected GetResponseBuilder jiraConnection = new GetResponseBuilderImpl();
+	protected GetResponseBuilder jiraConnection;
 	protected int pageSize;
 	protected int pageIndex;
 	protected JSONArray jsonOutputArray;
@@ -24,7 +25,7 @@ public class JiraDataFactoryImpl implements JiraDataFactory {
 	 * Default constructor required for Spring (not used)
 	 */
 	public JiraDataFactoryImpl() {
-		// Intentionally empty for Spring
+		this.jiraConnection = new GetResponseBuilderImpl();
 	}
 
 	/**
@@ -40,9 +41,29 @@ public class JiraDataFactoryImpl implements JiraDataFactory {
 	 */
 	public JiraDataFactoryImpl(String jiraCredentials, String jiraBaseUrl,
 			String jiraQueryEndpoint) {
+		this(jiraCredentials, jiraBaseUrl, jiraQueryEndpoint, (HttpRecorder) null);
+	}
+
+	/**
+	 * Default constructor, which sets page size to 1000 and page index to 0.
+	 *
+	 * @param jiraCredentials
+	 *            Jira x64 encoded credentials (see jira client library for
+	 *            details)
+	 * @param jiraBaseUrl
+	 *            Jira base URL
+	 * @param jiraQueryEndpoint
+	 *            Jira API query endpoint/context
+	 * @param httpRecorder
+	 *            Records or replays the responses from Jira when enabled, or
+	 *            null to talk to Jira directly
+	 */
+	public JiraDataFactoryImpl(String jiraCredentials, String jiraBaseUrl,
+			String jiraQueryEndpoint, HttpRecorder httpRecorder) {
 		logger.debug("constructor: jiraCredentials = " + jiraCredentials +
 		             "; jiraBaseUrl = " + jiraBaseUrl +
 		             "; jiraQueryEndpoint = " + jiraQueryEndpoint);
+		jiraConnection = new GetResponseBuilderImpl(httpRecorder);
 		jiraConnection.setBasicAuth(jiraCredentials);
 		jiraConnection.setJiraURI(jiraBaseUrl, jiraQueryEndpoint);
 
@@ -67,12 +88,8 @@ public class JiraDataFactoryImpl implements JiraDataFactory {
 	 */
 	public JiraDataFactoryImpl(String jiraCredentials, String jiraBaseUrl,
 			String jiraQueryEndpoint, String jiraProxyUrl, String jiraProxyPort) {
-		jiraConnection.setBasicAuth(jiraCredentials);
-		jiraConnection.setJiraURI(jiraBaseUrl, jiraQueryEndpoint);
+		this(jiraCredentials, jiraBaseUrl, jiraQueryEndpoint, (HttpRecorder) null);
 		jiraConnection.setProxy(jiraProxyUrl, jiraProxyPort);
-
-		this.pageSize = 1000;
-		this.pageIndex = 0;
 	}
 
 	/**
@@ -91,6 +108,31 @@ public class JiraDataFactoryImpl implements JiraDataFactory {
 	 */
 	public JiraDataFactoryImpl(int inPageSize, String jiraCredentials,
 			String jiraBaseUrl, String jiraQueryEndpoint) {
+		this(inPageSize, jiraCredentials, jiraBaseUrl, jiraQueryEndpoint,
+				(HttpRecorder) null);
+	}
+
+	/**
+	 * Constructs Jira data factory, but defaults the page size to the page size
+	 * parameter given, and the page index to 0.
+	 *
+	 * @param inPageSize
+	 *            A default page size to give the class on construction
+	 * @param jiraCredentials
+	 *            Jira x64 encoded credentials (see jira client library for
+	 *            details)
+	 * @param jiraBaseUrl
+	 *            Jira base URL
+	 * @param jiraQueryEndpoint
+	 *            Jira API query endpoint/context
+	 * @param httpRecorder
+	 *            Records or replays the responses from Jira when enabled, or
+	 *            null to talk to Jira directly
+	 */
+	public JiraDataFactoryImpl(int inPageSize, String jiraCredentials,
+			String jiraBaseUrl, String jiraQueryEndpoint,
+			HttpRecorder httpRecorder) {
+		jiraConnection = new GetResponseBuilderImpl(httpRecorder);
 		jiraConnection.setBasicAuth(jiraCredentials);
 		jiraConnection.setJiraURI(jiraBaseUrl, jiraQueryEndpoint);
 
@@ -119,12 +161,9 @@ public class JiraDataFactoryImpl implements JiraDataFactory {
 	public JiraDataFactoryImpl(int inPageSize, String jiraCredentials,
 			String jiraBaseUrl, String jiraQueryEndpoint, String jiraProxyUrl,
 			String jiraProxyPort) {
-		jiraConnection.setBasicAuth(jiraCredentials);
-		jiraConnection.setJiraURI(jiraBaseUrl, jiraQueryEndpoint);
+		this(inPageSize, jiraCredentials, jiraBaseUrl, jiraQueryEndpoint,
+				(HttpRecorder) null);
 		jiraConnection.setProxy(jiraProxyUrl, jiraProxyPort);
-
-		this.pageSize = inPageSize;
-		pageIndex = 0;
 	}
 
 	/**
@@ -7,6 +7,7 @@ import java.util.Arrays;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.google.api.client.http.HttpRequestFactory;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.http.javanet.NetHttpTransport;
@@ -20,6 +21,7 @@ import com.google.api.client.http.javanet.NetHttpTransport;
 public class BaseConnectionImpl implements BaseConnection {
 	private static final Log LOGGER = LogFactory
 			.getLog(BaseConnectionImpl.class);
+	private final HttpRecorder httpRecorder;
 	protected String proxy;
 	protected String port;
 	protected String authToken;
@@ -31,7 +33,18 @@ public class BaseConnectionImpl implements BaseConnection {
 	protected String apiContextPath;
 
 	public BaseConnectionImpl() {
-		// Default blank constructor
+		this(null);
+	}
+
+	/**
+	 * Constructs a connection whose request factories record or replay their
+	 * responses.
+	 *
+	 * @param httpRecorder
+	 *            The recorder of the collector, or null to talk to Jira directly
+	 */
+	public BaseConnectionImpl(HttpRecorder httpRecorder) {
+		this.httpRecorder = httpRecorder;
 	}
 
 	/*
@@ -151,6 +164,10 @@ public class BaseConnectionImpl implements BaseConnection {
 								this.proxy, Integer.parseInt(this.port))))
 						.build();
 			}
+			if (httpRecorder != null && httpRecorder.isEnabled()) {
+				httpTransport = new RecordingHttpTransport(httpRecorder,
+						httpTransport);
+			}
 			requestFactory = httpTransport.createRequestFactory();
 			LOGGER.info("Jira HttpRequestFactory has been generated successfully");
 		} catch (NullPointerException e) {
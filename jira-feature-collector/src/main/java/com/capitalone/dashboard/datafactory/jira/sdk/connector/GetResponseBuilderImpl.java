@@ -13,6 +13,7 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONValue;
 
+import com.capitalone.dashboard.collector.HttpRecorder;
 import com.capitalone.dashboard.datafactory.jira.sdk.util.SystemInfo;
 import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.HttpHeaders;
@@ -39,6 +40,17 @@ public class GetResponseBuilderImpl extends BaseConnectionImpl implements
 		super();
 	}
 
+	/**
+	 * Constructor which inherits artifacts from super class
+	 *
+	 * @param httpRecorder
+	 *            Records or replays the responses from Jira when enabled, or
+	 *            null to talk to Jira directly
+	 */
+	public GetResponseBuilderImpl(HttpRecorder httpRecorder) {
+		super(httpRecorder);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
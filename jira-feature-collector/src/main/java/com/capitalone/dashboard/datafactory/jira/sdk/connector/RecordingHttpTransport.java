@@ -0,0 +1,225 @@
+package com.capitalone.dashboard.datafactory.jira.sdk.connector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.StreamUtils;
+
+import com.capitalone.dashboard.collector.HttpRecorder;
+import com.google.api.client.http.ByteArrayContent;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+
+/**
+ * Transport that records the responses Jira sends through another transport, or answers
+ * requests from a recording, depending on the mode of the {@link HttpRecorder}.
+ * <p>
+ * Responses are recorded already decompressed and without their Content-Encoding.
+ */
+public class RecordingHttpTransport extends HttpTransport {
+	private static final String CONTENT_ENCODING = "Content-Encoding";
+	private static final String CONTENT_LENGTH = "Content-Length";
+	private static final String CONTENT_TYPE = "Content-Type";
+
+	private final HttpRecorder recorder;
+	private final HttpTransport transport;
+
+	/**
+	 * @param recorder
+	 *            Recorder holding the archive
+	 * @param transport
+	 *            Transport making the real requests when recording
+	 */
+	public RecordingHttpTransport(HttpRecorder recorder, HttpTransport transport) {
+		this.recorder = recorder;
+		this.transport = transport;
+	}
+
+	@Override
+	public boolean supportsMethod(String method) throws IOException {
+		return transport.supportsMethod(method);
+	}
+
+	@Override
+	protected LowLevelHttpRequest buildRequest(String method, String url) {
+		return new RecordingRequest(method, url);
+	}
+
+	@Override
+	public void shutdown() throws IOException {
+		transport.shutdown();
+	}
+
+	private final class RecordingRequest extends LowLevelHttpRequest {
+		private final String method;
+		private final String url;
+		private final Map<String, List<String>> headers = new LinkedHashMap<>();
+		private int connectTimeout;
+		private int readTimeout;
+
+		RecordingRequest(String method, String url) {
+			this.method = method;
+			this.url = url;
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (!headers.containsKey(name)) {
+				headers.put(name, new ArrayList<String>());
+			}
+			headers.get(name).add(value);
+		}
+
+		@Override
+		public void setTimeout(int connectTimeout, int readTimeout) {
+			this.connectTimeout = connectTimeout;
+			this.readTimeout = readTimeout;
+		}
+
+		@Override
+		public LowLevelHttpResponse execute() throws IOException {
+			if (recorder.getMode() == HttpRecorder.Mode.REPLAY) {
+				return new RecordedResponse(recorder.replay(method, url));
+			}
+
+			ByteArrayContent content = null;
+			if (getStreamingContent() != null) {
+				ByteArrayOutputStream body = new ByteArrayOutputStream();
+				getStreamingContent().writeTo(body);
+				content = new ByteArrayContent(getContentType(), body.toByteArray());
+			}
+			HttpRequest request = transport.createRequestFactory().buildRequest(
+					method, new GenericUrl(url), content);
+			for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+				request.getHeaders().set(header.getKey(), header.getValue());
+			}
+			request.setConnectTimeout(connectTimeout);
+			request.setReadTimeout(readTimeout);
+			request.setNumberOfRetries(0);
+			request.setFollowRedirects(false);
+			request.setThrowExceptionOnExecuteError(false);
+
+			long start = System.nanoTime();
+			HttpResponse response = request.execute();
+			try {
+				InputStream in = response.getContent();
+				byte[] body = in == null ? new byte[0] : StreamUtils.copyToByteArray(in);
+				HttpRecorder.Exchange exchange = new HttpRecorder.Exchange(
+						method, url, response.getStatusCode(),
+						response.getStatusMessage(), headers(response), body,
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				recorder.record(exchange);
+				return new RecordedResponse(exchange);
+			} finally {
+				response.disconnect();
+			}
+		}
+
+		private Map<String, List<String>> headers(HttpResponse response) {
+			Map<String, List<String>> recorded = new LinkedHashMap<>();
+			for (Map.Entry<String, Object> header : response.getHeaders().entrySet()) {
+				String name = header.getKey();
+				if (CONTENT_ENCODING.equalsIgnoreCase(name)
+						|| CONTENT_LENGTH.equalsIgnoreCase(name)) {
+					continue;
+				}
+				List<String> values = new ArrayList<>();
+				if (header.getValue() instanceof Collection) {
+					for (Object value : (Collection<?>) header.getValue()) {
+						values.add(String.valueOf(value));
+					}
+				} else if (header.getValue() != null) {
+					values.add(String.valueOf(header.getValue()));
+				}
+				recorded.put(name, values);
+			}
+			return recorded;
+		}
+	}
+
+	private static final class RecordedResponse extends LowLevelHttpResponse {
+		private final HttpRecorder.Exchange exchange;
+		private final List<String[]> headers = new ArrayList<>();
+
+		RecordedResponse(HttpRecorder.Exchange exchange) {
+			this.exchange = exchange;
+			for (Map.Entry<String, List<String>> header : exchange.getHeaders()
+					.entrySet()) {
+				for (String value : header.getValue()) {
+					headers.add(new String[] { header.getKey(), value });
+				}
+			}
+		}
+
+		@Override
+		public InputStream getContent() {
+			return new ByteArrayInputStream(exchange.getBody());
+		}
+
+		@Override
+		public String getContentEncoding() {
+			return header(CONTENT_ENCODING);
+		}
+
+		@Override
+		public long getContentLength() {
+			return exchange.getBody().length;
+		}
+
+		@Override
+		public String getContentType() {
+			return header(CONTENT_TYPE);
+		}
+
+		@Override
+		public String getStatusLine() {
+			return "HTTP/1.1 " + exchange.getStatus() + " " + exchange.getReason();
+		}
+
+		@Override
+		public int getStatusCode() {
+			return exchange.getStatus();
+		}
+
+		@Override
+		public String getReasonPhrase() {
+			return exchange.getReason();
+		}
+
+		@Override
+		public int getHeaderCount() {
+			return headers.size();
+		}
+
+		@Override
+		public String getHeaderName(int index) {
+			return headers.get(index)[0];
+		}
+
+		@Override
+		public String getHeaderValue(int index) {
+			return headers.get(index)[1];
+		}
+
+		private String header(String name) {
+			for (String[] header : headers) {
+				if (name.equalsIgnoreCase(header[0])) {
+					return header[1];
+				}
+			}
+			return null;
+		}
+	}
+}
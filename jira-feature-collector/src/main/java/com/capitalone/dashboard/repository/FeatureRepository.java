@@ -1,5 +1,6 @@
 package com.capitalone.dashboard.repository;
 
+import java.util.Date;
 import java.util.List;
 
 import org.bson.types.ObjectId;
@@ -16,7 +17,7 @@ public interface FeatureRepository extends CrudRepository<Feature, ObjectId>,
 		QueryDslPredicateExecutor<Feature> {
 	@Query(value = "{ $query: { 'collectorId' : ?0, 'changeDate' : {$gt: ?1}}, $orderby: { 'changeDate' :-1 }}", fields = "{'changeDate' : 1, '_id' : 0}")
 	List<Feature> getFeatureMaxChangeDate(ObjectId collectorId,
-			String lastChangeDate);
+			Date lastChangeDate);
 
 	@Query(value = "{ $query: {'sId' : ?0},{'sId' : 1}}")
 	List<Feature> getFeatureIdById(String sId);
@@ -0,0 +1,67 @@
+package com.capitalone.dashboard.datafactory.jira.sdk.connector;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.capitalone.dashboard.collector.HttpRecorder;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+
+public class RecordingHttpTransportTest {
+	private static final String QUERY = "https://jira/rest/api/2/search?jql=project%3DHYG";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void replayReturnsRecordedIssues() throws Exception {
+		File archive = folder.newFile("jira.gz");
+		HttpRecorder recorder = new HttpRecorder(HttpRecorder.Mode.RECORD,
+				archive, 1);
+		HttpTransport jira = new MockHttpTransport() {
+			@Override
+			public LowLevelHttpRequest buildRequest(String method, String url) {
+				return new MockLowLevelHttpRequest(url)
+						.setResponse(new MockLowLevelHttpResponse()
+								.setContentType("application/json")
+								.setContent("{\"issues\":[]}"));
+			}
+		};
+		assertEquals("{\"issues\":[]}",
+				get(new RecordingHttpTransport(recorder, jira)));
+		recorder.close();
+
+		HttpRecorder replayer = new HttpRecorder(HttpRecorder.Mode.REPLAY,
+				archive, 0);
+		HttpTransport offline = new MockHttpTransport() {
+			@Override
+			public LowLevelHttpRequest buildRequest(String method, String url) {
+				throw new AssertionError("Replay went to Jira");
+			}
+		};
+
+		assertEquals("{\"issues\":[]}",
+				get(new RecordingHttpTransport(replayer, offline)));
+	}
+
+	private String get(HttpTransport transport) throws IOException {
+		HttpResponse response = transport.createRequestFactory()
+				.buildGetRequest(new GenericUrl(QUERY)).execute();
+		try {
+			return response.parseAsString();
+		} finally {
+			response.disconnect();
+		}
+	}
+}
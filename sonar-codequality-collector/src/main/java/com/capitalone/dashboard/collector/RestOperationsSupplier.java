@@ -1,6 +1,7 @@
 package com.capitalone.dashboard.collector;
 
 import com.capitalone.dashboard.util.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestOperations;
@@ -8,11 +9,18 @@ import org.springframework.web.client.RestTemplate;
 
 @Component
 public class RestOperationsSupplier implements Supplier<RestOperations> {
+    private final HttpRecorder httpRecorder;
+
+    @Autowired
+    public RestOperationsSupplier(HttpRecorder httpRecorder) {
+        this.httpRecorder = httpRecorder;
+    }
+
     @Override
     public RestOperations get() {
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
         requestFactory.setConnectTimeout(20000);
         requestFactory.setReadTimeout(20000);
-        return new RestTemplate(requestFactory);
+        return new RestTemplate(httpRecorder.wrap(requestFactory));
     }
 }
@@ -7,7 +7,9 @@ import com.capitalone.dashboard.model.SonarCollector;
 import com.capitalone.dashboard.model.SonarProject;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.CodeQualityRepository;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsBackfill;
 import com.capitalone.dashboard.repository.SonarCollectorRepository;
 import com.capitalone.dashboard.repository.SonarProjectRepository;
 
@@ -34,6 +36,8 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
     private final SonarClient sonarClient;
     private final SonarSettings sonarSettings;
     private final ComponentRepository dbComponentRepository;
+    private final DailyStatsBackfill dailyStatsBackfill;
+    private final CollectorItemHealthRepository collectorItemHealthRepository;
     private final int CLEANUP_INTERVAL = 3600000;
 
     @Autowired
@@ -43,7 +47,9 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
                               CodeQualityRepository codeQualityRepository,
                               SonarSettings sonarSettings,
                               SonarClient sonarClient,
-                              ComponentRepository dbComponentRepository) {
+                              ComponentRepository dbComponentRepository,
+                              DailyStatsBackfill dailyStatsBackfill,
+                              CollectorItemHealthRepository collectorItemHealthRepository) {
         super(taskScheduler, "Sonar");
         this.sonarCollectorRepository = sonarCollectorRepository;
         this.sonarProjectRepository = sonarProjectRepository;
@@ -51,6 +57,8 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
         this.sonarSettings = sonarSettings;
         this.sonarClient = sonarClient;
         this.dbComponentRepository = dbComponentRepository;
+        this.dailyStatsBackfill = dailyStatsBackfill;
+        this.collectorItemHealthRepository = collectorItemHealthRepository;
     }
 
     @Override
@@ -70,6 +78,8 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
 
     @Override
     public void collect(SonarCollector collector) {
+        dailyStatsBackfill.backfill(CollectorType.CodeQuality, collector.getId());
+
         long start = System.currentTimeMillis();
 
 		// Clean up every hour
@@ -134,19 +144,28 @@ public class SonarCollectorTask extends CollectorTask<SonarCollector> {
         int count = 0;
 
         for (SonarProject project : sonarProjects) {
+            long fetchStart = System.currentTimeMillis();
             CodeQuality codeQuality = sonarClient.currentCodeQuality(project);
-            if (codeQuality != null && isNewQualityData(project, codeQuality)) {
+            long fetchMillis = System.currentTimeMillis() - fetchStart;
+            if (codeQuality == null) {
+                collectorItemHealthRepository.recordFailure(project, fetchMillis, "Could not read the latest analysis");
+                continue;
+            }
+            int newData = 0;
+            if (isNewQualityData(project, codeQuality)) {
                 codeQuality.setCollectorItemId(project.getId());
                 codeQualityRepository.save(codeQuality);
+                newData = 1;
                 count++;
             }
+            collectorItemHealthRepository.recordSuccess(project, fetchMillis, newData);
         }
 
         log("Updated", start, count);
     }
 
     private List<SonarProject> enabledProjects(SonarCollector collector, String instanceUrl) {
-        return sonarProjectRepository.findEnabledProjects(collector.getId(), instanceUrl);
+        return dueItems(sonarProjectRepository.findEnabledProjects(collector.getId(), instanceUrl));
     }
 
     private void addNewProjects(List<SonarProject> projects, SonarCollector collector) {
@@ -6,8 +6,10 @@ import com.capitalone.dashboard.model.CollectorType;
 import com.capitalone.dashboard.model.Commit;
 import com.capitalone.dashboard.model.SubversionRepo;
 import com.capitalone.dashboard.repository.BaseCollectorRepository;
+import com.capitalone.dashboard.repository.CollectorItemHealthRepository;
 import com.capitalone.dashboard.repository.CommitRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
+import com.capitalone.dashboard.repository.DailyStatsBackfill;
 import com.capitalone.dashboard.repository.SubversionRepoRepository;
 
 import org.apache.commons.lang3.StringUtils;
@@ -39,6 +41,8 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
     private final SubversionClient subversionClient;
     private final SubversionSettings subversionSettings;
     private final ComponentRepository dbComponentRepository;
+    private final DailyStatsBackfill dailyStatsBackfill;
+    private final CollectorItemHealthRepository collectorItemHealthRepository;
 
     @Autowired
     public SubversionCollectorTask(TaskScheduler taskScheduler,
@@ -47,7 +51,9 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
                                    CommitRepository commitRepository,
                                    ComponentRepository dbComponentRepository,
                                    SubversionClient subversionClient,
-                                   SubversionSettings subversionSettings) {
+                                   SubversionSettings subversionSettings,
+                                   DailyStatsBackfill dailyStatsBackfill,
+                                   CollectorItemHealthRepository collectorItemHealthRepository) {
         super(taskScheduler, "Subversion");
         this.collectorRepository = collectorRepository;
         this.subversionRepoRepository = subversionRepoRepository;
@@ -55,6 +61,8 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
         this.subversionClient = subversionClient;
         this.subversionSettings = subversionSettings;
         this.dbComponentRepository = dbComponentRepository;
+        this.dailyStatsBackfill = dailyStatsBackfill;
+        this.collectorItemHealthRepository = collectorItemHealthRepository;
     }
 
     @Override
@@ -112,6 +120,7 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
 
     @Override
     public void collect(Collector collector) {
+        dailyStatsBackfill.backfill(CollectorType.SCM, collector.getId());
 
         logBanner("Starting...");
         long start = System.currentTimeMillis();
@@ -120,11 +129,22 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
 
         clean(collector);
         for (SubversionRepo repo : enabledRepos(collector)) {
-            for (Commit commit : subversionClient.getCommits(repo, startRevision(repo))) {
+            long fetchStart = System.currentTimeMillis();
+            List<Commit> commits;
+            try {
+                commits = subversionClient.getCommits(repo, startRevision(repo));
+            } catch (RuntimeException e) {
+                LOG.error("Failed to fetch commits for " + repo.getUrl(), e);
+                collectorItemHealthRepository.recordFailure(repo, System.currentTimeMillis() - fetchStart, e.getMessage());
+                continue;
+            }
+            long fetchMillis = System.currentTimeMillis() - fetchStart;
+            int newCommits = 0;
+            for (Commit commit : commits) {
                 if (isNewCommit(repo, commit)) {
                     commit.setCollectorItemId(repo.getId());
                     commitRepository.save(commit);
-                    commitCount++;
+                    newCommits++;
 
                     long revisionNumber = Long.valueOf(commit.getScmRevisionNumber());
                     if (revisionNumber > repo.getLatestRevision()) {
@@ -136,6 +156,8 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
                 subversionRepoRepository.save(repo);
 
             }
+            collectorItemHealthRepository.recordSuccess(repo, fetchMillis, newCommits);
+            commitCount += newCommits;
             repoCount++;
         }
         log("Repo Count", start, repoCount);
@@ -150,7 +172,7 @@ public class SubversionCollectorTask extends CollectorTask<Collector> {
     }
 
     private List<SubversionRepo> enabledRepos(Collector collector) {
-        return subversionRepoRepository.findEnabledSubversionRepos(collector.getId());
+        return dueItems(subversionRepoRepository.findEnabledSubversionRepos(collector.getId()));
     }
 
     private boolean isNewCommit(SubversionRepo repo, Commit commit) {
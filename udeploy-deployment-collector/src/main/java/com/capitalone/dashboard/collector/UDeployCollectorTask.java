@@ -12,6 +12,7 @@ import com.capitalone.dashboard.repository.BaseCollectorRepository;
 import com.capitalone.dashboard.repository.ComponentRepository;
 import com.capitalone.dashboard.repository.EnvironmentComponentRepository;
 import com.capitalone.dashboard.repository.EnvironmentStatusRepository;
+import com.capitalone.dashboard.repository.LeadTimeIndex;
 import com.capitalone.dashboard.repository.UDeployApplicationRepository;
 import com.capitalone.dashboard.repository.UDeployCollectorRepository;
 import com.google.common.base.Predicate;
@@ -47,6 +48,7 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
 	private final EnvironmentStatusRepository environmentStatusRepository;
 
 	private final ComponentRepository dbComponentRepository;
+	private final LeadTimeIndex leadTimeIndex;
 
 	@Autowired
 	public UDeployCollectorTask(TaskScheduler taskScheduler,
@@ -55,7 +57,8 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
 			EnvironmentComponentRepository envComponentRepository,
 			EnvironmentStatusRepository environmentStatusRepository,
 			UDeploySettings uDeploySettings, UDeployClient uDeployClient,
-			ComponentRepository dbComponentRepository) {
+			ComponentRepository dbComponentRepository,
+			LeadTimeIndex leadTimeIndex) {
 		super(taskScheduler, "UDeploy");
 		this.uDeployCollectorRepository = uDeployCollectorRepository;
 		this.uDeployApplicationRepository = uDeployApplicationRepository;
@@ -64,6 +67,7 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
 		this.envComponentRepository = envComponentRepository;
 		this.environmentStatusRepository = environmentStatusRepository;
 		this.dbComponentRepository = dbComponentRepository;
+		this.leadTimeIndex = leadTimeIndex;
 	}
 
 	@Override
@@ -83,6 +87,8 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
 
 	@Override
 	public void collect(UDeployCollector collector) {
+		leadTimeIndex.backfill(CollectorType.Deployment, collector.getId());
+
 		for (String instanceUrl : collector.getUdeployServers()) {
 
 			logInstanceBanner(instanceUrl);
@@ -222,8 +228,8 @@ public class UDeployCollectorTask extends CollectorTask<UDeployCollector> {
 
 	private List<UDeployApplication> enabledApplications(
 			UDeployCollector collector, String instanceUrl) {
-		return uDeployApplicationRepository.findEnabledApplications(
-				collector.getId(), instanceUrl);
+		return dueItems(uDeployApplicationRepository.findEnabledApplications(
+				collector.getId(), instanceUrl));
 	}
 
 	/**
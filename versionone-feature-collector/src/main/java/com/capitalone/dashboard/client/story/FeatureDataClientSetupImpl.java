@@ -5,6 +5,7 @@ import com.capitalone.dashboard.datafactory.versionone.VersionOneDataFactoryImpl
 import com.capitalone.dashboard.model.Feature;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.FeatureRepository;
+import com.capitalone.dashboard.repository.FeatureStorage;
 import com.capitalone.dashboard.util.DateUtil;
 import com.capitalone.dashboard.util.FeatureSettings;
 import org.apache.commons.logging.Log;
@@ -195,8 +196,8 @@ public abstract class FeatureDataClientSetupImpl implements DataClientSetup {
 		try {
 			response = featureRepo
 					.getFeatureMaxChangeDate(featureCollectorRepository
-							.findByName("VersionOne").getId(), featureSettings
-							.getDeltaStartDate());
+							.findByName("VersionOne").getId(), FeatureStorage
+							.parseDate(featureSettings.getDeltaStartDate()));
 			if (response.size() > 0) {
 				data = response.get(0).getChangeDate();
 			}
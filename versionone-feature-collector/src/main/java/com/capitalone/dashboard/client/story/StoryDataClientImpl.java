@@ -2,6 +2,7 @@ package com.capitalone.dashboard.client.story;
 
 import com.capitalone.dashboard.datafactory.versionone.VersionOneDataFactoryImpl;
 import com.capitalone.dashboard.model.Feature;
+import com.capitalone.dashboard.model.FeatureStatus;
 import com.capitalone.dashboard.repository.FeatureCollectorRepository;
 import com.capitalone.dashboard.repository.FeatureRepository;
 import com.capitalone.dashboard.util.ClientUtil;
@@ -13,7 +14,9 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This is the primary implemented/extended data collector for the feature
@@ -33,6 +36,7 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 	private final FeatureCollectorRepository featureCollectorRepository;
 	private final FeatureRepository featureRepo;
 	private final ClientUtil tools;
+	private final Set<String> updatedTeamIds = new HashSet<String>();
 
 	/**
 	 * Extends the constructor from the super class.
@@ -107,6 +111,10 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 				feature.setsState(tools.sanitizeResponse((String) dataMainObj
 						.get("AssetState")));
 
+				// status
+				feature.setStatus(FeatureStatus.fromSourceStatus(feature
+						.getsStatus()));
+
 				// sSoftwareTesting
 				try {
 					if ((String) dataMainObj.get("Custom_SoftwareTesting.Name") != null) {
@@ -123,6 +131,7 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 				// sEstimate
 				feature.setsEstimate(tools
 						.sanitizeResponse((String) dataMainObj.get("Estimate")));
+				feature.setEstimate(Feature.parseEstimate(feature.getsEstimate()));
 
 				// sChangeDate
 				feature.setChangeDate(tools.toCanonicalDate(tools
@@ -351,6 +360,7 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 
 				try {
 					featureRepo.save(feature);
+					updatedTeamIds.add(feature.getsTeamID());
 				} catch (Exception e) {
 					logger.error("Unexpected error caused when attempting to save data\nCaused by: "
 							+ e.getCause());
@@ -380,6 +390,16 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 
 	}
 
+	/**
+	 * Accessor for the teams whose stories were written or replaced since this
+	 * client was constructed, so that their sprint rollups can be refreshed.
+	 *
+	 * @return The source system IDs of the updated teams
+	 */
+	public Set<String> getUpdatedTeamIds() {
+		return updatedTeamIds;
+	}
+
 	/**
 	 * Validates current entry and removes new entry if an older item exists in
 	 * the repo
@@ -393,6 +413,9 @@ public class StoryDataClientImpl extends FeatureDataClientSetupImpl implements
 		try {
 			List<Feature> listOfFeature = featureRepo.getFeatureIdById(localId);
 			for (Feature f : listOfFeature) {
+				if (f.getsTeamID() != null) {
+					updatedTeamIds.add(f.getsTeamID());
+				}
 				featureRepo.delete(f.getId());
 				deleted = true;
 				logger.debug("Removed existing entities that will be replaced by newer instances");
@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,6 +31,10 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 	private final TeamRepository teamRepository;
 	private final ProjectRepository projectRepository;
 	private final FeatureCollectorRepository featureCollectorRepository;
+	private final SprintEstimateRepository sprintEstimateRepository;
+	private final CurrentSprintRepository currentSprintRepository;
+	private final FeatureStorageMigration featureStorageMigration;
+	private final SprintEstimateBackfill sprintEstimateBackfill;
 	private final FeatureSettings featureSettings;
 	private final VersionOneDataFactoryImpl v1Connection;
 
@@ -42,6 +47,18 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 	 *            A task scheduler artifact
 	 * @param teamRepository
 	 *            The repository being use for feature collection
+	 * @param sprintEstimateRepository
+	 *            The repository of sprint estimate rollups, refreshed for
+	 *            every team whose stories were collected
+	 * @param currentSprintRepository
+	 *            The table of each team's current sprint, recomputed after
+	 *            every collection
+	 * @param featureStorageMigration
+	 *            Compacts features stored by earlier versions before the first
+	 *            collection
+	 * @param sprintEstimateBackfill
+	 *            Rolls up the teams of features stored by earlier versions
+	 *            before the first collection
 	 * @param featureSettings
 	 *            The settings being used for feature collection from the source
 	 *            system
@@ -52,12 +69,20 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 			FeatureRepository featureRepository, TeamRepository teamRepository,
 			ProjectRepository projectRepository,
 			FeatureCollectorRepository featureCollectorRepository,
+			SprintEstimateRepository sprintEstimateRepository,
+			CurrentSprintRepository currentSprintRepository,
+			FeatureStorageMigration featureStorageMigration,
+			SprintEstimateBackfill sprintEstimateBackfill,
 			FeatureSettings featureSettings,VersionOneDataFactoryImpl v1Connection) {
 		super(taskScheduler, "VersionOne");
 		this.featureCollectorRepository = featureCollectorRepository;
 		this.teamRepository = teamRepository;
 		this.projectRepository = projectRepository;
 		this.featureRepository = featureRepository;
+		this.sprintEstimateRepository = sprintEstimateRepository;
+		this.currentSprintRepository = currentSprintRepository;
+		this.featureStorageMigration = featureStorageMigration;
+		this.sprintEstimateBackfill = sprintEstimateBackfill;
 		this.featureSettings = featureSettings;
 
 		this.v1Connection = connectToPersistentClient();
@@ -95,6 +120,8 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 	@Override
 	public void collect(FeatureCollector collector) {
 		logger.info("Starting Feature collection...");
+		this.featureStorageMigration.migrate(collector.getId());
+		this.sprintEstimateBackfill.backfill(collector.getId());
 
 		TeamDataClientImpl teamData = new TeamDataClientImpl(
 				this.featureCollectorRepository, this.featureSettings,
@@ -111,6 +138,13 @@ public class FeatureCollectorTask extends CollectorTask<FeatureCollector> {
 				this.featureCollectorRepository, this.v1Connection);
 		storyData.updateStoryInformation();
 
+		for (String teamId : storyData.getUpdatedTeamIds()) {
+			if (teamId != null) {
+				this.sprintEstimateRepository.refresh(teamId);
+			}
+		}
+		this.currentSprintRepository.refresh(new Date());
+
 		logger.info("Feature Data Collection Finished");
 	}
 